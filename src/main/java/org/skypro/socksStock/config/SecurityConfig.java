@@ -1,7 +1,12 @@
 package org.skypro.socksStock.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.security.ApiKeyAuthenticationFilter;
+import org.skypro.socksStock.security.ConfigurablePasswordEncoder;
 import org.skypro.socksStock.security.JwtAuthenticationFilter;
+import org.skypro.socksStock.security.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,7 +17,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -28,6 +32,23 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    @Value("${app.security.password.algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.argon2.memory-kb:19456}")
+    private int argon2MemoryKb;
+
+    @Value("${app.security.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
 
     /**
      * Настраивает цепочку фильтров безопасности для HTTP-запросов.
@@ -45,6 +66,9 @@ public class SecurityConfig {
                                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
 
+                        // Асинхронная диспетчеризация SSE-потоков, уже прошедших авторизацию
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Публичные эндпоинты для SpringDoc/Swagger
                         .requestMatchers(
                                 "/swagger-ui/**",
@@ -60,9 +84,14 @@ public class SecurityConfig {
                         // Публичные эндпоинты
                         .requestMatchers("/api/auth/login").permitAll()
                         .requestMatchers("/api/auth/register").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
 
                         // Эндпоинты для аутентифицированных пользователей
                         .requestMatchers(HttpMethod.GET, "/api/socks").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/socks/list").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/socks/rollups").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/socks/top/**").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/socks/stream").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/socks/income").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/socks/outcome").authenticated()
 
@@ -72,27 +101,33 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/admin/users/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/auth/register-admin").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/auth/register-moderator").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/auth/revoke").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/admin/users/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/socks/delete").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
 
                         // Все остальные запросы требуют аутентификации
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(apiKeyAuthenticationFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, ApiKeyAuthenticationFilter.class);
 
         return http.build();
     }
 
     /**
      * Создает бин кодировщика паролей.
-     * Используется алгоритм BCrypt для безопасного хеширования паролей.
+     * Алгоритм и стоимость хеширования задаются свойствами app.security.password.*; хеши,
+     * созданные с другими настройками, пересчитываются при следующем успешном входе пользователя.
      *
-     * @return экземпляр BCryptPasswordEncoder
+     * @return экземпляр ConfigurablePasswordEncoder
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new ConfigurablePasswordEncoder(passwordAlgorithm, bcryptStrength,
+                argon2MemoryKb, argon2Iterations, argon2Parallelism);
     }
 
     /**
@@ -0,0 +1,55 @@
+package org.skypro.socksStock.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.model.dto.request.ApiKeyRequest;
+import org.skypro.socksStock.model.dto.response.ApiKeyResponse;
+import org.skypro.socksStock.security.ApiKeyService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер для административного управления API-ключами сервисных учетных записей.
+ */
+@RestController
+@RequestMapping("/api/admin/api-keys")
+@RequiredArgsConstructor
+public class ApiKeyAdminController {
+
+    private final ApiKeyService apiKeyService;
+
+    /**
+     * Выдает API-ключ для учетной записи. Ключ возвращается только в этом ответе.
+     *
+     * @param request идентификатор учетной записи и название ключа
+     * @return ResponseEntity с данными ключа и самим ключом
+     */
+    @PostMapping
+    public ResponseEntity<ApiKeyResponse> issueApiKey(@RequestBody ApiKeyRequest request) {
+        return ResponseEntity.ok(apiKeyService.issue(request.userId(), request.name()));
+    }
+
+    /**
+     * Возвращает выданные API-ключи без самих ключей.
+     *
+     * @return ResponseEntity со списком API-ключей
+     */
+    @GetMapping
+    public ResponseEntity<List<ApiKeyResponse>> getApiKeys() {
+        return ResponseEntity.ok(apiKeyService.getAll());
+    }
+
+    /**
+     * Отзывает API-ключ.
+     *
+     * @param id идентификатор ключа
+     * @return ResponseEntity со статусом 204 или 404, если ключ не найден
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> revokeApiKey(@PathVariable Long id) {
+        return apiKeyService.revoke(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,10 +1,13 @@
 package org.skypro.socksStock.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.skypro.socksStock.model.dto.request.LoginRequest;
+import org.skypro.socksStock.model.dto.request.RefreshTokenRequest;
 import org.skypro.socksStock.model.dto.response.AuthResponse;
 import org.skypro.socksStock.model.entity.Role;
 import org.skypro.socksStock.service.AuthService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,18 +19,23 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthService authService;
 
     /**
      * Аутентифицирует пользователя в системе.
      * Проверяет учетные данные и возвращает JWT-токен при успешной аутентификации.
+     * Частота попыток ограничена по имени пользователя и адресу клиента.
      *
      * @param loginRequest объект запроса, содержащий имя пользователя и пароль
+     * @param request      HTTP-запрос, из которого берется адрес клиента
      * @return ResponseEntity с объектом AuthResponse, содержащим JWT-токен
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> authenticateUser(@RequestBody LoginRequest loginRequest) {
-        AuthResponse response = authService.authenticateUser(loginRequest);
+    public ResponseEntity<AuthResponse> authenticateUser(@RequestBody LoginRequest loginRequest,
+                                                         HttpServletRequest request) {
+        AuthResponse response = authService.authenticateUser(loginRequest, request.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
@@ -62,4 +70,49 @@ public class AuthController {
         AuthResponse response = authService.registerUser(username, password, Role.ROLE_ADMIN);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Продлевает сеанс по refresh-токену без проверки пароля.
+     * Возвращает новый JWT-токен и новый refresh-токен; использованный refresh-токен погашается.
+     *
+     * @param request объект запроса, содержащий refresh-токен
+     * @return ResponseEntity с объектом AuthResponse, содержащим новые токены
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refreshToken(@RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refreshToken(request.refreshToken()));
+    }
+
+    /**
+     * Завершает сеанс пользователя, отзывая JWT-токен, с которым выполнен запрос,
+     * и, если передан в теле запроса, refresh-токен.
+     *
+     * @param authorization заголовок Authorization с JWT-токеном
+     * @param request       объект запроса, содержащий refresh-токен сеанса (необязательно)
+     * @return ResponseEntity со статусом 204
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        authService.revokeToken(authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : authorization);
+        if (request != null && request.refreshToken() != null) {
+            authService.revokeRefreshToken(request.refreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Принудительно отзывает JWT-токен пользователя. Доступно только администраторам.
+     *
+     * @param token отзываемый JWT-токен
+     * @return ResponseEntity со статусом 204 или 400, если токен невалиден или не может быть отозван
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeToken(@RequestParam String token) {
+        return authService.revokeToken(token)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.badRequest().build();
+    }
 }
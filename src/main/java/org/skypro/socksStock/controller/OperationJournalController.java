@@ -0,0 +1,39 @@
+package org.skypro.socksStock.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.model.dto.response.OperationJournalEntryDTO;
+import org.skypro.socksStock.service.OperationJournalService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Контроллер для чтения бинарного журнала операций склада.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.socks.journal.enabled", havingValue = "true")
+public class OperationJournalController {
+
+    private final OperationJournalService operationJournalService;
+
+    /**
+     * Возвращает операции склада за интервал времени в порядке их выполнения.
+     *
+     * @param from  момент начала (включительно)
+     * @param to    момент окончания (не включительно)
+     * @param limit максимальное количество записей
+     * @return ResponseEntity со списком записей журнала
+     */
+    @GetMapping("/journal")
+    public ResponseEntity<List<OperationJournalEntryDTO>> getOperations(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(operationJournalService.getOperations(from, to, limit));
+    }
+}
@@ -3,10 +3,18 @@ package org.skypro.socksStock.controller;
 import lombok.RequiredArgsConstructor;
 import org.skypro.socksStock.model.dto.request.Operation;
 import org.skypro.socksStock.model.dto.request.SocksRequestDTO;
+import org.skypro.socksStock.exception.EmptyDataException;
 import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
 import org.skypro.socksStock.service.SocksStockService;
+import org.skypro.socksStock.service.StockHistoryService;
+import org.skypro.socksStock.service.StockStreamService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Контроллер для управления складом носков.
@@ -17,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 public class SocksStockController {
 
     private final SocksStockService socksStockService;
+    private final StockStreamService stockStreamService;
+    private final StockHistoryService stockHistoryService;
 
     /**
      * Обрабатывает приход носков на склад.
@@ -46,10 +56,13 @@ public class SocksStockController {
 
     /**
      * Возвращает общее количество носков на складе, соответствующих критериям поиска.
+     * Если указан момент времени, количество восстанавливается по истории движений.
      *
      * @param color      цвет носков для фильтрации
      * @param operation  операция сравнения (moreThan, lessThan, equal)
      * @param cottonPart процент содержания хлопка для сравнения
+     * @param asOf       необязательный момент времени в формате ISO-8601
+     * @param warehouse  необязательный склад; без него количество считается по всем складам
      * @return общее количество носков, соответствующих критериям
      */
     @GetMapping
@@ -57,10 +70,49 @@ public class SocksStockController {
     public Integer getQuantity(
             @RequestParam String color,
             @RequestParam Operation operation,
-            @RequestParam Integer cottonPart) {
+            @RequestParam Integer cottonPart,
+            @RequestParam(required = false) Instant asOf,
+            @RequestParam(required = false) String warehouse) {
+        if (asOf != null) {
+            if (warehouse != null) {
+                throw new EmptyDataException("AsOf queries cover all warehouses.", HttpStatus.BAD_REQUEST);
+            }
+            return stockHistoryService.getQuantityAsOf(color, operation, cottonPart, asOf);
+        }
+        if (warehouse != null) {
+            return socksStockService.getQuantity(warehouse, color, operation, cottonPart);
+        }
         return socksStockService.getQuantity(color, operation, cottonPart);
     }
 
+    /**
+     * Возвращает остатки всех позиций склада.
+     * Если указан момент времени, остатки восстанавливаются по истории движений.
+     *
+     * @param asOf необязательный момент времени в формате ISO-8601
+     * @return список позиций с ненулевым остатком
+     */
+    @GetMapping("/list")
+    @ResponseStatus(HttpStatus.OK)
+    public List<SocksResponseDTO> getAllSocks(@RequestParam(required = false) Instant asOf) {
+        if (asOf != null) {
+            return stockHistoryService.getStockAsOf(asOf);
+        }
+        return socksStockService.getAllSocks();
+    }
+
+    /**
+     * Открывает поток Server-Sent Events с изменениями остатков указанных цветов.
+     * Событие отправляется после каждого зафиксированного прихода или расхода.
+     *
+     * @param colors список цветов носков для подписки
+     * @return SSE-канал с событиями изменения остатков
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStock(@RequestParam List<String> colors) {
+        return stockStreamService.subscribe(colors);
+    }
+
     /**
      * Удаляет все записи о носках из системы.
      */
@@ -1,6 +1,7 @@
 package org.skypro.socksStock.controller;
 
 import org.skypro.socksStock.exception.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
@@ -49,6 +50,72 @@ public class SocksStockControllerAdvice {
         return new ResponseEntity<>(e.getMessage(), e.getStatus());
     }
 
+    /**
+     * Обрабатывает исключение StockThresholdNotFoundException.
+     * Возникает при попытке изменить порог низкого остатка, который не найден в системе.
+     *
+     * @param e перехваченное исключение StockThresholdNotFoundException
+     * @return ResponseEntity с сообщением об ошибке и статусом из исключения
+     */
+    @ExceptionHandler(StockThresholdNotFoundException.class)
+    public ResponseEntity<String> handleStockThresholdNotFoundException(StockThresholdNotFoundException e) {
+        return new ResponseEntity<>(e.getMessage(), e.getStatus());
+    }
+
+    /**
+     * Обрабатывает исключение AuthenticationOverloadedException.
+     * Возникает, если очередь хеширования паролей переполнена во время всплеска входов.
+     *
+     * @param e перехваченное исключение AuthenticationOverloadedException
+     * @return ResponseEntity со статусом из исключения и заголовком Retry-After
+     */
+    @ExceptionHandler(AuthenticationOverloadedException.class)
+    public ResponseEntity<String> handleAuthenticationOverloadedException(AuthenticationOverloadedException e) {
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    /**
+     * Обрабатывает исключение StockBusyException.
+     * Возникает, если блокировка позиции склада не получена за допустимое время ожидания.
+     *
+     * @param e перехваченное исключение StockBusyException
+     * @return ResponseEntity со статусом из исключения и заголовком Retry-After
+     */
+    @ExceptionHandler(StockBusyException.class)
+    public ResponseEntity<String> handleStockBusyException(StockBusyException e) {
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    /**
+     * Обрабатывает исключение LoginThrottledException.
+     * Возникает, если для имени пользователя или адреса клиента исчерпан лимит попыток входа.
+     *
+     * @param e перехваченное исключение LoginThrottledException
+     * @return ResponseEntity со статусом из исключения и заголовком Retry-After
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<String> handleLoginThrottledException(LoginThrottledException e) {
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    /**
+     * Обрабатывает исключение InvalidRefreshTokenException.
+     * Возникает при продлении сеанса неизвестным, истекшим или уже использованным refresh-токеном.
+     *
+     * @param e перехваченное исключение InvalidRefreshTokenException
+     * @return ResponseEntity с сообщением об ошибке и статусом из исключения
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<String> handleInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        return new ResponseEntity<>(e.getMessage(), e.getStatus());
+    }
+
     /**
      * Обрабатывает исключение InvalidPasswordException.
      * Возникает при указании некорректного пароля (например, несоответствие требованиям безопасности).
@@ -0,0 +1,68 @@
+package org.skypro.socksStock.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.model.dto.request.StockThresholdRequestDTO;
+import org.skypro.socksStock.model.dto.response.StockAlertResponseDTO;
+import org.skypro.socksStock.model.dto.response.StockThresholdResponseDTO;
+import org.skypro.socksStock.service.StockAlertService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер для административного управления порогами низкого остатка и просмотра уведомлений.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class StockAlertController {
+
+    private final StockAlertService stockAlertService;
+
+    /**
+     * Возвращает все настроенные пороги низкого остатка.
+     *
+     * @return ResponseEntity со списком порогов
+     */
+    @GetMapping("/thresholds")
+    public ResponseEntity<List<StockThresholdResponseDTO>> getThresholds() {
+        return ResponseEntity.ok(stockAlertService.getThresholds());
+    }
+
+    /**
+     * Создает или обновляет порог низкого остатка.
+     * Без указания процента хлопка порог применяется ко всем позициям цвета.
+     *
+     * @param request DTO с цветом, необязательным процентом хлопка и значением порога
+     * @return ResponseEntity с сохраненным порогом
+     */
+    @PutMapping("/thresholds")
+    public ResponseEntity<StockThresholdResponseDTO> saveThreshold(@RequestBody StockThresholdRequestDTO request) {
+        return ResponseEntity.ok(stockAlertService.saveThreshold(request));
+    }
+
+    /**
+     * Удаляет порог низкого остатка.
+     *
+     * @param id идентификатор порога
+     * @return ResponseEntity со статусом 200 OK при успешном удалении
+     */
+    @DeleteMapping("/thresholds/{id}")
+    public ResponseEntity<Void> deleteThreshold(@PathVariable Long id) {
+        stockAlertService.deleteThreshold(id);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Возвращает последние уведомления о низком остатке.
+     *
+     * @param limit максимальное количество уведомлений
+     * @return ResponseEntity со списком уведомлений, начиная с самого нового
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<List<StockAlertResponseDTO>> getRecentAlerts(
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(stockAlertService.getRecentAlerts(limit));
+    }
+}
@@ -0,0 +1,52 @@
+package org.skypro.socksStock.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.model.dto.request.RankingOrder;
+import org.skypro.socksStock.model.dto.response.ColorStockDTO;
+import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
+import org.skypro.socksStock.service.StockRankingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер рейтингов цветов и позиций по остатку на складе.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/socks/top")
+public class StockRankingController {
+
+    private final StockRankingService stockRankingService;
+
+    /**
+     * Возвращает цвета с наибольшим или наименьшим суммарным остатком.
+     *
+     * @param limit количество цветов
+     * @param order направление рейтинга (most или least)
+     * @return список цветов в порядке рейтинга
+     */
+    @GetMapping("/colors")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ColorStockDTO> getTopColors(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "most") RankingOrder order) {
+        return stockRankingService.getTopColors(limit, order);
+    }
+
+    /**
+     * Возвращает позиции с наибольшим или наименьшим остатком.
+     *
+     * @param limit количество позиций
+     * @param order направление рейтинга (most или least)
+     * @return список позиций в порядке рейтинга
+     */
+    @GetMapping("/skus")
+    @ResponseStatus(HttpStatus.OK)
+    public List<SocksResponseDTO> getTopSkus(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "most") RankingOrder order) {
+        return stockRankingService.getTopSkus(limit, order);
+    }
+}
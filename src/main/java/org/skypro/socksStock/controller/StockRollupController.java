@@ -0,0 +1,43 @@
+package org.skypro.socksStock.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.model.dto.response.StockRollupDTO;
+import org.skypro.socksStock.model.entity.RollupGranularity;
+import org.skypro.socksStock.service.StockRollupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Контроллер отчетов по приходу и расходу носков за период.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/socks/rollups")
+public class StockRollupController {
+
+    private final StockRollupService stockRollupService;
+
+    /**
+     * Возвращает приход и расход по часам или по суткам за период.
+     *
+     * @param color       цвет носков
+     * @param cottonPart  необязательный процент содержания хлопка (без него возвращается итог по цвету)
+     * @param granularity размер интервала (HOUR или DAY)
+     * @param from        начало периода в формате ISO-8601
+     * @param to          конец периода (исключающий) в формате ISO-8601
+     * @return список интервалов с приходом и расходом
+     */
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public List<StockRollupDTO> getRollups(
+            @RequestParam String color,
+            @RequestParam(required = false) Integer cottonPart,
+            @RequestParam RollupGranularity granularity,
+            @RequestParam Instant from,
+            @RequestParam Instant to) {
+        return stockRollupService.getRollups(color, cottonPart, granularity, from, to);
+    }
+}
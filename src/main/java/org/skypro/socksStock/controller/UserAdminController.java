@@ -1,7 +1,13 @@
 package org.skypro.socksStock.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.skypro.socksStock.model.entity.AppUser;
+import org.skypro.socksStock.model.dto.request.BulkRoleChangeRequest;
+import org.skypro.socksStock.model.dto.request.BulkUserRequest;
+import org.skypro.socksStock.model.dto.response.BulkUserResult;
+import org.skypro.socksStock.model.dto.response.UserPage;
+import org.skypro.socksStock.model.dto.response.UserResponseDTO;
+import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.service.UserProvisioningService;
 import org.skypro.socksStock.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,15 +23,34 @@ import java.util.List;
 public class UserAdminController {
 
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
 
     /**
-     * Возвращает список всех зарегистрированных пользователей системы.
+     * Заголовок с курсором следующей страницы списка пользователей.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Возвращает страницу зарегистрированных пользователей в порядке возрастания идентификатора.
+     * Если есть следующая страница, ее курсор передается в заголовке X-Next-Cursor
+     * и указывается в параметре after следующего запроса.
      *
-     * @return ResponseEntity со списком всех пользователей
+     * @param after идентификатор последнего пользователя предыдущей страницы (необязательно)
+     * @param role  роль пользователей для фильтрации (необязательно)
+     * @param limit размер страницы (от 1 до 1000)
+     * @return ResponseEntity со списком пользователей страницы
      */
     @GetMapping
-    public ResponseEntity<List<AppUser>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<UserResponseDTO>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Role role,
+            @RequestParam(defaultValue = "100") int limit) {
+        UserPage page = userService.getUsersPage(after, role, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.users());
     }
 
     /**
@@ -35,7 +60,7 @@ public class UserAdminController {
      * @return ResponseEntity с найденным пользователем или 404 если пользователь не найден
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AppUser> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -48,7 +73,7 @@ public class UserAdminController {
      * @return ResponseEntity с найденным пользователем или 404 если пользователь не найден
      */
     @GetMapping("/username/{username}")
-    public ResponseEntity<AppUser> getUserByUsername(@PathVariable String username) {
+    public ResponseEntity<UserResponseDTO> getUserByUsername(@PathVariable String username) {
         return userService.getUserByUsername(username)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -69,4 +94,26 @@ public class UserAdminController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Массово создает пользователей. Пароли хешируются параллельно, строки записываются пакетами.
+     *
+     * @param requests строки с именем, паролем и ролью пользователя
+     * @return ResponseEntity с результатом по каждой строке
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkUserResult>> createUsers(@RequestBody List<BulkUserRequest> requests) {
+        return ResponseEntity.ok(userProvisioningService.createUsers(requests));
+    }
+
+    /**
+     * Массово меняет роли пользователей.
+     *
+     * @param requests строки с именем пользователя и новой ролью
+     * @return ResponseEntity с результатом по каждой строке
+     */
+    @PutMapping("/bulk/roles")
+    public ResponseEntity<List<BulkUserResult>> updateRoles(@RequestBody List<BulkRoleChangeRequest> requests) {
+        return ResponseEntity.ok(userProvisioningService.updateRoles(requests));
+    }
+}
@@ -0,0 +1,28 @@
+package org.skypro.socksStock.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение, выбрасываемое, если очередь хеширования паролей переполнена и вход или регистрация
+ * не могут быть выполнены сейчас.
+ */
+@Getter
+public class AuthenticationOverloadedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает новое исключение с указанным сообщением, HTTP-статусом и рекомендуемой паузой.
+     *
+     * @param message           детальное сообщение об ошибке, описывающее причину исключения
+     * @param status            HTTP-статус, который должен быть возвращен клиенту
+     * @param retryAfterSeconds через сколько секунд клиенту следует повторить запрос
+     */
+    public AuthenticationOverloadedException(String message, HttpStatus status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
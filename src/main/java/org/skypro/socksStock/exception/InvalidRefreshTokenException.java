@@ -0,0 +1,25 @@
+package org.skypro.socksStock.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение, выбрасываемое при попытке продлить сеанс неизвестным, истекшим или уже использованным
+ * refresh-токеном.
+ */
+@Getter
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    /**
+     * Создает новое исключение с указанным сообщением и HTTP-статусом.
+     *
+     * @param message детальное сообщение об ошибке, описывающее причину исключения
+     * @param status  HTTP-статус, который должен быть возвращен клиенту
+     */
+    public InvalidRefreshTokenException(String message, HttpStatus status) {
+        super(message);
+        this.status = status;
+    }
+}
@@ -0,0 +1,27 @@
+package org.skypro.socksStock.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение, выбрасываемое, если для имени пользователя или адреса клиента исчерпан лимит попыток входа.
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает новое исключение с указанным сообщением, HTTP-статусом и рекомендуемой паузой.
+     *
+     * @param message           детальное сообщение об ошибке, описывающее причину исключения
+     * @param status            HTTP-статус, который должен быть возвращен клиенту
+     * @param retryAfterSeconds через сколько секунд клиенту следует повторить запрос
+     */
+    public LoginThrottledException(String message, HttpStatus status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
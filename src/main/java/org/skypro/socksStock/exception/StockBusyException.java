@@ -0,0 +1,28 @@
+package org.skypro.socksStock.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение, выбрасываемое, если позицию склада дольше допустимого удерживает другая операция
+ * и изменение остатка не может быть выполнено сейчас.
+ */
+@Getter
+public class StockBusyException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает новое исключение с указанным сообщением, HTTP-статусом и рекомендуемой паузой.
+     *
+     * @param message           детальное сообщение об ошибке, описывающее причину исключения
+     * @param status            HTTP-статус, который должен быть возвращен клиенту
+     * @param retryAfterSeconds через сколько секунд клиенту следует повторить запрос
+     */
+    public StockBusyException(String message, HttpStatus status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
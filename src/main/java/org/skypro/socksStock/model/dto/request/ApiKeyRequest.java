@@ -0,0 +1,11 @@
+package org.skypro.socksStock.model.dto.request;
+
+
+/**
+ * DTO для запроса выдачи API-ключа.
+ *
+ * @param userId идентификатор сервисной учетной записи, от имени которой действует ключ
+ * @param name   название ключа (например, имя интеграции)
+ */
+public record ApiKeyRequest(Long userId, String name) {
+}
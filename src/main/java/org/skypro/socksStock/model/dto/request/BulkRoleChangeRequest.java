@@ -0,0 +1,12 @@
+package org.skypro.socksStock.model.dto.request;
+
+import org.skypro.socksStock.model.entity.Role;
+
+/**
+ * DTO строки массовой смены ролей пользователей.
+ *
+ * @param username имя пользователя
+ * @param role     новая роль пользователя
+ */
+public record BulkRoleChangeRequest(String username, Role role) {
+}
@@ -0,0 +1,13 @@
+package org.skypro.socksStock.model.dto.request;
+
+import org.skypro.socksStock.model.entity.Role;
+
+/**
+ * DTO строки массового создания пользователей.
+ *
+ * @param username имя пользователя
+ * @param password пароль пользователя
+ * @param role     роль пользователя; если не указана, назначается ROLE_USER
+ */
+public record BulkUserRequest(String username, String password, Role role) {
+}
@@ -0,0 +1,9 @@
+package org.skypro.socksStock.model.dto.request;
+
+/**
+ * Перечисление, определяющее направление рейтинга остатков.
+ */
+public enum RankingOrder {
+    most,
+    least
+}
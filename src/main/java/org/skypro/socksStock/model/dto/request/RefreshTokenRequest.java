@@ -0,0 +1,10 @@
+package org.skypro.socksStock.model.dto.request;
+
+
+/**
+ * DTO для запроса продления сеанса.
+ *
+ * @param refreshToken refresh-токен, выданный при входе или предыдущем продлении
+ */
+public record RefreshTokenRequest(String refreshToken) {
+}
@@ -9,6 +9,7 @@ import lombok.Setter;
 @Getter
 @Setter
 public class SocksRequestDTO {
+    private String warehouse;
     private String color;
     private Integer cottonPart;
     private Integer quantity;
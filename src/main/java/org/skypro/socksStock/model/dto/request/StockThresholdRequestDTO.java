@@ -0,0 +1,16 @@
+package org.skypro.socksStock.model.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO для запроса установки порога низкого остатка.
+ * Если процент хлопка не указан, порог применяется ко всем позициям цвета.
+ */
+@Getter
+@Setter
+public class StockThresholdRequestDTO {
+    private String color;
+    private Integer cottonPart;
+    private Integer threshold;
+}
@@ -0,0 +1,18 @@
+package org.skypro.socksStock.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * DTO с данными API-ключа.
+ *
+ * @param id        идентификатор ключа
+ * @param name      название ключа
+ * @param userId    идентификатор учетной записи, от имени которой действует ключ
+ * @param createdAt момент выдачи
+ * @param key       сам ключ; передается только в ответе на выдачу и больше нигде не хранится
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiKeyResponse(Long id, String name, Long userId, Instant createdAt, String key) {
+}
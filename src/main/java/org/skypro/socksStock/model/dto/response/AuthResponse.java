@@ -1,13 +1,21 @@
 package org.skypro.socksStock.model.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * DTO для ответа аутентификации.
  *
- * @param token JWT-токен для аутентификации
- * @param type  тип токена (по умолчанию "Bearer")
+ * @param token        JWT-токен для аутентификации
+ * @param type         тип токена (по умолчанию "Bearer")
+ * @param refreshToken refresh-токен для продления сеанса или null, если он не выдавался
  */
-public record AuthResponse(String token, String type) {
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthResponse(String token, String type, String refreshToken) {
     public AuthResponse(String token) {
-        this(token, "Bearer");
+        this(token, "Bearer", null);
+    }
+
+    public AuthResponse(String token, String type) {
+        this(token, type, null);
     }
 }
\ No newline at end of file
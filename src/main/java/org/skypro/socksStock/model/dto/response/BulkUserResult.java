@@ -0,0 +1,15 @@
+package org.skypro.socksStock.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO результата обработки строки массовой операции над пользователями.
+ *
+ * @param index    номер строки в запросе, начиная с 0
+ * @param username имя пользователя из строки
+ * @param status   результат обработки строки
+ * @param message  причина отказа или null, если строка обработана
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkUserResult(int index, String username, BulkUserStatus status, String message) {
+}
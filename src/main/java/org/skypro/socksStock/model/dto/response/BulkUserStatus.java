@@ -0,0 +1,13 @@
+package org.skypro.socksStock.model.dto.response;
+
+/**
+ * Результат обработки строки массовой операции над пользователями.
+ */
+public enum BulkUserStatus {
+    CREATED,
+    UPDATED,
+    UNCHANGED,
+    CONFLICT,
+    NOT_FOUND,
+    INVALID
+}
@@ -0,0 +1,10 @@
+package org.skypro.socksStock.model.dto.response;
+
+/**
+ * DTO суммарного остатка носков одного цвета.
+ *
+ * @param color    цвет носков
+ * @param quantity суммарный остаток всех позиций цвета
+ */
+public record ColorStockDTO(String color, long quantity) {
+}
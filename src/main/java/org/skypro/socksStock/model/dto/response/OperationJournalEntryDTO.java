@@ -0,0 +1,19 @@
+package org.skypro.socksStock.model.dto.response;
+
+import java.time.Instant;
+
+/**
+ * DTO записи бинарного журнала операций склада.
+ *
+ * @param sequence   порядковый номер записи в журнале
+ * @param occurredAt момент операции
+ * @param userId     идентификатор пользователя или null, если операция выполнена без пользователя
+ * @param warehouse  склад позиции
+ * @param color      цвет носков
+ * @param cottonPart процент содержания хлопка
+ * @param delta      изменение остатка: положительное для прихода, отрицательное для расхода
+ * @param quantity   остаток позиции на складе после операции
+ */
+public record OperationJournalEntryDTO(long sequence, Instant occurredAt, Long userId, String warehouse,
+                                       String color, int cottonPart, int delta, int quantity) {
+}
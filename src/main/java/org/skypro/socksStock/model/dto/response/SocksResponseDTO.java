@@ -10,6 +10,7 @@ import lombok.Setter;
 @Getter
 public class SocksResponseDTO {
 
+    private String warehouse;
     private String color;
     private Integer cottonPart;
     private Integer quantity;
@@ -0,0 +1,18 @@
+package org.skypro.socksStock.model.dto.response;
+
+import java.time.Instant;
+
+/**
+ * DTO для ответа, содержащего уведомление о низком остатке.
+ *
+ * @param id               идентификатор уведомления
+ * @param color            цвет носков
+ * @param cottonPart       процент содержания хлопка
+ * @param threshold        сработавший порог
+ * @param previousQuantity остаток до операции
+ * @param quantity         остаток после операции
+ * @param createdAt        момент пересечения порога
+ */
+public record StockAlertResponseDTO(Long id, String color, int cottonPart, int threshold,
+                                    int previousQuantity, int quantity, Instant createdAt) {
+}
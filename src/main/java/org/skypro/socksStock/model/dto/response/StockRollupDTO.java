@@ -0,0 +1,13 @@
+package org.skypro.socksStock.model.dto.response;
+
+import java.time.Instant;
+
+/**
+ * DTO суммарного прихода и расхода за интервал времени.
+ *
+ * @param bucketStart начало интервала
+ * @param inflow      суммарный приход
+ * @param outflow     суммарный расход
+ */
+public record StockRollupDTO(Instant bucketStart, long inflow, long outflow) {
+}
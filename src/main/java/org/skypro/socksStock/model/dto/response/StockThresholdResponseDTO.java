@@ -0,0 +1,12 @@
+package org.skypro.socksStock.model.dto.response;
+
+/**
+ * DTO для ответа, содержащего порог низкого остатка.
+ *
+ * @param id         идентификатор порога
+ * @param color      цвет носков
+ * @param cottonPart процент содержания хлопка или null для порога на весь цвет
+ * @param threshold  значение порога
+ */
+public record StockThresholdResponseDTO(Long id, String color, Integer cottonPart, int threshold) {
+}
@@ -0,0 +1,12 @@
+package org.skypro.socksStock.model.dto.response;
+
+/**
+ * Компактное DTO изменения остатка, отправляемое подписчикам потока событий склада.
+ *
+ * @param warehouse  склад позиции
+ * @param color      цвет носков
+ * @param cottonPart процент содержания хлопка
+ * @param quantity   актуальный остаток позиции на складе
+ */
+public record StockUpdateDTO(String warehouse, String color, int cottonPart, int quantity) {
+}
@@ -0,0 +1,12 @@
+package org.skypro.socksStock.model.dto.response;
+
+import java.util.List;
+
+/**
+ * Страница списка пользователей при постраничном просмотре по идентификатору.
+ *
+ * @param users      пользователи страницы в порядке возрастания идентификатора
+ * @param nextCursor идентификатор, после которого начинается следующая страница, или null для последней страницы
+ */
+public record UserPage(List<UserResponseDTO> users, Long nextCursor) {
+}
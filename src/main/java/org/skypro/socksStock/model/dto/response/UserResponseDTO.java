@@ -0,0 +1,13 @@
+package org.skypro.socksStock.model.dto.response;
+
+import org.skypro.socksStock.model.entity.Role;
+
+/**
+ * DTO для ответа, содержащего публичные данные пользователя (без хеша пароля).
+ *
+ * @param id       идентификатор пользователя
+ * @param username имя пользователя
+ * @param role     роль пользователя в системе
+ */
+public record UserResponseDTO(Long id, String username, Role role) {
+}
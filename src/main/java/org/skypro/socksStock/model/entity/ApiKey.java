@@ -0,0 +1,36 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая API-ключ сервисной учетной записи.
+ * Хранится только SHA-256 хеш ключа; сам ключ показывается администратору один раз при выдаче.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "api_keys")
+public class ApiKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, name = "key_hash")
+    private String keyHash;
+
+    @Column(nullable = false, name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false, name = "created_at")
+    private Instant createdAt;
+}
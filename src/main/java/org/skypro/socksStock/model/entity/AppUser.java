@@ -20,10 +20,16 @@ public class AppUser {
     @Column(unique = true, nullable = false, length = 50)
     private String username;
 
-    @Column(nullable = false, length = 100)
+    @Column(nullable = false, length = 255)
     private String password;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private Role role;
+
+    /**
+     * Версия выданных токенов; увеличивается при смене роли, чтобы старые токены перестали приниматься.
+     */
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
 }
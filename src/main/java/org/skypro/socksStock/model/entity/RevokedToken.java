@@ -0,0 +1,30 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая отозванный JWT-токен.
+ * Запись хранится до истечения срока действия токена, после чего удаляется.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_id")
+    private String tokenId;
+
+    @Column(nullable = false, name = "expires_at")
+    private Instant expiresAt;
+
+    @Column(nullable = false, name = "revoked_at")
+    private Instant revokedAt;
+}
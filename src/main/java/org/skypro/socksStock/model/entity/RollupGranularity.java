@@ -0,0 +1,27 @@
+package org.skypro.socksStock.model.entity;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Перечисление, определяющее размер интервала агрегированной статистики движения остатков.
+ */
+public enum RollupGranularity {
+    HOUR,
+    DAY;
+
+    /**
+     * Возвращает начало интервала, в который попадает указанный момент.
+     *
+     * @param instant момент времени
+     * @param zone    часовой пояс, в котором определяются границы часов и суток
+     * @return начало интервала
+     */
+    public Instant bucketStart(Instant instant, ZoneId zone) {
+        return switch (this) {
+            case HOUR -> instant.atZone(zone).truncatedTo(ChronoUnit.HOURS).toInstant();
+            case DAY -> instant.atZone(zone).truncatedTo(ChronoUnit.DAYS).toInstant();
+        };
+    }
+}
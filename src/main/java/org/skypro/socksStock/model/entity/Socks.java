@@ -10,13 +10,22 @@ import lombok.NoArgsConstructor;
 @Entity
 @Data
 @NoArgsConstructor
-@Table(name = "socks")
+@Table(name = "socks", uniqueConstraints = @UniqueConstraint(name = "uq_socks_warehouse_color_cotton",
+        columnNames = {"warehouse", "color", "cotton_part"}))
 public class Socks {
 
+    /**
+     * Склад, на который попадают позиции без явно указанного склада.
+     */
+    public static final String DEFAULT_WAREHOUSE = "main";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, name = "warehouse")
+    private String warehouse = DEFAULT_WAREHOUSE;
+
     @Column(nullable = false, name = "color")
     private String color;
 
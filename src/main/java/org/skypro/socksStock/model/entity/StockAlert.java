@@ -0,0 +1,39 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая зафиксированное пересечение порога низкого остатка.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "stock_alerts")
+public class StockAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "color")
+    private String color;
+
+    @Column(nullable = false, name = "cotton_part")
+    private int cottonPart;
+
+    @Column(nullable = false, name = "threshold")
+    private int threshold;
+
+    @Column(nullable = false, name = "previous_quantity")
+    private int previousQuantity;
+
+    @Column(nullable = false, name = "quantity")
+    private int quantity;
+
+    @Column(nullable = false, name = "created_at")
+    private Instant createdAt;
+}
@@ -0,0 +1,33 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая движение остатка позиции (приход со знаком плюс, расход со знаком минус).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "stock_movements")
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "color")
+    private String color;
+
+    @Column(nullable = false, name = "cotton_part")
+    private int cottonPart;
+
+    @Column(nullable = false, name = "delta")
+    private int delta;
+
+    @Column(nullable = false, name = "occurred_at")
+    private Instant occurredAt;
+}
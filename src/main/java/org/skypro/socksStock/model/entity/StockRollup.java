@@ -0,0 +1,41 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая суммарный приход и расход за интервал времени.
+ * Если процент хлопка не указан, строка содержит итог по всем позициям цвета.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "stock_rollups")
+public class StockRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, name = "granularity")
+    private RollupGranularity granularity;
+
+    @Column(nullable = false, name = "bucket_start")
+    private Instant bucketStart;
+
+    @Column(nullable = false, name = "color")
+    private String color;
+
+    @Column(name = "cotton_part")
+    private Integer cottonPart;
+
+    @Column(nullable = false, name = "inflow")
+    private long inflow;
+
+    @Column(nullable = false, name = "outflow")
+    private long outflow;
+}
@@ -0,0 +1,25 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая снимок остатков склада.
+ * Снимок включает все движения с моментом не позднее takenAt.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "stock_snapshots")
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, name = "taken_at")
+    private Instant takenAt;
+}
@@ -0,0 +1,31 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сущность, представляющая остаток одной позиции в снимке склада.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "stock_snapshot_items")
+public class StockSnapshotItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "snapshot_id")
+    private Long snapshotId;
+
+    @Column(nullable = false, name = "color")
+    private String color;
+
+    @Column(nullable = false, name = "cotton_part")
+    private int cottonPart;
+
+    @Column(nullable = false, name = "quantity")
+    private int quantity;
+}
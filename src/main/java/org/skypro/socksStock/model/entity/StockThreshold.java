@@ -0,0 +1,29 @@
+package org.skypro.socksStock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сущность, представляющая порог низкого остатка.
+ * Если процент хлопка не указан, порог действует для всех позиций цвета.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "stock_thresholds")
+public class StockThreshold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "color")
+    private String color;
+
+    @Column(name = "cotton_part")
+    private Integer cottonPart;
+
+    @Column(nullable = false, name = "threshold")
+    private int threshold;
+}
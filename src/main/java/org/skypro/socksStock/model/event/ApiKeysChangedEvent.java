@@ -0,0 +1,9 @@
+package org.skypro.socksStock.model.event;
+
+/**
+ * Событие выдачи или отзыва API-ключа.
+ *
+ * @param apiKeyId идентификатор выданного или отозванного ключа
+ */
+public record ApiKeysChangedEvent(Long apiKeyId) {
+}
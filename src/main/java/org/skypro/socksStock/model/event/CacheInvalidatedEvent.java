@@ -0,0 +1,61 @@
+package org.skypro.socksStock.model.event;
+
+/**
+ * Событие инвалидации локального кеша по уведомлению другого экземпляра приложения.
+ * Публикуется слушателем LISTEN/NOTIFY в потоке слушателя, вне транзакции.
+ *
+ * @param cache имя кеша (например, {@link #STOCK}) или null при полном сбросе всех кешей
+ * @param key   ключ измененной записи или null, если кеш нужно сбросить целиком
+ */
+public record CacheInvalidatedEvent(String cache, String key) {
+
+    /**
+     * Кеш остатков позиций; ключ — процент хлопка и цвет в формате {@code cottonPart:color}.
+     */
+    public static final String STOCK = "stock";
+
+    /**
+     * Кеш данных пользователей; ключ — идентификатор пользователя.
+     */
+    public static final String USERS = "users";
+
+    /**
+     * Список отозванных JWT-токенов; ключ — идентификатор (jti) токена.
+     */
+    public static final String REVOKED_TOKENS = "revoked-tokens";
+
+    /**
+     * API-ключи сервисных учетных записей; сбрасываются только целиком.
+     */
+    public static final String API_KEYS = "api-keys";
+
+    /**
+     * Формирует ключ позиции для кеша остатков.
+     *
+     * @param color      цвет носков
+     * @param cottonPart процент содержания хлопка
+     * @return ключ вида {@code cottonPart:color}
+     */
+    public static String stockKey(String color, int cottonPart) {
+        return cottonPart + ":" + color;
+    }
+
+    /**
+     * Создает событие полного сброса всех локальных кешей.
+     *
+     * @return событие полного сброса
+     */
+    public static CacheInvalidatedEvent flushAll() {
+        return new CacheInvalidatedEvent(null, null);
+    }
+
+    /**
+     * Проверяет, относится ли событие к указанному кешу целиком.
+     *
+     * @param name имя кеша
+     * @return true, если кеш нужно сбросить целиком
+     */
+    public boolean flushes(String name) {
+        return cache == null || (cache.equals(name) && key == null);
+    }
+}
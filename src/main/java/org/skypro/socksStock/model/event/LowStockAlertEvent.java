@@ -0,0 +1,18 @@
+package org.skypro.socksStock.model.event;
+
+import java.time.Instant;
+
+/**
+ * Событие пересечения порога низкого остатка позицией носков.
+ *
+ * @param alertId          идентификатор записи в журнале уведомлений
+ * @param color            цвет носков
+ * @param cottonPart       процент содержания хлопка
+ * @param threshold        сработавший порог
+ * @param previousQuantity остаток до операции
+ * @param quantity         остаток после операции
+ * @param occurredAt       момент пересечения порога
+ */
+public record LowStockAlertEvent(Long alertId, String color, int cottonPart, int threshold,
+                                 int previousQuantity, int quantity, Instant occurredAt) {
+}
@@ -0,0 +1,28 @@
+package org.skypro.socksStock.model.event;
+
+import java.time.Instant;
+
+/**
+ * Событие изменения остатка носков одной позиции склада (склад + цвет + содержание хлопка).
+ * Публикуется сервисом склада внутри транзакции прихода или расхода. Остатки в событии относятся
+ * к позиции на указанном складе; изменение остатка по всем складам равно {@link #delta()}.
+ *
+ * @param warehouse        склад позиции
+ * @param color            цвет носков
+ * @param cottonPart       процент содержания хлопка
+ * @param previousQuantity остаток до операции
+ * @param quantity         остаток после операции
+ * @param occurredAt       момент выполнения операции
+ */
+public record StockChangedEvent(String warehouse, String color, int cottonPart, int previousQuantity, int quantity,
+                                Instant occurredAt) {
+
+    /**
+     * Возвращает изменение остатка: положительное для прихода, отрицательное для расхода.
+     *
+     * @return разница между новым и предыдущим остатком
+     */
+    public int delta() {
+        return quantity - previousQuantity;
+    }
+}
@@ -0,0 +1,24 @@
+package org.skypro.socksStock.model.event;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Событие полной очистки склада.
+ *
+ * @param cleared    позиции с ненулевым остатком, списанные очисткой
+ * @param occurredAt момент очистки
+ */
+public record StockClearedEvent(List<ClearedItem> cleared, Instant occurredAt) {
+
+    /**
+     * Остаток позиции склада на момент очистки.
+     *
+     * @param warehouse  склад позиции
+     * @param color      цвет носков
+     * @param cottonPart процент содержания хлопка
+     * @param quantity   списанный остаток
+     */
+    public record ClearedItem(String warehouse, String color, int cottonPart, int quantity) {
+    }
+}
@@ -0,0 +1,9 @@
+package org.skypro.socksStock.model.event;
+
+/**
+ * Событие отзыва JWT-токена при выходе пользователя или по решению администратора.
+ *
+ * @param tokenId идентификатор (jti) отозванного токена
+ */
+public record TokenRevokedEvent(String tokenId) {
+}
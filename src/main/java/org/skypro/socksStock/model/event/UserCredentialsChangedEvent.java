@@ -0,0 +1,12 @@
+package org.skypro.socksStock.model.event;
+
+/**
+ * Событие регистрации, изменения роли или удаления пользователя.
+ * После него закешированные данные пользователя сбрасываются, а при смене роли или удалении
+ * ранее выданные пользователю токены перестают приниматься.
+ *
+ * @param userId   идентификатор пользователя
+ * @param username имя пользователя или null, если оно неизвестно отправителю
+ */
+public record UserCredentialsChangedEvent(Long userId, String username) {
+}
@@ -0,0 +1,16 @@
+package org.skypro.socksStock.model.projection;
+
+import org.skypro.socksStock.model.entity.Role;
+
+/**
+ * Проекция API-ключа вместе с данными его владельца.
+ * Заполняется конструкторным выражением JPQL без загрузки управляемых сущностей.
+ *
+ * @param keyHash      SHA-256 хеш ключа
+ * @param userId       идентификатор владельца
+ * @param username     имя владельца
+ * @param role         роль владельца
+ * @param tokenVersion версия токенов владельца
+ */
+public record ApiKeyCredentials(String keyHash, Long userId, String username, Role role, int tokenVersion) {
+}
@@ -0,0 +1,11 @@
+package org.skypro.socksStock.model.projection;
+
+/**
+ * Суммарное изменение остатка позиции за интервал времени.
+ *
+ * @param color      цвет носков
+ * @param cottonPart процент содержания хлопка
+ * @param delta      сумма движений за интервал
+ */
+public record StockDelta(String color, Integer cottonPart, Long delta) {
+}
@@ -0,0 +1,27 @@
+package org.skypro.socksStock.model.projection;
+
+import org.skypro.socksStock.model.entity.Role;
+
+/**
+ * Проекция учетных данных пользователя для Spring Security.
+ * Заполняется конструкторным выражением JPQL без загрузки управляемой сущности AppUser.
+ *
+ * @param username     имя пользователя
+ * @param password     хеш пароля
+ * @param role         роль пользователя
+ * @param id           идентификатор пользователя
+ * @param tokenVersion версия выданных пользователю токенов
+ */
+public record UserCredentials(String username, String password, Role role, Long id, int tokenVersion) {
+
+    /**
+     * Создает учетные данные без идентификатора и версии токенов.
+     *
+     * @param username имя пользователя
+     * @param password хеш пароля
+     * @param role     роль пользователя
+     */
+    public UserCredentials(String username, String password, Role role) {
+        this(username, password, role, null, 0);
+    }
+}
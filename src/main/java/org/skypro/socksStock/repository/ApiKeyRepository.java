@@ -0,0 +1,44 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.ApiKey;
+import org.skypro.socksStock.model.projection.ApiKeyCredentials;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с API-ключами.
+ */
+@Repository
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+
+    /**
+     * Возвращает хеши всех API-ключей вместе с данными владельцев.
+     *
+     * @return список ключей с данными владельцев
+     */
+    @Query("SELECT new org.skypro.socksStock.model.projection.ApiKeyCredentials(" +
+            "k.keyHash, u.id, u.username, u.role, u.tokenVersion) FROM ApiKey k JOIN AppUser u ON u.id = k.userId")
+    List<ApiKeyCredentials> findAllCredentials();
+
+    /**
+     * Возвращает все API-ключи в порядке выдачи.
+     *
+     * @return список API-ключей
+     */
+    List<ApiKey> findAllByOrderByIdAsc();
+
+    /**
+     * Удаляет API-ключ по идентификатору.
+     *
+     * @param id идентификатор ключа
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Query("DELETE FROM ApiKey k WHERE k.id = :id")
+    int deleteByIdAndCount(@Param("id") Long id);
+}
@@ -0,0 +1,151 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.Socks;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реализация хранилища остатков на NamedParameterJdbcTemplate.
+ * Обходит трансляцию JPQL, контекст персистентности и гидрацию сущностей: запросы заданы
+ * неизменными строками (разобранный SQL кешируется шаблоном, подготовленные выражения — драйвером),
+ * а суммы извлекаются напрямую как int. Обновление остатка фильтрует и по цвету — ключу секционирования,
+ * поэтому в таблице, разбитой на секции, оно затрагивает одну секцию.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.socks.repository", havingValue = "jdbc")
+public class JdbcSocksStockRepository implements SocksStockRepository {
+
+    private static final String FIND_BY_WAREHOUSE_COLOR_AND_COTTON_PART =
+            "SELECT id, color, cotton_part, quantity, warehouse FROM socks " +
+                    "WHERE warehouse = :warehouse AND color = :color AND cotton_part = :cottonPart";
+    private static final String INSERT =
+            "INSERT INTO socks (warehouse, color, cotton_part, quantity) " +
+                    "VALUES (:warehouse, :color, :cottonPart, :quantity)";
+    private static final String UPDATE_QUANTITY =
+            "UPDATE socks SET quantity = :quantity WHERE id = :id AND color = :color";
+    private static final String SUM_GREATER_THAN =
+            "SELECT COALESCE(SUM(quantity), 0) FROM socks WHERE color = :color AND cotton_part > :cottonPart";
+    private static final String SUM_LESS_THAN =
+            "SELECT COALESCE(SUM(quantity), 0) FROM socks WHERE color = :color AND cotton_part < :cottonPart";
+    private static final String SUM_EQUAL =
+            "SELECT COALESCE(SUM(quantity), 0) FROM socks WHERE color = :color AND cotton_part = :cottonPart";
+    private static final String WAREHOUSE_SUM_GREATER_THAN = "SELECT COALESCE(SUM(quantity), 0) FROM socks " +
+            "WHERE warehouse = :warehouse AND color = :color AND cotton_part > :cottonPart";
+    private static final String WAREHOUSE_SUM_LESS_THAN = "SELECT COALESCE(SUM(quantity), 0) FROM socks " +
+            "WHERE warehouse = :warehouse AND color = :color AND cotton_part < :cottonPart";
+    private static final String WAREHOUSE_SUM_EQUAL = "SELECT COALESCE(SUM(quantity), 0) FROM socks " +
+            "WHERE warehouse = :warehouse AND color = :color AND cotton_part = :cottonPart";
+    private static final String FIND_ALL_ORDERED =
+            "SELECT id, color, cotton_part, quantity, warehouse FROM socks ORDER BY color, cotton_part, warehouse";
+    private static final String DELETE_ALL = "DELETE FROM socks";
+
+    private static final String[] ID_COLUMN = {"id"};
+
+    static final RowMapper<Socks> SOCKS_ROW_MAPPER = (rs, rowNum) -> {
+        Socks socks = new Socks();
+        socks.setId(rs.getLong(1));
+        socks.setColor(rs.getString(2));
+        socks.setCottonPart(rs.getInt(3));
+        socks.setQuantity(rs.getInt(4));
+        socks.setWarehouse(rs.getString(5));
+        return socks;
+    };
+
+    private static final ResultSetExtractor<Integer> INT_EXTRACTOR = rs -> rs.next() ? rs.getInt(1) : 0;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Создает JDBC-реализацию хранилища остатков.
+     *
+     * @param jdbcTemplate шаблон JDBC с именованными параметрами
+     */
+    public JdbcSocksStockRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Socks> findByWarehouseAndColorAndCottonPart(String warehouse, String color, Integer cottonPart) {
+        List<Socks> result = jdbcTemplate.query(FIND_BY_WAREHOUSE_COLOR_AND_COTTON_PART,
+                colorAndCottonPart(color, cottonPart).addValue("warehouse", warehouse), SOCKS_ROW_MAPPER);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    @Override
+    public Socks save(Socks socks) {
+        if (socks.getId() != null) {
+            jdbcTemplate.update(UPDATE_QUANTITY, new MapSqlParameterSource()
+                    .addValue("quantity", socks.getQuantity())
+                    .addValue("id", socks.getId())
+                    .addValue("color", socks.getColor()));
+            return socks;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(INSERT, colorAndCottonPart(socks.getColor(), socks.getCottonPart())
+                .addValue("warehouse", socks.getWarehouse())
+                .addValue("quantity", socks.getQuantity()), keyHolder, ID_COLUMN);
+        socks.setId(keyHolder.getKeyAs(Number.class).longValue());
+        return socks;
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartGreaterThan(String color, Integer cottonPart) {
+        return jdbcTemplate.query(SUM_GREATER_THAN, colorAndCottonPart(color, cottonPart), INT_EXTRACTOR);
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartLessThan(String color, Integer cottonPart) {
+        return jdbcTemplate.query(SUM_LESS_THAN, colorAndCottonPart(color, cottonPart), INT_EXTRACTOR);
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartEqual(String color, Integer cottonPart) {
+        return jdbcTemplate.query(SUM_EQUAL, colorAndCottonPart(color, cottonPart), INT_EXTRACTOR);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartGreaterThan(String warehouse, String color,
+                                                                          Integer cottonPart) {
+        return jdbcTemplate.query(WAREHOUSE_SUM_GREATER_THAN,
+                colorAndCottonPart(color, cottonPart).addValue("warehouse", warehouse), INT_EXTRACTOR);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartLessThan(String warehouse, String color,
+                                                                       Integer cottonPart) {
+        return jdbcTemplate.query(WAREHOUSE_SUM_LESS_THAN,
+                colorAndCottonPart(color, cottonPart).addValue("warehouse", warehouse), INT_EXTRACTOR);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartEqual(String warehouse, String color,
+                                                                    Integer cottonPart) {
+        return jdbcTemplate.query(WAREHOUSE_SUM_EQUAL,
+                colorAndCottonPart(color, cottonPart).addValue("warehouse", warehouse), INT_EXTRACTOR);
+    }
+
+    @Override
+    public List<Socks> findAllOrderByColorAndCottonPart() {
+        return jdbcTemplate.query(FIND_ALL_ORDERED, SOCKS_ROW_MAPPER);
+    }
+
+    @Override
+    public void deleteAll() {
+        jdbcTemplate.getJdbcOperations().update(DELETE_ALL);
+    }
+
+    private MapSqlParameterSource colorAndCottonPart(String color, Integer cottonPart) {
+        return new MapSqlParameterSource()
+                .addValue("color", color)
+                .addValue("cottonPart", cottonPart);
+    }
+}
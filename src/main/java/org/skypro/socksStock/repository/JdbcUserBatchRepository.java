@@ -0,0 +1,65 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.AppUser;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Пакетная запись пользователей на NamedParameterJdbcTemplate.
+ * Строки передаются драйверу одним JDBC-пакетом без контекста персистентности,
+ * поэтому массовое создание и смена ролей не выполняют отдельный запрос на каждую строку.
+ */
+@Repository
+public class JdbcUserBatchRepository {
+
+    private static final String INSERT =
+            "INSERT INTO users (username, password, role, token_version) VALUES (:username, :password, :role, 0)";
+    private static final String UPDATE_ROLE =
+            "UPDATE users SET role = :role, token_version = token_version + 1 WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Создает репозиторий пакетной записи пользователей.
+     *
+     * @param jdbcTemplate шаблон JDBC с именованными параметрами
+     */
+    public JdbcUserBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Вставляет пользователей одним пакетом.
+     *
+     * @param users пользователи с именем, хешем пароля и ролью
+     * @return количество вставленных строк по каждому пользователю
+     */
+    public int[] insertAll(List<AppUser> users) {
+        SqlParameterSource[] batch = users.stream()
+                .map(user -> new MapSqlParameterSource()
+                        .addValue("username", user.getUsername())
+                        .addValue("password", user.getPassword())
+                        .addValue("role", user.getRole().name()))
+                .toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+
+    /**
+     * Меняет роли пользователей одним пакетом, увеличивая версию их токенов.
+     *
+     * @param users пользователи с идентификатором и новой ролью
+     * @return количество обновленных строк по каждому пользователю
+     */
+    public int[] updateRoles(List<AppUser> users) {
+        SqlParameterSource[] batch = users.stream()
+                .map(user -> new MapSqlParameterSource()
+                        .addValue("id", user.getId())
+                        .addValue("role", user.getRole().name()))
+                .toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate(UPDATE_ROLE, batch);
+    }
+}
@@ -0,0 +1,74 @@
+package org.skypro.socksStock.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.model.entity.Socks;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реализация хранилища остатков через Spring Data JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.socks.repository", havingValue = "jpa", matchIfMissing = true)
+public class JpaSocksStockRepository implements SocksStockRepository {
+
+    private final SocksRepository socksRepository;
+
+    @Override
+    public Optional<Socks> findByWarehouseAndColorAndCottonPart(String warehouse, String color, Integer cottonPart) {
+        return socksRepository.findByWarehouseAndColorAndCottonPart(warehouse, color, cottonPart);
+    }
+
+    @Override
+    public Socks save(Socks socks) {
+        return socksRepository.save(socks);
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartGreaterThan(String color, Integer cottonPart) {
+        return socksRepository.sumQuantityByColorAndCottonPartGreaterThan(color, cottonPart);
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartLessThan(String color, Integer cottonPart) {
+        return socksRepository.sumQuantityByColorAndCottonPartLessThan(color, cottonPart);
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartEqual(String color, Integer cottonPart) {
+        return socksRepository.sumQuantityByColorAndCottonPartEqual(color, cottonPart);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartGreaterThan(String warehouse, String color,
+                                                                          Integer cottonPart) {
+        return socksRepository.sumQuantityByWarehouseAndColorAndCottonPartGreaterThan(warehouse, color, cottonPart);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartLessThan(String warehouse, String color,
+                                                                       Integer cottonPart) {
+        return socksRepository.sumQuantityByWarehouseAndColorAndCottonPartLessThan(warehouse, color, cottonPart);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartEqual(String warehouse, String color,
+                                                                    Integer cottonPart) {
+        return socksRepository.sumQuantityByWarehouseAndColorAndCottonPartEqual(warehouse, color, cottonPart);
+    }
+
+    @Override
+    public List<Socks> findAllOrderByColorAndCottonPart() {
+        return socksRepository.findAll(Sort.by("color", "cottonPart", "warehouse"));
+    }
+
+    @Override
+    public void deleteAll() {
+        socksRepository.deleteAll();
+    }
+}
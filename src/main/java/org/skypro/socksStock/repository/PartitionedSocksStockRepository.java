@@ -0,0 +1,170 @@
+package org.skypro.socksStock.repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.model.entity.Socks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Реализация хранилища остатков для таблицы socks, разбитой на хеш-секции по цвету.
+ * <p>
+ * Точечные запросы и суммы фильтруют по цвету, поэтому PostgreSQL отсекает все секции, кроме одной,
+ * и при планировании, и при выполнении подготовленного выражения — эти запросы наследуются
+ * от JDBC-реализации без изменений. Отчеты по всем цветам выполняются отдельным запросом к каждой
+ * секции параллельно в пуле fork-join, а отсортированные результаты секций сливаются. Каждый запрос
+ * к секции занимает отдельное соединение пула Hikari вне транзакции вызывающего кода, поэтому
+ * параллелизм ограничен половиной пула: остальные соединения остаются для обычных запросов.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.socks.repository", havingValue = "partitioned")
+public class PartitionedSocksStockRepository extends JdbcSocksStockRepository {
+
+    private static final String FIND_PARTITIONS =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "WHERE i.inhparent = 'socks'::regclass ORDER BY c.relname";
+    private static final String FIND_ALL_IN_PARTITION =
+            "SELECT id, color, cotton_part, quantity, warehouse FROM %s " +
+                    "ORDER BY color COLLATE \"C\", cotton_part, warehouse COLLATE \"C\"";
+
+    private static final Comparator<Socks> COLOR_AND_COTTON_PART = Comparator.comparing(Socks::getColor)
+            .thenComparingInt(Socks::getCottonPart)
+            .thenComparing(Socks::getWarehouse);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ForkJoinPool reportPool;
+    private volatile List<String> partitions = List.of();
+
+    /**
+     * Создает хранилище остатков для секционированной таблицы.
+     *
+     * @param jdbcTemplate    шаблон JDBC с именованными параметрами
+     * @param parallelism     количество параллельных запросов к секциям при построении отчетов
+     * @param maximumPoolSize размер пула соединений Hikari
+     */
+    public PartitionedSocksStockRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                           @Value("${app.socks.partitions.report-parallelism:4}") int parallelism,
+                                           @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+                                           int maximumPoolSize) {
+        super(jdbcTemplate);
+        this.jdbcTemplate = jdbcTemplate;
+        this.reportPool = new ForkJoinPool(reportParallelism(parallelism, maximumPoolSize));
+    }
+
+    /**
+     * Возвращает все позиции склада, опрашивая секции параллельно.
+     * Порядок цветов определяется побайтовым сравнением (COLLATE "C"), что совпадает
+     * с сортировкой строк в Java, поэтому отсортированные списки секций сливаются без пересортировки.
+     * Секции читаются в отдельных соединениях, поэтому отчет не является единым снимком таблицы.
+     *
+     * @return список позиций, упорядоченный по цвету и проценту хлопка
+     */
+    @Override
+    public List<Socks> findAllOrderByColorAndCottonPart() {
+        List<String> names = partitions();
+        if (names.isEmpty()) {
+            return super.findAllOrderByColorAndCottonPart();
+        }
+        List<ForkJoinTask<List<Socks>>> tasks = names.stream()
+                .map(name -> reportPool.submit(() -> jdbcTemplate.getJdbcOperations()
+                        .query(String.format(FIND_ALL_IN_PARTITION, quote(name)), SOCKS_ROW_MAPPER)))
+                .toList();
+        List<List<Socks>> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<List<Socks>> task : tasks) {
+            results.add(task.join());
+        }
+        return merge(results);
+    }
+
+    /**
+     * Останавливает пул запросов к секциям.
+     */
+    @PreDestroy
+    public void shutdown() {
+        reportPool.shutdown();
+    }
+
+    /**
+     * Сливает отсортированные списки секций в один отсортированный список.
+     *
+     * @param sorted списки позиций, каждый упорядочен по цвету и проценту хлопка
+     * @return объединенный упорядоченный список
+     */
+    static List<Socks> merge(List<List<Socks>> sorted) {
+        int total = sorted.stream().mapToInt(List::size).sum();
+        List<Socks> result = new ArrayList<>(total);
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (left, right) -> COLOR_AND_COTTON_PART.compare(left.current(), right.current()));
+        sorted.stream().filter(list -> !list.isEmpty()).forEach(list -> queue.add(new Cursor(list)));
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            result.add(cursor.current());
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ограничивает параллелизм отчетов половиной пула соединений.
+     *
+     * @param parallelism     запрошенный параллелизм
+     * @param maximumPoolSize размер пула соединений
+     * @return количество потоков пула запросов к секциям, не меньше одного
+     */
+    static int reportParallelism(int parallelism, int maximumPoolSize) {
+        int limit = Math.max(1, maximumPoolSize / 2);
+        if (parallelism > limit) {
+            log.warn("Report parallelism {} exceeds half of the connection pool ({}), using {}",
+                    parallelism, maximumPoolSize, limit);
+            return limit;
+        }
+        return Math.max(1, parallelism);
+    }
+
+    private List<String> partitions() {
+        List<String> current = partitions;
+        if (current.isEmpty()) {
+            current = jdbcTemplate.getJdbcOperations().queryForList(FIND_PARTITIONS, String.class);
+            partitions = current;
+            log.info("Socks table has {} partitions", current.size());
+        }
+        return current;
+    }
+
+    private String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Позиция чтения в отсортированном списке секции.
+     */
+    private static final class Cursor {
+
+        private final List<Socks> items;
+        private int index;
+
+        Cursor(List<Socks> items) {
+            this.items = items;
+        }
+
+        Socks current() {
+            return items.get(index);
+        }
+
+        boolean advance() {
+            return ++index < items.size();
+        }
+    }
+}
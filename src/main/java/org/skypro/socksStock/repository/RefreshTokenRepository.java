@@ -0,0 +1,60 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с refresh-токенами.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Находит refresh-токен по хешу.
+     *
+     * @param tokenHash SHA-256 хеш токена
+     * @return Optional с найденным токеном
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Удаляет refresh-токен по идентификатору. Возвращает 0, если токен уже удален
+     * параллельным запросом, поэтому токен может быть погашен только один раз.
+     *
+     * @param id идентификатор токена
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.id = :id")
+    int deleteByIdAndCount(@Param("id") Long id);
+
+    /**
+     * Удаляет refresh-токен по хешу.
+     *
+     * @param tokenHash SHA-256 хеш токена
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Удаляет refresh-токены с истекшим сроком действия.
+     *
+     * @param now текущий момент времени
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
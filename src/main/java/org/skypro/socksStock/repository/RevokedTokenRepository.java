@@ -0,0 +1,39 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Репозиторий для работы со списком отозванных JWT-токенов.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Возвращает идентификаторы отозванных токенов, срок действия которых еще не истек.
+     *
+     * @param now текущий момент времени
+     * @return список идентификаторов токенов
+     */
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveTokenIds(@Param("now") Instant now);
+
+    /**
+     * Удаляет записи о токенах, срок действия которых истек: такие токены отклоняются и без списка.
+     *
+     * @param now текущий момент времени
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
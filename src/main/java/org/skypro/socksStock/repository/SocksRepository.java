@@ -15,13 +15,14 @@ import java.util.Optional;
 public interface SocksRepository extends JpaRepository<Socks, Long> {
 
     /**
-     * Находит носки по цвету и проценту содержания хлопка.
+     * Находит позицию склада по цвету и проценту содержания хлопка.
      *
+     * @param warehouse  склад
      * @param color      цвет носков для поиска
      * @param cottonPart процент содержания хлопка для поиска
      * @return Optional с найденными носками или пустой Optional, если носки не найдены
      */
-    Optional<Socks> findByColorAndCottonPart(String color, Integer cottonPart);
+    Optional<Socks> findByWarehouseAndColorAndCottonPart(String warehouse, String color, Integer cottonPart);
 
     /**
      * Вычисляет общее количество носков указанного цвета с содержанием хлопка больше заданного значения.
@@ -52,4 +53,46 @@ public interface SocksRepository extends JpaRepository<Socks, Long> {
      */
     @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM Socks s WHERE s.color = :color AND s.cottonPart = :cottonPart")
     Integer sumQuantityByColorAndCottonPartEqual(@Param("color") String color, @Param("cottonPart") Integer cottonPart);
+
+    /**
+     * Вычисляет количество носков указанного цвета на складе с содержанием хлопка больше заданного значения.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart минимальный процент содержания хлопка (исключающий)
+     * @return количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM Socks s " +
+            "WHERE s.warehouse = :warehouse AND s.color = :color AND s.cottonPart > :cottonPart")
+    Integer sumQuantityByWarehouseAndColorAndCottonPartGreaterThan(@Param("warehouse") String warehouse,
+                                                                   @Param("color") String color,
+                                                                   @Param("cottonPart") Integer cottonPart);
+
+    /**
+     * Вычисляет количество носков указанного цвета на складе с содержанием хлопка меньше заданного значения.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart максимальный процент содержания хлопка (исключающий)
+     * @return количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM Socks s " +
+            "WHERE s.warehouse = :warehouse AND s.color = :color AND s.cottonPart < :cottonPart")
+    Integer sumQuantityByWarehouseAndColorAndCottonPartLessThan(@Param("warehouse") String warehouse,
+                                                                @Param("color") String color,
+                                                                @Param("cottonPart") Integer cottonPart);
+
+    /**
+     * Вычисляет количество носков указанного цвета на складе с содержанием хлопка равным заданному значению.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart точный процент содержания хлопка
+     * @return количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM Socks s " +
+            "WHERE s.warehouse = :warehouse AND s.color = :color AND s.cottonPart = :cottonPart")
+    Integer sumQuantityByWarehouseAndColorAndCottonPartEqual(@Param("warehouse") String warehouse,
+                                                             @Param("color") String color,
+                                                             @Param("cottonPart") Integer cottonPart);
 }
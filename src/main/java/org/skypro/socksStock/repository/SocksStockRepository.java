@@ -0,0 +1,101 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.Socks;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Хранилище остатков носков, используемое сервисом склада на горячих путях.
+ * Реализация выбирается свойством app.socks.repository: jpa (по умолчанию), jdbc, partitioned или memory.
+ * Суммы без указания склада считаются по всем складам.
+ */
+public interface SocksStockRepository {
+
+    /**
+     * Находит позицию склада по цвету и проценту содержания хлопка.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для поиска
+     * @param cottonPart процент содержания хлопка для поиска
+     * @return Optional с найденными носками или пустой Optional, если носки не найдены
+     */
+    Optional<Socks> findByWarehouseAndColorAndCottonPart(String warehouse, String color, Integer cottonPart);
+
+    /**
+     * Сохраняет новую позицию или обновляет остаток существующей.
+     *
+     * @param socks позиция для сохранения
+     * @return сохраненная позиция с заполненным идентификатором
+     */
+    Socks save(Socks socks);
+
+    /**
+     * Вычисляет общее количество носков указанного цвета с содержанием хлопка больше заданного значения.
+     *
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart минимальный процент содержания хлопка (исключающий)
+     * @return общее количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    Integer sumQuantityByColorAndCottonPartGreaterThan(String color, Integer cottonPart);
+
+    /**
+     * Вычисляет общее количество носков указанного цвета с содержанием хлопка меньше заданного значения.
+     *
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart максимальный процент содержания хлопка (исключающий)
+     * @return общее количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    Integer sumQuantityByColorAndCottonPartLessThan(String color, Integer cottonPart);
+
+    /**
+     * Вычисляет общее количество носков указанного цвета с содержанием хлопка равным заданному значению.
+     *
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart точный процент содержания хлопка
+     * @return общее количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    Integer sumQuantityByColorAndCottonPartEqual(String color, Integer cottonPart);
+
+    /**
+     * Вычисляет количество носков указанного цвета на складе с содержанием хлопка больше заданного значения.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart минимальный процент содержания хлопка (исключающий)
+     * @return количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    Integer sumQuantityByWarehouseAndColorAndCottonPartGreaterThan(String warehouse, String color, Integer cottonPart);
+
+    /**
+     * Вычисляет количество носков указанного цвета на складе с содержанием хлопка меньше заданного значения.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart максимальный процент содержания хлопка (исключающий)
+     * @return количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    Integer sumQuantityByWarehouseAndColorAndCottonPartLessThan(String warehouse, String color, Integer cottonPart);
+
+    /**
+     * Вычисляет количество носков указанного цвета на складе с содержанием хлопка равным заданному значению.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для фильтрации
+     * @param cottonPart точный процент содержания хлопка
+     * @return количество носков, удовлетворяющих условиям (0 если нет таких носков)
+     */
+    Integer sumQuantityByWarehouseAndColorAndCottonPartEqual(String warehouse, String color, Integer cottonPart);
+
+    /**
+     * Возвращает все позиции, упорядоченные по цвету и проценту хлопка.
+     *
+     * @return список позиций
+     */
+    List<Socks> findAllOrderByColorAndCottonPart();
+
+    /**
+     * Удаляет все позиции.
+     */
+    void deleteAll();
+}
@@ -0,0 +1,23 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.StockAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с журналом уведомлений о низком остатке.
+ */
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+
+    /**
+     * Возвращает последние уведомления, начиная с самого нового.
+     *
+     * @param pageable ограничение количества записей
+     * @return список уведомлений
+     */
+    List<StockAlert> findAllByOrderByIdDesc(Pageable pageable);
+}
@@ -0,0 +1,53 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.StockMovement;
+import org.skypro.socksStock.model.projection.StockDelta;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностью StockMovement в базе данных.
+ */
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    /**
+     * Суммирует движения по позициям за полуинтервал (from, to].
+     *
+     * @param from начало интервала (исключающее)
+     * @param to   конец интервала (включающий)
+     * @return список суммарных изменений по позициям
+     */
+    @Query("SELECT new org.skypro.socksStock.model.projection.StockDelta(m.color, m.cottonPart, SUM(m.delta)) " +
+            "FROM StockMovement m WHERE m.occurredAt > :from AND m.occurredAt <= :to " +
+            "GROUP BY m.color, m.cottonPart")
+    List<StockDelta> sumDeltasBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * Суммирует движения позиций указанного цвета за полуинтервал (from, to].
+     *
+     * @param color цвет носков для фильтрации
+     * @param from  начало интервала (исключающее)
+     * @param to    конец интервала (включающий)
+     * @return список суммарных изменений по позициям цвета
+     */
+    @Query("SELECT new org.skypro.socksStock.model.projection.StockDelta(m.color, m.cottonPart, SUM(m.delta)) " +
+            "FROM StockMovement m WHERE m.color = :color AND m.occurredAt > :from AND m.occurredAt <= :to " +
+            "GROUP BY m.color, m.cottonPart")
+    List<StockDelta> sumDeltasByColorBetween(@Param("color") String color,
+                                             @Param("from") Instant from,
+                                             @Param("to") Instant to);
+
+    /**
+     * Возвращает движения, произошедшие после указанного момента, в хронологическом порядке.
+     *
+     * @param from     момент, после которого выбираются движения
+     * @param pageable ограничение выборки
+     * @return список движений
+     */
+    List<StockMovement> findByOccurredAtAfterOrderByOccurredAtAscIdAsc(Instant from, Pageable pageable);
+}
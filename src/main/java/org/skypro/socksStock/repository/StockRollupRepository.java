@@ -0,0 +1,100 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.dto.response.StockRollupDTO;
+import org.skypro.socksStock.model.entity.RollupGranularity;
+import org.skypro.socksStock.model.entity.StockRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностью StockRollup в базе данных.
+ */
+public interface StockRollupRepository extends JpaRepository<StockRollup, Long> {
+
+    /**
+     * Возвращает интервалы позиции в полуинтервале [from, to), упорядоченные по времени.
+     *
+     * @param granularity размер интервала
+     * @param color       цвет носков
+     * @param cottonPart  процент содержания хлопка
+     * @param from        начало диапазона (включающее)
+     * @param to          конец диапазона (исключающий)
+     * @return список интервалов
+     */
+    @Query("SELECT new org.skypro.socksStock.model.dto.response.StockRollupDTO(r.bucketStart, r.inflow, r.outflow) " +
+            "FROM StockRollup r WHERE r.granularity = :granularity AND r.color = :color " +
+            "AND r.cottonPart = :cottonPart AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "ORDER BY r.bucketStart")
+    List<StockRollupDTO> findSkuRollups(@Param("granularity") RollupGranularity granularity,
+                                        @Param("color") String color,
+                                        @Param("cottonPart") Integer cottonPart,
+                                        @Param("from") Instant from,
+                                        @Param("to") Instant to);
+
+    /**
+     * Возвращает итоговые интервалы цвета в полуинтервале [from, to), упорядоченные по времени.
+     *
+     * @param granularity размер интервала
+     * @param color       цвет носков
+     * @param from        начало диапазона (включающее)
+     * @param to          конец диапазона (исключающий)
+     * @return список интервалов
+     */
+    @Query("SELECT new org.skypro.socksStock.model.dto.response.StockRollupDTO(r.bucketStart, r.inflow, r.outflow) " +
+            "FROM StockRollup r WHERE r.granularity = :granularity AND r.color = :color " +
+            "AND r.cottonPart IS NULL AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "ORDER BY r.bucketStart")
+    List<StockRollupDTO> findColorRollups(@Param("granularity") RollupGranularity granularity,
+                                          @Param("color") String color,
+                                          @Param("from") Instant from,
+                                          @Param("to") Instant to);
+
+    /**
+     * Атомарно добавляет приход и расход к интервалу позиции, создавая строку при ее отсутствии.
+     *
+     * @param granularity размер интервала
+     * @param bucketStart начало интервала
+     * @param color       цвет носков
+     * @param cottonPart  процент содержания хлопка
+     * @param inflow      приход
+     * @param outflow     расход
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stock_rollups (granularity, bucket_start, color, cotton_part, inflow, outflow) " +
+            "VALUES (:granularity, :bucketStart, :color, :cottonPart, :inflow, :outflow) " +
+            "ON CONFLICT (granularity, color, cotton_part, bucket_start) WHERE cotton_part IS NOT NULL " +
+            "DO UPDATE SET inflow = stock_rollups.inflow + EXCLUDED.inflow, " +
+            "outflow = stock_rollups.outflow + EXCLUDED.outflow", nativeQuery = true)
+    void upsertSku(@Param("granularity") String granularity,
+                   @Param("bucketStart") Instant bucketStart,
+                   @Param("color") String color,
+                   @Param("cottonPart") int cottonPart,
+                   @Param("inflow") long inflow,
+                   @Param("outflow") long outflow);
+
+    /**
+     * Атомарно добавляет приход и расход к итоговому интервалу цвета, создавая строку при ее отсутствии.
+     *
+     * @param granularity размер интервала
+     * @param bucketStart начало интервала
+     * @param color       цвет носков
+     * @param inflow      приход
+     * @param outflow     расход
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stock_rollups (granularity, bucket_start, color, cotton_part, inflow, outflow) " +
+            "VALUES (:granularity, :bucketStart, :color, NULL, :inflow, :outflow) " +
+            "ON CONFLICT (granularity, color, bucket_start) WHERE cotton_part IS NULL " +
+            "DO UPDATE SET inflow = stock_rollups.inflow + EXCLUDED.inflow, " +
+            "outflow = stock_rollups.outflow + EXCLUDED.outflow", nativeQuery = true)
+    void upsertColor(@Param("granularity") String granularity,
+                     @Param("bucketStart") Instant bucketStart,
+                     @Param("color") String color,
+                     @Param("inflow") long inflow,
+                     @Param("outflow") long outflow);
+}
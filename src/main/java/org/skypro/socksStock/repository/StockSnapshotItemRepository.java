@@ -0,0 +1,29 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.StockSnapshotItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностью StockSnapshotItem в базе данных.
+ */
+public interface StockSnapshotItemRepository extends JpaRepository<StockSnapshotItem, Long> {
+
+    /**
+     * Возвращает все позиции снимка.
+     *
+     * @param snapshotId идентификатор снимка
+     * @return список позиций снимка
+     */
+    List<StockSnapshotItem> findBySnapshotId(Long snapshotId);
+
+    /**
+     * Возвращает позиции снимка указанного цвета.
+     *
+     * @param snapshotId идентификатор снимка
+     * @param color      цвет носков
+     * @return список позиций снимка указанного цвета
+     */
+    List<StockSnapshotItem> findBySnapshotIdAndColor(Long snapshotId, String color);
+}
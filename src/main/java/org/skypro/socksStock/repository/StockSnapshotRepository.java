@@ -0,0 +1,50 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сущностью StockSnapshot в базе данных.
+ */
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    /**
+     * Находит последний снимок, сделанный не позднее указанного момента.
+     *
+     * @param asOf момент времени
+     * @return Optional со снимком или пустой Optional, если снимков до этого момента нет
+     */
+    Optional<StockSnapshot> findTopByTakenAtLessThanEqualOrderByTakenAtDesc(Instant asOf);
+
+    /**
+     * Находит самый последний снимок склада.
+     *
+     * @return Optional со снимком или пустой Optional, если снимков нет
+     */
+    Optional<StockSnapshot> findTopByOrderByTakenAtDesc();
+
+    /**
+     * Находит снимок по моменту его построения.
+     *
+     * @param takenAt момент построения снимка
+     * @return Optional со снимком или пустой Optional, если снимка нет
+     */
+    Optional<StockSnapshot> findByTakenAt(Instant takenAt);
+
+    /**
+     * Создает снимок на указанный момент, если другой узел не создал его раньше.
+     *
+     * @param takenAt момент построения снимка
+     * @return количество вставленных строк: 1 или 0, если снимок уже существует
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshots (taken_at) VALUES (:takenAt) ON CONFLICT (taken_at) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("takenAt") Instant takenAt);
+}
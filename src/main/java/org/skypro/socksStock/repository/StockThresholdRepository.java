@@ -0,0 +1,31 @@
+package org.skypro.socksStock.repository;
+
+import org.skypro.socksStock.model.entity.StockThreshold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с порогами низкого остатка.
+ */
+@Repository
+public interface StockThresholdRepository extends JpaRepository<StockThreshold, Long> {
+
+    /**
+     * Находит порог для конкретной позиции.
+     *
+     * @param color      цвет носков
+     * @param cottonPart процент содержания хлопка
+     * @return Optional с найденным порогом или пустой Optional
+     */
+    Optional<StockThreshold> findByColorAndCottonPart(String color, Integer cottonPart);
+
+    /**
+     * Находит порог, действующий для всех позиций цвета.
+     *
+     * @param color цвет носков
+     * @return Optional с найденным порогом или пустой Optional
+     */
+    Optional<StockThreshold> findByColorAndCottonPartIsNull(String color);
+}
@@ -1,9 +1,16 @@
 package org.skypro.socksStock.repository;
 
+import org.skypro.socksStock.model.dto.response.UserResponseDTO;
 import org.skypro.socksStock.model.entity.AppUser;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.projection.UserCredentials;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,10 +36,98 @@ public interface UserRepository extends JpaRepository<AppUser, Long> {
     Boolean existsByUsername(String username);
 
     /**
-     * Находит всех пользователей с указанной ролью.
+     * Загружает учетные данные пользователя без гидрации сущности AppUser.
      *
-     * @param role роль пользователей для фильтрации
-     * @return список пользователей с указанной ролью (может быть пустым)
+     * @param username имя пользователя для поиска
+     * @return Optional с учетными данными или пустой Optional, если пользователь не найден
+     */
+    @Query("SELECT new org.skypro.socksStock.model.projection.UserCredentials(" +
+            "u.username, u.password, u.role, u.id, u.tokenVersion) FROM AppUser u WHERE u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    /**
+     * Возвращает учетные данные пользователя по идентификатору без загрузки сущности.
+     *
+     * @param id идентификатор пользователя
+     * @return Optional с учетными данными пользователя
+     */
+    @Query("SELECT new org.skypro.socksStock.model.projection.UserCredentials(" +
+            "u.username, u.password, u.role, u.id, u.tokenVersion) FROM AppUser u WHERE u.id = :id")
+    Optional<UserCredentials> findCredentialsById(@Param("id") Long id);
+
+    /**
+     * Заменяет хеш пароля пользователя.
+     *
+     * @param username имя пользователя
+     * @param password новый хеш пароля
+     * @return количество обновленных строк
+     */
+    @Modifying
+    @Query("UPDATE AppUser u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Находит текущую версию токенов пользователя.
+     *
+     * @param id идентификатор пользователя
+     * @return Optional с версией токенов или пустой Optional, если пользователь не найден
+     */
+    @Query("SELECT u.tokenVersion FROM AppUser u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    /**
+     * Находит публичные данные пользователя по идентификатору.
+     *
+     * @param id идентификатор пользователя
+     * @return Optional с DTO пользователя или пустой Optional, если пользователь не найден
+     */
+    @Query("SELECT new org.skypro.socksStock.model.dto.response.UserResponseDTO(u.id, u.username, u.role) " +
+            "FROM AppUser u WHERE u.id = :id")
+    Optional<UserResponseDTO> findUserById(@Param("id") Long id);
+
+    /**
+     * Находит публичные данные пользователя по имени пользователя.
+     *
+     * @param username имя пользователя для поиска
+     * @return Optional с DTO пользователя или пустой Optional, если пользователь не найден
+     */
+    @Query("SELECT new org.skypro.socksStock.model.dto.response.UserResponseDTO(u.id, u.username, u.role) " +
+            "FROM AppUser u WHERE u.username = :username")
+    Optional<UserResponseDTO> findUserByUsername(@Param("username") String username);
+
+    /**
+     * Возвращает публичные данные пользователей с идентификатором больше указанного.
+     * Страница читается по первичному ключу, поэтому стоимость запроса не зависит от ее номера.
+     *
+     * @param afterId  идентификатор последнего пользователя предыдущей страницы
+     * @param pageable ограничение количества записей
+     * @return список DTO пользователей, упорядоченный по идентификатору
+     */
+    @Query("SELECT new org.skypro.socksStock.model.dto.response.UserResponseDTO(u.id, u.username, u.role) " +
+            "FROM AppUser u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponseDTO> findUsersAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Возвращает публичные данные пользователей с указанной ролью и идентификатором больше указанного.
+     * Страница читается по индексу (role, id).
+     *
+     * @param role     роль пользователей для фильтрации
+     * @param afterId  идентификатор последнего пользователя предыдущей страницы
+     * @param pageable ограничение количества записей
+     * @return список DTO пользователей, упорядоченный по идентификатору
+     */
+    @Query("SELECT new org.skypro.socksStock.model.dto.response.UserResponseDTO(u.id, u.username, u.role) " +
+            "FROM AppUser u WHERE u.role = :role AND u.id > :afterId ORDER BY u.id")
+    List<UserResponseDTO> findUsersByRoleAfter(@Param("role") Role role, @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    /**
+     * Находит публичные данные пользователей по списку имен одним запросом.
+     *
+     * @param usernames имена пользователей
+     * @return список DTO найденных пользователей
      */
-    List<AppUser> findByRole(Role role);
-}
\ No newline at end of file
+    @Query("SELECT new org.skypro.socksStock.model.dto.response.UserResponseDTO(u.id, u.username, u.role) " +
+            "FROM AppUser u WHERE u.username IN :usernames")
+    List<UserResponseDTO> findUsersByUsernameIn(@Param("usernames") Collection<String> usernames);
+}
@@ -0,0 +1,126 @@
+package org.skypro.socksStock.repository.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Словарь названий журнала операций (цветов, складов): записи журнала хранят числовой идентификатор
+ * названия, а соответствие идентификатора и названия дописывается в файл словаря.
+ * Идентификатор равен порядковому номеру записи названия в файле.
+ */
+@Slf4j
+class NameDictionary implements AutoCloseable {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final FileChannel channel;
+    private volatile String[] names;
+
+    /**
+     * Открывает словарь и загружает ранее записанные цвета.
+     *
+     * @param file файл словаря
+     */
+    NameDictionary(Path file) {
+        List<String> loaded = new ArrayList<>();
+        try {
+            if (Files.exists(file)) {
+                ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+                int validLength = 0;
+                while (content.remaining() >= Short.BYTES) {
+                    int length = Short.toUnsignedInt(content.getShort());
+                    if (content.remaining() < length) {
+                        log.warn("Name dictionary {} has a torn entry, ignoring the tail", file);
+                        break;
+                    }
+                    byte[] name = new byte[length];
+                    content.get(name);
+                    loaded.add(new String(name, StandardCharsets.UTF_8));
+                    validLength = content.position();
+                }
+                if (validLength < content.capacity()) {
+                    try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        truncate.truncate(validLength);
+                    }
+                }
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open name dictionary " + file, e);
+        }
+        for (int id = 0; id < loaded.size(); id++) {
+            ids.put(loaded.get(id), id);
+        }
+        names = loaded.toArray(String[]::new);
+    }
+
+    /**
+     * Возвращает идентификатор названия, записывая новое название в словарь при первом обращении.
+     *
+     * @param value название (цвет или склад)
+     * @return идентификатор названия
+     */
+    int idOf(String value) {
+        Integer id = ids.get(value);
+        return id != null ? id : register(value);
+    }
+
+    /**
+     * Возвращает название по идентификатору.
+     *
+     * @param id идентификатор названия
+     * @return название или null, если идентификатор неизвестен
+     */
+    String nameOf(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close name dictionary", e);
+        }
+    }
+
+    private synchronized int register(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        byte[] name = value.getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xFFFF) {
+            throw new IllegalArgumentException("Name is too long for the operation journal");
+        }
+        ByteBuffer entry = ByteBuffer.allocate(Short.BYTES + name.length);
+        entry.putShort((short) name.length).put(name).flip();
+        try {
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write name dictionary", e);
+        }
+        String[] extended = Arrays.copyOf(names, names.length + 1);
+        extended[names.length] = value;
+        names = extended;
+        ids.put(value, names.length - 1);
+        return names.length - 1;
+    }
+}
@@ -0,0 +1,311 @@
+package org.skypro.socksStock.repository.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Бинарный журнал операций склада на отображенных в память файлах.
+ * <p>
+ * Каждая операция записывается фиксированной 40-байтовой записью: момент операции, пользователь,
+ * идентификаторы цвета и склада, процент хлопка, изменение и итоговый остаток позиции на складе.
+ * Названия цветов и складов хранятся в словарях colors.dict и warehouses.dict. Журнал разбит на сегменты
+ * operations-N.seg фиксированного размера, где N — номер первой записи сегмента; заполненный
+ * сегмент сбрасывается на диск и закрывается, а самые старые сегменты сверх лимита удаляются.
+ * <p>
+ * Запись копируется в отображенную память без системных вызовов; сброс на диск выполняется
+ * пакетами — после заданного количества записей или по вызову {@link #flush()}. Признак
+ * фиксации записывается последним, поэтому запись без него (например, после сбоя) считается
+ * концом журнала.
+ */
+@Slf4j
+public class OperationJournal implements AutoCloseable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("operations-(\\d{20})\\.seg");
+    private static final int HEADER_SIZE = 64;
+    private static final int SEGMENT_MAGIC = 0x534F4A32;
+    private static final int RECORD_SIZE = OperationRecordView.RECORD_SIZE;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int fsyncBatchSize;
+    private final int maxSegments;
+    private final NameDictionary colors;
+    private final NameDictionary warehouses;
+
+    private MappedByteBuffer active;
+    private long activeBase;
+    private int activeCount;
+    private int flushedCount;
+    private long lastTimestamp;
+    private volatile long published;
+
+    /**
+     * Открывает журнал и находит конец последнего сегмента.
+     *
+     * @param directory         каталог сегментов журнала
+     * @param recordsPerSegment количество записей в одном сегменте
+     * @param fsyncBatchSize    количество записей, после которого сегмент сбрасывается на диск
+     * @param maxSegments       максимальное количество хранимых сегментов, 0 — без ограничения
+     */
+    public OperationJournal(Path directory, int recordsPerSegment, int fsyncBatchSize, int maxSegments) {
+        if (recordsPerSegment <= 0 || fsyncBatchSize <= 0 || maxSegments < 0) {
+            throw new IllegalArgumentException("Journal segment size and fsync batch must be positive");
+        }
+        if (recordsPerSegment > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("Journal segment must not exceed 2 GB");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.maxSegments = maxSegments;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create operation journal directory " + directory, e);
+        }
+        this.colors = new NameDictionary(directory.resolve("colors.dict"));
+        this.warehouses = new NameDictionary(directory.resolve("warehouses.dict"));
+
+        List<Long> segments = segments();
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            long base = segments.get(segments.size() - 1);
+            openSegment(base);
+            activeCount = committedRecords(active);
+            flushedCount = activeCount;
+            if (activeCount > 0) {
+                lastTimestamp = active.getLong(recordOffset(activeCount - 1) + OperationRecordView.TIMESTAMP_OFFSET);
+            }
+            if (activeCount == recordsPerSegment) {
+                rollSegment();
+            }
+        }
+        published = activeBase + activeCount;
+    }
+
+    /**
+     * Добавляет запись об операции в журнал.
+     * Момент операции берется в момент записи и не убывает от записи к записи.
+     *
+     * @param userId     идентификатор пользователя или 0, если пользователь неизвестен
+     * @param warehouse  склад позиции
+     * @param color      цвет носков
+     * @param cottonPart процент содержания хлопка
+     * @param delta      изменение остатка
+     * @param quantity   остаток позиции на складе после операции
+     * @return порядковый номер записи
+     */
+    public synchronized long append(long userId, String warehouse, String color, int cottonPart, int delta,
+                                    int quantity) {
+        int colorId = colors.idOf(color);
+        int warehouseId = warehouses.idOf(warehouse);
+        long timestamp = Math.max(lastTimestamp, ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()));
+        int offset = recordOffset(activeCount);
+        active.putLong(offset + OperationRecordView.TIMESTAMP_OFFSET, timestamp);
+        active.putLong(offset + OperationRecordView.USER_ID_OFFSET, userId);
+        active.putInt(offset + OperationRecordView.COLOR_ID_OFFSET, colorId);
+        active.putShort(offset + OperationRecordView.COTTON_PART_OFFSET, (short) cottonPart);
+        active.putInt(offset + OperationRecordView.DELTA_OFFSET, delta);
+        active.putInt(offset + OperationRecordView.QUANTITY_OFFSET, quantity);
+        active.putInt(offset + OperationRecordView.WAREHOUSE_ID_OFFSET, warehouseId);
+        active.putShort(offset + OperationRecordView.MARKER_OFFSET, OperationRecordView.COMMITTED);
+        lastTimestamp = timestamp;
+        activeCount++;
+        long sequence = activeBase + activeCount - 1;
+        published = sequence + 1;
+
+        if (activeCount == recordsPerSegment) {
+            rollSegment();
+        } else if (activeCount - flushedCount >= fsyncBatchSize) {
+            flushActive();
+        }
+        return sequence;
+    }
+
+    /**
+     * Сбрасывает на диск записи, добавленные после предыдущего сброса.
+     */
+    public synchronized void flush() {
+        if (activeCount > flushedCount) {
+            flushActive();
+        }
+    }
+
+    /**
+     * Обходит записи журнала, начиная с указанного момента, в порядке их добавления.
+     * Сегменты, целиком предшествующие моменту начала, пропускаются без чтения записей.
+     *
+     * @param from    момент начала (включительно)
+     * @param to      момент окончания (не включительно)
+     * @param visitor обработчик записи; возвращает false, чтобы прекратить обход
+     */
+    public void scan(Instant from, Instant to, Predicate<OperationRecordView> visitor) {
+        long fromMicros = ChronoUnit.MICROS.between(Instant.EPOCH, from);
+        long toMicros = ChronoUnit.MICROS.between(Instant.EPOCH, to);
+        long limit = published;
+        List<Long> segments = segments();
+        OperationRecordView view = new OperationRecordView(colors, warehouses);
+
+        for (int i = 0; i < segments.size(); i++) {
+            long base = segments.get(i);
+            if (base >= limit) {
+                return;
+            }
+            try {
+                ByteBuffer segment = mapForRead(base);
+                if (segment == null) {
+                    continue;
+                }
+                int count = (int) Math.min(recordsPerSegment, limit - base);
+                if (i + 1 < segments.size() && count > 0 && timestampAt(segment, count - 1) < fromMicros) {
+                    continue;
+                }
+                for (int index = 0; index < count; index++) {
+                    int offset = recordOffset(index);
+                    if (segment.getShort(offset + OperationRecordView.MARKER_OFFSET) != OperationRecordView.COMMITTED) {
+                        break;
+                    }
+                    long timestamp = segment.getLong(offset + OperationRecordView.TIMESTAMP_OFFSET);
+                    if (timestamp >= toMicros) {
+                        return;
+                    }
+                    if (timestamp >= fromMicros) {
+                        view.moveTo(segment, offset, base + index);
+                        if (!visitor.test(view)) {
+                            return;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read operation journal segment " + base, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (active != null) {
+            flush();
+            active = null;
+        }
+        colors.close();
+        warehouses.close();
+    }
+
+    private void flushActive() {
+        active.force(recordOffset(flushedCount), (activeCount - flushedCount) * RECORD_SIZE);
+        flushedCount = activeCount;
+    }
+
+    private void rollSegment() {
+        active.force();
+        openSegment(activeBase + recordsPerSegment);
+        if (maxSegments > 0) {
+            List<Long> segments = segments();
+            for (int i = 0; i < segments.size() - maxSegments; i++) {
+                try {
+                    Files.deleteIfExists(segmentPath(segments.get(i)));
+                } catch (IOException e) {
+                    log.warn("Failed to delete operation journal segment {}", segments.get(i), e);
+                }
+            }
+        }
+    }
+
+    private void openSegment(long base) {
+        Path path = segmentPath(base);
+        boolean created = !Files.exists(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open operation journal segment " + base, e);
+        }
+        if (created) {
+            active.putInt(0, SEGMENT_MAGIC);
+            active.putInt(4, RECORD_SIZE);
+            active.putInt(8, recordsPerSegment);
+            active.putLong(16, base);
+            active.force(0, HEADER_SIZE);
+        } else if (active.getInt(0) != SEGMENT_MAGIC || active.getInt(4) != RECORD_SIZE
+                || active.getInt(8) != recordsPerSegment) {
+            throw new IllegalStateException("Operation journal segment " + path
+                    + " has an unexpected header or segment size");
+        }
+        activeBase = base;
+        activeCount = 0;
+        flushedCount = 0;
+    }
+
+    private ByteBuffer mapForRead(long base) throws IOException {
+        synchronized (this) {
+            if (base == activeBase && active != null) {
+                return active.duplicate();
+            }
+        }
+        Path path = segmentPath(base);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < segmentSize()) {
+                return null;
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize());
+        }
+    }
+
+    private int committedRecords(ByteBuffer segment) {
+        int count = 0;
+        while (count < recordsPerSegment && segment.getShort(recordOffset(count)
+                + OperationRecordView.MARKER_OFFSET) == OperationRecordView.COMMITTED) {
+            count++;
+        }
+        return count;
+    }
+
+    private long timestampAt(ByteBuffer segment, int index) {
+        return segment.getLong(recordOffset(index) + OperationRecordView.TIMESTAMP_OFFSET);
+    }
+
+    private int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private long segmentSize() {
+        return HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE;
+    }
+
+    private List<Long> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list operation journal segments in " + directory, e);
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("operations-%020d.seg", base));
+    }
+}
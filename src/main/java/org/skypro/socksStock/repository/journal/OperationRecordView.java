@@ -0,0 +1,120 @@
+package org.skypro.socksStock.repository.journal;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Представление записи журнала операций поверх отображенного в память сегмента.
+ * Поля читаются непосредственно из буфера сегмента без копирования; при обходе журнала
+ * один и тот же объект перемещается от записи к записи, поэтому сохранять ссылку на него
+ * за пределами обработчика нельзя.
+ */
+public final class OperationRecordView {
+
+    static final int RECORD_SIZE = 40;
+    static final short COMMITTED = 0x4F50;
+
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int USER_ID_OFFSET = 8;
+    static final int COLOR_ID_OFFSET = 16;
+    static final int COTTON_PART_OFFSET = 20;
+    static final int MARKER_OFFSET = 22;
+    static final int DELTA_OFFSET = 24;
+    static final int QUANTITY_OFFSET = 28;
+    static final int WAREHOUSE_ID_OFFSET = 32;
+
+    private final NameDictionary colors;
+    private final NameDictionary warehouses;
+    private ByteBuffer buffer;
+    private int offset;
+    private long sequence;
+
+    OperationRecordView(NameDictionary colors, NameDictionary warehouses) {
+        this.colors = colors;
+        this.warehouses = warehouses;
+    }
+
+    void moveTo(ByteBuffer buffer, int offset, long sequence) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return сквозной порядковый номер записи в журнале
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return момент записи операции в микросекундах от начала эпохи
+     */
+    public long timestampMicros() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * @return момент записи операции
+     */
+    public Instant timestamp() {
+        return Instant.EPOCH.plus(timestampMicros(), ChronoUnit.MICROS);
+    }
+
+    /**
+     * @return идентификатор пользователя, выполнившего операцию, или 0, если пользователь неизвестен
+     */
+    public long userId() {
+        return buffer.getLong(offset + USER_ID_OFFSET);
+    }
+
+    /**
+     * @return идентификатор склада в словаре журнала
+     */
+    public int warehouseId() {
+        return buffer.getInt(offset + WAREHOUSE_ID_OFFSET);
+    }
+
+    /**
+     * @return склад позиции
+     */
+    public String warehouse() {
+        return warehouses.nameOf(warehouseId());
+    }
+
+    /**
+     * @return идентификатор цвета в словаре журнала
+     */
+    public int colorId() {
+        return buffer.getInt(offset + COLOR_ID_OFFSET);
+    }
+
+    /**
+     * @return цвет носков
+     */
+    public String color() {
+        return colors.nameOf(colorId());
+    }
+
+    /**
+     * @return процент содержания хлопка
+     */
+    public int cottonPart() {
+        return buffer.getShort(offset + COTTON_PART_OFFSET);
+    }
+
+    /**
+     * @return изменение остатка: положительное для прихода, отрицательное для расхода
+     */
+    public int delta() {
+        return buffer.getInt(offset + DELTA_OFFSET);
+    }
+
+    /**
+     * @return остаток позиции на складе после операции
+     */
+    public int quantity() {
+        return buffer.getInt(offset + QUANTITY_OFFSET);
+    }
+}
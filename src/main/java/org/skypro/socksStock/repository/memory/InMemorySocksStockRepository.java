@@ -0,0 +1,411 @@
+package org.skypro.socksStock.repository.memory;
+
+import jakarta.annotation.PreDestroy;
+import org.skypro.socksStock.model.entity.Socks;
+import org.skypro.socksStock.repository.SocksStockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранилище остатков в памяти для горячего пути операций со складом.
+ * <p>
+ * Остатки хранятся в массивах int по идентификатору пары склад + цвет и проценту хлопка (0..100);
+ * чтение и суммирование выполняются без блокировок. Режим не избавляет приложение от базы данных:
+ * операции прихода и расхода по-прежнему транзакционные, а история движений, сводки, пороги,
+ * журнал операций и пользователи хранятся в настроенном источнике данных.
+ * <p>
+ * Сохранения и очистка склада, выполненные в транзакции, копятся до ее фиксации и видны только
+ * самой транзакции: поиск и суммы в ней накладывают их поверх общих массивов. Журнал записывается
+ * с fsync в {@link TransactionSynchronization#beforeCommit(boolean)}, поэтому ошибка записи журнала
+ * откатывает всю операцию вместе с историей и сводками; массивы обновляются в
+ * {@link TransactionSynchronization#afterCommit()}. Если фиксация в базе данных все же не удалась,
+ * в журнал дописываются прежние значения затронутых позиций. Изменения одной позиции должны быть
+ * упорядочены вызывающим кодом (сервис склада удерживает локальную блокировку позиции до завершения
+ * транзакции). Сохранения и очистка склада разделяют одну блокировку, которая удерживается от записи
+ * журнала до завершения транзакции, чтобы порядок записей в журнале совпадал с порядком в памяти.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.socks.repository", havingValue = "memory")
+public class InMemorySocksStockRepository implements SocksStockRepository {
+
+    private static final int SLOTS = StockJournalStore.SLOTS_PER_COLOR;
+    private static final int[] NO_KEYS = new int[0];
+
+    private final StockJournalStore journal;
+    private final Map<StockKey, Integer> keyIds = new ConcurrentHashMap<>();
+    private final Map<String, int[]> keyIdsByColor = new ConcurrentHashMap<>();
+    private final Object keyLock = new Object();
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+    private volatile StockKey[] keys = new StockKey[0];
+    private volatile AtomicIntegerArray[] quantities = new AtomicIntegerArray[0];
+
+    /**
+     * Создает хранилище и восстанавливает остатки из снимка и журнала.
+     *
+     * @param directory каталог журнала и снимков
+     * @param fsync     выполнять ли fsync перед подтверждением операции
+     */
+    public InMemorySocksStockRepository(@Value("${app.socks.memory.directory:data/stock}") Path directory,
+                                        @Value("${app.socks.memory.fsync:true}") boolean fsync) {
+        this.journal = new StockJournalStore(directory, fsync);
+        journal.recover().forEach((key, slots) -> {
+            int keyId = intern(key);
+            AtomicIntegerArray array = quantities[keyId];
+            for (int slot = 0; slot < SLOTS; slot++) {
+                array.set(slot, slots[slot]);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Socks> findByWarehouseAndColorAndCottonPart(String warehouse, String color, Integer cottonPart) {
+        Integer keyId = keyIds.get(new StockKey(warehouse, color));
+        if (keyId == null || !isSlot(cottonPart)) {
+            return Optional.empty();
+        }
+        int quantity = quantityOf(quantities, keyId, cottonPart, pendingChanges(false));
+        return quantity < 0 ? Optional.empty() : Optional.of(toSocks(keyId, cottonPart, quantity));
+    }
+
+    @Override
+    public Socks save(Socks socks) {
+        if (!isSlot(socks.getCottonPart()) || socks.getQuantity() < 0) {
+            throw new IllegalArgumentException("Cotton part must be 0..100 and quantity non-negative");
+        }
+        int keyId = intern(new StockKey(socks.getWarehouse(), socks.getColor()));
+        JournalRecord record = new JournalRecord(socks.getWarehouse(), socks.getColor(),
+                socks.getCottonPart(), socks.getQuantity());
+        socks.setId(toId(keyId, socks.getCottonPart()));
+        PendingChanges pending = pendingChanges(true);
+        if (pending != null) {
+            pending.changes.put(socks.getId(), record);
+        } else {
+            apply(keyId, record);
+        }
+        return socks;
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartGreaterThan(String color, Integer cottonPart) {
+        return sum(keyIdsByColor.getOrDefault(color, NO_KEYS), cottonPart + 1, SLOTS);
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartLessThan(String color, Integer cottonPart) {
+        return sum(keyIdsByColor.getOrDefault(color, NO_KEYS), 0, cottonPart);
+    }
+
+    @Override
+    public Integer sumQuantityByColorAndCottonPartEqual(String color, Integer cottonPart) {
+        return sum(keyIdsByColor.getOrDefault(color, NO_KEYS), cottonPart, cottonPart + 1);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartGreaterThan(String warehouse, String color,
+                                                                          Integer cottonPart) {
+        return sum(keyOf(warehouse, color), cottonPart + 1, SLOTS);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartLessThan(String warehouse, String color,
+                                                                       Integer cottonPart) {
+        return sum(keyOf(warehouse, color), 0, cottonPart);
+    }
+
+    @Override
+    public Integer sumQuantityByWarehouseAndColorAndCottonPartEqual(String warehouse, String color,
+                                                                    Integer cottonPart) {
+        return sum(keyOf(warehouse, color), cottonPart, cottonPart + 1);
+    }
+
+    @Override
+    public List<Socks> findAllOrderByColorAndCottonPart() {
+        StockKey[] currentKeys = keys;
+        AtomicIntegerArray[] arrays = quantities;
+        PendingChanges pending = pendingChanges(false);
+
+        List<Socks> result = new ArrayList<>();
+        for (int keyId = 0; keyId < currentKeys.length; keyId++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                int quantity = quantityOf(arrays, keyId, slot, pending);
+                if (quantity >= 0) {
+                    result.add(toSocks(keyId, slot, quantity));
+                }
+            }
+        }
+        result.sort(Comparator.comparing(Socks::getColor)
+                .thenComparingInt(Socks::getCottonPart)
+                .thenComparing(Socks::getWarehouse));
+        return result;
+    }
+
+    @Override
+    public void deleteAll() {
+        PendingChanges pending = pendingChanges(true);
+        if (pending != null) {
+            pending.changes.clear();
+            pending.cleared = true;
+            return;
+        }
+        clearLock.writeLock().lock();
+        try {
+            long seq = journal.append(JournalRecord.clear());
+            journal.awaitDurable(seq);
+            clearArrays();
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Строит снимок остатков по закрытым сегментам журнала и удаляет покрытые им сегменты.
+     */
+    @Scheduled(fixedDelayString = "${app.socks.memory.snapshot-interval-ms:60000}",
+            initialDelayString = "${app.socks.memory.snapshot-interval-ms:60000}")
+    public void compact() {
+        journal.compact();
+    }
+
+    /**
+     * Сбрасывает журнал на диск при остановке приложения.
+     */
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+
+    /**
+     * Возвращает идентификатор пары склад + цвет, регистрируя новую пару при первом обращении.
+     *
+     * @param key склад и цвет носков
+     * @return идентификатор пары
+     */
+    private int intern(StockKey key) {
+        Integer keyId = keyIds.get(key);
+        if (keyId != null) {
+            return keyId;
+        }
+        synchronized (keyLock) {
+            keyId = keyIds.get(key);
+            if (keyId != null) {
+                return keyId;
+            }
+            int newId = keys.length;
+            StockKey[] extendedKeys = Arrays.copyOf(keys, newId + 1);
+            AtomicIntegerArray[] arrays = Arrays.copyOf(quantities, newId + 1);
+            extendedKeys[newId] = key;
+            arrays[newId] = new AtomicIntegerArray(StockJournalStore.emptySlots());
+            keys = extendedKeys;
+            quantities = arrays;
+            int[] colorKeys = keyIdsByColor.getOrDefault(key.color(), NO_KEYS);
+            int[] extendedColorKeys = Arrays.copyOf(colorKeys, colorKeys.length + 1);
+            extendedColorKeys[colorKeys.length] = newId;
+            keyIdsByColor.put(key.color(), extendedColorKeys);
+            keyIds.put(key, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Записывает изменение в журнал и после fsync применяет его в памяти.
+     * Сохранения выполняются параллельно под блокировкой чтения, очистка склада — под блокировкой записи.
+     *
+     * @param keyId  идентификатор пары склад + цвет
+     * @param record запись журнала с новым остатком позиции
+     */
+    private void apply(int keyId, JournalRecord record) {
+        clearLock.readLock().lock();
+        try {
+            long seq = journal.append(record);
+            journal.awaitDurable(seq);
+            quantities[keyId].set(record.cottonPart(), record.quantity());
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+
+    private void clearArrays() {
+        synchronized (keyLock) {
+            for (AtomicIntegerArray array : quantities) {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    array.set(slot, -1);
+                }
+            }
+        }
+    }
+
+    private int[] keyOf(String warehouse, String color) {
+        Integer keyId = keyIds.get(new StockKey(warehouse, color));
+        return keyId == null ? NO_KEYS : new int[]{keyId};
+    }
+
+    private int sum(int[] keyIdsToSum, int fromInclusive, int toExclusive) {
+        AtomicIntegerArray[] arrays = quantities;
+        PendingChanges pending = pendingChanges(false);
+        int total = 0;
+        for (int keyId : keyIdsToSum) {
+            for (int slot = Math.max(fromInclusive, 0); slot < Math.min(toExclusive, SLOTS); slot++) {
+                total += Math.max(quantityOf(arrays, keyId, slot, pending), 0);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Возвращает остаток позиции с учетом несохраненных изменений текущей транзакции.
+     *
+     * @param arrays  массивы остатков
+     * @param keyId   идентификатор пары склад + цвет
+     * @param slot    процент хлопка
+     * @param pending изменения текущей транзакции или null
+     * @return остаток позиции, -1 если позиция не заводилась
+     */
+    private int quantityOf(AtomicIntegerArray[] arrays, int keyId, int slot, PendingChanges pending) {
+        if (pending != null) {
+            JournalRecord change = pending.changes.get(toId(keyId, slot));
+            if (change != null) {
+                return change.quantity();
+            }
+            if (pending.cleared) {
+                return -1;
+            }
+        }
+        return arrays[keyId].get(slot);
+    }
+
+    /**
+     * Возвращает изменения, накопленные текущей транзакцией.
+     *
+     * @param create зарегистрировать ли набор изменений, если транзакция еще ничего не сохраняла
+     * @return набор изменений или null вне транзакции (и при create = false, если изменений нет)
+     */
+    private PendingChanges pendingChanges(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null && create) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private boolean isSlot(Integer cottonPart) {
+        return cottonPart != null && cottonPart >= 0 && cottonPart < SLOTS;
+    }
+
+    private long toId(int keyId, int cottonPart) {
+        return (long) keyId * SLOTS + cottonPart + 1;
+    }
+
+    private int keyIdOf(long id) {
+        return (int) ((id - 1) / SLOTS);
+    }
+
+    private Socks toSocks(int keyId, int cottonPart, int quantity) {
+        StockKey key = keys[keyId];
+        Socks socks = new Socks();
+        socks.setId(toId(keyId, cottonPart));
+        socks.setWarehouse(key.warehouse());
+        socks.setColor(key.color());
+        socks.setCottonPart(cottonPart);
+        socks.setQuantity(quantity);
+        return socks;
+    }
+
+    /**
+     * Изменения одной транзакции: очистка склада и последнее значение каждой позиции после нее.
+     * Применяются после фиксации раньше остальных обработчиков, чтобы слушатели событий
+     * после фиксации уже видели новые остатки.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Long, JournalRecord> changes = new LinkedHashMap<>();
+        private boolean cleared;
+        private Lock lock;
+        private boolean journaled;
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lock = cleared ? clearLock.writeLock() : clearLock.readLock();
+            lock.lock();
+            journaled = true;
+            long seq = 0;
+            if (cleared) {
+                seq = journal.append(JournalRecord.clear());
+            }
+            for (JournalRecord record : changes.values()) {
+                seq = journal.append(record);
+            }
+            journal.awaitDurable(seq);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (cleared) {
+                clearArrays();
+            }
+            changes.forEach((id, record) -> quantities[keyIdOf(id)].set(record.cottonPart(), record.quantity()));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                if (journaled && status != STATUS_COMMITTED) {
+                    revertJournal();
+                }
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+                TransactionSynchronizationManager.unbindResourceIfPossible(InMemorySocksStockRepository.this);
+            }
+        }
+
+        /**
+         * Дописывает в журнал значения из памяти для всех позиций, которые транзакция успела
+         * записать в журнал, но не применила: при восстановлении они перекроют ее записи.
+         */
+        private void revertJournal() {
+            AtomicIntegerArray[] arrays = quantities;
+            StockKey[] currentKeys = keys;
+            long seq = 0;
+            for (int keyId = 0; keyId < arrays.length; keyId++) {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    int quantity = arrays[keyId].get(slot);
+                    if ((cleared && quantity >= 0) || changes.containsKey(toId(keyId, slot))) {
+                        seq = journal.append(new JournalRecord(currentKeys[keyId].warehouse(),
+                                currentKeys[keyId].color(), slot, quantity));
+                    }
+                }
+            }
+            journal.awaitDurable(seq);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.skypro.socksStock.repository.memory;
+
+/**
+ * Запись журнала остатков: новое абсолютное значение остатка позиции или очистка склада.
+ * Записи с абсолютными значениями идемпотентны, поэтому повторное воспроизведение безопасно.
+ *
+ * @param warehouse  склад (null для очистки склада)
+ * @param color      цвет носков (null для очистки склада)
+ * @param cottonPart процент содержания хлопка
+ * @param quantity   остаток позиции после операции
+ */
+public record JournalRecord(String warehouse, String color, int cottonPart, int quantity) {
+
+    /**
+     * Создает запись очистки склада.
+     *
+     * @return запись очистки
+     */
+    public static JournalRecord clear() {
+        return new JournalRecord(null, null, -1, 0);
+    }
+
+    /**
+     * Проверяет, является ли запись очисткой склада.
+     *
+     * @return true для записи очистки
+     */
+    public boolean isClear() {
+        return color == null;
+    }
+}
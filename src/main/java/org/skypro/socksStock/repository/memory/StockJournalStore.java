@@ -0,0 +1,405 @@
+package org.skypro.socksStock.repository.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.model.entity.Socks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Файловое хранилище журнала и снимков остатков для режима работы без базы данных.
+ * <p>
+ * Журнал состоит из сегментов journal-N.log; запись добавляется в буфер под блокировкой,
+ * а при подтверждении буфер сбрасывается и выполняется fsync. Потоки, ожидающие подтверждения
+ * одновременно, покрываются одним fsync (групповая фиксация).
+ * Снимок snapshot-N.bin содержит состояние после всех сегментов с номером не больше N и
+ * строится из предыдущего снимка и закрытых сегментов, не затрагивая рабочее состояние в памяти.
+ * Записи и снимки формата без склада читаются как относящиеся к складу по умолчанию.
+ */
+@Slf4j
+public class StockJournalStore implements AutoCloseable {
+
+    static final int SLOTS_PER_COLOR = 101;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{20})\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{20})\\.bin");
+    private static final int SNAPSHOT_MAGIC = 0x534F434B;
+    private static final int SNAPSHOT_MAGIC_WAREHOUSES = 0x534F4357;
+    private static final byte TYPE_SET = 0;
+    private static final byte TYPE_CLEAR = 1;
+    private static final byte TYPE_SET_IN_WAREHOUSE = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final Object syncLock = new Object();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private long segment;
+    private long writtenSeq;
+    private volatile long durableSeq;
+
+    /**
+     * Создает хранилище журнала.
+     *
+     * @param directory каталог журнала и снимков
+     * @param fsync     выполнять ли fsync при подтверждении записи
+     */
+    public StockJournalStore(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Восстанавливает состояние из последнего снимка и последующих сегментов журнала,
+     * после чего открывает новый сегмент для записи.
+     *
+     * @return остатки по складам и цветам: массив из 101 значения, -1 означает отсутствие позиции
+     */
+    public synchronized Map<StockKey, int[]> recover() {
+        try {
+            Files.createDirectories(directory);
+            long snapshot = latest(SNAPSHOT_NAME);
+            Map<StockKey, int[]> state = snapshot < 0 ? new LinkedHashMap<>() : readSnapshot(snapshotPath(snapshot));
+            long lastSegment = snapshot;
+            for (long number : numbers(SEGMENT_NAME)) {
+                if (number > snapshot) {
+                    replaySegment(segmentPath(number), record -> apply(state, record));
+                    lastSegment = number;
+                }
+            }
+            openSegment(Math.max(lastSegment, snapshot) + 1);
+            return state;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover stock journal from " + directory, e);
+        }
+    }
+
+    /**
+     * Добавляет запись в буфер журнала.
+     *
+     * @param record запись журнала
+     * @return порядковый номер записи для ожидания подтверждения
+     */
+    public synchronized long append(JournalRecord record) {
+        byte[] color = record.isClear() ? new byte[0] : record.color().getBytes(StandardCharsets.UTF_8);
+        byte[] warehouse = record.isClear() ? new byte[0] : record.warehouse().getBytes(StandardCharsets.UTF_8);
+        int payloadLength = 1 + 2 + color.length + 1 + 4 + 2 + warehouse.length;
+        if (buffer.remaining() < payloadLength + 8) {
+            flushBuffer();
+        }
+        int payloadStart = buffer.position() + 4;
+        buffer.putInt(payloadLength);
+        buffer.put(record.isClear() ? TYPE_CLEAR : TYPE_SET_IN_WAREHOUSE);
+        buffer.putShort((short) color.length);
+        buffer.put(color);
+        buffer.put((byte) record.cottonPart());
+        buffer.putInt(record.quantity());
+        buffer.putShort((short) warehouse.length);
+        buffer.put(warehouse);
+        crc.reset();
+        crc.update(buffer.array(), payloadStart, payloadLength);
+        buffer.putInt((int) crc.getValue());
+        return ++writtenSeq;
+    }
+
+    /**
+     * Ожидает, пока запись с указанным номером будет записана на диск.
+     * Один fsync подтверждает все записи, добавленные к моменту его начала.
+     *
+     * @param seq порядковый номер записи
+     */
+    public void awaitDurable(long seq) {
+        if (durableSeq >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durableSeq >= seq) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                flushBuffer();
+                target = writtenSeq;
+                current = channel;
+            }
+            try {
+                if (fsync) {
+                    current.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync stock journal", e);
+            }
+            durableSeq = target;
+        }
+    }
+
+    /**
+     * Закрывает текущий сегмент, строит снимок по закрытым сегментам и удаляет покрытые им файлы.
+     */
+    public void compact() {
+        long closedSegment;
+        synchronized (syncLock) {
+            synchronized (this) {
+                flushBuffer();
+                try {
+                    channel.force(false);
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to close stock journal segment", e);
+                }
+                closedSegment = segment;
+                durableSeq = writtenSeq;
+                openSegment(segment + 1);
+            }
+        }
+
+        try {
+            long previous = latest(SNAPSHOT_NAME);
+            Map<StockKey, int[]> state = previous < 0 ? new LinkedHashMap<>() : readSnapshot(snapshotPath(previous));
+            for (long number : numbers(SEGMENT_NAME)) {
+                if (number > previous && number <= closedSegment) {
+                    replaySegment(segmentPath(number), record -> apply(state, record));
+                }
+            }
+            writeSnapshot(state, closedSegment);
+            for (long number : numbers(SEGMENT_NAME)) {
+                if (number <= closedSegment) {
+                    Files.deleteIfExists(segmentPath(number));
+                }
+            }
+            for (long number : numbers(SNAPSHOT_NAME)) {
+                if (number < closedSegment) {
+                    Files.deleteIfExists(snapshotPath(number));
+                }
+            }
+            log.debug("Stock journal compacted up to segment {}", closedSegment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact stock journal", e);
+        }
+    }
+
+    /**
+     * Применяет запись журнала к состоянию остатков.
+     *
+     * @param state  остатки по складам и цветам
+     * @param record запись журнала
+     */
+    static void apply(Map<StockKey, int[]> state, JournalRecord record) {
+        if (record.isClear()) {
+            state.clear();
+            return;
+        }
+        state.computeIfAbsent(new StockKey(record.warehouse(), record.color()),
+                key -> emptySlots())[record.cottonPart()] = record.quantity();
+    }
+
+    /**
+     * Создает массив остатков цвета без позиций.
+     *
+     * @return массив из 101 значения -1
+     */
+    static int[] emptySlots() {
+        int[] slots = new int[SLOTS_PER_COLOR];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    @Override
+    public void close() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (channel == null || !channel.isOpen()) {
+                    return;
+                }
+                flushBuffer();
+                try {
+                    channel.force(false);
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close stock journal", e);
+                }
+                durableSeq = writtenSeq;
+            }
+        }
+    }
+
+    private void flushBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write stock journal", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void openSegment(long number) {
+        try {
+            channel = FileChannel.open(segmentPath(number),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segment = number;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open stock journal segment " + number, e);
+        }
+    }
+
+    /**
+     * Воспроизводит записи сегмента. Оборванная или поврежденная запись в конце сегмента
+     * (например, после сбоя питания) и все следующие за ней игнорируются.
+     */
+    private void replaySegment(Path path, Consumer<JournalRecord> consumer) throws IOException {
+        CRC32 recordCrc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                byte[] payload;
+                int storedCrc;
+                try {
+                    int length = in.readInt();
+                    if (length <= 0 || length > BUFFER_SIZE) {
+                        log.warn("Stock journal segment {} has a corrupt record, ignoring the tail", path);
+                        return;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    storedCrc = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                recordCrc.reset();
+                recordCrc.update(payload);
+                if ((int) recordCrc.getValue() != storedCrc) {
+                    log.warn("Stock journal segment {} has a record with a bad checksum, ignoring the tail", path);
+                    return;
+                }
+                consumer.accept(decode(ByteBuffer.wrap(payload)));
+            }
+        }
+    }
+
+    private JournalRecord decode(ByteBuffer payload) {
+        byte type = payload.get();
+        byte[] color = new byte[payload.getShort()];
+        payload.get(color);
+        int cottonPart = payload.get();
+        int quantity = payload.getInt();
+        if (type == TYPE_CLEAR) {
+            return JournalRecord.clear();
+        }
+        String warehouse = Socks.DEFAULT_WAREHOUSE;
+        if (type != TYPE_SET) {
+            byte[] warehouseBytes = new byte[payload.getShort()];
+            payload.get(warehouseBytes);
+            warehouse = new String(warehouseBytes, StandardCharsets.UTF_8);
+        }
+        return new JournalRecord(warehouse, new String(color, StandardCharsets.UTF_8), cottonPart, quantity);
+    }
+
+    private void writeSnapshot(Map<StockKey, int[]> state, long number) throws IOException {
+        Path target = snapshotPath(number);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 snapshotCrc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(new CheckedOutputStream(file, snapshotCrc)))) {
+            out.writeInt(SNAPSHOT_MAGIC_WAREHOUSES);
+            out.writeInt(state.size());
+            for (Map.Entry<StockKey, int[]> entry : state.entrySet()) {
+                out.writeUTF(entry.getKey().warehouse());
+                out.writeUTF(entry.getKey().color());
+                for (int quantity : entry.getValue()) {
+                    out.writeInt(quantity);
+                }
+            }
+            out.flush();
+            DataOutputStream trailer = new DataOutputStream(file);
+            trailer.writeLong(snapshotCrc.getValue());
+            trailer.flush();
+        }
+        try (FileChannel snapshotChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            snapshotChannel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Map<StockKey, int[]> readSnapshot(Path path) throws IOException {
+        CRC32 snapshotCrc = new CRC32();
+        Map<StockKey, int[]> state = new LinkedHashMap<>();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path));
+             DataInputStream in = new DataInputStream(new CheckedInputStream(file, snapshotCrc))) {
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != SNAPSHOT_MAGIC_WAREHOUSES) {
+                throw new IOException("Not a stock snapshot: " + path);
+            }
+            int keys = in.readInt();
+            for (int i = 0; i < keys; i++) {
+                String warehouse = magic == SNAPSHOT_MAGIC_WAREHOUSES ? in.readUTF() : Socks.DEFAULT_WAREHOUSE;
+                String color = in.readUTF();
+                int[] slots = new int[SLOTS_PER_COLOR];
+                for (int slot = 0; slot < SLOTS_PER_COLOR; slot++) {
+                    slots[slot] = in.readInt();
+                }
+                state.put(new StockKey(warehouse, color), slots);
+            }
+            long expected = snapshotCrc.getValue();
+            if (new DataInputStream(file).readLong() != expected) {
+                throw new IOException("Stock snapshot checksum mismatch: " + path);
+            }
+        }
+        return state;
+    }
+
+    private long latest(Pattern pattern) throws IOException {
+        List<Long> numbers = numbers(pattern);
+        return numbers.isEmpty() ? -1 : numbers.get(numbers.size() - 1);
+    }
+
+    private List<Long> numbers(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> pattern.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("journal-%020d.log", number));
+    }
+
+    private Path snapshotPath(long number) {
+        return directory.resolve(String.format("snapshot-%020d.bin", number));
+    }
+}
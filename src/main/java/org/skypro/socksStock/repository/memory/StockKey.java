@@ -0,0 +1,10 @@
+package org.skypro.socksStock.repository.memory;
+
+/**
+ * Ключ массива остатков в памяти: склад и цвет носков.
+ *
+ * @param warehouse склад
+ * @param color     цвет носков
+ */
+public record StockKey(String warehouse, String color) {
+}
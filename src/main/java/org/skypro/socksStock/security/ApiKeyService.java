@@ -0,0 +1,217 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.UserNotFoundException;
+import org.skypro.socksStock.model.dto.response.ApiKeyResponse;
+import org.skypro.socksStock.model.entity.ApiKey;
+import org.skypro.socksStock.model.event.ApiKeysChangedEvent;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.model.projection.ApiKeyCredentials;
+import org.skypro.socksStock.repository.ApiKeyRepository;
+import org.skypro.socksStock.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сервис API-ключей сервисных учетных записей.
+ * <p>
+ * Ключ — 256 случайных бит; в таблице api_keys хранится только его SHA-256 хеш. Все хеши вместе
+ * с данными владельцев держатся в памяти, поэтому запрос с ключом аутентифицируется одним SHA-256
+ * и поиском в хеш-таблице — без проверки пароля, выдачи токена и обращения к базе данных.
+ * Таблица в памяти перечитывается целиком после выдачи или отзыва ключа, смены роли или удаления
+ * владельца, в том числе по уведомлению другого экземпляра приложения.
+ */
+@Slf4j
+@Service
+public class ApiKeyService implements MeterBinder {
+
+    private static final String KEY_PREFIX = "sk_";
+    private static final int KEY_BYTES = 32;
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SecureRandom random = new SecureRandom();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile Map<String, AuthenticatedUser> keys = Map.of();
+
+    /**
+     * Создает сервис API-ключей.
+     *
+     * @param apiKeyRepository репозиторий API-ключей
+     * @param userRepository   репозиторий пользователей
+     * @param eventPublisher   публикатор событий изменения ключей
+     */
+    public ApiKeyService(ApiKeyRepository apiKeyRepository, UserRepository userRepository,
+                         ApplicationEventPublisher eventPublisher) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Загружает API-ключи при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Аутентифицирует запрос по API-ключу.
+     *
+     * @param key API-ключ из запроса
+     * @return владелец ключа или пустой Optional, если ключ неизвестен или отозван
+     */
+    public Optional<AuthenticatedUser> authenticate(String key) {
+        AuthenticatedUser user = keys.get(hash(key));
+        (user == null ? rejected : accepted).increment();
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * Выдает API-ключ для учетной записи.
+     *
+     * @param userId идентификатор учетной записи, от имени которой действует ключ
+     * @param name   название ключа
+     * @return данные ключа вместе с самим ключом; ключ больше нигде не сохраняется
+     * @throws UserNotFoundException если учетная запись не найдена
+     */
+    @Transactional
+    public ApiKeyResponse issue(Long userId, String name) {
+        if (userId == null || !userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found: " + userId, HttpStatus.NOT_FOUND);
+        }
+        byte[] bytes = new byte[KEY_BYTES];
+        random.nextBytes(bytes);
+        String key = KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        ApiKey saved = apiKeyRepository.save(new ApiKey(null, hash(key), userId, name, Instant.now()));
+        eventPublisher.publishEvent(new ApiKeysChangedEvent(saved.getId()));
+        return new ApiKeyResponse(saved.getId(), saved.getName(), saved.getUserId(), saved.getCreatedAt(), key);
+    }
+
+    /**
+     * Возвращает выданные API-ключи без самих ключей.
+     *
+     * @return список API-ключей
+     */
+    public List<ApiKeyResponse> getAll() {
+        return apiKeyRepository.findAllByOrderByIdAsc().stream()
+                .map(apiKey -> new ApiKeyResponse(apiKey.getId(), apiKey.getName(), apiKey.getUserId(),
+                        apiKey.getCreatedAt(), null))
+                .toList();
+    }
+
+    /**
+     * Отзывает API-ключ.
+     *
+     * @param id идентификатор ключа
+     * @return true, если ключ отозван; false, если ключ не найден
+     */
+    @Transactional
+    public boolean revoke(Long id) {
+        if (apiKeyRepository.deleteByIdAndCount(id) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new ApiKeysChangedEvent(id));
+        return true;
+    }
+
+    /**
+     * Перечитывает API-ключи после фиксации выдачи или отзыва ключа.
+     *
+     * @param event событие изменения API-ключей
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApiKeysChanged(ApiKeysChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * Перечитывает API-ключи после смены роли или удаления пользователя, если у него есть ключи.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCredentialsChanged(UserCredentialsChangedEvent event) {
+        if (event.userId() == null || keys.values().stream().anyMatch(user -> event.userId().equals(user.getId()))) {
+            reload();
+        }
+    }
+
+    /**
+     * Перечитывает API-ключи по уведомлению другого экземпляра приложения.
+     *
+     * @param event событие инвалидации кеша
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        if (event.cache() == null || CacheInvalidatedEvent.API_KEYS.equals(event.cache())
+                || CacheInvalidatedEvent.USERS.equals(event.cache())) {
+            reload();
+        }
+    }
+
+    /**
+     * Заменяет таблицу API-ключей в памяти текущим содержимым базы данных.
+     */
+    public synchronized void reload() {
+        Map<String, AuthenticatedUser> loaded = new HashMap<>();
+        for (ApiKeyCredentials credentials : apiKeyRepository.findAllCredentials()) {
+            loaded.put(credentials.keyHash(), new AuthenticatedUser(credentials.userId(), credentials.username(), "",
+                    List.of(new SimpleGrantedAuthority(credentials.role().name())), credentials.tokenVersion()));
+        }
+        keys = Map.copyOf(loaded);
+        log.debug("Loaded {} API keys", loaded.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.api.key.authentications", accepted, LongAdder::sum)
+                .tag("result", "accepted")
+                .description("Requests authenticated by API key")
+                .register(registry);
+        FunctionCounter.builder("security.api.key.authentications", rejected, LongAdder::sum)
+                .tag("result", "rejected")
+                .description("Requests authenticated by API key")
+                .register(registry);
+        Gauge.builder("security.api.keys", this, service -> service.keys.size())
+                .description("API keys held in memory")
+                .register(registry);
+    }
+
+    private String hash(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.skypro.socksStock.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Данные аутентифицированного пользователя вместе с идентификатором и версией токенов,
+ * которые записываются в выдаваемый JWT-токен.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+    private final int tokenVersion;
+
+    /**
+     * Создает данные аутентифицированного пользователя.
+     *
+     * @param id           идентификатор пользователя
+     * @param username     имя пользователя
+     * @param password     хеш пароля (пустая строка для пользователя, восстановленного из токена)
+     * @param authorities  полномочия пользователя
+     * @param tokenVersion версия выданных пользователю токенов
+     */
+    public AuthenticatedUser(Long id, String username, String password,
+                             Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
+        super(username, password, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+}
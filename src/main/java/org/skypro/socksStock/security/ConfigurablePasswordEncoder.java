@@ -0,0 +1,85 @@
+package org.skypro.socksStock.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Кодировщик паролей с настраиваемыми алгоритмом и стоимостью хеширования.
+ * <p>
+ * Новые хеши сохраняются с префиксом алгоритма ({@code {bcrypt}} или {@code {argon2}}), хеши без
+ * префикса, созданные до его появления, проверяются как BCrypt. Хеш, созданный другим алгоритмом
+ * или с другой стоимостью (как большей, так и меньшей), считается устаревшим: после успешного входа
+ * Spring Security пересчитывает его с текущими настройками через {@code UserDetailsPasswordService}.
+ */
+public class ConfigurablePasswordEncoder implements PasswordEncoder {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private final String algorithm;
+    private final String costParameters;
+    private final DelegatingPasswordEncoder delegate;
+
+    /**
+     * Создает кодировщик.
+     *
+     * @param algorithm         алгоритм новых хешей: {@value #BCRYPT} или {@value #ARGON2}
+     * @param bcryptStrength    логарифм числа раундов BCrypt (4..31)
+     * @param argon2MemoryKb    объем памяти Argon2 в килобайтах
+     * @param argon2Iterations  число проходов Argon2
+     * @param argon2Parallelism степень параллелизма Argon2
+     * @throws IllegalArgumentException если алгоритм не поддерживается
+     */
+    public ConfigurablePasswordEncoder(String algorithm, int bcryptStrength,
+                                       int argon2MemoryKb, int argon2Iterations, int argon2Parallelism) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                argon2Parallelism, argon2MemoryKb, argon2Iterations);
+        this.costParameters = switch (algorithm) {
+            case BCRYPT -> String.format("%02d", bcryptStrength);
+            case ARGON2 -> "m=" + argon2MemoryKb + ",t=" + argon2Iterations + ",p=" + argon2Parallelism;
+            default -> throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        };
+        this.algorithm = algorithm;
+        this.delegate = new DelegatingPasswordEncoder(algorithm, Map.of(BCRYPT, bcrypt, ARGON2, argon2));
+        this.delegate.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * Проверяет, нужно ли пересчитать хеш с текущими настройками.
+     *
+     * @param encodedPassword сохраненный хеш пароля
+     * @return true, если хеш создан без префикса, другим алгоритмом или с другой стоимостью
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        String prefix = "{" + algorithm + "}";
+        if (!encodedPassword.startsWith(prefix)) {
+            return true;
+        }
+        // bcrypt: $2a$10$<salt+hash>; argon2: $argon2id$v=19$m=..,t=..,p=..$<salt>$<hash>
+        String[] parts = encodedPassword.substring(prefix.length()).split("\\$");
+        int costIndex = BCRYPT.equals(algorithm) ? 2 : 3;
+        return parts.length <= costIndex || !costParameters.equals(parts[costIndex]);
+    }
+}
@@ -1,26 +1,55 @@
 package org.skypro.socksStock.security;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.model.projection.UserCredentials;
 import org.skypro.socksStock.repository.UserRepository;
-import org.skypro.socksStock.model.entity.AppUser;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Сервис для загрузки данных пользователя в Spring Security.
+ * <p>
+ * Учетные данные читаются через {@link UserCredentialsCache} и сбрасываются при регистрации,
+ * смене роли или удалении пользователя. Также хранит в памяти текущие версии токенов пользователей:
+ * токен с полномочиями принимается без обращения к базе данных, если его версия совпадает с текущей.
+ * Версия перечитывается из базы данных только после смены роли или удаления пользователя
+ * на этом или другом экземпляре.
+ * <p>
+ * Как {@link UserDetailsPasswordService} сохраняет хеш пароля, пересчитанный Spring Security после
+ * успешного входа, если сохраненный хеш создан с другими настройками кодировщика паролей.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    /**
+     * Версия токенов удаленного пользователя; не совпадает ни с одной выданной версией.
+     */
+    private static final int DELETED = -1;
 
     private final UserRepository userRepository;
+    private final UserCredentialsCache credentialsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, Integer> tokenVersions = new ConcurrentHashMap<>();
 
     /**
      * Загружает данные пользователя по имени пользователя.
@@ -31,12 +60,90 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        AppUser user = userRepository.findByUsername(username).orElseThrow(
-                () -> new UsernameNotFoundException("User not found: " + username));
-        return new User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority(user.getRole().name()))
+        UserCredentials user = credentialsCache.get(username, this::findCredentials);
+        return new AuthenticatedUser(
+                user.id(),
+                user.username(),
+                user.password(),
+                Collections.singletonList(new SimpleGrantedAuthority(user.role().name())),
+                user.tokenVersion()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Сохраняет пересчитанный с текущими настройками хеш пароля пользователя.
+     *
+     * @param user        пользователь, успешно прошедший проверку пароля
+     * @param newPassword новый хеш пароля
+     * @return данные пользователя с новым хешем пароля
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+        Long userId = user instanceof AuthenticatedUser authenticated ? authenticated.getId() : null;
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(userId, user.getUsername()));
+        log.debug("Password hash of user {} rehashed with current settings", user.getUsername());
+        if (user instanceof AuthenticatedUser authenticated) {
+            return new AuthenticatedUser(authenticated.getId(), authenticated.getUsername(), newPassword,
+                    authenticated.getAuthorities(), authenticated.getTokenVersion());
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    /**
+     * Проверяет, что версия токена совпадает с текущей версией токенов пользователя.
+     *
+     * @param userId       идентификатор пользователя
+     * @param tokenVersion версия из токена
+     * @return true, если токен не отозван сменой роли или удалением пользователя
+     */
+    public boolean isTokenVersionCurrent(Long userId, int tokenVersion) {
+        return tokenVersions.computeIfAbsent(userId, this::loadTokenVersion) == tokenVersion;
+    }
+
+    /**
+     * Сбрасывает кешированные учетные данные и версию токенов пользователя после фиксации
+     * регистрации, смены роли или удаления.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCredentialsChanged(UserCredentialsChangedEvent event) {
+        if (event.username() != null) {
+            credentialsCache.evict(event.username());
+        }
+        if (event.userId() != null) {
+            credentialsCache.evictUser(event.userId());
+            tokenVersions.remove(event.userId());
+        }
+    }
+
+    /**
+     * Сбрасывает учетные данные и версии токенов по уведомлению другого экземпляра приложения.
+     *
+     * @param event событие инвалидации кеша
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        if (event.flushes(CacheInvalidatedEvent.USERS)) {
+            credentialsCache.clear();
+            tokenVersions.clear();
+        } else if (CacheInvalidatedEvent.USERS.equals(event.cache())) {
+            Long userId = Long.valueOf(event.key());
+            credentialsCache.evictUser(userId);
+            tokenVersions.remove(userId);
+        }
+    }
+
+    private UserCredentials findCredentials(String username) {
+        return userRepository.findCredentialsByUsername(username).orElseThrow(
+                () -> new UsernameNotFoundException("User not found: " + username));
+    }
+
+    private int loadTokenVersion(Long userId) {
+        int version = userRepository.findTokenVersionById(userId).orElse(DELETED);
+        log.debug("Loaded token version {} for user {}", version, userId);
+        return version;
+    }
+}
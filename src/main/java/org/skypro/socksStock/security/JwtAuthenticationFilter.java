@@ -7,6 +7,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +17,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT-фильтр аутентификации для обработки токенов в HTTP-запросах.
@@ -26,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
 
     /**
      * Основной метод фильтрации, выполняемый для каждого HTTP-запроса.
@@ -43,10 +47,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<JwtClaims> claims = StringUtils.hasText(jwt)
+                    ? tokenProvider.resolveToken(jwt)
+                    : Optional.empty();
+            UserDetails userDetails = claims.map(this::toUserDetails).orElse(null);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -60,6 +65,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Восстанавливает данные пользователя из токена. Токен с полномочиями принимается без обращения
+     * к базе данных, если его версия не устарела; токен без полномочий (выданный до их появления)
+     * загружает пользователя из базы данных. Токен, отозванный при выходе или администратором, отклоняется.
+     *
+     * @param claims данные проверенного токена
+     * @return данные пользователя или null, если токен отозван
+     */
+    private UserDetails toUserDetails(JwtClaims claims) {
+        if (revocationService.isRevoked(claims.tokenId())) {
+            logger.debug("Rejecting revoked token " + claims.tokenId());
+            return null;
+        }
+        if (!claims.carriesAuthorities()) {
+            return userDetailsService.loadUserByUsername(claims.username());
+        }
+        if (!userDetailsService.isTokenVersionCurrent(claims.userId(), claims.tokenVersion())) {
+            logger.debug("Rejecting revoked token of user " + claims.username());
+            return null;
+        }
+        return new AuthenticatedUser(claims.userId(), claims.username(), "",
+                List.of(new SimpleGrantedAuthority(claims.role())), claims.tokenVersion());
+    }
+
     /**
      * Извлекает JWT-токен из заголовка HTTP-запроса.
      *
@@ -0,0 +1,38 @@
+package org.skypro.socksStock.security;
+
+import java.time.Instant;
+
+/**
+ * Данные пользователя, извлеченные из проверенного JWT-токена.
+ *
+ * @param username     имя пользователя
+ * @param userId       идентификатор пользователя или null для токена без полномочий
+ * @param role         роль пользователя или null для токена без полномочий
+ * @param tokenVersion версия токенов пользователя на момент выдачи
+ * @param tokenId      идентификатор (jti) токена или null для токена, выданного до его появления
+ * @param expiresAt    момент истечения срока действия токена или null, если срок не указан
+ */
+public record JwtClaims(String username, Long userId, String role, int tokenVersion,
+                        String tokenId, Instant expiresAt) {
+
+    /**
+     * Создает данные токена без идентификатора и срока действия.
+     *
+     * @param username     имя пользователя
+     * @param userId       идентификатор пользователя
+     * @param role         роль пользователя
+     * @param tokenVersion версия токенов пользователя
+     */
+    public JwtClaims(String username, Long userId, String role, int tokenVersion) {
+        this(username, userId, role, tokenVersion, null, null);
+    }
+
+    /**
+     * Проверяет, содержит ли токен полномочия, достаточные для аутентификации без обращения к базе данных.
+     *
+     * @return true, если в токене есть идентификатор и роль пользователя
+     */
+    public boolean carriesAuthorities() {
+        return userId != null && role != null;
+    }
+}
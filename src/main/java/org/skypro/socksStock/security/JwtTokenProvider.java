@@ -5,31 +5,59 @@ import org.springframework.beans.factory.annotation.Value;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Провайдер для работы с JWT-токенами.
+ * <p>
+ * Ключ подписи и парсер неизменяемы и создаются один раз. Успешно проверенные токены запоминаются
+ * по SHA-256 дайджесту до истечения их срока действия, поэтому повторный запрос с тем же токеном
+ * не проверяет подпись заново. Каждый токен получает уникальный идентификатор (jti),
+ * по которому его можно отозвать.
  */
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
 
-    @Value("${app.jwt.expiration}")
-    private int jwtExpirationMs;
+    private final int jwtExpirationMs;
+    private final int verifiedCacheSize;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
     /**
-     * Создает секретный ключ для подписи токенов на основе конфигурируемого секрета.
+     * Создает провайдер, ключ подписи на основе конфигурируемого секрета и парсер, проверяющий им подпись.
      *
-     * @return SecretKey для подписи JWT-токенов
+     * @param jwtSecret         секрет для подписи токенов
+     * @param jwtExpirationMs   срок действия токена в миллисекундах
+     * @param verifiedCacheSize максимальное число запоминаемых проверенных токенов (0 — без кеша)
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret,
+                            @Value("${app.jwt.expiration}") int jwtExpirationMs,
+                            @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedCacheSize = verifiedCacheSize;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     /**
@@ -39,45 +67,73 @@ public class JwtTokenProvider {
      * @return строка с JWT-токеном
      */
     public String generateToken(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+        return tokenBuilder(username).compact();
+    }
 
-        return Jwts.builder()
-                .subject(username)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+    /**
+     * Генерирует JWT-токен с идентификатором, ролью и версией токенов пользователя,
+     * достаточный для аутентификации без обращения к базе данных.
+     *
+     * @param user аутентифицированный пользователь
+     * @return строка с JWT-токеном
+     */
+    public String generateToken(AuthenticatedUser user) {
+        String role = user.getAuthorities().stream()
+                .findFirst()
+                .map(GrantedAuthority::getAuthority)
+                .orElseThrow(() -> new IllegalArgumentException("User has no role: " + user.getUsername()));
+        return tokenBuilder(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, role)
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .compact();
     }
 
     /**
-     * Извлекает имя пользователя из JWT-токена.
+     * Проверяет токен и извлекает из него данные пользователя за один разбор.
      *
      * @param token JWT-токен
-     * @return имя пользователя из токена
+     * @return данные пользователя или пустой Optional, если токен невалиден или истек
      */
-    public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    public Optional<JwtClaims> resolveToken(String token) {
+        return Optional.ofNullable(verify(token)).map(VerifiedToken::claims);
     }
 
     /**
-     * Проверяет валидность JWT-токена.
+     * Проверяет подпись и срок действия токена, используя кеш ранее проверенных токенов.
      *
-     * @param token JWT-токен для проверки
-     * @return true если токен валиден, false в противном случае
+     * @param token JWT-токен
+     * @return данные проверенного токена или null, если токен невалиден
      */
-    public boolean validateToken(String token) {
+    private VerifiedToken verify(String token) {
+        if (!StringUtils.hasText(token)) {
+            log.error("JWT claims string is empty");
+            return null;
+        }
+        ByteBuffer digest = digest(token);
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.expiresAtMs()) {
+                return cached;
+            }
+            verifiedTokens.remove(digest);
+            log.error("JWT token is expired: {}", cached.claims().username());
+            return null;
+        }
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            Date expiration = claims.getExpiration();
+            Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+            Number userId = claims.get(USER_ID_CLAIM, Number.class);
+            VerifiedToken verified = new VerifiedToken(new JwtClaims(claims.getSubject(),
+                    userId == null ? null : userId.longValue(),
+                    claims.get(ROLE_CLAIM, String.class),
+                    tokenVersion == null ? 0 : tokenVersion.intValue(),
+                    claims.getId(),
+                    expiration == null ? null : expiration.toInstant()),
+                    expiration == null ? Long.MAX_VALUE : expiration.getTime());
+            remember(digest, verified);
+            return verified;
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -89,6 +145,51 @@ public class JwtTokenProvider {
         } catch (JwtException e) {
             log.error("JWT error: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Запоминает проверенный токен. При заполнении кеша сначала удаляются истекшие записи,
+     * а если места все равно нет — кеш очищается целиком.
+     */
+    private void remember(ByteBuffer digest, VerifiedToken verified) {
+        if (verifiedCacheSize <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            long now = System.currentTimeMillis();
+            verifiedTokens.values().removeIf(entry -> entry.expiresAtMs() <= now);
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(digest, verified);
+    }
+
+    private JwtBuilder tokenBuilder(String username) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(username)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey, Jwts.SIG.HS256);
+    }
+
+    private ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Данные проверенного токена и момент его истечения в миллисекундах.
+     */
+    private record VerifiedToken(JwtClaims claims, long expiresAtMs) {
     }
 }
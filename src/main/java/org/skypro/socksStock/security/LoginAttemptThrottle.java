@@ -0,0 +1,184 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение попыток входа по имени пользователя и адресу клиента.
+ * <p>
+ * Каждая попытка входа стоит полной проверки BCrypt, поэтому лимит проверяется до вызова
+ * {@code AuthenticationManager}: с одного адреса допускается {@code ip.max-attempts} попыток за окно,
+ * для одного имени пользователя — {@code username.max-failures} неудачных попыток. Счетчики — скользящие
+ * окна в кольцевых буферах в памяти; окна, в которых не осталось попыток, периодически удаляются.
+ * <p>
+ * Допущенная попытка сразу записывается в окно имени пользователя как неудачная и снимается только
+ * успешным входом. Проверка и запись выполняются атомарно в {@code compute} записи карты, поэтому
+ * параллельные попытки, ожидающие проверки пароля, не проходят сверх лимита. Адрес клиента берется
+ * из {@code X-Forwarded-For} только для запросов от доверенных прокси
+ * ({@code server.forward-headers-strategy}).
+ */
+@Slf4j
+@Component
+public class LoginAttemptThrottle implements MeterBinder {
+
+    private final boolean enabled;
+    private final int maxFailuresPerUsername;
+    private final long usernameWindowMs;
+    private final int maxAttemptsPerAddress;
+    private final long addressWindowMs;
+    private final Map<String, SlidingWindowLog> failuresByUsername = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindowLog> attemptsByAddress = new ConcurrentHashMap<>();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * Создает ограничитель попыток входа.
+     *
+     * @param enabled                включено ли ограничение
+     * @param maxFailuresPerUsername допустимое количество неудачных попыток для имени пользователя за окно
+     * @param usernameWindowMs       окно для имени пользователя в миллисекундах
+     * @param maxAttemptsPerAddress  допустимое количество попыток с одного адреса за окно
+     * @param addressWindowMs        окно для адреса клиента в миллисекундах
+     */
+    public LoginAttemptThrottle(
+            @Value("${app.security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${app.security.login-throttle.username.max-failures:5}") int maxFailuresPerUsername,
+            @Value("${app.security.login-throttle.username.window-ms:300000}") long usernameWindowMs,
+            @Value("${app.security.login-throttle.ip.max-attempts:20}") int maxAttemptsPerAddress,
+            @Value("${app.security.login-throttle.ip.window-ms:60000}") long addressWindowMs) {
+        this.enabled = enabled;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.usernameWindowMs = usernameWindowMs;
+        this.maxAttemptsPerAddress = maxAttemptsPerAddress;
+        this.addressWindowMs = addressWindowMs;
+    }
+
+    /**
+     * Допускает попытку входа или отклоняет ее до проверки пароля.
+     * Допущенная попытка расходует лимит адреса клиента и заранее учитывается как неудачная
+     * для имени пользователя.
+     *
+     * @param username      имя пользователя
+     * @param clientAddress адрес клиента или null, если он неизвестен
+     * @throws LoginThrottledException если лимит для имени пользователя или адреса исчерпан
+     */
+    public void acquire(String username, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (clientAddress != null) {
+            long retryAfterMs = tryRecord(attemptsByAddress, clientAddress, maxAttemptsPerAddress,
+                    addressWindowMs, now);
+            if (retryAfterMs > 0) {
+                reject("Too many login attempts from " + clientAddress, retryAfterMs);
+            }
+        }
+        if (username != null) {
+            long retryAfterMs = tryRecord(failuresByUsername, username, maxFailuresPerUsername,
+                    usernameWindowMs, now);
+            if (retryAfterMs > 0) {
+                reject("Too many failed login attempts for user " + username, retryAfterMs);
+            }
+        }
+    }
+
+    /**
+     * Учитывает неудачную попытку входа. Попытка уже записана в окно имени пользователя
+     * при допуске, поэтому здесь только обновляется метрика.
+     *
+     * @param username имя пользователя
+     */
+    public void recordFailure(String username) {
+        failures.increment();
+    }
+
+    /**
+     * Учитывает успешный вход и сбрасывает неудачные попытки имени пользователя.
+     *
+     * @param username имя пользователя
+     */
+    public void recordSuccess(String username) {
+        successes.increment();
+        if (username != null) {
+            failuresByUsername.remove(username);
+        }
+    }
+
+    /**
+     * Удаляет окна, в которых не осталось попыток.
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.eviction-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        evictIdle(failuresByUsername, usernameWindowMs, now);
+        evictIdle(attemptsByAddress, addressWindowMs, now);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.login.attempts", successes, LongAdder::sum)
+                .tag("result", "success")
+                .description("Login attempts by outcome")
+                .register(registry);
+        FunctionCounter.builder("security.login.attempts", failures, LongAdder::sum)
+                .tag("result", "failure")
+                .description("Login attempts by outcome")
+                .register(registry);
+        FunctionCounter.builder("security.login.attempts", throttled, LongAdder::sum)
+                .tag("result", "throttled")
+                .description("Login attempts by outcome")
+                .register(registry);
+        Gauge.builder("security.login.throttle.keys", this,
+                        throttle -> throttle.failuresByUsername.size() + throttle.attemptsByAddress.size())
+                .description("Usernames and client addresses with tracked login attempts")
+                .register(registry);
+    }
+
+    /**
+     * Атомарно проверяет лимит ключа и записывает попытку.
+     *
+     * @return 0, если попытка записана; иначе время до освобождения места в окне (не меньше 1 мс)
+     */
+    private long tryRecord(Map<String, SlidingWindowLog> windows, String key, int limit, long windowMs, long now) {
+        long[] retryAfterMs = new long[1];
+        windows.compute(key, (ignored, window) -> {
+            SlidingWindowLog current = window != null ? window : new SlidingWindowLog(limit);
+            if (!current.tryRecord(now, windowMs)) {
+                retryAfterMs[0] = Math.max(1, current.retryAfterMs(now, windowMs));
+            }
+            return current;
+        });
+        return retryAfterMs[0];
+    }
+
+    /**
+     * Удаляет неактивные окна; проверка и удаление выполняются в {@code computeIfPresent},
+     * чтобы не потерять попытку, записанную в это же время.
+     */
+    private void evictIdle(Map<String, SlidingWindowLog> windows, long windowMs, long now) {
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (ignored, window) -> window.isIdle(now, windowMs) ? null : window);
+        }
+    }
+
+    private void reject(String reason, long retryAfterMs) {
+        throttled.increment();
+        log.debug("Login rejected: {}", reason);
+        throw new LoginThrottledException("Too many login attempts, please retry later.",
+                HttpStatus.TOO_MANY_REQUESTS, Math.max(1, (retryAfterMs + 999) / 1000));
+    }
+}
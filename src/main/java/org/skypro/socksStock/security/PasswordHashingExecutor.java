@@ -0,0 +1,132 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.skypro.socksStock.exception.AuthenticationOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Выделенный пул для хеширования и проверки паролей.
+ * <p>
+ * BCrypt намеренно дорог по CPU, поэтому вход и регистрация выполняют его не в потоках Tomcat,
+ * а в пуле размером с число ядер с ограниченной очередью. Если очередь заполнена, запрос сразу
+ * отклоняется с 503 и Retry-After, и всплеск входов не отнимает потоки и CPU у остальных эндпоинтов.
+ * Глубина очереди, число отказов и время хеширования публикуются как метрики security.password.hashing.*.
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+
+    /**
+     * Создает пул хеширования паролей.
+     *
+     * @param threads           количество потоков (0 — по числу доступных процессоров)
+     * @param queueCapacity     максимальное количество ожидающих задач
+     * @param retryAfterSeconds значение заголовка Retry-After при переполнении очереди
+     */
+    public PasswordHashingExecutor(@Value("${app.security.password-hashing.threads:0}") int threads,
+                                   @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.security.password-hashing.retry-after-seconds:1}")
+                                   long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Выполняет задачу в пуле хеширования и ожидает ее результат.
+     * Исключения задачи (например, ошибки аутентификации) пробрасываются без обертки.
+     *
+     * @param task задача, выполняющая хеширование или проверку пароля
+     * @param <T>  тип результата
+     * @return результат задачи
+     * @throws AuthenticationOverloadedException если очередь пула заполнена
+     */
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthenticationOverloadedException("Authentication is temporarily overloaded, please retry.",
+                    HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("security.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("security.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(registry);
+        FunctionCounter.builder("security.password.hashing.rejected", rejected, LongAdder::sum)
+                .description("Logins and registrations rejected because the hashing queue was full")
+                .register(registry);
+        FunctionTimer.builder("security.password.hashing.duration", this,
+                        hashing -> hashing.completed.sum(), hashing -> hashing.hashNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent hashing or verifying passwords")
+                .register(registry);
+    }
+
+    /**
+     * Останавливает пул при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T timed(Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            hashNanos.add(System.nanoTime() - start);
+            completed.increment();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Фильтр ограничения частоты запросов аутентифицированных пользователей.
+ * <p>
+ * Выполняется после {@link JwtAuthenticationFilter} и ведет отдельный {@link TokenBucket} на каждую пару
+ * пользователь + класс эндпоинта (чтение, запись, администрирование). Запрос сверх лимита получает 429
+ * с заголовком Retry-After и не доходит до контроллера, поэтому один клиент не может занять весь пул
+ * соединений с базой данных. Полностью пополнившиеся ведра периодически удаляются: новое ведро
+ * создается полным, так что удаление не меняет поведения лимита.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    /**
+     * Класс эндпоинта, для которого ведется отдельный лимит.
+     */
+    enum EndpointClass {
+        READ, WRITE, ADMIN
+    }
+
+    private final boolean enabled;
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> rejected = new EnumMap<>(EndpointClass.class);
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Создает фильтр ограничения частоты запросов.
+     *
+     * @param enabled        включено ли ограничение
+     * @param readCapacity   допустимый всплеск запросов чтения
+     * @param readPerSecond  запросов чтения в секунду
+     * @param writeCapacity  допустимый всплеск запросов записи
+     * @param writePerSecond запросов записи в секунду
+     * @param adminCapacity  допустимый всплеск административных запросов
+     * @param adminPerSecond административных запросов в секунду
+     */
+    public RateLimitFilter(@Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.security.rate-limit.read.capacity:100}") int readCapacity,
+                           @Value("${app.security.rate-limit.read.per-second:50}") double readPerSecond,
+                           @Value("${app.security.rate-limit.write.capacity:20}") int writeCapacity,
+                           @Value("${app.security.rate-limit.write.per-second:10}") double writePerSecond,
+                           @Value("${app.security.rate-limit.admin.capacity:20}") int adminCapacity,
+                           @Value("${app.security.rate-limit.admin.per-second:5}") double adminPerSecond) {
+        this.enabled = enabled;
+        limits.put(EndpointClass.READ, new Limit(readCapacity, readPerSecond));
+        limits.put(EndpointClass.WRITE, new Limit(writeCapacity, writePerSecond));
+        limits.put(EndpointClass.ADMIN, new Limit(adminCapacity, adminPerSecond));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejected.put(endpointClass, new LongAdder());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        EndpointClass endpointClass = classify(request);
+        Limit limit = limits.get(endpointClass);
+        long now = System.nanoTime();
+        long result = buckets.computeIfAbsent(new BucketKey(authentication.getName(), endpointClass),
+                key -> new TokenBucket(limit.capacity(), limit.perSecond(), now)).tryConsume(now);
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(limit.capacity()));
+        if (result < 0) {
+            rejected.get(endpointClass).increment();
+            response.setHeader(REMAINING_HEADER, "0");
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result + 999_999_999L))));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many requests, please retry later.");
+            return;
+        }
+        response.setHeader(REMAINING_HEADER, String.valueOf(result));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Удаляет полностью пополнившиеся ведра неактивных пользователей.
+     */
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.eviction-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejected.forEach((endpointClass, counter) ->
+                FunctionCounter.builder("security.rate.limit.rejected", counter, LongAdder::sum)
+                        .tag("class", endpointClass.name().toLowerCase())
+                        .description("Requests rejected with 429 by the per-user rate limit")
+                        .register(registry));
+        Gauge.builder("security.rate.limit.buckets", buckets, Map::size)
+                .description("Active per-user rate limit buckets")
+                .register(registry);
+    }
+
+    /**
+     * Определяет класс эндпоинта по пути и методу запроса.
+     *
+     * @param request HTTP-запрос
+     * @return класс эндпоинта
+     */
+    EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/admin/") || path.startsWith("/actuator/")
+                || path.equals("/api/auth/register-admin") || path.equals("/api/auth/revoke")) {
+            return EndpointClass.ADMIN;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)) {
+            return EndpointClass.READ;
+        }
+        return EndpointClass.WRITE;
+    }
+
+    private record Limit(int capacity, double perSecond) {
+    }
+
+    private record BucketKey(String username, EndpointClass endpointClass) {
+    }
+}
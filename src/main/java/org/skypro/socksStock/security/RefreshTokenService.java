@@ -0,0 +1,112 @@
+package org.skypro.socksStock.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.model.entity.RefreshToken;
+import org.skypro.socksStock.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Сервис выдачи и ротации refresh-токенов.
+ * <p>
+ * Refresh-токен — 256 случайных бит; в таблице refresh_tokens хранится только его SHA-256 хеш
+ * с уникальным индексом. Медленный хеш здесь не нужен: перебор случайного токена невозможен,
+ * поэтому продление сеанса стоит один SHA-256 и поиск по индексу вместо проверки пароля.
+ * Каждый токен погашается при использовании и заменяется новым.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpirationMs;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Создает сервис refresh-токенов.
+     *
+     * @param refreshTokenRepository репозиторий refresh-токенов
+     * @param refreshExpirationMs    срок действия refresh-токена в миллисекундах
+     */
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.jwt.refresh-expiration:2592000000}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /**
+     * Выдает пользователю новый refresh-токен.
+     *
+     * @param userId идентификатор пользователя
+     * @return refresh-токен для передачи клиенту
+     */
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = Instant.now();
+        refreshTokenRepository.save(new RefreshToken(null, hash(token), userId,
+                now.plusMillis(refreshExpirationMs), now));
+        return token;
+    }
+
+    /**
+     * Погашает refresh-токен. Токен удаляется, поэтому повторное или параллельное
+     * использование того же токена не проходит.
+     *
+     * @param token refresh-токен
+     * @return идентификатор владельца токена или пустой Optional, если токен неизвестен, истек или уже погашен
+     */
+    @Transactional
+    public Optional<Long> consume(String token) {
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(hash(token));
+        if (stored.isEmpty() || refreshTokenRepository.deleteByIdAndCount(stored.get().getId()) == 0) {
+            return Optional.empty();
+        }
+        if (!stored.get().getExpiresAt().isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(stored.get().getUserId());
+    }
+
+    /**
+     * Отзывает refresh-токен при выходе пользователя.
+     *
+     * @param token refresh-токен
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.deleteByTokenHash(hash(token));
+    }
+
+    /**
+     * Удаляет истекшие refresh-токены.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-ms:3600000}",
+            initialDelayString = "${app.jwt.refresh-cleanup-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
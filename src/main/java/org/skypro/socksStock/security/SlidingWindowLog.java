@@ -0,0 +1,84 @@
+package org.skypro.socksStock.security;
+
+/**
+ * Скользящее окно попыток в виде кольцевого буфера.
+ * <p>
+ * Буфер хранит моменты последних {@code limit} попыток. Лимит исчерпан, если самая старая из них
+ * (следующая на перезапись) произошла внутри окна. Память — {@code limit} чисел на ключ независимо
+ * от частоты запросов.
+ */
+final class SlidingWindowLog {
+
+    private final long[] timestamps;
+    private int next;
+
+    /**
+     * Создает пустое окно.
+     *
+     * @param limit допустимое количество попыток в окне
+     */
+    SlidingWindowLog(int limit) {
+        this.timestamps = new long[Math.max(limit, 1)];
+    }
+
+    /**
+     * Записывает попытку, если лимит не исчерпан.
+     *
+     * @param nowMs    текущее время в миллисекундах
+     * @param windowMs длина окна в миллисекундах
+     * @return true, если попытка записана; false, если лимит исчерпан
+     */
+    synchronized boolean tryRecord(long nowMs, long windowMs) {
+        if (isExhausted(nowMs, windowMs)) {
+            return false;
+        }
+        record(nowMs);
+        return true;
+    }
+
+    /**
+     * Записывает попытку без проверки лимита.
+     *
+     * @param nowMs текущее время в миллисекундах
+     */
+    synchronized void record(long nowMs) {
+        timestamps[next] = nowMs;
+        next = (next + 1) % timestamps.length;
+    }
+
+    /**
+     * Проверяет, исчерпан ли лимит попыток в окне.
+     *
+     * @param nowMs    текущее время в миллисекундах
+     * @param windowMs длина окна в миллисекундах
+     * @return true, если лимит исчерпан
+     */
+    synchronized boolean isExhausted(long nowMs, long windowMs) {
+        long oldest = timestamps[next];
+        return oldest != 0 && nowMs - oldest < windowMs;
+    }
+
+    /**
+     * Возвращает время до освобождения места в окне.
+     *
+     * @param nowMs    текущее время в миллисекундах
+     * @param windowMs длина окна в миллисекундах
+     * @return время ожидания в миллисекундах (0, если лимит не исчерпан)
+     */
+    synchronized long retryAfterMs(long nowMs, long windowMs) {
+        long oldest = timestamps[next];
+        return oldest == 0 ? 0 : Math.max(0, oldest + windowMs - nowMs);
+    }
+
+    /**
+     * Проверяет, что все записанные попытки вышли за пределы окна.
+     *
+     * @param nowMs    текущее время в миллисекундах
+     * @param windowMs длина окна в миллисекундах
+     * @return true, если окно можно удалить без потери состояния
+     */
+    synchronized boolean isIdle(long nowMs, long windowMs) {
+        long newest = timestamps[(next + timestamps.length - 1) % timestamps.length];
+        return nowMs - newest >= windowMs;
+    }
+}
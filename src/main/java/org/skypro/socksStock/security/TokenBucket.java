@@ -0,0 +1,62 @@
+package org.skypro.socksStock.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий token bucket.
+ * <p>
+ * Состояние — одно число: момент (в наносекундах), к которому ведро опустеет при текущем расходе
+ * (theoretical arrival time, GCRA). Количество токенов в момент {@code now} равно
+ * {@code (now + capacity * interval - tat) / interval}, поэтому пополнение не требует отдельного
+ * таймера: взятие токена и пополнение выполняются одним compareAndSet без блокировок и выделения памяти.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Создает полное ведро.
+     *
+     * @param capacity        емкость ведра (допустимый всплеск запросов)
+     * @param refillPerSecond скорость пополнения в токенах в секунду
+     * @param nowNanos        текущее время в наносекундах
+     */
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.toleranceNanos = capacity * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Пытается взять один токен.
+     *
+     * @param nowNanos текущее время в наносекундах
+     * @return количество оставшихся токенов (не меньше 0) при успехе или время ожидания следующего токена
+     * в наносекундах со знаком минус, если ведро пусто
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + intervalNanos;
+            long debt = next - nowNanos;
+            if (debt > toleranceNanos) {
+                return -Math.max(1, debt - toleranceNanos);
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return (toleranceNanos - debt) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что ведро полностью пополнилось и его можно удалить без потери состояния.
+     *
+     * @param nowNanos текущее время в наносекундах
+     * @return true, если ведро полное
+     */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
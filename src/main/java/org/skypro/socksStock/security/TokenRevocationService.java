@@ -0,0 +1,186 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.model.entity.RevokedToken;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.TokenRevokedEvent;
+import org.skypro.socksStock.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сервис отзыва JWT-токенов.
+ * <p>
+ * Идентификаторы (jti) отозванных токенов хранятся в таблице revoked_tokens и дублируются в фильтре
+ * Блума в памяти. Проверка токена в каждом запросе обращается только к фильтру; к базе данных
+ * идут лишь положительные ответы фильтра, то есть действительно отозванные токены и редкие
+ * ложные срабатывания. Фильтр пополняется при отзыве (на других экземплярах — по уведомлению
+ * {@code app.socks.cluster.notify}) и периодически пересобирается по таблице, из которой
+ * при этом удаляются истекшие записи.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MeterBinder {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+    private final Object filterLock = new Object();
+    private final LongAdder filterPositives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder filterEntries = new LongAdder();
+    private volatile BloomFilter filter;
+    private BloomFilter pendingFilter;
+
+    /**
+     * Создает сервис отзыва токенов.
+     *
+     * @param revokedTokenRepository репозиторий отозванных токенов
+     * @param eventPublisher         публикатор событий отзыва
+     * @param expectedTokens         ожидаемое количество одновременно отозванных токенов
+     * @param falsePositiveRate      допустимая доля ложных срабатываний фильтра
+     */
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.security.revocation.expected-tokens:100000}") int expectedTokens,
+                                  @Value("${app.security.revocation.false-positive-rate:0.01}")
+                                  double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.eventPublisher = eventPublisher;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    /**
+     * Загружает отозванные токены при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Проверяет, отозван ли токен.
+     *
+     * @param tokenId идентификатор токена или null для токена без идентификатора
+     * @return true, если токен отозван
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        filterPositives.increment();
+        boolean revoked = revokedTokenRepository.existsById(tokenId);
+        if (!revoked) {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Отзывает токен до истечения его срока действия.
+     *
+     * @param tokenId   идентификатор токена
+     * @param expiresAt момент истечения срока действия токена
+     */
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (!revokedTokenRepository.existsById(tokenId)) {
+            revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, Instant.now()));
+        }
+        eventPublisher.publishEvent(new TokenRevokedEvent(tokenId));
+    }
+
+    /**
+     * Добавляет отозванный токен в фильтр после фиксации записи в таблице.
+     *
+     * @param event событие отзыва токена
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        remember(event.tokenId());
+    }
+
+    /**
+     * Добавляет в фильтр токен, отозванный на другом экземпляре, или пересобирает фильтр
+     * после пропуска уведомлений.
+     *
+     * @param event событие инвалидации кеша
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        if (event.flushes(CacheInvalidatedEvent.REVOKED_TOKENS)) {
+            rebuild();
+        } else if (CacheInvalidatedEvent.REVOKED_TOKENS.equals(event.cache())) {
+            remember(event.key());
+        }
+    }
+
+    /**
+     * Удаляет истекшие записи и пересобирает фильтр по таблице отозванных токенов.
+     * Токены, отозванные во время загрузки, добавляются и в старый, и в новый фильтр.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.rebuild-ms:600000}",
+            initialDelayString = "${app.security.revocation.rebuild-ms:600000}")
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        int expired = revokedTokenRepository.deleteExpired(now);
+        BloomFilter rebuilt = new BloomFilter(expectedTokens, falsePositiveRate);
+        synchronized (filterLock) {
+            pendingFilter = rebuilt;
+        }
+        List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(now);
+        tokenIds.forEach(rebuilt::put);
+        synchronized (filterLock) {
+            filter = rebuilt;
+            pendingFilter = null;
+            filterEntries.reset();
+            filterEntries.add(tokenIds.size());
+        }
+        if (tokenIds.size() > expectedTokens) {
+            log.warn("{} revoked tokens exceed app.security.revocation.expected-tokens={}, "
+                    + "false positives will hit the database more often", tokenIds.size(), expectedTokens);
+        }
+        log.debug("Token revocation filter rebuilt from {} tokens, {} expired removed", tokenIds.size(), expired);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.token.revocation.filter.positives", filterPositives, LongAdder::sum)
+                .description("Token checks that passed the revocation Bloom filter and hit the database")
+                .register(registry);
+        FunctionCounter.builder("security.token.revocation.false.positives", falsePositives, LongAdder::sum)
+                .description("Bloom filter positives for tokens that were not revoked")
+                .register(registry);
+        Gauge.builder("security.token.revocation.entries", filterEntries, LongAdder::sum)
+                .description("Revoked tokens in the Bloom filter")
+                .register(registry);
+    }
+
+    private void remember(String tokenId) {
+        synchronized (filterLock) {
+            filter.put(tokenId);
+            if (pendingFilter != null) {
+                pendingFilter.put(tokenId);
+            }
+            filterEntries.increment();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.skypro.socksStock.model.projection.UserCredentials;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру кеш учетных данных пользователей с временем жизни записей.
+ * <p>
+ * Хранит неизменяемые {@link UserCredentials}, а не UserDetails: Spring Security стирает пароль
+ * в объекте аутентифицированного пользователя, поэтому UserDetails создается заново при каждом чтении.
+ * Сброс записи увеличивает поколение кеша; загрузка, начатая до сброса, свой результат не сохраняет.
+ * Попадания, промахи, размер и время загрузки публикуются как метрики security.user.cache.*.
+ */
+@Component
+public class UserCredentialsCache implements MeterBinder {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    /**
+     * Создает кеш учетных данных.
+     *
+     * @param ttlMs   время жизни записи в миллисекундах (0 — кеш отключен)
+     * @param maxSize максимальное количество записей (0 — кеш отключен)
+     */
+    public UserCredentialsCache(@Value("${app.security.user-cache.ttl-ms:60000}") long ttlMs,
+                                @Value("${app.security.user-cache.max-size:1000}") int maxSize) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Возвращает учетные данные пользователя из кеша или загружает их.
+     * Исключение загрузчика пробрасывается, отсутствие пользователя не кешируется.
+     *
+     * @param username имя пользователя
+     * @param loader   загрузчик учетных данных из базы данных
+     * @return учетные данные пользователя
+     */
+    public UserCredentials get(String username, Function<String, UserCredentials> loader) {
+        long now = System.nanoTime();
+        Entry entry = username == null ? null : entries.get(username);
+        if (entry != null && now - entry.loadedAtNanos() < ttlNanos) {
+            hits.increment();
+            return entry.credentials();
+        }
+        misses.increment();
+        long startGeneration = generation.get();
+        UserCredentials credentials;
+        try {
+            credentials = loader.apply(username);
+        } finally {
+            loadNanos.add(System.nanoTime() - now);
+        }
+        if (username != null && ttlNanos > 0 && maxSize > 0) {
+            store(username, new Entry(credentials, now), startGeneration);
+        }
+        return credentials;
+    }
+
+    /**
+     * Сбрасывает запись пользователя по имени.
+     *
+     * @param username имя пользователя
+     */
+    public void evict(String username) {
+        generation.incrementAndGet();
+        entries.remove(username);
+    }
+
+    /**
+     * Сбрасывает записи пользователя по идентификатору, когда имя неизвестно.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void evictUser(Long userId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> Objects.equals(entry.credentials().id(), userId));
+    }
+
+    /**
+     * Сбрасывает все записи кеша.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.user.cache.hits", hits, LongAdder::sum)
+                .description("User credential lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("security.user.cache.misses", misses, LongAdder::sum)
+                .description("User credential lookups that queried the database")
+                .register(registry);
+        FunctionTimer.builder("security.user.cache.load", this,
+                        cache -> cache.misses.sum(), cache -> cache.loadNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent loading user credentials on cache misses")
+                .register(registry);
+        Gauge.builder("security.user.cache.size", entries, Map::size)
+                .register(registry);
+    }
+
+    private void store(String username, Entry entry, long startGeneration) {
+        if (entries.size() >= maxSize && !entries.containsKey(username)) {
+            long now = System.nanoTime();
+            entries.values().removeIf(existing -> now - existing.loadedAtNanos() >= ttlNanos);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(username, entry);
+        if (generation.get() != startGeneration) {
+            entries.remove(username, entry);
+        }
+    }
+
+    private record Entry(UserCredentials credentials, long loadedAtNanos) {
+    }
+}
@@ -0,0 +1,87 @@
+package org.skypro.socksStock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.StockBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Блокировки позиций между экземплярами приложения на транзакционных advisory-блокировках PostgreSQL.
+ * <p>
+ * Ключ блокировки — пара {@code (hashtext(color), cottonPart)}, поэтому все экземпляры получают один
+ * и тот же ключ; совпадение хешей разных цветов лишь сериализует их операции. Блокировка
+ * освобождается самой базой данных при фиксации или откате, поэтому действие обязано выполняться
+ * в транзакции. Время ожидания ограничено параметром lock_timeout: перед захватом его текущее значение
+ * запоминается и на время транзакции заменяется лимитом ожидания, а после захвата восстанавливается,
+ * чтобы не влиять на остальные запросы транзакции. Превышение ожидания возвращается клиенту как 409
+ * с заголовком Retry-After.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.socks.sku-lock", havingValue = "advisory")
+public class AdvisorySkuLockManager implements SkuLockManager {
+
+    private static final String ACQUIRE = "SELECT pg_advisory_xact_lock(hashtext(?), ?)";
+    private static final String CURRENT_TIMEOUT = "SELECT current_setting('lock_timeout')";
+    private static final String SET_TIMEOUT = "SELECT set_config('lock_timeout', ?, true)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lockTimeout;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Counter timeoutCounter;
+
+    /**
+     * Создает менеджер блокировок.
+     *
+     * @param jdbcTemplate  шаблон JDBC, работающий в соединении текущей транзакции
+     * @param meterRegistry реестр метрик
+     * @param timeoutMs     максимальное время ожидания блокировки в миллисекундах (0 — без ограничения)
+     */
+    public AdvisorySkuLockManager(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.socks.sku-lock.timeout-ms:2000}") long timeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockTimeout = timeoutMs + "ms";
+        this.retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999));
+        this.waitTimer = Timer.builder("socks.sku.lock.wait")
+                .description("Time spent waiting for a PostgreSQL advisory SKU lock")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("socks.sku.lock.timeouts")
+                .description("Advisory SKU lock acquisitions that hit lock_timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T withLock(String color, int cottonPart, Supplier<T> action) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Advisory SKU lock requires an active transaction");
+        }
+        String previousTimeout = jdbcTemplate.queryForObject(CURRENT_TIMEOUT, String.class);
+        jdbcTemplate.queryForObject(SET_TIMEOUT, String.class, lockTimeout);
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.queryForObject(ACQUIRE, String.class, color, cottonPart);
+        } catch (CannotAcquireLockException e) {
+            timeoutCounter.increment();
+            log.warn("Timed out after {} waiting for SKU lock {}:{}", lockTimeout, color, cottonPart);
+            throw new StockBusyException("Stock item is busy, please retry.", HttpStatus.CONFLICT,
+                    retryAfterSeconds);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        jdbcTemplate.queryForObject(SET_TIMEOUT, String.class, previousTimeout);
+        return action.get();
+    }
+}
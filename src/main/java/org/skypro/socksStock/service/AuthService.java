@@ -1,20 +1,39 @@
 package org.skypro.socksStock.service;
 
 import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.exception.AuthenticationOverloadedException;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.exception.InvalidRefreshTokenException;
+import org.skypro.socksStock.exception.LoginThrottledException;
 import org.skypro.socksStock.exception.UsernameAlreadyTakenException;
 import org.skypro.socksStock.model.dto.request.LoginRequest;
 import org.skypro.socksStock.model.dto.response.AuthResponse;
 import org.skypro.socksStock.model.entity.AppUser;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.model.projection.UserCredentials;
 import org.skypro.socksStock.repository.UserRepository;
+import org.skypro.socksStock.security.AuthenticatedUser;
+import org.skypro.socksStock.security.JwtClaims;
 import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.LoginAttemptThrottle;
+import org.skypro.socksStock.security.PasswordHashingExecutor;
+import org.skypro.socksStock.security.RefreshTokenService;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервис для обработки операций аутентификации и регистрации пользователей.
@@ -23,28 +42,100 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class AuthService {
 
+    private static final String BEARER = "Bearer";
+
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Аутентифицирует пользователя в системе.
+     * Проверка пароля выполняется в пуле хеширования паролей, а не в потоке запроса.
      *
      * @param loginRequest объект с учетными данными пользователя (имя и пароль)
-     * @return AuthResponse с JWT-токеном для доступа к защищенным ресурсам
+     * @return AuthResponse с JWT-токеном для доступа к защищенным ресурсам и refresh-токеном
      * @throws org.springframework.security.core.AuthenticationException если аутентификация не удалась
+     * @throws AuthenticationOverloadedException если очередь хеширования паролей переполнена
      */
     public AuthResponse authenticateUser(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
+        return issueTokens(authenticate(loginRequest));
+    }
+
+    /**
+     * Аутентифицирует пользователя, входящего с указанного адреса.
+     * Если лимит попыток для имени пользователя или адреса исчерпан, попытка отклоняется
+     * до проверки пароля; неудачные попытки учитываются в лимите имени пользователя.
+     *
+     * @param loginRequest  объект с учетными данными пользователя (имя и пароль)
+     * @param clientAddress адрес клиента
+     * @return AuthResponse с JWT-токеном для доступа к защищенным ресурсам и refresh-токеном
+     * @throws LoginThrottledException если лимит попыток входа исчерпан
+     * @throws AuthenticationException если аутентификация не удалась
+     * @throws AuthenticationOverloadedException если очередь хеширования паролей переполнена
+     */
+    public AuthResponse authenticateUser(LoginRequest loginRequest, String clientAddress) {
+        loginAttemptThrottle.acquire(loginRequest.username(), clientAddress);
+        Authentication authentication;
+        try {
+            authentication = authenticate(loginRequest);
+        } catch (AuthenticationException e) {
+            loginAttemptThrottle.recordFailure(loginRequest.username());
+            throw e;
+        }
+        loginAttemptThrottle.recordSuccess(loginRequest.username());
+        return issueTokens(authentication);
+    }
+
+    private Authentication authenticate(LoginRequest loginRequest) {
+        return passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.username(),
                         loginRequest.password()
                 )
-        );
+        ));
+    }
+
+    private AuthResponse issueTokens(Authentication authentication) {
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication.getName());
-        return new AuthResponse(jwt);
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return new AuthResponse(tokenProvider.generateToken(user), BEARER, refreshTokenService.issue(user.getId()));
+        }
+        return new AuthResponse(tokenProvider.generateToken(authentication.getName()));
+    }
+
+    /**
+     * Продлевает сеанс по refresh-токену без проверки пароля.
+     * Использованный refresh-токен погашается, вместо него выдается новый. Роль и версия токенов
+     * берутся из базы данных, поэтому новый JWT-токен отражает текущее состояние пользователя.
+     *
+     * @param refreshToken refresh-токен, выданный при входе или предыдущем продлении
+     * @return AuthResponse с новыми JWT-токеном и refresh-токеном
+     * @throws InvalidRefreshTokenException если токен неизвестен, истек, уже использован или пользователь удален
+     */
+    @Transactional
+    public AuthResponse refreshToken(String refreshToken) {
+        UserCredentials credentials = refreshTokenService.consume(refreshToken)
+                .flatMap(userRepository::findCredentialsById)
+                .orElseThrow(() -> new InvalidRefreshTokenException(
+                        "Refresh token is invalid or expired", HttpStatus.UNAUTHORIZED));
+        AuthenticatedUser user = new AuthenticatedUser(credentials.id(), credentials.username(), "",
+                List.of(new SimpleGrantedAuthority(credentials.role().name())), credentials.tokenVersion());
+        return new AuthResponse(tokenProvider.generateToken(user), BEARER, refreshTokenService.issue(user.getId()));
+    }
+
+    /**
+     * Отзывает refresh-токен при выходе пользователя.
+     *
+     * @param refreshToken refresh-токен
+     */
+    public void revokeRefreshToken(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
     /**
@@ -66,19 +157,37 @@ public class AuthService {
      * @param password пароль пользователя
      * @param role     роль пользователя в системе
      * @return AuthResponse с JWT-токеном для нового пользователя
+     * @throws EmptyDataException если имя, пароль или роль недопустимы
      * @throws UsernameAlreadyTakenException если пользователь с таким именем уже существует
+     * @throws AuthenticationOverloadedException если очередь хеширования паролей переполнена
      */
     public AuthResponse registerUser(String username, String password, Role role) {
+        UserAccountRules.check(username, password, role);
         if (userRepository.findByUsername(username).isPresent()) {
             throw new UsernameAlreadyTakenException("Username is already taken", HttpStatus.CONFLICT);
         }
 
         AppUser appUser = new AppUser();
         appUser.setUsername(username);
-        appUser.setPassword(passwordEncoder.encode(password));
+        appUser.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(password)));
         appUser.setRole(role);
 
-        userRepository.save(appUser);
+        AppUser saved = userRepository.save(appUser);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(saved.getId(), saved.getUsername()));
         return authenticateUser(new LoginRequest(username, password));
     }
-}
\ No newline at end of file
+
+    /**
+     * Отзывает JWT-токен до истечения его срока действия.
+     * Используется при выходе пользователя и для принудительного отзыва токена администратором.
+     *
+     * @param token JWT-токен
+     * @return true, если токен отозван; false, если токен невалиден или выдан без идентификатора
+     */
+    public boolean revokeToken(String token) {
+        Optional<JwtClaims> claims = tokenProvider.resolveToken(token)
+                .filter(resolved -> resolved.tokenId() != null && resolved.expiresAt() != null);
+        claims.ifPresent(resolved -> revocationService.revoke(resolved.tokenId(), resolved.expiresAt()));
+        return claims.isPresent();
+    }
+}
@@ -0,0 +1,42 @@
+package org.skypro.socksStock.service;
+
+/**
+ * Уведомление об изменении, передаваемое между экземплярами приложения через PostgreSQL NOTIFY.
+ * Передается строкой {@code nodeId:sequence:cache:key}; ключ идет последним и может содержать двоеточия.
+ *
+ * @param nodeId   идентификатор экземпляра-отправителя
+ * @param sequence порядковый номер уведомления у отправителя, без пропусков
+ * @param cache    имя кеша
+ * @param key      ключ измененной записи или пустая строка для сброса кеша целиком
+ */
+public record CacheInvalidationMessage(String nodeId, long sequence, String cache, String key) {
+
+    /**
+     * Кодирует уведомление в строку для pg_notify.
+     *
+     * @return строковое представление уведомления
+     */
+    public String encode() {
+        return nodeId + ":" + sequence + ":" + cache + ":" + (key == null ? "" : key);
+    }
+
+    /**
+     * Разбирает строковое представление уведомления.
+     *
+     * @param payload строка из pg_notify
+     * @return уведомление
+     * @throws IllegalArgumentException если строка имеет неверный формат
+     */
+    public static CacheInvalidationMessage decode(String payload) {
+        String[] parts = payload.split(":", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cache invalidation payload: " + payload);
+        }
+        try {
+            return new CacheInvalidationMessage(parts[0], Long.parseLong(parts[1]), parts[2],
+                    parts[3].isEmpty() ? null : parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cache invalidation payload: " + payload, e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.skypro.socksStock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Слушатель уведомлений других экземпляров приложения через PostgreSQL LISTEN.
+ * <p>
+ * Держит отдельное соединение вне пула и публикует {@link CacheInvalidatedEvent} для каждого
+ * чужого уведомления. Если номер уведомления отправителя идет не подряд или соединение
+ * пришлось восстановить, часть уведомлений могла быть потеряна, поэтому публикуется полный сброс.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.socks.cluster.notify.enabled", havingValue = "true")
+public class ClusterCacheListener implements SmartLifecycle {
+
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ClusterCacheNotifier notifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int pollTimeoutMs;
+    private final long maxBackoffMs;
+
+    private final Map<String, Long> lastSequences = new HashMap<>();
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Создает слушатель уведомлений.
+     *
+     * @param dataSourceProperties параметры подключения к базе данных
+     * @param notifier             отправитель уведомлений текущего экземпляра
+     * @param eventPublisher       публикатор событий приложения
+     * @param pollTimeoutMs        время ожидания уведомлений за один опрос в миллисекундах
+     * @param maxBackoffMs         максимальная пауза между попытками переподключения в миллисекундах
+     */
+    public ClusterCacheListener(DataSourceProperties dataSourceProperties,
+                                ClusterCacheNotifier notifier,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.socks.cluster.notify.poll-timeout-ms:500}") int pollTimeoutMs,
+                                @Value("${app.socks.cluster.notify.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.notifier = notifier;
+        this.eventPublisher = eventPublisher;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(pollTimeoutMs * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Обрабатывает одно уведомление. Вызывается только из потока слушателя.
+     *
+     * @param payload строка уведомления
+     */
+    void handle(String payload) {
+        CacheInvalidationMessage message;
+        try {
+            message = CacheInvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring cache invalidation: {}", e.getMessage());
+            return;
+        }
+        if (message.nodeId().equals(notifier.nodeId())) {
+            return;
+        }
+        Long lastSequence = lastSequences.put(message.nodeId(), message.sequence());
+        if (lastSequence != null && message.sequence() != lastSequence + 1) {
+            log.info("Cache invalidation gap from node {} ({} -> {}), flushing local caches",
+                    message.nodeId(), lastSequence, message.sequence());
+            eventPublisher.publishEvent(CacheInvalidatedEvent.flushAll());
+            return;
+        }
+        eventPublisher.publishEvent(new CacheInvalidatedEvent(message.cache(), message.key()));
+    }
+
+    /**
+     * Сбрасывает локальные кеши после переподключения: уведомления за время разрыва потеряны.
+     * Вызывается только из потока слушателя.
+     */
+    void onReconnected() {
+        lastSequences.clear();
+        eventPublisher.publishEvent(CacheInvalidatedEvent.flushAll());
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        long backoffMs = INITIAL_BACKOFF_MS;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ClusterCacheNotifier.CHANNEL);
+                }
+                if (connectedBefore) {
+                    log.info("Cache invalidation listener reconnected, flushing local caches");
+                    onReconnected();
+                }
+                connectedBefore = true;
+                backoffMs = INITIAL_BACKOFF_MS;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost connection, retrying in {} ms", backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.skypro.socksStock.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.model.event.ApiKeysChangedEvent;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.model.event.TokenRevokedEvent;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отправитель уведомлений об изменениях другим экземплярам приложения через PostgreSQL NOTIFY.
+ * <p>
+ * Уведомления отправляются после фиксации транзакции из отдельного потока: в обработчике
+ * AFTER_COMMIT соединение транзакции еще привязано к потоку, и NOTIFY в нем не был бы доставлен.
+ * Номера уведомлений идут подряд; номер расходуется и при неудачной отправке, поэтому
+ * получатели видят пропуск и сбрасывают кеши целиком.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.socks.cluster.notify.enabled", havingValue = "true")
+public class ClusterCacheNotifier {
+
+    static final String CHANNEL = "socks_cache_invalidation";
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long sequence;
+
+    /**
+     * Создает отправителя уведомлений.
+     *
+     * @param jdbcTemplate шаблон JDBC для выполнения pg_notify
+     */
+    public ClusterCacheNotifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Возвращает идентификатор текущего экземпляра, чтобы слушатель пропускал собственные уведомления.
+     *
+     * @return идентификатор экземпляра
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Уведомляет другие экземпляры о зафиксированном изменении остатка позиции.
+     *
+     * @param event событие изменения остатка позиции
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        publish(CacheInvalidatedEvent.STOCK, CacheInvalidatedEvent.stockKey(event.color(), event.cottonPart()));
+    }
+
+    /**
+     * Уведомляет другие экземпляры о полной очистке склада.
+     *
+     * @param event событие очистки склада
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockCleared(StockClearedEvent event) {
+        publish(CacheInvalidatedEvent.STOCK, null);
+    }
+
+    /**
+     * Уведомляет другие экземпляры о смене роли или удалении пользователя.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCredentialsChanged(UserCredentialsChangedEvent event) {
+        publish(CacheInvalidatedEvent.USERS, String.valueOf(event.userId()));
+    }
+
+    /**
+     * Уведомляет другие экземпляры об отзыве JWT-токена.
+     *
+     * @param event событие отзыва токена
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        publish(CacheInvalidatedEvent.REVOKED_TOKENS, event.tokenId());
+    }
+
+    /**
+     * Уведомляет другие экземпляры о выдаче или отзыве API-ключа.
+     *
+     * @param event событие изменения API-ключей
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApiKeysChanged(ApiKeysChangedEvent event) {
+        publish(CacheInvalidatedEvent.API_KEYS, null);
+    }
+
+    /**
+     * Ставит уведомление в очередь отправки.
+     *
+     * @param cache имя кеша
+     * @param key   ключ измененной записи или null для сброса кеша целиком
+     */
+    public void publish(String cache, String key) {
+        sender.execute(() -> send(cache, key));
+    }
+
+    /**
+     * Останавливает отправку, дожидаясь уже поставленных в очередь уведомлений.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(5, TimeUnit.SECONDS)) {
+                sender.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(String cache, String key) {
+        String payload = new CacheInvalidationMessage(nodeId, ++sequence, cache, key).encode();
+        try {
+            jdbcTemplate.execute(NOTIFY, (PreparedStatement statement) -> {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                return statement.execute();
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to send cache invalidation {}, peers will flush on the sequence gap", payload, e);
+        }
+    }
+}
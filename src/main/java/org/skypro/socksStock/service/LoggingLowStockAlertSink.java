@@ -0,0 +1,19 @@
+package org.skypro.socksStock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.model.event.LowStockAlertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Приемник уведомлений о низком остатке, записывающий их в журнал приложения.
+ */
+@Slf4j
+@Component
+public class LoggingLowStockAlertSink implements LowStockAlertSink {
+
+    @Override
+    public void publish(LowStockAlertEvent alert) {
+        log.warn("Low stock: color={}, cottonPart={}, quantity={} (was {}), threshold={}",
+                alert.color(), alert.cottonPart(), alert.quantity(), alert.previousQuantity(), alert.threshold());
+    }
+}
@@ -0,0 +1,17 @@
+package org.skypro.socksStock.service;
+
+import org.skypro.socksStock.model.event.LowStockAlertEvent;
+
+/**
+ * Приемник уведомлений о низком остатке.
+ * Все бины этого типа получают уведомление после фиксации транзакции, в которой порог был пересечен.
+ */
+public interface LowStockAlertSink {
+
+    /**
+     * Обрабатывает уведомление о пересечении порога низкого остатка.
+     *
+     * @param alert уведомление о низком остатке
+     */
+    void publish(LowStockAlertEvent alert);
+}
@@ -0,0 +1,124 @@
+package org.skypro.socksStock.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.response.OperationJournalEntryDTO;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.repository.journal.OperationJournal;
+import org.skypro.socksStock.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис бинарного журнала операций склада.
+ * Каждый зафиксированный приход и расход дописывается в журнал на отображенных в память файлах
+ * вместо отдельной строки в базе данных; журнал служит дешевым следом для аудита и воспроизведения.
+ * Автор операции берется из идентификатора аутентифицированного пользователя (uid JWT-токена или
+ * владелец API-ключа), поэтому запись не обращается к базе данных.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.socks.journal.enabled", havingValue = "true")
+public class OperationJournalService {
+
+    private static final int MAX_LIMIT = 10_000;
+    private static final long UNKNOWN_USER = 0L;
+
+    private final OperationJournal journal;
+
+    /**
+     * Создает сервис и открывает журнал операций.
+     *
+     * @param directory         каталог сегментов журнала
+     * @param recordsPerSegment количество записей в одном сегменте
+     * @param fsyncBatchSize    количество записей, после которого журнал сбрасывается на диск
+     * @param maxSegments       максимальное количество хранимых сегментов, 0 — без ограничения
+     */
+    public OperationJournalService(@Value("${app.socks.journal.directory:data/journal}") Path directory,
+                                   @Value("${app.socks.journal.segment-records:1048576}") int recordsPerSegment,
+                                   @Value("${app.socks.journal.fsync-batch-size:256}") int fsyncBatchSize,
+                                   @Value("${app.socks.journal.max-segments:16}") int maxSegments) {
+        this(new OperationJournal(directory, recordsPerSegment, fsyncBatchSize, maxSegments));
+    }
+
+    OperationJournalService(OperationJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Записывает зафиксированную операцию в журнал.
+     *
+     * @param event событие изменения остатка позиции
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.delta() != 0) {
+            journal.append(currentUserId(), event.warehouse(), event.color(), event.cottonPart(), event.delta(),
+                    event.quantity());
+        }
+    }
+
+    /**
+     * Возвращает записи журнала за интервал времени в порядке их добавления.
+     *
+     * @param from  момент начала (включительно)
+     * @param to    момент окончания (не включительно)
+     * @param limit максимальное количество записей
+     * @return список записей журнала
+     * @throws EmptyDataException если параметры запроса невалидны
+     */
+    public List<OperationJournalEntryDTO> getOperations(Instant from, Instant to, int limit) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new EmptyDataException("From must be before to.", HttpStatus.BAD_REQUEST);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new EmptyDataException("Limit must be between 1 and " + MAX_LIMIT + ".", HttpStatus.BAD_REQUEST);
+        }
+        List<OperationJournalEntryDTO> result = new ArrayList<>();
+        journal.scan(from, to, record -> {
+            result.add(new OperationJournalEntryDTO(record.sequence(), record.timestamp(),
+                    record.userId() == UNKNOWN_USER ? null : record.userId(), record.warehouse(), record.color(),
+                    record.cottonPart(), record.delta(), record.quantity()));
+            return result.size() < limit;
+        });
+        return result;
+    }
+
+    /**
+     * Сбрасывает на диск записи, накопленные с предыдущего сброса.
+     */
+    @Scheduled(fixedDelayString = "${app.socks.journal.fsync-interval-ms:1000}")
+    public void flush() {
+        journal.flush();
+    }
+
+    /**
+     * Сбрасывает журнал на диск при остановке приложения.
+     */
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+
+    private long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                && user.getId() != null) {
+            return user.getId();
+        }
+        return UNKNOWN_USER;
+    }
+}
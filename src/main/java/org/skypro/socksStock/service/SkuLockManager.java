@@ -0,0 +1,21 @@
+package org.skypro.socksStock.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Сериализует операции прихода и расхода над одной позицией (цвет + процент хлопка).
+ */
+public interface SkuLockManager {
+
+    /**
+     * Выполняет действие под блокировкой позиции.
+     * Если действие выполняется в транзакции, блокировка удерживается до ее завершения.
+     *
+     * @param color      цвет носков
+     * @param cottonPart процент содержания хлопка
+     * @param action     действие над позицией
+     * @param <T>        тип результата
+     * @return результат действия
+     */
+    <T> T withLock(String color, int cottonPart, Supplier<T> action);
+}
@@ -10,10 +10,16 @@ import org.skypro.socksStock.model.dto.request.Operation;
 import org.skypro.socksStock.model.dto.request.SocksRequestDTO;
 import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
 import org.skypro.socksStock.model.entity.Socks;
-import org.skypro.socksStock.repository.SocksRepository;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.repository.SocksStockRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Сервис для управления складом носков.
@@ -22,9 +28,11 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class SocksStockService {
 
-    private final SocksRepository socksRepository;
+    private final SocksStockRepository socksRepository;
     private final SocksEntityToDtoConverter converterToDto;
     private final SocksDtoToEntityConverter converterToEntity;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SkuLockManager skuLockManager;
 
     /**
      * Обрабатывает приход носков на склад.
@@ -33,11 +41,15 @@ public class SocksStockService {
      * @return SocksResponseDTO с информацией о добавленных носках
      * @throws EmptyDataException если данные запроса невалидны
      */
+    @Transactional
     public SocksResponseDTO incomeSocks(SocksRequestDTO request) {
         validateRequest(request);
-        return socksRepository.findByColorAndCottonPart(request.getColor(), request.getCottonPart())
-                .map(existingSocks -> addToStock(existingSocks, request))
-                .orElseGet(() -> createSocks(request));
+        String warehouse = resolveWarehouse(request.getWarehouse());
+        return skuLockManager.withLock(request.getColor(), request.getCottonPart(), () ->
+                socksRepository.findByWarehouseAndColorAndCottonPart(
+                                warehouse, request.getColor(), request.getCottonPart())
+                        .map(existingSocks -> addToStock(existingSocks, request))
+                        .orElseGet(() -> createSocks(warehouse, request)));
     }
 
     /**
@@ -58,6 +70,16 @@ public class SocksStockService {
         }
     }
 
+    /**
+     * Возвращает склад операции: склад по умолчанию, если склад не указан.
+     *
+     * @param warehouse склад из запроса
+     * @return склад для операции
+     */
+    private String resolveWarehouse(String warehouse) {
+        return warehouse == null || warehouse.isBlank() ? Socks.DEFAULT_WAREHOUSE : warehouse.trim();
+    }
+
     /**
      * Добавляет носки к существующей партии на складе.
      *
@@ -66,20 +88,25 @@ public class SocksStockService {
      * @return SocksResponseDTO с обновленной информацией
      */
     private SocksResponseDTO addToStock(Socks socks, SocksRequestDTO request) {
-        socks.setQuantity(socks.getQuantity() + request.getQuantity());
+        int previousQuantity = socks.getQuantity();
+        socks.setQuantity(previousQuantity + request.getQuantity());
         Socks updatedSocks = socksRepository.save(socks);
+        publishStockChanged(updatedSocks, previousQuantity);
         return converterToDto.toDto(updatedSocks);
     }
 
     /**
      * Создает новую партию носков на складе.
      *
-     * @param request DTO с данными для создания
+     * @param warehouse склад новой партии
+     * @param request   DTO с данными для создания
      * @return SocksResponseDTO с информацией о созданной партии
      */
-    private SocksResponseDTO createSocks(SocksRequestDTO request) {
+    private SocksResponseDTO createSocks(String warehouse, SocksRequestDTO request) {
         Socks newSocks = converterToEntity.toEntity(request);
+        newSocks.setWarehouse(warehouse);
         Socks savedSocks = socksRepository.save(newSocks);
+        publishStockChanged(savedSocks, 0);
         return converterToDto.toDto(savedSocks);
     }
 
@@ -90,12 +117,16 @@ public class SocksStockService {
      * @return SocksResponseDTO с информацией о списанных носках
      * @throws SocksNotFoundException если носки не найдены на складе
      */
+    @Transactional
     public SocksResponseDTO outcomeSocks(SocksRequestDTO request) {
         validateRequest(request);
-        return socksRepository.findByColorAndCottonPart(request.getColor(), request.getCottonPart())
-                .map(existingSocks -> removeFromStock(existingSocks, request))
-                .orElseThrow(() ->
-                        new SocksNotFoundException("These socks are out of stock.", HttpStatus.BAD_REQUEST));
+        String warehouse = resolveWarehouse(request.getWarehouse());
+        return skuLockManager.withLock(request.getColor(), request.getCottonPart(), () ->
+                socksRepository.findByWarehouseAndColorAndCottonPart(
+                                warehouse, request.getColor(), request.getCottonPart())
+                        .map(existingSocks -> removeFromStock(existingSocks, request))
+                        .orElseThrow(() ->
+                                new SocksNotFoundException("These socks are out of stock.", HttpStatus.BAD_REQUEST)));
     }
 
     /**
@@ -111,13 +142,26 @@ public class SocksStockService {
             throw new InvalidQuantityException("No socks found with color: " + request.getColor() +
                     " and cotton part: " + request.getCottonPart(), HttpStatus.BAD_REQUEST);
         }
-        socks.setQuantity(socks.getQuantity() - request.getQuantity());
+        int previousQuantity = socks.getQuantity();
+        socks.setQuantity(previousQuantity - request.getQuantity());
         Socks updatedSocks = socksRepository.save(socks);
+        publishStockChanged(updatedSocks, previousQuantity);
         return converterToDto.toDto(updatedSocks);
     }
 
     /**
-     * Возвращает общее количество носков, соответствующих критериям поиска.
+     * Публикует событие изменения остатка позиции в рамках текущей транзакции.
+     *
+     * @param socks            позиция после изменения
+     * @param previousQuantity остаток позиции до изменения
+     */
+    private void publishStockChanged(Socks socks, int previousQuantity) {
+        eventPublisher.publishEvent(new StockChangedEvent(socks.getWarehouse(), socks.getColor(),
+                socks.getCottonPart(), previousQuantity, socks.getQuantity(), Instant.now()));
+    }
+
+    /**
+     * Возвращает общее количество носков на всех складах, соответствующих критериям поиска.
      *
      * @param color      цвет носков для фильтрации
      * @param operation  операция сравнения для содержания хлопка
@@ -125,6 +169,7 @@ public class SocksStockService {
      * @return общее количество носков, удовлетворяющих критериям
      * @throws EmptyDataException если параметры запроса невалидны
      */
+    @Transactional(readOnly = true)
     public Integer getQuantity(String color, Operation operation, Integer cottonPart) {
         validateColorAndCottonPart(color, cottonPart);
 
@@ -135,6 +180,47 @@ public class SocksStockService {
         };
     }
 
+    /**
+     * Возвращает количество носков на одном складе, соответствующих критериям поиска.
+     *
+     * @param warehouse  склад
+     * @param color      цвет носков для фильтрации
+     * @param operation  операция сравнения для содержания хлопка
+     * @param cottonPart значение содержания хлопка для сравнения
+     * @return количество носков на складе, удовлетворяющих критериям
+     * @throws EmptyDataException если параметры запроса невалидны
+     */
+    @Transactional(readOnly = true)
+    public Integer getQuantity(String warehouse, String color, Operation operation, Integer cottonPart) {
+        validateColorAndCottonPart(color, cottonPart);
+        if (warehouse == null || warehouse.isBlank()) {
+            throw new EmptyDataException("Warehouse cannot be empty.", HttpStatus.BAD_REQUEST);
+        }
+        String trimmed = warehouse.trim();
+
+        return switch (operation) {
+            case moreThan ->
+                    socksRepository.sumQuantityByWarehouseAndColorAndCottonPartGreaterThan(trimmed, color, cottonPart);
+            case lessThan ->
+                    socksRepository.sumQuantityByWarehouseAndColorAndCottonPartLessThan(trimmed, color, cottonPart);
+            case equal ->
+                    socksRepository.sumQuantityByWarehouseAndColorAndCottonPartEqual(trimmed, color, cottonPart);
+        };
+    }
+
+    /**
+     * Возвращает текущие остатки всех позиций склада.
+     *
+     * @return список позиций с ненулевым остатком, упорядоченный по цвету, проценту хлопка и складу
+     */
+    @Transactional(readOnly = true)
+    public List<SocksResponseDTO> getAllSocks() {
+        return socksRepository.findAllOrderByColorAndCottonPart().stream()
+                .filter(socks -> socks.getQuantity() > 0)
+                .map(converterToDto::toDto)
+                .toList();
+    }
+
     /**
      * Валидирует параметры цвета и содержания хлопка для запросов поиска.
      *
@@ -153,8 +239,16 @@ public class SocksStockService {
 
     /**
      * Удаляет все записи о носках из базы данных.
+     * Событие очистки содержит списанные остатки, чтобы статистика расхода учла очистку.
      */
+    @Transactional
     public void deleteAll() {
+        List<StockClearedEvent.ClearedItem> cleared = socksRepository.findAllOrderByColorAndCottonPart().stream()
+                .filter(socks -> socks.getQuantity() > 0)
+                .map(socks -> new StockClearedEvent.ClearedItem(socks.getWarehouse(), socks.getColor(),
+                        socks.getCottonPart(), socks.getQuantity()))
+                .toList();
         socksRepository.deleteAll();
+        eventPublisher.publishEvent(new StockClearedEvent(cleared, Instant.now()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,266 @@
+package org.skypro.socksStock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.exception.StockThresholdNotFoundException;
+import org.skypro.socksStock.model.dto.request.StockThresholdRequestDTO;
+import org.skypro.socksStock.model.dto.response.StockAlertResponseDTO;
+import org.skypro.socksStock.model.dto.response.StockThresholdResponseDTO;
+import org.skypro.socksStock.model.entity.StockAlert;
+import org.skypro.socksStock.model.entity.StockThreshold;
+import org.skypro.socksStock.model.event.LowStockAlertEvent;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.repository.SocksStockRepository;
+import org.skypro.socksStock.repository.StockAlertRepository;
+import org.skypro.socksStock.repository.StockThresholdRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис инкрементальной проверки порогов низкого остатка.
+ * Пороги хранятся в базе данных и кешируются в памяти; кеш меняется только после фиксации
+ * транзакции, изменившей порог, поэтому откаченное изменение не попадает в кеш. При каждом расходе
+ * сравниваются только предыдущий и новый остаток затронутой позиции, поэтому сканирование склада
+ * не требуется.
+ * Порог относится к позиции (цвет + процент хлопка) на всех складах сразу: остаток по всем складам
+ * читается одним запросом суммы в транзакции расхода, пока позиция заблокирована сервисом склада.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockAlertService {
+
+    private static final int MAX_ALERTS_LIMIT = 500;
+
+    private final StockThresholdRepository thresholdRepository;
+    private final StockAlertRepository alertRepository;
+    private final SocksStockRepository socksRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<LowStockAlertSink> sinks;
+
+    private final Map<ThresholdKey, Integer> thresholds = new ConcurrentHashMap<>();
+    private volatile boolean thresholdsLoaded;
+
+    /**
+     * Проверяет, пересек ли расход порог низкого остатка, и фиксирует уведомление в той же транзакции.
+     *
+     * @param event событие изменения остатка позиции
+     */
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.delta() >= 0) {
+            return;
+        }
+        ensureThresholdsLoaded();
+        Integer threshold = resolveThreshold(event.color(), event.cottonPart());
+        if (threshold == null) {
+            return;
+        }
+        int quantity = socksRepository.sumQuantityByColorAndCottonPartEqual(event.color(), event.cottonPart());
+        int previousQuantity = quantity - event.delta();
+        if (previousQuantity <= threshold || quantity > threshold) {
+            return;
+        }
+
+        StockAlert alert = new StockAlert();
+        alert.setColor(event.color());
+        alert.setCottonPart(event.cottonPart());
+        alert.setThreshold(threshold);
+        alert.setPreviousQuantity(previousQuantity);
+        alert.setQuantity(quantity);
+        alert.setCreatedAt(event.occurredAt());
+        StockAlert savedAlert = alertRepository.save(alert);
+
+        eventPublisher.publishEvent(new LowStockAlertEvent(savedAlert.getId(), savedAlert.getColor(),
+                savedAlert.getCottonPart(), savedAlert.getThreshold(), savedAlert.getPreviousQuantity(),
+                savedAlert.getQuantity(), savedAlert.getCreatedAt()));
+    }
+
+    /**
+     * Передает зафиксированное уведомление всем зарегистрированным приемникам.
+     * Ошибка одного приемника не влияет на остальные.
+     *
+     * @param alert уведомление о низком остатке
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLowStockAlert(LowStockAlertEvent alert) {
+        for (LowStockAlertSink sink : sinks) {
+            try {
+                sink.publish(alert);
+            } catch (RuntimeException e) {
+                log.error("Low stock alert sink {} failed", sink.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Создает или обновляет порог низкого остатка для позиции или для всего цвета.
+     *
+     * @param request DTO с цветом, необязательным процентом хлопка и значением порога
+     * @return сохраненный порог
+     * @throws EmptyDataException если данные запроса невалидны
+     */
+    @Transactional
+    public StockThresholdResponseDTO saveThreshold(StockThresholdRequestDTO request) {
+        validateThresholdRequest(request);
+        String color = request.getColor().trim();
+        Integer cottonPart = request.getCottonPart();
+
+        StockThreshold threshold = (cottonPart == null
+                ? thresholdRepository.findByColorAndCottonPartIsNull(color)
+                : thresholdRepository.findByColorAndCottonPart(color, cottonPart))
+                .orElseGet(StockThreshold::new);
+        threshold.setColor(color);
+        threshold.setCottonPart(cottonPart);
+        threshold.setThreshold(request.getThreshold());
+        StockThreshold savedThreshold = thresholdRepository.save(threshold);
+
+        ThresholdKey key = new ThresholdKey(color, cottonPart);
+        int value = savedThreshold.getThreshold();
+        afterCommit(() -> thresholds.put(key, value));
+        return toDto(savedThreshold);
+    }
+
+    /**
+     * Удаляет порог низкого остатка.
+     *
+     * @param id идентификатор порога
+     * @throws StockThresholdNotFoundException если порог не найден
+     */
+    @Transactional
+    public void deleteThreshold(Long id) {
+        StockThreshold threshold = thresholdRepository.findById(id)
+                .orElseThrow(() -> new StockThresholdNotFoundException(
+                        "Threshold not found with id: " + id, HttpStatus.NOT_FOUND));
+        thresholdRepository.delete(threshold);
+        ThresholdKey key = new ThresholdKey(threshold.getColor(), threshold.getCottonPart());
+        afterCommit(() -> thresholds.remove(key));
+    }
+
+    /**
+     * Возвращает все настроенные пороги низкого остатка.
+     *
+     * @return список порогов
+     */
+    @Transactional(readOnly = true)
+    public List<StockThresholdResponseDTO> getThresholds() {
+        return thresholdRepository.findAll().stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Возвращает последние уведомления о низком остатке.
+     *
+     * @param limit максимальное количество уведомлений (от 1 до 500)
+     * @return список уведомлений, начиная с самого нового
+     * @throws EmptyDataException если лимит вне допустимого диапазона
+     */
+    @Transactional(readOnly = true)
+    public List<StockAlertResponseDTO> getRecentAlerts(int limit) {
+        if (limit < 1 || limit > MAX_ALERTS_LIMIT) {
+            throw new EmptyDataException("Limit must be between 1 and " + MAX_ALERTS_LIMIT + ".",
+                    HttpStatus.BAD_REQUEST);
+        }
+        return alertRepository.findAllByOrderByIdDesc(PageRequest.of(0, limit)).stream()
+                .map(alert -> new StockAlertResponseDTO(alert.getId(), alert.getColor(), alert.getCottonPart(),
+                        alert.getThreshold(), alert.getPreviousQuantity(), alert.getQuantity(), alert.getCreatedAt()))
+                .toList();
+    }
+
+    /**
+     * Перечитывает пороги из базы данных, чтобы подхватить изменения, сделанные другими экземплярами.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.alerts.refresh-interval-ms:60000}")
+    public void reloadThresholds() {
+        Map<ThresholdKey, Integer> loaded = new HashMap<>();
+        thresholdRepository.findAll().forEach(threshold -> loaded.put(
+                new ThresholdKey(threshold.getColor(), threshold.getCottonPart()), threshold.getThreshold()));
+        thresholds.keySet().retainAll(loaded.keySet());
+        thresholds.putAll(loaded);
+        thresholdsLoaded = true;
+    }
+
+    /**
+     * Выполняет действие после фиксации текущей транзакции или сразу, если транзакции нет.
+     *
+     * @param action изменение кеша порогов
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Загружает пороги при первом обращении, если периодическое обновление еще не выполнялось.
+     */
+    private void ensureThresholdsLoaded() {
+        if (!thresholdsLoaded) {
+            reloadThresholds();
+        }
+    }
+
+    /**
+     * Определяет порог для позиции: порог позиции имеет приоритет над порогом цвета.
+     *
+     * @param color      цвет носков
+     * @param cottonPart процент содержания хлопка
+     * @return значение порога или null, если порог не задан
+     */
+    private Integer resolveThreshold(String color, int cottonPart) {
+        Integer threshold = thresholds.get(new ThresholdKey(color, cottonPart));
+        return threshold != null ? threshold : thresholds.get(new ThresholdKey(color, null));
+    }
+
+    /**
+     * Валидирует данные запроса установки порога.
+     *
+     * @param request DTO запроса для валидации
+     * @throws EmptyDataException если данные не проходят валидацию
+     */
+    private void validateThresholdRequest(StockThresholdRequestDTO request) {
+        if (request.getColor() == null || request.getColor().trim().isEmpty()) {
+            throw new EmptyDataException("Color is required and cannot be empty.", HttpStatus.BAD_REQUEST);
+        }
+        if (request.getCottonPart() != null && (request.getCottonPart() < 0 || request.getCottonPart() > 100)) {
+            throw new EmptyDataException("CottonPart must be between 0 and 100.", HttpStatus.BAD_REQUEST);
+        }
+        if (request.getThreshold() == null || request.getThreshold() < 0) {
+            throw new EmptyDataException("Threshold is required and cannot be negative.", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private StockThresholdResponseDTO toDto(StockThreshold threshold) {
+        return new StockThresholdResponseDTO(threshold.getId(), threshold.getColor(),
+                threshold.getCottonPart(), threshold.getThreshold());
+    }
+
+    /**
+     * Ключ порога: цвет и процент хлопка (null для порога на весь цвет).
+     */
+    private record ThresholdKey(String color, Integer cottonPart) {
+    }
+}
@@ -0,0 +1,309 @@
+package org.skypro.socksStock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.request.Operation;
+import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
+import org.skypro.socksStock.model.entity.StockMovement;
+import org.skypro.socksStock.model.entity.StockSnapshot;
+import org.skypro.socksStock.model.entity.StockSnapshotItem;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.model.projection.StockDelta;
+import org.skypro.socksStock.repository.StockMovementRepository;
+import org.skypro.socksStock.repository.StockSnapshotItemRepository;
+import org.skypro.socksStock.repository.StockSnapshotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Сервис истории остатков склада.
+ * Каждое изменение остатка сохраняется как движение; периодически строятся снимки остатков,
+ * поэтому запрос на момент времени читает ближайший снимок и суммирует не более
+ * ограниченного количества движений после него.
+ * Время движения, записанного в транзакции, переносится на момент ее фиксации, поэтому
+ * задержка перед построением снимка отсчитывается от фиксации, а не от публикации события.
+ */
+@Slf4j
+@Service
+public class StockHistoryService {
+
+    private static final Instant HISTORY_START = Instant.EPOCH;
+
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final StockSnapshotItemRepository snapshotItemRepository;
+    private final TransactionOperations transactionOperations;
+    private final int snapshotInterval;
+    private final Duration settleDelay;
+
+    /**
+     * Создает сервис истории остатков.
+     *
+     * @param movementRepository     репозиторий движений
+     * @param snapshotRepository     репозиторий снимков
+     * @param snapshotItemRepository репозиторий позиций снимков
+     * @param transactionOperations  шаблон транзакций, в отдельной транзакции строится каждый снимок
+     * @param snapshotInterval       количество движений между соседними снимками
+     * @param settleDelayMs          задержка в миллисекундах, после которой движения считаются зафиксированными
+     */
+    public StockHistoryService(StockMovementRepository movementRepository,
+                               StockSnapshotRepository snapshotRepository,
+                               StockSnapshotItemRepository snapshotItemRepository,
+                               TransactionOperations transactionOperations,
+                               @Value("${app.socks.history.snapshot-interval:1000}") int snapshotInterval,
+                               @Value("${app.socks.history.settle-delay-ms:60000}") long settleDelayMs) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotItemRepository = snapshotItemRepository;
+        this.transactionOperations = transactionOperations;
+        this.snapshotInterval = snapshotInterval;
+        this.settleDelay = Duration.ofMillis(settleDelayMs);
+    }
+
+    /**
+     * Сохраняет движение остатка в той же транзакции, что и изменение склада.
+     *
+     * @param event событие изменения остатка позиции
+     */
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.delta() != 0) {
+            saveMovement(event.color(), event.cottonPart(), event.delta(), event.occurredAt());
+        }
+    }
+
+    /**
+     * Записывает списание всех остатков при полной очистке склада.
+     *
+     * @param event событие очистки склада
+     */
+    @EventListener
+    public void onStockCleared(StockClearedEvent event) {
+        quantitiesAsOf(null, event.occurredAt()).forEach((sku, quantity) -> {
+            if (quantity != 0) {
+                saveMovement(sku.color(), sku.cottonPart(), -quantity, event.occurredAt());
+            }
+        });
+    }
+
+    /**
+     * Возвращает общее количество носков, соответствующих критериям поиска, на указанный момент времени.
+     *
+     * @param color      цвет носков для фильтрации
+     * @param operation  операция сравнения для содержания хлопка
+     * @param cottonPart значение содержания хлопка для сравнения
+     * @param asOf       момент времени
+     * @return общее количество носков на указанный момент
+     * @throws EmptyDataException если параметры запроса невалидны
+     */
+    @Transactional(readOnly = true)
+    public Integer getQuantityAsOf(String color, Operation operation, Integer cottonPart, Instant asOf) {
+        if (color == null || color.trim().isEmpty()) {
+            throw new EmptyDataException("Color is required and cannot be empty.", HttpStatus.BAD_REQUEST);
+        }
+        if (cottonPart == null || cottonPart < 0 || cottonPart > 100) {
+            throw new EmptyDataException("CottonPart must be between 0 and 100.", HttpStatus.BAD_REQUEST);
+        }
+        validateAsOf(asOf);
+
+        return quantitiesAsOf(color, asOf).entrySet().stream()
+                .filter(entry -> matches(entry.getKey().cottonPart(), operation, cottonPart))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+
+    /**
+     * Возвращает остатки всех позиций склада на указанный момент времени.
+     *
+     * @param asOf момент времени
+     * @return список позиций с ненулевым остатком, упорядоченный по цвету и проценту хлопка
+     * @throws EmptyDataException если момент времени не указан
+     */
+    @Transactional(readOnly = true)
+    public List<SocksResponseDTO> getStockAsOf(Instant asOf) {
+        validateAsOf(asOf);
+        return quantitiesAsOf(null, asOf).entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(Sku::color)
+                        .thenComparingInt(Sku::cottonPart)))
+                .map(entry -> {
+                    SocksResponseDTO dto = new SocksResponseDTO();
+                    dto.setColor(entry.getKey().color());
+                    dto.setCottonPart(entry.getKey().cottonPart());
+                    dto.setQuantity(entry.getValue());
+                    return dto;
+                })
+                .toList();
+    }
+
+    /**
+     * Строит снимки остатков каждые snapshotInterval движений.
+     * Движения, зафиксированные позже задержки фиксации, не учитываются, чтобы не пропустить
+     * транзакции, зафиксированные позже своих соседей. Каждый снимок строится в отдельной транзакции;
+     * снимок, уже построенный другим узлом, пропускается.
+     */
+    @Scheduled(fixedDelayString = "${app.socks.history.snapshot-check-ms:60000}")
+    public void takeSnapshots() {
+        Instant settledBefore = Instant.now().minus(settleDelay);
+        boolean taken = true;
+        while (taken) {
+            taken = Boolean.TRUE.equals(transactionOperations.execute(status -> takeNextSnapshot(settledBefore)));
+        }
+    }
+
+    /**
+     * Строит очередной снимок после последнего существующего.
+     *
+     * @param settledBefore момент, до которого движения считаются зафиксированными
+     * @return true, если снимок построен или уже построен другим узлом
+     */
+    private boolean takeNextSnapshot(Instant settledBefore) {
+        Optional<StockSnapshot> lastSnapshot = snapshotRepository.findTopByOrderByTakenAtDesc();
+        Instant from = lastSnapshot.map(StockSnapshot::getTakenAt).orElse(HISTORY_START);
+        List<StockMovement> boundary = movementRepository.findByOccurredAtAfterOrderByOccurredAtAscIdAsc(
+                from, PageRequest.of(snapshotInterval - 1, 1));
+        if (boundary.isEmpty() || boundary.get(0).getOccurredAt().isAfter(settledBefore)) {
+            return false;
+        }
+
+        Instant takenAt = boundary.get(0).getOccurredAt();
+        if (snapshotRepository.insertIfAbsent(takenAt) == 0) {
+            log.debug("Stock snapshot at {} already taken by another node", takenAt);
+            return true;
+        }
+        Long snapshotId = snapshotRepository.findByTakenAt(takenAt).orElseThrow().getId();
+
+        Map<Sku, Integer> quantities = new HashMap<>();
+        lastSnapshot.ifPresent(snapshot -> addSnapshotItems(quantities,
+                snapshotItemRepository.findBySnapshotId(snapshot.getId())));
+        addDeltas(quantities, movementRepository.sumDeltasBetween(from, takenAt));
+        snapshotItemRepository.saveAll(quantities.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> {
+                    StockSnapshotItem item = new StockSnapshotItem();
+                    item.setSnapshotId(snapshotId);
+                    item.setColor(entry.getKey().color());
+                    item.setCottonPart(entry.getKey().cottonPart());
+                    item.setQuantity(entry.getValue());
+                    return item;
+                })
+                .toList());
+        log.debug("Stock snapshot taken at {} with {} items", takenAt, quantities.size());
+        return true;
+    }
+
+    /**
+     * Восстанавливает остатки позиций на момент времени по ближайшему снимку и последующим движениям.
+     *
+     * @param color цвет для фильтрации или null для всех цветов
+     * @param asOf  момент времени (включительно)
+     * @return остатки по позициям
+     */
+    private Map<Sku, Integer> quantitiesAsOf(String color, Instant asOf) {
+        Optional<StockSnapshot> snapshot = snapshotRepository.findTopByTakenAtLessThanEqualOrderByTakenAtDesc(asOf);
+        Instant from = snapshot.map(StockSnapshot::getTakenAt).orElse(HISTORY_START);
+
+        Map<Sku, Integer> quantities = new HashMap<>();
+        snapshot.ifPresent(found -> addSnapshotItems(quantities, color == null
+                ? snapshotItemRepository.findBySnapshotId(found.getId())
+                : snapshotItemRepository.findBySnapshotIdAndColor(found.getId(), color)));
+        addDeltas(quantities, color == null
+                ? movementRepository.sumDeltasBetween(from, asOf)
+                : movementRepository.sumDeltasByColorBetween(color, from, asOf));
+        return quantities;
+    }
+
+    private void addSnapshotItems(Map<Sku, Integer> quantities, List<StockSnapshotItem> items) {
+        items.forEach(item -> quantities.merge(new Sku(item.getColor(), item.getCottonPart()),
+                item.getQuantity(), Integer::sum));
+    }
+
+    private void addDeltas(Map<Sku, Integer> quantities, List<StockDelta> deltas) {
+        deltas.forEach(delta -> quantities.merge(new Sku(delta.color(), delta.cottonPart()),
+                delta.delta().intValue(), Integer::sum));
+    }
+
+    private void saveMovement(String color, int cottonPart, int delta, Instant occurredAt) {
+        StockMovement movement = new StockMovement();
+        movement.setColor(color);
+        movement.setCottonPart(cottonPart);
+        movement.setDelta(delta);
+        movement.setOccurredAt(occurredAt);
+        StockMovement saved = movementRepository.save(movement);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingMovements().add(saved);
+        }
+    }
+
+    /**
+     * Возвращает движения, записанные в текущей транзакции, регистрируя синхронизацию при первом обращении.
+     *
+     * @return изменяемый список движений текущей транзакции
+     */
+    private List<StockMovement> pendingMovements() {
+        PendingMovements pending = (PendingMovements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingMovements();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending.movements;
+    }
+
+    private boolean matches(int itemCottonPart, Operation operation, int cottonPart) {
+        return switch (operation) {
+            case moreThan -> itemCottonPart > cottonPart;
+            case lessThan -> itemCottonPart < cottonPart;
+            case equal -> itemCottonPart == cottonPart;
+        };
+    }
+
+    private void validateAsOf(Instant asOf) {
+        if (asOf == null) {
+            throw new EmptyDataException("AsOf timestamp is required.", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Движения текущей транзакции; перед фиксацией получают время фиксации.
+     */
+    private final class PendingMovements implements TransactionSynchronization {
+
+        private final List<StockMovement> movements = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            Instant committedAt = Instant.now();
+            movements.forEach(movement -> movement.setOccurredAt(committedAt));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(StockHistoryService.this);
+        }
+    }
+
+    /**
+     * Позиция склада: цвет и процент хлопка.
+     */
+    private record Sku(String color, int cottonPart) {
+    }
+}
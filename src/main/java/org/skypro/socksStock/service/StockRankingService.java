@@ -0,0 +1,244 @@
+package org.skypro.socksStock.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.request.RankingOrder;
+import org.skypro.socksStock.model.dto.response.ColorStockDTO;
+import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
+import org.skypro.socksStock.model.entity.Socks;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.repository.SocksStockRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Сервис рейтинга цветов и позиций по остатку.
+ * Рейтинги хранятся в упорядоченных skip-list множествах и обновляются за O(log n)
+ * после фиксации каждой операции по перечитанному остатку позиции; чтение первых N элементов
+ * не обращается к базе данных.
+ * Операции других экземпляров приложения учитываются по уведомлениям об инвалидации кеша,
+ * а на случай их потери рейтинги периодически пересобираются из таблицы socks.
+ */
+@Slf4j
+@Service
+public class StockRankingService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final Comparator<SkuRank> SKU_ORDER = Comparator.comparingInt(SkuRank::quantity)
+            .thenComparing(SkuRank::color)
+            .thenComparingInt(SkuRank::cottonPart);
+
+    private static final Comparator<ColorRank> COLOR_ORDER = Comparator.comparingLong(ColorRank::quantity)
+            .thenComparing(ColorRank::color);
+
+    private final SocksStockRepository socksRepository;
+
+    private final Object updateLock = new Object();
+    private final Map<Sku, Integer> skuQuantities = new HashMap<>();
+    private final Map<String, Long> colorQuantities = new HashMap<>();
+    private final ConcurrentSkipListSet<SkuRank> skuRanking = new ConcurrentSkipListSet<>(SKU_ORDER);
+    private final ConcurrentSkipListSet<ColorRank> colorRanking = new ConcurrentSkipListSet<>(COLOR_ORDER);
+
+    /**
+     * Создает сервис рейтинга остатков.
+     *
+     * @param socksRepository хранилище остатков для начальной загрузки и пересборки рейтингов
+     */
+    public StockRankingService(SocksStockRepository socksRepository) {
+        this.socksRepository = socksRepository;
+    }
+
+    /**
+     * Загружает рейтинги из базы данных при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        resync();
+    }
+
+    /**
+     * Пересобирает рейтинги по текущему содержимому таблицы socks.
+     * Снимок читается под той же блокировкой, что и пересборка: изменение, зафиксированное во время
+     * чтения, применяется уже к новым рейтингам, а не затирается снимком, прочитанным до него.
+     */
+    @Scheduled(fixedDelayString = "${app.socks.ranking.resync-ms:300000}",
+            initialDelayString = "${app.socks.ranking.resync-ms:300000}")
+    public void resync() {
+        int items;
+        synchronized (updateLock) {
+            List<Socks> allSocks = socksRepository.findAllOrderByColorAndCottonPart();
+            clearRankings();
+            allSocks.forEach(socks -> applyDelta(socks.getColor(), socks.getCottonPart(), socks.getQuantity()));
+            items = allSocks.size();
+        }
+        log.debug("Stock rankings rebuilt from {} items", items);
+    }
+
+    /**
+     * Учитывает зафиксированное изменение остатка в рейтингах.
+     * Остаток позиции перечитывается под блокировкой и записывается как есть, а не прибавляется
+     * разницей: изменение, уже попавшее в снимок параллельной пересборки, не учитывается дважды.
+     *
+     * @param event событие изменения остатка позиции
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        reload(event.color(), event.cottonPart());
+    }
+
+    /**
+     * Очищает рейтинги после полной очистки склада.
+     *
+     * @param event событие очистки склада
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockCleared(StockClearedEvent event) {
+        synchronized (updateLock) {
+            clearRankings();
+        }
+    }
+
+    /**
+     * Учитывает изменение, сделанное другим экземпляром приложения: остаток позиции перечитывается
+     * из базы данных под блокировкой и записывается как есть, при полном сбросе рейтинги пересобираются.
+     *
+     * @param event событие инвалидации кеша
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        if (event.flushes(CacheInvalidatedEvent.STOCK)) {
+            resync();
+            return;
+        }
+        if (!CacheInvalidatedEvent.STOCK.equals(event.cache())) {
+            return;
+        }
+        int separator = event.key().indexOf(':');
+        int cottonPart = Integer.parseInt(event.key().substring(0, separator));
+        reload(event.key().substring(separator + 1), cottonPart);
+    }
+
+    /**
+     * Возвращает N позиций с наибольшим или наименьшим остатком.
+     *
+     * @param limit количество позиций (от 1 до 100)
+     * @param order направление рейтинга
+     * @return список позиций в порядке рейтинга
+     * @throws EmptyDataException если параметры запроса невалидны
+     */
+    public List<SocksResponseDTO> getTopSkus(int limit, RankingOrder order) {
+        validate(limit, order);
+        return first(skuRanking, order, limit).stream()
+                .map(rank -> {
+                    SocksResponseDTO dto = new SocksResponseDTO();
+                    dto.setColor(rank.color());
+                    dto.setCottonPart(rank.cottonPart());
+                    dto.setQuantity(rank.quantity());
+                    return dto;
+                })
+                .toList();
+    }
+
+    /**
+     * Возвращает N цветов с наибольшим или наименьшим суммарным остатком.
+     *
+     * @param limit количество цветов (от 1 до 100)
+     * @param order направление рейтинга
+     * @return список цветов в порядке рейтинга
+     * @throws EmptyDataException если параметры запроса невалидны
+     */
+    public List<ColorStockDTO> getTopColors(int limit, RankingOrder order) {
+        validate(limit, order);
+        return first(colorRanking, order, limit).stream()
+                .map(rank -> new ColorStockDTO(rank.color(), rank.quantity()))
+                .toList();
+    }
+
+    private void reload(String color, int cottonPart) {
+        synchronized (updateLock) {
+            setQuantity(color, cottonPart, socksRepository.sumQuantityByColorAndCottonPartEqual(color, cottonPart));
+        }
+    }
+
+    /**
+     * Изменяет остаток позиции на разницу. Вызывается под блокировкой updateLock.
+     */
+    private void applyDelta(String color, int cottonPart, int delta) {
+        Integer previousSku = skuQuantities.get(new Sku(color, cottonPart));
+        setQuantity(color, cottonPart, (previousSku == null ? 0 : previousSku) + delta);
+    }
+
+    /**
+     * Записывает остаток позиции и пересчитывает остаток цвета: старые записи удаляются из рейтингов,
+     * новые добавляются. Вызывается под блокировкой updateLock.
+     */
+    private void setQuantity(String color, int cottonPart, int quantity) {
+        Sku sku = new Sku(color, cottonPart);
+        Integer previousSku = skuQuantities.get(sku);
+        if (previousSku != null) {
+            skuRanking.remove(new SkuRank(color, cottonPart, previousSku));
+        }
+        skuQuantities.put(sku, quantity);
+        skuRanking.add(new SkuRank(color, cottonPart, quantity));
+
+        Long previousColor = colorQuantities.get(color);
+        long delta = quantity - (previousSku == null ? 0L : previousSku);
+        long newColor = (previousColor == null ? 0 : previousColor) + delta;
+        if (previousColor != null) {
+            colorRanking.remove(new ColorRank(color, previousColor));
+        }
+        colorQuantities.put(color, newColor);
+        colorRanking.add(new ColorRank(color, newColor));
+    }
+
+    private void clearRankings() {
+        skuQuantities.clear();
+        colorQuantities.clear();
+        skuRanking.clear();
+        colorRanking.clear();
+    }
+
+    private <T> List<T> first(NavigableSet<T> ranking, RankingOrder order, int limit) {
+        Iterator<T> iterator = order == RankingOrder.most ? ranking.descendingIterator() : ranking.iterator();
+        List<T> result = new ArrayList<>(limit);
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    private void validate(int limit, RankingOrder order) {
+        if (order == null) {
+            throw new EmptyDataException("Order is required.", HttpStatus.BAD_REQUEST);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new EmptyDataException("Limit must be between 1 and " + MAX_LIMIT + ".", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private record Sku(String color, int cottonPart) {
+    }
+
+    private record SkuRank(String color, int cottonPart, int quantity) {
+    }
+
+    private record ColorRank(String color, long quantity) {
+    }
+}
@@ -0,0 +1,77 @@
+package org.skypro.socksStock.service;
+
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.response.StockRollupDTO;
+import org.skypro.socksStock.model.entity.RollupGranularity;
+import org.skypro.socksStock.repository.StockRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Сервис чтения агрегированной статистики прихода и расхода.
+ * Запросы читают только предварительно агрегированные интервалы и не обращаются к истории движений.
+ */
+@Service
+public class StockRollupService {
+
+    private static final long MAX_BUCKETS = 5000;
+
+    private final StockRollupRepository rollupRepository;
+    private final ZoneId zone;
+
+    /**
+     * Создает сервис статистики.
+     *
+     * @param rollupRepository репозиторий статистики
+     * @param zone             часовой пояс, в котором определяются границы часов и суток
+     */
+    public StockRollupService(StockRollupRepository rollupRepository,
+                              @Value("${app.socks.rollups.zone:UTC}") ZoneId zone) {
+        this.rollupRepository = rollupRepository;
+        this.zone = zone;
+    }
+
+    /**
+     * Возвращает приход и расход по интервалам за период.
+     * Интервалы без операций в ответ не включаются.
+     *
+     * @param color       цвет носков
+     * @param cottonPart  процент содержания хлопка или null для итога по цвету
+     * @param granularity размер интервала
+     * @param from        начало периода (выравнивается на начало интервала)
+     * @param to          конец периода (исключающий)
+     * @return список интервалов, упорядоченный по времени
+     * @throws EmptyDataException если параметры запроса невалидны
+     */
+    @Transactional(readOnly = true)
+    public List<StockRollupDTO> getRollups(String color, Integer cottonPart, RollupGranularity granularity,
+                                           Instant from, Instant to) {
+        if (color == null || color.trim().isEmpty()) {
+            throw new EmptyDataException("Color is required and cannot be empty.", HttpStatus.BAD_REQUEST);
+        }
+        if (cottonPart != null && (cottonPart < 0 || cottonPart > 100)) {
+            throw new EmptyDataException("CottonPart must be between 0 and 100.", HttpStatus.BAD_REQUEST);
+        }
+        if (granularity == null || from == null || to == null || !from.isBefore(to)) {
+            throw new EmptyDataException("Granularity and a non-empty time range are required.",
+                    HttpStatus.BAD_REQUEST);
+        }
+        Duration bucket = granularity == RollupGranularity.HOUR ? Duration.ofHours(1) : Duration.ofDays(1);
+        if (Duration.between(from, to).dividedBy(bucket) > MAX_BUCKETS) {
+            throw new EmptyDataException("Time range must not exceed " + MAX_BUCKETS + " buckets.",
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        Instant alignedFrom = granularity.bucketStart(from, zone);
+        return cottonPart == null
+                ? rollupRepository.findColorRollups(granularity, color, alignedFrom, to)
+                : rollupRepository.findSkuRollups(granularity, color, cottonPart, alignedFrom, to);
+    }
+}
@@ -0,0 +1,90 @@
+package org.skypro.socksStock.service;
+
+import org.skypro.socksStock.model.entity.RollupGranularity;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.repository.StockRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Инкрементально обновляет почасовую и посуточную статистику прихода и расхода.
+ * Обновление выполняется атомарным upsert в транзакции операции, поэтому статистика
+ * фиксируется вместе с изменением остатка. Требует PostgreSQL (INSERT ... ON CONFLICT).
+ */
+@Component
+@ConditionalOnProperty(name = "app.socks.rollups.enabled", havingValue = "true", matchIfMissing = true)
+public class StockRollupUpdater {
+
+    private final StockRollupRepository rollupRepository;
+    private final ZoneId zone;
+
+    /**
+     * Создает обработчик обновления статистики.
+     *
+     * @param rollupRepository репозиторий статистики
+     * @param zone             часовой пояс, в котором определяются границы часов и суток
+     */
+    public StockRollupUpdater(StockRollupRepository rollupRepository,
+                              @Value("${app.socks.rollups.zone:UTC}") ZoneId zone) {
+        this.rollupRepository = rollupRepository;
+        this.zone = zone;
+    }
+
+    /**
+     * Добавляет изменение остатка к интервалам позиции и цвета.
+     * Строки позиции обновляются раньше строк цвета, чтобы конкурирующие операции
+     * захватывали блокировки в одинаковом порядке.
+     *
+     * @param event событие изменения остатка позиции
+     */
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        int delta = event.delta();
+        if (delta == 0) {
+            return;
+        }
+        long inflow = Math.max(delta, 0);
+        long outflow = Math.max(-delta, 0);
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Instant bucketStart = granularity.bucketStart(event.occurredAt(), zone);
+            rollupRepository.upsertSku(granularity.name(), bucketStart, event.color(), event.cottonPart(),
+                    inflow, outflow);
+        }
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Instant bucketStart = granularity.bucketStart(event.occurredAt(), zone);
+            rollupRepository.upsertColor(granularity.name(), bucketStart, event.color(), inflow, outflow);
+        }
+    }
+
+    /**
+     * Учитывает списанные очисткой склада остатки как расход.
+     * Как и при обычном расходе, все строки позиций обновляются раньше строк цветов.
+     *
+     * @param event событие очистки склада
+     */
+    @EventListener
+    public void onStockCleared(StockClearedEvent event) {
+        List<StockClearedEvent.ClearedItem> cleared = event.cleared();
+        for (StockClearedEvent.ClearedItem item : cleared) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Instant bucketStart = granularity.bucketStart(event.occurredAt(), zone);
+                rollupRepository.upsertSku(granularity.name(), bucketStart, item.color(), item.cottonPart(),
+                        0, item.quantity());
+            }
+        }
+        for (StockClearedEvent.ClearedItem item : cleared) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Instant bucketStart = granularity.bucketStart(event.occurredAt(), zone);
+                rollupRepository.upsertColor(granularity.name(), bucketStart, item.color(), 0, item.quantity());
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.skypro.socksStock.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.response.StockUpdateDTO;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис рассылки изменений остатков носков подписчикам по протоколу Server-Sent Events.
+ * Изменения отправляются только после фиксации транзакции прихода или расхода, а после очистки склада
+ * всем подписчикам отправляется событие сброса. Отправка блокирует поток рассылки, пока клиент не примет
+ * данные, поэтому подписчик, отправка которому длится дольше {@code app.socks.stream.send-timeout-ms},
+ * отключается: его канал завершается с ошибкой, контейнер закрывает асинхронный запрос, зависшая запись
+ * обрывается, и поток рассылки возвращается к остальным подписчикам.
+ */
+@Slf4j
+@Service
+public class StockStreamService {
+
+    private static final String EVENT_NAME = "stock";
+    private static final String CLEAR_EVENT_NAME = "clear";
+
+    private final Map<String, Set<StockSubscription>> subscriptionsByColor = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+
+    /**
+     * Создает сервис рассылки.
+     *
+     * @param bufferSize      максимальное количество неотправленных изменений на одного подписчика
+     * @param timeoutMs       время жизни SSE-соединения в миллисекундах
+     * @param dispatchThreads количество потоков, отправляющих события подписчикам
+     * @param sendTimeoutMs   допустимая длительность отправки одному подписчику в миллисекундах
+     */
+    public StockStreamService(@Value("${app.socks.stream.buffer-size:64}") int bufferSize,
+                              @Value("${app.socks.stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${app.socks.stream.dispatch-threads:4}") int dispatchThreads,
+                              @Value("${app.socks.stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "socks-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Регистрирует нового подписчика на изменения остатков указанных цветов.
+     *
+     * @param colors цвета носков, изменения которых нужно получать
+     * @return SSE-канал подписчика
+     * @throws EmptyDataException если не указан ни один цвет
+     */
+    public SseEmitter subscribe(Collection<String> colors) {
+        Set<String> normalizedColors = colors == null ? Set.of() : colors.stream()
+                .filter(color -> color != null && !color.trim().isEmpty())
+                .map(String::trim)
+                .collect(Collectors.toUnmodifiableSet());
+        if (normalizedColors.isEmpty()) {
+            throw new EmptyDataException("At least one color is required.", HttpStatus.BAD_REQUEST);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        StockSubscription subscription = new StockSubscription(emitter, normalizedColors, bufferSize);
+        normalizedColors.forEach(color -> subscriptionsByColor
+                .computeIfAbsent(color, key -> ConcurrentHashMap.newKeySet())
+                .add(subscription));
+
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscription);
+            emitter.complete();
+        });
+        emitter.onError(error -> unsubscribe(subscription));
+        return emitter;
+    }
+
+    /**
+     * Передает зафиксированное изменение остатка подписчикам соответствующего цвета.
+     *
+     * @param event событие изменения остатка
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        Set<StockSubscription> subscriptions = subscriptionsByColor.get(event.color());
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        StockUpdateDTO update = new StockUpdateDTO(event.warehouse(), event.color(), event.cottonPart(),
+                event.quantity());
+        for (StockSubscription subscription : subscriptions) {
+            if (subscription.offer(update) && !subscription.isClosed()) {
+                dispatcher.execute(() -> deliver(subscription));
+            }
+        }
+    }
+
+    /**
+     * Сообщает всем подписчикам об очистке склада: их неотправленные изменения отбрасываются,
+     * а клиент получает событие сброса раньше последующих изменений.
+     *
+     * @param event событие очистки склада
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockCleared(StockClearedEvent event) {
+        subscriptionsByColor.values().stream()
+                .flatMap(Set::stream)
+                .distinct()
+                .forEach(subscription -> {
+                    if (subscription.offerClear() && !subscription.isClosed()) {
+                        dispatcher.execute(() -> deliver(subscription));
+                    }
+                });
+    }
+
+    /**
+     * Возвращает текущее количество активных подписчиков.
+     *
+     * @return количество подписчиков
+     */
+    public int getSubscriberCount() {
+        return (int) subscriptionsByColor.values().stream()
+                .flatMap(Set::stream)
+                .distinct()
+                .count();
+    }
+
+    /**
+     * Отключает подписчиков, отправка которым длится дольше допустимого.
+     */
+    @Scheduled(fixedDelayString = "${app.socks.stream.send-timeout-ms:5000}")
+    public void evictStalled() {
+        long now = System.currentTimeMillis();
+        subscriptionsByColor.values().stream()
+                .flatMap(Set::stream)
+                .distinct()
+                .filter(subscription -> subscription.isSendStalled(now, sendTimeoutMs))
+                .forEach(subscription -> {
+                    log.debug("Stock stream subscriber stalled for more than {} ms, disconnecting", sendTimeoutMs);
+                    close(subscription, new TimeoutException("Stock stream send timed out"));
+                });
+    }
+
+    /**
+     * Отправляет подписчику все накопленные изменения.
+     * Медленный клиент занимает только поток рассылки, а его буфер продолжает схлопывать изменения;
+     * зависшую отправку обрывает закрытие канала в {@link #evictStalled()}.
+     *
+     * @param subscription подписка, буфер которой нужно отправить
+     */
+    private void deliver(StockSubscription subscription) {
+        if (subscription.isClosed()) {
+            return;
+        }
+        subscription.beginSend(System.currentTimeMillis());
+        try {
+            StockSubscription.PendingBatch batch = subscription.drainPending();
+            if (batch.cleared()) {
+                subscription.getEmitter().send(SseEmitter.event()
+                        .name(CLEAR_EVENT_NAME)
+                        .data(Map.of(), MediaType.APPLICATION_JSON));
+            }
+            for (StockUpdateDTO update : batch.updates()) {
+                subscription.getEmitter().send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .data(update, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Stock stream subscriber disconnected: {}", e.getMessage());
+            close(subscription, e);
+            return;
+        } finally {
+            subscription.endSend();
+        }
+        if (subscription.releaseAndCheckPending() && !subscription.isClosed()) {
+            dispatcher.execute(() -> deliver(subscription));
+        }
+    }
+
+    /**
+     * Закрывает подписку и ее SSE-канал с ошибкой.
+     *
+     * @param subscription подписка для закрытия
+     * @param error        причина закрытия
+     */
+    private void close(StockSubscription subscription, Throwable error) {
+        if (subscription.isClosed()) {
+            return;
+        }
+        subscription.close();
+        unsubscribe(subscription);
+        subscription.getEmitter().completeWithError(error);
+    }
+
+    /**
+     * Удаляет подписку из индекса по цветам.
+     *
+     * @param subscription подписка для удаления
+     */
+    private void unsubscribe(StockSubscription subscription) {
+        for (String color : subscription.getColors()) {
+            subscriptionsByColor.computeIfPresent(color, (key, subscriptions) -> {
+                subscriptions.remove(subscription);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            });
+        }
+        if (subscription.getDropped() > 0) {
+            log.debug("Stock stream subscriber dropped {} updates", subscription.getDropped());
+        }
+    }
+
+    /**
+     * Останавливает потоки рассылки при завершении работы приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+}
@@ -0,0 +1,175 @@
+package org.skypro.socksStock.service;
+
+import org.skypro.socksStock.model.dto.response.StockUpdateDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подписка клиента на поток изменений остатков по набору цветов.
+ * Хранит ограниченный буфер неотправленных изменений: повторное изменение той же позиции
+ * на том же складе заменяет предыдущее (coalesce), а при переполнении отбрасывается самое старое изменение.
+ * Очистка склада отбрасывает накопленные изменения и отмечается в буфере, чтобы клиент получил ее
+ * раньше последующих изменений. Отмечает начало и конец текущей отправки, чтобы зависшего в отправке
+ * клиента можно было отключить.
+ */
+class StockSubscription {
+
+    private final SseEmitter emitter;
+    private final Set<String> colors;
+    private final int capacity;
+    private final LinkedHashMap<String, StockUpdateDTO> pending = new LinkedHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private boolean cleared;
+    private long dropped;
+    private volatile boolean closed;
+    private volatile long sendStartedAtMs;
+
+    /**
+     * Создает подписку.
+     *
+     * @param emitter  SSE-канал клиента
+     * @param colors   цвета, на которые подписан клиент
+     * @param capacity максимальное количество неотправленных изменений
+     */
+    StockSubscription(SseEmitter emitter, Set<String> colors, int capacity) {
+        this.emitter = emitter;
+        this.colors = colors;
+        this.capacity = capacity;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    Set<String> getColors() {
+        return colors;
+    }
+
+    /**
+     * Помещает изменение в буфер подписчика.
+     *
+     * @param update изменение остатка позиции
+     * @return true если для подписчика нужно запланировать отправку буфера
+     */
+    boolean offer(StockUpdateDTO update) {
+        String key = update.warehouse() + ':' + update.color() + ':' + update.cottonPart();
+        synchronized (pending) {
+            pending.remove(key);
+            pending.put(key, update);
+            if (pending.size() > capacity) {
+                Iterator<StockUpdateDTO> oldest = pending.values().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped++;
+            }
+        }
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Отмечает очистку склада: накопленные изменения теряют смысл и отбрасываются.
+     *
+     * @return true если для подписчика нужно запланировать отправку буфера
+     */
+    boolean offerClear() {
+        synchronized (pending) {
+            pending.clear();
+            cleared = true;
+        }
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Забирает отметку об очистке склада и все накопленные после нее изменения в порядке их поступления.
+     *
+     * @return накопленный буфер (может быть пустым)
+     */
+    PendingBatch drainPending() {
+        synchronized (pending) {
+            PendingBatch batch = new PendingBatch(cleared, new ArrayList<>(pending.values()));
+            cleared = false;
+            pending.clear();
+            return batch;
+        }
+    }
+
+    /**
+     * Снимает отметку о запланированной отправке и проверяет, не появились ли новые изменения.
+     *
+     * @return true если отправку нужно запланировать повторно
+     */
+    boolean releaseAndCheckPending() {
+        scheduled.set(false);
+        synchronized (pending) {
+            if (pending.isEmpty() && !cleared) {
+                return false;
+            }
+        }
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Отмечает начало отправки буфера.
+     *
+     * @param nowMs текущее время в миллисекундах
+     */
+    void beginSend(long nowMs) {
+        sendStartedAtMs = nowMs;
+    }
+
+    /**
+     * Отмечает окончание отправки.
+     */
+    void endSend() {
+        sendStartedAtMs = 0;
+    }
+
+    /**
+     * Проверяет, что текущая отправка длится дольше допустимого.
+     *
+     * @param nowMs         текущее время в миллисекундах
+     * @param sendTimeoutMs допустимая длительность отправки в миллисекундах
+     * @return true, если клиент завис в отправке
+     */
+    boolean isSendStalled(long nowMs, long sendTimeoutMs) {
+        long startedAt = sendStartedAtMs;
+        return startedAt != 0 && nowMs - startedAt > sendTimeoutMs;
+    }
+
+    /**
+     * Закрывает подписку: новые отправки не планируются.
+     */
+    void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Возвращает количество изменений, отброшенных из-за переполнения буфера.
+     *
+     * @return количество отброшенных изменений
+     */
+    long getDropped() {
+        synchronized (pending) {
+            return dropped;
+        }
+    }
+
+    /**
+     * Накопленный буфер подписчика.
+     *
+     * @param cleared true, если перед изменениями склад был очищен
+     * @param updates изменения в порядке поступления
+     */
+    record PendingBatch(boolean cleared, List<StockUpdateDTO> updates) {
+    }
+}
@@ -0,0 +1,59 @@
+package org.skypro.socksStock.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Блокировки позиций в пределах одного экземпляра приложения на фиксированном наборе полос.
+ * В транзакции блокировка освобождается после фиксации или отката, чтобы следующая операция
+ * над позицией читала уже зафиксированный остаток.
+ */
+@Component
+@ConditionalOnProperty(name = "app.socks.sku-lock", havingValue = "local", matchIfMissing = true)
+public class StripedSkuLockManager implements SkuLockManager {
+
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Создает менеджер блокировок.
+     *
+     * @param stripeCount количество полос блокировок
+     */
+    public StripedSkuLockManager(@Value("${app.socks.sku-lock.stripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public <T> T withLock(String color, int cottonPart, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(31 * color.hashCode() + cottonPart, stripes.length)];
+        lock.lock();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+            } catch (RuntimeException e) {
+                lock.unlock();
+                throw e;
+            }
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
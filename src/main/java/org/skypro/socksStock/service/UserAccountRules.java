@@ -0,0 +1,69 @@
+package org.skypro.socksStock.service;
+
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.entity.Role;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+
+/**
+ * Правила учетных данных нового пользователя.
+ * Общие для регистрации одного пользователя и массового создания, чтобы импорт не пропускал
+ * учетные записи, которые отклонила бы обычная регистрация.
+ */
+final class UserAccountRules {
+
+    static final int MAX_USERNAME_LENGTH = 50;
+
+    private UserAccountRules() {
+    }
+
+    /**
+     * Проверяет имя пользователя.
+     *
+     * @param username имя пользователя
+     * @return описание нарушения или null, если имя допустимо
+     */
+    static String usernameViolation(String username) {
+        if (!StringUtils.hasText(username)) {
+            return "Username must not be empty";
+        }
+        if (username.length() > MAX_USERNAME_LENGTH) {
+            return "Username must be at most " + MAX_USERNAME_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    /**
+     * Проверяет имя, пароль и роль нового пользователя.
+     *
+     * @param username имя пользователя
+     * @param password пароль
+     * @param role     роль
+     * @return описание первого нарушения или null, если данные допустимы
+     */
+    static String violation(String username, String password, Role role) {
+        String violation = usernameViolation(username);
+        if (violation == null && !StringUtils.hasText(password)) {
+            violation = "Password must not be empty";
+        }
+        if (violation == null && role == null) {
+            violation = "Role must be specified";
+        }
+        return violation;
+    }
+
+    /**
+     * Проверяет имя, пароль и роль нового пользователя.
+     *
+     * @param username имя пользователя
+     * @param password пароль
+     * @param role     роль
+     * @throws EmptyDataException если данные недопустимы
+     */
+    static void check(String username, String password, Role role) {
+        String violation = violation(username, password, role);
+        if (violation != null) {
+            throw new EmptyDataException(violation + ".", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package org.skypro.socksStock.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.request.BulkRoleChangeRequest;
+import org.skypro.socksStock.model.dto.request.BulkUserRequest;
+import org.skypro.socksStock.model.dto.response.BulkUserResult;
+import org.skypro.socksStock.model.dto.response.BulkUserStatus;
+import org.skypro.socksStock.model.dto.response.UserResponseDTO;
+import org.skypro.socksStock.model.entity.AppUser;
+import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.repository.JdbcUserBatchRepository;
+import org.skypro.socksStock.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис массового создания пользователей и смены их ролей.
+ * <p>
+ * Строки обрабатываются пакетами по {@code batch-size}: занятые имена проверяются одним запросом
+ * на пакет, пароли пакета хешируются параллельно в собственном пуле, затем пакет записывается одним
+ * JDBC-пакетом в своей транзакции. Пул занимает не больше половины ядер, а при заполненной очереди
+ * импорт ждет освободившегося места, поэтому хеширование не отнимает CPU у входа и не выполняется
+ * в потоках Tomcat. Строки проверяются по тем же правилам, что и при регистрации одного пользователя.
+ * Результат возвращается по каждой строке; ошибка одной строки не отменяет остальные.
+ */
+@Slf4j
+@Service
+public class UserProvisioningService {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final JdbcUserBatchRepository batchRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxRows;
+    private final ThreadPoolExecutor hashingPool;
+
+    /**
+     * Создает сервис массовых операций над пользователями.
+     *
+     * @param userRepository        репозиторий пользователей
+     * @param batchRepository       репозиторий пакетной записи пользователей
+     * @param passwordEncoder       кодировщик паролей
+     * @param transactionOperations шаблон транзакций для записи пакета
+     * @param eventPublisher        публикатор событий изменения пользователей
+     * @param threads               количество потоков хеширования (0 — половина доступных процессоров)
+     * @param batchSize             количество строк в пакете (не больше 1000)
+     * @param maxRows               максимальное количество строк в запросе
+     */
+    public UserProvisioningService(UserRepository userRepository,
+                                   JdbcUserBatchRepository batchRepository,
+                                   PasswordEncoder passwordEncoder,
+                                   TransactionOperations transactionOperations,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.users.bulk.hashing-threads:0}") int threads,
+                                   @Value("${app.users.bulk.batch-size:500}") int batchSize,
+                                   @Value("${app.users.bulk.max-rows:10000}") int maxRows) {
+        this.userRepository = userRepository;
+        this.batchRepository = batchRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize(batchSize);
+        this.maxRows = maxRows;
+        int poolSize = hashingThreads(threads, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 2), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, UserProvisioningService::awaitQueueSpace);
+    }
+
+    /**
+     * Создает пользователей.
+     *
+     * @param requests строки с именем, паролем и ролью пользователя
+     * @return результат по каждой строке в порядке запроса
+     * @throws EmptyDataException если строк больше допустимого
+     */
+    public List<BulkUserResult> createUsers(List<BulkUserRequest> requests) {
+        checkSize(requests);
+        BulkUserResult[] results = new BulkUserResult[requests.size()];
+        Set<String> seen = new HashSet<>();
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            createBatch(requests, from, Math.min(from + batchSize, requests.size()), seen, results);
+        }
+        log.info("Bulk user import: {} rows processed", requests.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Меняет роли пользователей. Версия токенов каждого измененного пользователя увеличивается,
+     * поэтому ранее выданные токены со старой ролью перестают приниматься.
+     *
+     * @param requests строки с именем пользователя и новой ролью
+     * @return результат по каждой строке в порядке запроса
+     * @throws EmptyDataException если строк больше допустимого
+     */
+    public List<BulkUserResult> updateRoles(List<BulkRoleChangeRequest> requests) {
+        checkSize(requests);
+        BulkUserResult[] results = new BulkUserResult[requests.size()];
+        Set<String> seen = new HashSet<>();
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            updateRolesBatch(requests, from, Math.min(from + batchSize, requests.size()), seen, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Останавливает пул хеширования при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Ограничивает размер пакета, чтобы транзакция и JDBC-пакет записи оставались короткими.
+     *
+     * @param batchSize запрошенный размер пакета
+     * @return размер пакета от 1 до 1000
+     */
+    static int batchSize(int batchSize) {
+        if (batchSize > MAX_BATCH_SIZE) {
+            log.warn("Bulk batch size {} exceeds {}, using {}", batchSize, MAX_BATCH_SIZE, MAX_BATCH_SIZE);
+            return MAX_BATCH_SIZE;
+        }
+        return Math.max(batchSize, 1);
+    }
+
+    /**
+     * Ограничивает пул хеширования половиной ядер, чтобы массовый импорт не вытеснял вход пользователей.
+     *
+     * @param threads    запрошенное количество потоков (0 — по умолчанию)
+     * @param processors количество доступных процессоров
+     * @return количество потоков от 1 до половины процессоров
+     */
+    static int hashingThreads(int threads, int processors) {
+        int limit = Math.max(1, processors / 2);
+        if (threads > limit) {
+            log.warn("Bulk hashing threads {} exceed half of the processors ({}), using {}",
+                    threads, processors, limit);
+            return limit;
+        }
+        return threads > 0 ? threads : limit;
+    }
+
+    /**
+     * Ждет освобождения места в очереди пула вместо выполнения задачи в вызывающем потоке.
+     */
+    private static void awaitQueueSpace(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Bulk password hashing pool is shut down");
+        }
+        try {
+            pool.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    private void createBatch(List<BulkUserRequest> requests, int from, int to, Set<String> seen,
+                             BulkUserResult[] results) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int row = from; row < to; row++) {
+            BulkUserRequest request = requests.get(row);
+            String invalid = UserAccountRules.violation(request.username(), request.password(), roleOf(request));
+            if (invalid != null) {
+                results[row] = failure(row, request.username(), BulkUserStatus.INVALID, invalid);
+            } else if (!seen.add(request.username())) {
+                results[row] = failure(row, request.username(), BulkUserStatus.CONFLICT,
+                        "Duplicate username in request");
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Set<String> taken = userRepository.findUsersByUsernameIn(
+                        candidates.stream().map(row -> requests.get(row).username()).toList()).stream()
+                .map(UserResponseDTO::username)
+                .collect(Collectors.toSet());
+
+        List<Integer> rows = new ArrayList<>();
+        List<CompletableFuture<String>> hashes = new ArrayList<>();
+        for (int row : candidates) {
+            BulkUserRequest request = requests.get(row);
+            if (taken.contains(request.username())) {
+                results[row] = failure(row, request.username(), BulkUserStatus.CONFLICT,
+                        "Username is already taken");
+            } else {
+                rows.add(row);
+                hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(request.password()),
+                        hashingPool));
+            }
+        }
+        List<AppUser> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BulkUserRequest request = requests.get(rows.get(i));
+            AppUser user = new AppUser();
+            user.setUsername(request.username());
+            user.setPassword(hashes.get(i).join());
+            user.setRole(roleOf(request));
+            users.add(user);
+        }
+        insert(users, rows, results);
+    }
+
+    /**
+     * Вставляет пакет одной транзакцией. Если имя заняли параллельно после проверки,
+     * транзакция пакета откатывается и строки вставляются по одной, чтобы отказ получила только эта строка.
+     */
+    private void insert(List<AppUser> users, List<Integer> rows, BulkUserResult[] results) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            transactionOperations.executeWithoutResult(status -> batchRepository.insertAll(users));
+            for (int i = 0; i < users.size(); i++) {
+                results[rows.get(i)] = success(rows.get(i), users.get(i).getUsername(), BulkUserStatus.CREATED);
+            }
+        } catch (DuplicateKeyException e) {
+            log.debug("Bulk insert hit a concurrently registered username, retrying row by row");
+            for (int i = 0; i < users.size(); i++) {
+                AppUser user = users.get(i);
+                int row = rows.get(i);
+                try {
+                    transactionOperations.executeWithoutResult(status -> batchRepository.insertAll(List.of(user)));
+                    results[row] = success(row, user.getUsername(), BulkUserStatus.CREATED);
+                } catch (DuplicateKeyException duplicate) {
+                    results[row] = failure(row, user.getUsername(), BulkUserStatus.CONFLICT,
+                            "Username is already taken");
+                }
+            }
+        }
+    }
+
+    private void updateRolesBatch(List<BulkRoleChangeRequest> requests, int from, int to, Set<String> seen,
+                                  BulkUserResult[] results) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int row = from; row < to; row++) {
+            BulkRoleChangeRequest request = requests.get(row);
+            String invalid = UserAccountRules.usernameViolation(request.username());
+            if (invalid == null && request.role() == null) {
+                invalid = "Role must be specified";
+            }
+            if (invalid != null) {
+                results[row] = failure(row, request.username(), BulkUserStatus.INVALID, invalid);
+            } else if (!seen.add(request.username())) {
+                results[row] = failure(row, request.username(), BulkUserStatus.CONFLICT,
+                        "Duplicate username in request");
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Map<String, UserResponseDTO> existing = userRepository.findUsersByUsernameIn(
+                        candidates.stream().map(row -> requests.get(row).username()).toList()).stream()
+                .collect(Collectors.toMap(UserResponseDTO::username, Function.identity()));
+
+        List<Integer> rows = new ArrayList<>();
+        List<AppUser> changes = new ArrayList<>();
+        for (int row : candidates) {
+            BulkRoleChangeRequest request = requests.get(row);
+            UserResponseDTO user = existing.get(request.username());
+            if (user == null) {
+                results[row] = failure(row, request.username(), BulkUserStatus.NOT_FOUND, "User not found");
+            } else if (user.role() == request.role()) {
+                results[row] = success(row, request.username(), BulkUserStatus.UNCHANGED);
+            } else {
+                AppUser change = new AppUser();
+                change.setId(user.id());
+                change.setUsername(user.username());
+                change.setRole(request.role());
+                changes.add(change);
+                rows.add(row);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        transactionOperations.executeWithoutResult(status -> {
+            int[] counts = batchRepository.updateRoles(changes);
+            for (int i = 0; i < changes.size(); i++) {
+                AppUser change = changes.get(i);
+                int row = rows.get(i);
+                if (counts[i] == 0) {
+                    results[row] = failure(row, change.getUsername(), BulkUserStatus.NOT_FOUND, "User not found");
+                } else {
+                    results[row] = success(row, change.getUsername(), BulkUserStatus.UPDATED);
+                    eventPublisher.publishEvent(new UserCredentialsChangedEvent(change.getId(), change.getUsername()));
+                }
+            }
+        });
+    }
+
+    private void checkSize(List<?> requests) {
+        if (requests.size() > maxRows) {
+            throw new EmptyDataException("Bulk request must contain at most " + maxRows + " rows.",
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Возвращает роль строки; без роли создается обычный пользователь, как при регистрации.
+     */
+    private Role roleOf(BulkUserRequest request) {
+        return request.role() == null ? Role.ROLE_USER : request.role();
+    }
+
+    private BulkUserResult success(int row, String username, BulkUserStatus status) {
+        return new BulkUserResult(row, username, status, null);
+    }
+
+    private BulkUserResult failure(int row, String username, BulkUserStatus status, String message) {
+        return new BulkUserResult(row, username, status, message);
+    }
+}
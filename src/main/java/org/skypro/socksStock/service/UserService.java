@@ -1,12 +1,19 @@
 package org.skypro.socksStock.service;
 
 import lombok.RequiredArgsConstructor;
+import org.skypro.socksStock.exception.EmptyDataException;
 import org.skypro.socksStock.exception.UserNotFoundException;
+import org.skypro.socksStock.model.dto.response.UserPage;
+import org.skypro.socksStock.model.dto.response.UserResponseDTO;
 import org.skypro.socksStock.model.entity.AppUser;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
 import org.skypro.socksStock.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,15 +25,37 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Возвращает список всех зарегистрированных пользователей системы.
+     * Возвращает страницу пользователей, начиная с идентификатора, следующего за указанным.
+     * Запрашивается на одну запись больше лимита, чтобы без отдельного подсчета узнать,
+     * есть ли следующая страница.
      *
-     * @return список всех пользователей
+     * @param afterId идентификатор последнего пользователя предыдущей страницы или null для первой страницы
+     * @param role    роль пользователей для фильтрации или null для всех ролей
+     * @param limit   размер страницы (от 1 до 1000)
+     * @return страница пользователей и курсор следующей страницы
+     * @throws EmptyDataException если размер страницы вне допустимого диапазона
      */
-    public List<AppUser> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public UserPage getUsersPage(Long afterId, Role role, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new EmptyDataException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".", HttpStatus.BAD_REQUEST);
+        }
+        long after = afterId == null ? 0L : afterId;
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<UserResponseDTO> users = role == null
+                ? userRepository.findUsersAfter(after, page)
+                : userRepository.findUsersByRoleAfter(role, after, page);
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        List<UserResponseDTO> pageUsers = users.subList(0, limit);
+        return new UserPage(List.copyOf(pageUsers), pageUsers.get(limit - 1).id());
     }
 
     /**
@@ -35,8 +64,9 @@ public class UserService {
      * @param id идентификатор пользователя
      * @return Optional с найденным пользователем или пустой Optional, если пользователь не найден
      */
-    public Optional<AppUser> getUserById(Long id) {
-        return userRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<UserResponseDTO> getUserById(Long id) {
+        return userRepository.findUserById(id);
     }
 
     /**
@@ -45,12 +75,15 @@ public class UserService {
      * @param username имя пользователя для поиска
      * @return Optional с найденным пользователем или пустой Optional, если пользователь не найден
      */
-    public Optional<AppUser> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+    @Transactional(readOnly = true)
+    public Optional<UserResponseDTO> getUserByUsername(String username) {
+        return userRepository.findUserByUsername(username);
     }
 
     /**
      * Обновляет роль пользователя по его идентификатору.
+     * Версия токенов пользователя увеличивается, поэтому ранее выданные токены со старой ролью
+     * перестают приниматься.
      *
      * @param userId  идентификатор пользователя
      * @param newRole новая роль пользователя
@@ -61,7 +94,10 @@ public class UserService {
         AppUser user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId, HttpStatus.NOT_FOUND));
         user.setRole(newRole);
-        return userRepository.save(user);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        AppUser saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(userId, user.getUsername()));
+        return saved;
     }
 
     /**
@@ -75,6 +111,7 @@ public class UserService {
             throw new UserNotFoundException("User not found with id: " + userId, HttpStatus.NOT_FOUND);
         }
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(userId, null));
     }
 
     /**
@@ -83,17 +120,8 @@ public class UserService {
      * @param username имя пользователя для проверки
      * @return true если пользователь существует, false в противном случае
      */
+    @Transactional(readOnly = true)
     public boolean userExists(String username) {
         return userRepository.existsByUsername(username);
     }
-
-    /**
-     * Возвращает список пользователей с указанной ролью.
-     *
-     * @param role роль пользователей для фильтрации
-     * @return список пользователей с указанной ролью
-     */
-    public List<AppUser> getUsersByRole(Role role) {
-        return userRepository.findByRole(role);
-    }
-}
\ No newline at end of file
+}
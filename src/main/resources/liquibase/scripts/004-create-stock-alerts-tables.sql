@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+CREATE TABLE stock_thresholds
+(
+    id          BIGSERIAL PRIMARY KEY,
+    color       VARCHAR(50) NOT NULL,
+    cotton_part INTEGER CHECK (cotton_part >= 0 AND cotton_part <= 100),
+    threshold   INTEGER     NOT NULL CHECK (threshold >= 0)
+);
+
+--rollback DROP TABLE stock_thresholds;
+
+--changeset author:Eduard.Rz:2
+CREATE UNIQUE INDEX uq_stock_thresholds_sku ON stock_thresholds (color, cotton_part) WHERE cotton_part IS NOT NULL;
+CREATE UNIQUE INDEX uq_stock_thresholds_color ON stock_thresholds (color) WHERE cotton_part IS NULL;
+
+--changeset author:Eduard.Rz:3
+CREATE TABLE stock_alerts
+(
+    id                BIGSERIAL PRIMARY KEY,
+    color             VARCHAR(50) NOT NULL,
+    cotton_part       INTEGER     NOT NULL,
+    threshold         INTEGER     NOT NULL,
+    previous_quantity INTEGER     NOT NULL,
+    quantity          INTEGER     NOT NULL,
+    created_at        TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+--rollback DROP TABLE stock_alerts;
+
+--changeset author:Eduard.Rz:4
+CREATE INDEX idx_stock_alerts_created_at ON stock_alerts (created_at);
@@ -0,0 +1,37 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+CREATE TABLE stock_movements
+(
+    id          BIGSERIAL PRIMARY KEY,
+    color       VARCHAR(50) NOT NULL,
+    cotton_part INTEGER     NOT NULL,
+    delta       INTEGER     NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+--rollback DROP TABLE stock_movements;
+
+--changeset author:Eduard.Rz:2
+CREATE INDEX idx_stock_movements_occurred_at ON stock_movements (occurred_at, id);
+CREATE INDEX idx_stock_movements_color_occurred_at ON stock_movements (color, occurred_at);
+
+--changeset author:Eduard.Rz:3
+CREATE TABLE stock_snapshots
+(
+    id       BIGSERIAL PRIMARY KEY,
+    taken_at TIMESTAMP WITH TIME ZONE NOT NULL UNIQUE
+);
+
+CREATE TABLE stock_snapshot_items
+(
+    id          BIGSERIAL PRIMARY KEY,
+    snapshot_id BIGINT      NOT NULL REFERENCES stock_snapshots (id) ON DELETE CASCADE,
+    color       VARCHAR(50) NOT NULL,
+    cotton_part INTEGER     NOT NULL,
+    quantity    INTEGER     NOT NULL
+);
+
+CREATE INDEX idx_stock_snapshot_items_snapshot_color ON stock_snapshot_items (snapshot_id, color);
+
+--rollback DROP TABLE stock_snapshot_items; DROP TABLE stock_snapshots;
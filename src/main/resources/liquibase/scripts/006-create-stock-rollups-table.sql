@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+CREATE TABLE stock_rollups
+(
+    id           BIGSERIAL PRIMARY KEY,
+    granularity  VARCHAR(8)  NOT NULL,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    color        VARCHAR(50) NOT NULL,
+    cotton_part  INTEGER,
+    inflow       BIGINT      NOT NULL DEFAULT 0,
+    outflow      BIGINT      NOT NULL DEFAULT 0
+);
+
+--rollback DROP TABLE stock_rollups;
+
+--changeset author:Eduard.Rz:2
+CREATE UNIQUE INDEX uq_stock_rollups_sku
+    ON stock_rollups (granularity, color, cotton_part, bucket_start) WHERE cotton_part IS NOT NULL;
+CREATE UNIQUE INDEX uq_stock_rollups_color
+    ON stock_rollups (granularity, color, bucket_start) WHERE cotton_part IS NULL;
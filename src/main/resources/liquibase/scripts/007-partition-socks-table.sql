@@ -0,0 +1,44 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1 context:partitioned
+LOCK TABLE socks IN ACCESS EXCLUSIVE MODE;
+
+CREATE TABLE socks_partitioned
+(
+    id          BIGINT      NOT NULL DEFAULT nextval('socks_id_seq'),
+    color       VARCHAR(50) NOT NULL,
+    cotton_part INTEGER     NOT NULL CHECK (cotton_part >= 0 AND cotton_part <= 100),
+    quantity    INTEGER     NOT NULL CHECK (quantity >= 0),
+    PRIMARY KEY (color, id)
+) PARTITION BY HASH (color);
+
+CREATE TABLE socks_p00 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 0);
+CREATE TABLE socks_p01 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 1);
+CREATE TABLE socks_p02 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 2);
+CREATE TABLE socks_p03 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 3);
+CREATE TABLE socks_p04 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 4);
+CREATE TABLE socks_p05 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 5);
+CREATE TABLE socks_p06 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 6);
+CREATE TABLE socks_p07 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 7);
+CREATE TABLE socks_p08 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 8);
+CREATE TABLE socks_p09 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 9);
+CREATE TABLE socks_p10 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 10);
+CREATE TABLE socks_p11 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 11);
+CREATE TABLE socks_p12 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 12);
+CREATE TABLE socks_p13 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 13);
+CREATE TABLE socks_p14 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 14);
+CREATE TABLE socks_p15 PARTITION OF socks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER 15);
+
+INSERT INTO socks_partitioned (id, color, cotton_part, quantity)
+SELECT id, color, cotton_part, quantity
+FROM socks;
+
+ALTER SEQUENCE socks_id_seq OWNED BY socks_partitioned.id;
+DROP TABLE socks;
+ALTER TABLE socks_partitioned RENAME TO socks;
+
+--changeset author:Eduard.Rz:2 context:partitioned
+CREATE INDEX idx_socks_color_cotton ON socks (color, cotton_part);
+-- Hibernate updates and deletes rows by id alone; without a per-partition index on id
+-- such statements scan every partition
+CREATE INDEX idx_socks_id ON socks (id);
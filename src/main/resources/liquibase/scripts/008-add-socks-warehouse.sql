@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+ALTER TABLE socks ADD COLUMN warehouse VARCHAR(50) NOT NULL DEFAULT 'main';
+
+--rollback ALTER TABLE socks DROP COLUMN warehouse;
+
+--changeset author:Eduard.Rz:2
+ALTER TABLE socks ADD CONSTRAINT uq_socks_warehouse_color_cotton UNIQUE (warehouse, color, cotton_part);
+
+--rollback ALTER TABLE socks DROP CONSTRAINT uq_socks_warehouse_color_cotton;
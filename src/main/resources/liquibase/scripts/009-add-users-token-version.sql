@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
+
+--rollback ALTER TABLE users DROP COLUMN token_version;
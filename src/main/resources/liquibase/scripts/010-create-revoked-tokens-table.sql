@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+CREATE TABLE revoked_tokens
+(
+    token_id   VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+--rollback DROP TABLE revoked_tokens;
+
+--changeset author:Eduard.Rz:2
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
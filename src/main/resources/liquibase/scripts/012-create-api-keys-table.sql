@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+CREATE TABLE api_keys
+(
+    id         BIGSERIAL PRIMARY KEY,
+    key_hash   VARCHAR(64)  NOT NULL,
+    user_id    BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    name       VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+--rollback DROP TABLE api_keys;
+
+--changeset author:Eduard.Rz:2
+CREATE UNIQUE INDEX uq_api_keys_key_hash ON api_keys (key_hash);
+CREATE INDEX idx_api_keys_user_id ON api_keys (user_id);
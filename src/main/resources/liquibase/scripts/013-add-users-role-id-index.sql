@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+CREATE INDEX idx_users_role_id ON users (role, id);
+DROP INDEX idx_users_role;
+
+--rollback CREATE INDEX idx_users_role ON users (role);
+--rollback DROP INDEX idx_users_role_id;
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset author:Eduard.Rz:1
+ALTER TABLE users ALTER COLUMN password TYPE VARCHAR(255);
+
+--rollback ALTER TABLE users ALTER COLUMN password TYPE VARCHAR(100);
@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.security.ApiKeyAuthenticationFilter;
+import org.skypro.socksStock.security.ConfigurablePasswordEncoder;
 import org.skypro.socksStock.security.JwtAuthenticationFilter;
+import org.skypro.socksStock.security.RateLimitFilter;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,24 +24,35 @@ public class SecurityConfigTest {
     @Mock
     private JwtAuthenticationFilter jwtAuthenticationFilterMock;
 
+    @Mock
+    private ApiKeyAuthenticationFilter apiKeyAuthenticationFilterMock;
+
+    @Mock
+    private RateLimitFilter rateLimitFilterMock;
+
     @Mock
     private AuthenticationConfiguration authenticationConfigurationMock;
 
     @DisplayName("Должен создать бин PasswordEncoder")
     @Test
     void createPasswordEncoderBean() {
-        SecurityConfig securityConfig = new SecurityConfig(jwtAuthenticationFilterMock);
+        SecurityConfig securityConfig = new SecurityConfig(jwtAuthenticationFilterMock, apiKeyAuthenticationFilterMock,
+                rateLimitFilterMock);
+        ReflectionTestUtils.setField(securityConfig, "passwordAlgorithm", "bcrypt");
+        ReflectionTestUtils.setField(securityConfig, "bcryptStrength", 4);
 
         PasswordEncoder passwordEncoder = securityConfig.passwordEncoder();
 
         assertNotNull(passwordEncoder);
-        assertInstanceOf(BCryptPasswordEncoder.class, passwordEncoder);
+        assertInstanceOf(ConfigurablePasswordEncoder.class, passwordEncoder);
+        assertTrue(passwordEncoder.encode("password").startsWith("{bcrypt}$2a$04$"));
     }
 
     @DisplayName("Должен создать бин AuthenticationManager")
     @Test
     void createAuthenticationManagerBean() throws Exception {
-        SecurityConfig securityConfig = new SecurityConfig(jwtAuthenticationFilterMock);
+        SecurityConfig securityConfig = new SecurityConfig(jwtAuthenticationFilterMock, apiKeyAuthenticationFilterMock,
+                rateLimitFilterMock);
         AuthenticationManager expectedAuthManager = mock(AuthenticationManager.class);
         when(authenticationConfigurationMock.getAuthenticationManager()).thenReturn(expectedAuthManager);
 
@@ -0,0 +1,110 @@
+package org.skypro.socksStock.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.exception.UserNotFoundException;
+import org.skypro.socksStock.model.dto.request.ApiKeyRequest;
+import org.skypro.socksStock.model.dto.response.ApiKeyResponse;
+import org.skypro.socksStock.security.ApiKeyService;
+import org.skypro.socksStock.security.CustomUserDetailsService;
+import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.BDDMockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ApiKeyAdminController.class)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration"
+})
+public class ApiKeyAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProviderMock;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsServiceMock;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    private static final Instant CREATED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    @DisplayName("Выдача API-ключа - должен вернуть ключ в ответе")
+    @Test
+    void issueApiKeyReturnKey() throws Exception {
+        given(apiKeyServiceMock.issue(7L, "erp"))
+                .willReturn(new ApiKeyResponse(1L, "erp", 7L, CREATED_AT, "sk_secret"));
+
+        mockMvc.perform(post("/api/admin/api-keys")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ApiKeyRequest(7L, "erp"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.userId").value(7))
+                .andExpect(jsonPath("$.key").value("sk_secret"));
+    }
+
+    @DisplayName("Выдача API-ключа несуществующему пользователю - должен вернуть 404")
+    @Test
+    void issueApiKeyWhenUserNotFoundReturnNotFound() throws Exception {
+        given(apiKeyServiceMock.issue(7L, "erp"))
+                .willThrow(new UserNotFoundException("User not found: 7", HttpStatus.NOT_FOUND));
+
+        mockMvc.perform(post("/api/admin/api-keys")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ApiKeyRequest(7L, "erp"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Список API-ключей - должен вернуть ключи без самих ключей")
+    @Test
+    void getApiKeysReturnListWithoutSecrets() throws Exception {
+        given(apiKeyServiceMock.getAll()).willReturn(List.of(new ApiKeyResponse(1L, "erp", 7L, CREATED_AT, null)));
+
+        mockMvc.perform(get("/api/admin/api-keys"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("erp"))
+                .andExpect(jsonPath("$[0].key").doesNotExist());
+    }
+
+    @DisplayName("Отзыв API-ключа - должен вернуть 204 или 404, если ключ не найден")
+    @Test
+    void revokeApiKeyReturnNoContentOrNotFound() throws Exception {
+        given(apiKeyServiceMock.revoke(1L)).willReturn(true);
+        given(apiKeyServiceMock.revoke(2L)).willReturn(false);
+
+        mockMvc.perform(delete("/api/admin/api-keys/{id}", 1L).with(csrf()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/admin/api-keys/{id}", 2L).with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -4,10 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.skypro.socksStock.model.dto.request.LoginRequest;
+import org.skypro.socksStock.model.dto.request.RefreshTokenRequest;
 import org.skypro.socksStock.model.dto.response.AuthResponse;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.security.ApiKeyService;
 import org.skypro.socksStock.security.CustomUserDetailsService;
 import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
 import org.skypro.socksStock.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,15 +18,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import static org.mockito.ArgumentMatchers.eq;
 
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,6 +56,12 @@ public class AuthControllerTest {
     @MockBean
     private CustomUserDetailsService customUserDetailsServiceMock;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
     private final String TEST_USERNAME = "testUser";
     private final String TEST_PASSWORD = "testPass";
     private final String TEST_TOKEN = "test.jwt.token";
@@ -60,7 +72,7 @@ public class AuthControllerTest {
         LoginRequest loginRequest = new LoginRequest(TEST_USERNAME, TEST_PASSWORD);
         AuthResponse authResponse = new AuthResponse(TEST_TOKEN);
 
-        given(authServiceMock.authenticateUser(any(LoginRequest.class)))
+        given(authServiceMock.authenticateUser(any(LoginRequest.class), anyString()))
                 .willReturn(authResponse);
 
         mockMvc.perform(post("/api/auth/login")
@@ -70,7 +82,7 @@ public class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").value(TEST_TOKEN));
 
-        then(authServiceMock).should().authenticateUser(any(LoginRequest.class));
+        then(authServiceMock).should().authenticateUser(any(LoginRequest.class), anyString());
     }
 
     @DisplayName("Успешная регистрация пользователя - должен вернуть JWT токен")
@@ -110,5 +122,45 @@ public class AuthControllerTest {
 
         then(authServiceMock).should().registerUser(TEST_USERNAME, TEST_PASSWORD, Role.ROLE_ADMIN);
     }
-}
 
+    @DisplayName("Продление сеанса - должен вернуть новые JWT и refresh-токен")
+    @Test
+    void refreshTokenReturnNewTokens() throws Exception {
+        given(authServiceMock.refreshToken("old-refresh"))
+                .willReturn(new AuthResponse(TEST_TOKEN, "Bearer", "new-refresh"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("old-refresh"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(TEST_TOKEN))
+                .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+    }
+
+    @DisplayName("Выход пользователя - должен отозвать токен из заголовка Authorization")
+    @Test
+    void logoutRevokeBearerToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .with(csrf())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TEST_TOKEN))
+                .andExpect(status().isNoContent());
+
+        then(authServiceMock).should().revokeToken(TEST_TOKEN);
+        then(authServiceMock).should(never()).revokeRefreshToken(any());
+    }
+
+    @DisplayName("Выход пользователя - должен отозвать refresh-токен из тела запроса")
+    @Test
+    void logoutRevokeRefreshTokenFromBody() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .with(csrf())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("old-refresh"))))
+                .andExpect(status().isNoContent());
+
+        then(authServiceMock).should().revokeToken(TEST_TOKEN);
+        then(authServiceMock).should().revokeRefreshToken("old-refresh");
+    }
+}
@@ -0,0 +1,69 @@
+package org.skypro.socksStock.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.model.dto.response.OperationJournalEntryDTO;
+import org.skypro.socksStock.security.ApiKeyService;
+import org.skypro.socksStock.security.CustomUserDetailsService;
+import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.skypro.socksStock.service.OperationJournalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OperationJournalController.class)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+        "app.socks.journal.enabled=true"
+})
+public class OperationJournalControllerTest {
+
+    private static final Instant FROM = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-01-02T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OperationJournalService operationJournalServiceMock;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProviderMock;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsServiceMock;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
+    @DisplayName("Чтение журнала - должен передать интервал и лимит по умолчанию")
+    @Test
+    void getOperationsUseDefaultLimit() throws Exception {
+        when(operationJournalServiceMock.getOperations(FROM, TO, 1000)).thenReturn(List.of(
+                new OperationJournalEntryDTO(5L, FROM.plusSeconds(60), 42L, "main", "red", 80, -10, 90)));
+
+        mockMvc.perform(get("/api/admin/journal")
+                        .param("from", FROM.toString())
+                        .param("to", TO.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sequence").value(5))
+                .andExpect(jsonPath("$[0].userId").value(42))
+                .andExpect(jsonPath("$[0].warehouse").value("main"))
+                .andExpect(jsonPath("$[0].delta").value(-10));
+
+        verify(operationJournalServiceMock).getOperations(FROM, TO, 1000);
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.skypro.socksStock.exception.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -47,6 +48,47 @@ public class SocksStockControllerAdviceTest {
         assertEquals(errorMessage, response.getBody());
     }
 
+    @DisplayName("Должен обработать AuthenticationOverloadedException и вернуть заголовок Retry-After")
+    @Test
+    void handleAuthenticationOverloadedExceptionReturnRetryAfter() {
+        String errorMessage = "Authentication is temporarily overloaded, please retry.";
+        AuthenticationOverloadedException exception =
+                new AuthenticationOverloadedException(errorMessage, HttpStatus.SERVICE_UNAVAILABLE, 2);
+
+        ResponseEntity<String> response = controllerAdvice.handleAuthenticationOverloadedException(exception);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(errorMessage, response.getBody());
+    }
+
+    @DisplayName("Должен обработать StockBusyException и вернуть 409 с заголовком Retry-After")
+    @Test
+    void handleStockBusyExceptionReturnRetryAfter() {
+        String errorMessage = "Stock item is busy, please retry.";
+        StockBusyException exception = new StockBusyException(errorMessage, HttpStatus.CONFLICT, 2);
+
+        ResponseEntity<String> response = controllerAdvice.handleStockBusyException(exception);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(errorMessage, response.getBody());
+    }
+
+    @DisplayName("Должен обработать LoginThrottledException и вернуть 429 с заголовком Retry-After")
+    @Test
+    void handleLoginThrottledExceptionReturnRetryAfter() {
+        String errorMessage = "Too many login attempts, please retry later.";
+        LoginThrottledException exception =
+                new LoginThrottledException(errorMessage, HttpStatus.TOO_MANY_REQUESTS, 30);
+
+        ResponseEntity<String> response = controllerAdvice.handleLoginThrottledException(exception);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("30", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(errorMessage, response.getBody());
+    }
+
     @DisplayName("Должен обработать SocksNotFoundException и вернуть корректный ответ")
     @Test
     void handleSocksNotFoundExceptionReturnCorrectResponse() {
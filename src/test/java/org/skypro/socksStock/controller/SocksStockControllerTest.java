@@ -6,15 +6,23 @@ import org.junit.jupiter.api.Test;
 import org.skypro.socksStock.model.dto.request.Operation;
 import org.skypro.socksStock.model.dto.request.SocksRequestDTO;
 import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
+import org.skypro.socksStock.security.ApiKeyService;
 import org.skypro.socksStock.security.CustomUserDetailsService;
 import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
 import org.skypro.socksStock.service.SocksStockService;
+import org.skypro.socksStock.service.StockHistoryService;
+import org.skypro.socksStock.service.StockStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -37,12 +45,24 @@ public class SocksStockControllerTest {
     @MockBean
     private SocksStockService socksStockServiceMock;
 
+    @MockBean
+    private StockStreamService stockStreamServiceMock;
+
+    @MockBean
+    private StockHistoryService stockHistoryServiceMock;
+
     @MockBean
     private JwtTokenProvider jwtTokenProviderMock;
 
     @MockBean
     private CustomUserDetailsService customUserDetailsServiceMock;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
     private final String TEST_COLOR = "red";
     private final Integer TEST_COTTON_PART = 80;
     private final Integer TEST_QUANTITY = 100;
@@ -134,6 +154,84 @@ public class SocksStockControllerTest {
                 .andExpect(content().string(expectedQuantity.toString()));
     }
 
+    @DisplayName("Получение количества носков на момент времени - должен вернуть количество из истории")
+    @Test
+    void getQuantityWhenAsOfProvidedReturnHistoricalCount() throws Exception {
+        Instant asOf = Instant.parse("2024-01-31T23:59:59Z");
+        when(stockHistoryServiceMock.getQuantityAsOf(TEST_COLOR, Operation.equal, TEST_COTTON_PART, asOf))
+                .thenReturn(40);
+
+        mockMvc.perform(get("/api/socks")
+                        .param("color", TEST_COLOR)
+                        .param("operation", Operation.equal.name())
+                        .param("cottonPart", TEST_COTTON_PART.toString())
+                        .param("asOf", "2024-01-31T23:59:59Z"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("40"));
+
+        verify(socksStockServiceMock, never()).getQuantity(any(), any(), any());
+    }
+
+    @DisplayName("Получение количества носков на складе - должен вернуть количество по складу")
+    @Test
+    void getQuantityWhenWarehouseProvidedReturnWarehouseCount() throws Exception {
+        when(socksStockServiceMock.getQuantity("north", TEST_COLOR, Operation.equal, TEST_COTTON_PART))
+                .thenReturn(15);
+
+        mockMvc.perform(get("/api/socks")
+                        .param("color", TEST_COLOR)
+                        .param("operation", Operation.equal.name())
+                        .param("cottonPart", TEST_COTTON_PART.toString())
+                        .param("warehouse", "north"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("15"));
+
+        verify(socksStockServiceMock, never()).getQuantity(any(), any(), any());
+    }
+
+    @DisplayName("Получение количества на складе на момент времени - должен вернуть 400")
+    @Test
+    void getQuantityWhenWarehouseAndAsOfProvidedReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/socks")
+                        .param("color", TEST_COLOR)
+                        .param("operation", Operation.equal.name())
+                        .param("cottonPart", TEST_COTTON_PART.toString())
+                        .param("asOf", "2024-01-31T23:59:59Z")
+                        .param("warehouse", "north"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(stockHistoryServiceMock);
+    }
+
+    @DisplayName("Получение списка остатков без момента времени - должен вернуть текущие остатки")
+    @Test
+    void getAllSocksWithoutAsOfReturnCurrentStock() throws Exception {
+        when(socksStockServiceMock.getAllSocks())
+                .thenReturn(List.of(createSocksResponseDTO(TEST_COLOR, TEST_COTTON_PART, TEST_QUANTITY)));
+
+        mockMvc.perform(get("/api/socks/list"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].quantity").value(TEST_QUANTITY));
+
+        verifyNoInteractions(stockHistoryServiceMock);
+    }
+
+    @DisplayName("Получение списка остатков на момент времени - должен вернуть остатки из истории")
+    @Test
+    void getAllSocksWithAsOfReturnHistoricalStock() throws Exception {
+        Instant asOf = Instant.parse("2024-01-31T23:59:59Z");
+        when(stockHistoryServiceMock.getStockAsOf(asOf))
+                .thenReturn(List.of(createSocksResponseDTO(TEST_COLOR, TEST_COTTON_PART, 40)));
+
+        mockMvc.perform(get("/api/socks/list")
+                        .param("asOf", "2024-01-31T23:59:59Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].quantity").value(40));
+
+        verify(socksStockServiceMock, never()).getAllSocks();
+    }
+
     @DisplayName("Получение количества носков с отсутствующими параметрами - должен вернуть ошибку")
     @Test
     void getQuantityWhenMissingParametersReturnBadRequest() throws Exception {
@@ -153,6 +251,28 @@ public class SocksStockControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @DisplayName("Подписка на поток изменений остатков - должен открыть асинхронный SSE-ответ")
+    @Test
+    void streamStockWhenColorsProvidedStartAsyncResponse() throws Exception {
+        when(stockStreamServiceMock.subscribe(List.of("red", "blue"))).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/socks/stream")
+                        .param("colors", "red,blue")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(stockStreamServiceMock, times(1)).subscribe(List.of("red", "blue"));
+    }
+
+    @DisplayName("Подписка на поток изменений без цветов - должен вернуть ошибку")
+    @Test
+    void streamStockWhenColorsMissingReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/socks/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+    }
+
     @DisplayName("Удаление всех носков - должен успешно выполнить операцию")
     @Test
     void allDeleteRemoveAllSocks() throws Exception {
@@ -0,0 +1,113 @@
+package org.skypro.socksStock.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.exception.StockThresholdNotFoundException;
+import org.skypro.socksStock.model.dto.request.StockThresholdRequestDTO;
+import org.skypro.socksStock.model.dto.response.StockAlertResponseDTO;
+import org.skypro.socksStock.model.dto.response.StockThresholdResponseDTO;
+import org.skypro.socksStock.security.ApiKeyService;
+import org.skypro.socksStock.security.CustomUserDetailsService;
+import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.skypro.socksStock.service.StockAlertService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StockAlertController.class)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration"
+})
+public class StockAlertControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private StockAlertService stockAlertServiceMock;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProviderMock;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsServiceMock;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
+    @DisplayName("Получение порогов - должен вернуть список порогов")
+    @Test
+    void getThresholdsReturnThresholdList() throws Exception {
+        when(stockAlertServiceMock.getThresholds()).thenReturn(List.of(
+                new StockThresholdResponseDTO(1L, "red", 80, 10),
+                new StockThresholdResponseDTO(2L, "blue", null, 50)));
+
+        mockMvc.perform(get("/api/admin/thresholds"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].cottonPart").value(80))
+                .andExpect(jsonPath("$[1].threshold").value(50));
+    }
+
+    @DisplayName("Сохранение порога - должен вернуть сохраненный порог")
+    @Test
+    void saveThresholdReturnSavedThreshold() throws Exception {
+        StockThresholdRequestDTO request = new StockThresholdRequestDTO();
+        request.setColor("red");
+        request.setCottonPart(80);
+        request.setThreshold(10);
+        when(stockAlertServiceMock.saveThreshold(any(StockThresholdRequestDTO.class)))
+                .thenReturn(new StockThresholdResponseDTO(1L, "red", 80, 10));
+
+        mockMvc.perform(put("/api/admin/thresholds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.threshold").value(10));
+    }
+
+    @DisplayName("Удаление несуществующего порога - должен вернуть 404")
+    @Test
+    void deleteThresholdWhenNotFoundReturnNotFound() throws Exception {
+        doThrow(new StockThresholdNotFoundException("Threshold not found with id: 5", HttpStatus.NOT_FOUND))
+                .when(stockAlertServiceMock).deleteThreshold(5L);
+
+        mockMvc.perform(delete("/api/admin/thresholds/{id}", 5))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Получение уведомлений - должен передать лимит по умолчанию и вернуть уведомления")
+    @Test
+    void getRecentAlertsUseDefaultLimit() throws Exception {
+        when(stockAlertServiceMock.getRecentAlerts(100)).thenReturn(List.of(
+                new StockAlertResponseDTO(3L, "red", 80, 10, 15, 8, Instant.parse("2024-01-01T00:00:00Z"))));
+
+        mockMvc.perform(get("/api/admin/alerts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].quantity").value(8));
+
+        verify(stockAlertServiceMock).getRecentAlerts(100);
+    }
+}
@@ -0,0 +1,83 @@
+package org.skypro.socksStock.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.model.dto.request.RankingOrder;
+import org.skypro.socksStock.model.dto.response.ColorStockDTO;
+import org.skypro.socksStock.security.ApiKeyService;
+import org.skypro.socksStock.security.CustomUserDetailsService;
+import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.skypro.socksStock.service.StockRankingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StockRankingController.class)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration"
+})
+public class StockRankingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockRankingService stockRankingServiceMock;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProviderMock;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsServiceMock;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
+    @DisplayName("Рейтинг цветов с параметрами по умолчанию - должен запросить 10 цветов с наибольшим остатком")
+    @Test
+    void getTopColorsUseDefaults() throws Exception {
+        when(stockRankingServiceMock.getTopColors(10, RankingOrder.most))
+                .thenReturn(List.of(new ColorStockDTO("red", 110)));
+
+        mockMvc.perform(get("/api/socks/top/colors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].color").value("red"))
+                .andExpect(jsonPath("$[0].quantity").value(110));
+
+        verify(stockRankingServiceMock).getTopColors(10, RankingOrder.most);
+    }
+
+    @DisplayName("Рейтинг позиций с наименьшим остатком - должен передать параметры в сервис")
+    @Test
+    void getTopSkusLeastPassParameters() throws Exception {
+        when(stockRankingServiceMock.getTopSkus(5, RankingOrder.least)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/socks/top/skus")
+                        .param("limit", "5")
+                        .param("order", "least"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        verify(stockRankingServiceMock).getTopSkus(5, RankingOrder.least);
+    }
+
+    @DisplayName("Рейтинг с некорректным направлением - должен вернуть ошибку")
+    @Test
+    void getTopSkusWhenInvalidOrderReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/socks/top/skus")
+                        .param("order", "middle"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,77 @@
+package org.skypro.socksStock.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.model.dto.response.StockRollupDTO;
+import org.skypro.socksStock.model.entity.RollupGranularity;
+import org.skypro.socksStock.security.ApiKeyService;
+import org.skypro.socksStock.security.CustomUserDetailsService;
+import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.skypro.socksStock.service.StockRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StockRollupController.class)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration"
+})
+public class StockRollupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockRollupService stockRollupServiceMock;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProviderMock;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsServiceMock;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
+    @DisplayName("Получение статистики по суткам - должен вернуть интервалы с приходом и расходом")
+    @Test
+    void getRollupsReturnBuckets() throws Exception {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-04-01T00:00:00Z");
+        when(stockRollupServiceMock.getRollups("red", null, RollupGranularity.DAY, from, to))
+                .thenReturn(List.of(new StockRollupDTO(from, 10, 25)));
+
+        mockMvc.perform(get("/api/socks/rollups")
+                        .param("color", "red")
+                        .param("granularity", "DAY")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-04-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].inflow").value(10))
+                .andExpect(jsonPath("$[0].outflow").value(25));
+    }
+
+    @DisplayName("Получение статистики с некорректным интервалом - должен вернуть ошибку")
+    @Test
+    void getRollupsWhenInvalidGranularityReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/socks/rollups")
+                        .param("color", "red")
+                        .param("granularity", "WEEK")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-04-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,16 +1,26 @@
 package org.skypro.socksStock.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.skypro.socksStock.model.entity.AppUser;
+import org.skypro.socksStock.model.dto.request.BulkRoleChangeRequest;
+import org.skypro.socksStock.model.dto.request.BulkUserRequest;
+import org.skypro.socksStock.model.dto.response.BulkUserResult;
+import org.skypro.socksStock.model.dto.response.BulkUserStatus;
+import org.skypro.socksStock.model.dto.response.UserPage;
+import org.skypro.socksStock.model.dto.response.UserResponseDTO;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.security.ApiKeyService;
 import org.skypro.socksStock.security.CustomUserDetailsService;
 import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.skypro.socksStock.service.UserProvisioningService;
 import org.skypro.socksStock.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -23,6 +33,9 @@ import static org.mockito.BDDMockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,29 +48,40 @@ public class UserAdminControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
     private UserService userServiceMock;
 
+    @MockBean
+    private UserProvisioningService userProvisioningServiceMock;
+
     @MockBean
     private JwtTokenProvider jwtTokenProviderMock;
 
     @MockBean
     private CustomUserDetailsService customUserDetailsServiceMock;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationServiceMock;
+
+    @MockBean
+    private ApiKeyService apiKeyServiceMock;
+
     private static final Long TEST_USER_ID = 1L;
     private static final String TEST_USERNAME = "testUser";
-    private static final String TEST_PASSWORD = "testPass";
     private static final Role TEST_USER_ROLE = Role.ROLE_USER;
 
     @DisplayName("Получение всех пользователей - должен вернуть список пользователей")
     @Test
     void getAllUsersWhenUsersExistReturnUserList() throws Exception {
 
-        AppUser user1 = createTestUser(1L, "user1", Role.ROLE_USER);
-        AppUser user2 = createTestUser(2L, "user2", Role.ROLE_ADMIN);
-        List<AppUser> users = Arrays.asList(user1, user2);
+        UserResponseDTO user1 = createTestUser(1L, "user1", Role.ROLE_USER);
+        UserResponseDTO user2 = createTestUser(2L, "user2", Role.ROLE_ADMIN);
+        List<UserResponseDTO> users = Arrays.asList(user1, user2);
 
-        given(userServiceMock.getAllUsers()).willReturn(users);
+        given(userServiceMock.getUsersPage(null, null, 100)).willReturn(new UserPage(users, null));
 
         mockMvc.perform(get("/api/admin/users"))
                 .andExpect(status().isOk())
@@ -69,25 +93,42 @@ public class UserAdminControllerTest {
                 .andExpect(jsonPath("$[1].username").value("user2"))
                 .andExpect(jsonPath("$[1].role").value("ROLE_ADMIN"));
 
-        then(userServiceMock).should().getAllUsers();
+        then(userServiceMock).should().getUsersPage(null, null, 100);
+    }
+
+    @DisplayName("Получение страницы пользователей по роли - должен передать курсор следующей страницы в заголовке")
+    @Test
+    void getAllUsersWithCursorAndRoleReturnNextCursorHeader() throws Exception {
+        UserResponseDTO user = createTestUser(42L, "user42", Role.ROLE_USER);
+        given(userServiceMock.getUsersPage(10L, Role.ROLE_USER, 1)).willReturn(new UserPage(List.of(user), 42L));
+
+        mockMvc.perform(get("/api/admin/users")
+                        .param("after", "10")
+                        .param("role", "ROLE_USER")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserAdminController.NEXT_CURSOR_HEADER, "42"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(42));
     }
 
     @DisplayName("Получение всех пользователей, когда пользователей нет - должен вернуть пустой список")
     @Test
     void getAllUsersWhenNoUsersReturnEmptyList() throws Exception {
-        given(userServiceMock.getAllUsers()).willReturn(List.of());
+        given(userServiceMock.getUsersPage(null, null, 100)).willReturn(new UserPage(List.of(), null));
 
         mockMvc.perform(get("/api/admin/users"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist(UserAdminController.NEXT_CURSOR_HEADER));
 
-        then(userServiceMock).should().getAllUsers();
+        then(userServiceMock).should().getUsersPage(null, null, 100);
     }
 
     @DisplayName("Получение пользователя по ID - должен вернуть пользователя")
     @Test
     void getUserByIdWhenUserExistsReturnUser() throws Exception {
-        AppUser user = createTestUser(TEST_USER_ID, TEST_USERNAME, TEST_USER_ROLE);
+        UserResponseDTO user = createTestUser(TEST_USER_ID, TEST_USERNAME, TEST_USER_ROLE);
         given(userServiceMock.getUserById(TEST_USER_ID)).willReturn(Optional.of(user));
 
         mockMvc.perform(get("/api/admin/users/{id}", TEST_USER_ID))
@@ -113,7 +154,7 @@ public class UserAdminControllerTest {
     @DisplayName("Получение пользователя по имени - должен вернуть пользователя")
     @Test
     void getUserByUsernameWhenUserExistsReturnUser() throws Exception {
-        AppUser user = createTestUser(TEST_USER_ID, TEST_USERNAME, TEST_USER_ROLE);
+        UserResponseDTO user = createTestUser(TEST_USER_ID, TEST_USERNAME, TEST_USER_ROLE);
         given(userServiceMock.getUserByUsername(TEST_USERNAME)).willReturn(Optional.of(user));
 
         mockMvc.perform(get("/api/admin/users/username/{username}", TEST_USERNAME))
@@ -185,12 +226,44 @@ public class UserAdminControllerTest {
         then(userServiceMock).should().getUserById(0L);
     }
 
-    private AppUser createTestUser(Long id, String username, Role role) {
-        AppUser user = new AppUser();
-        user.setId(id);
-        user.setUsername(username);
-        user.setPassword(TEST_PASSWORD);
-        user.setRole(role);
-        return user;
+    @DisplayName("Массовое создание пользователей - должен вернуть результат по каждой строке")
+    @Test
+    void createUsersReturnResultPerRow() throws Exception {
+        List<BulkUserRequest> requests = List.of(
+                new BulkUserRequest("store1", "secret", null),
+                new BulkUserRequest("admin", "secret", Role.ROLE_ADMIN));
+        given(userProvisioningServiceMock.createUsers(requests)).willReturn(List.of(
+                new BulkUserResult(0, "store1", BulkUserStatus.CREATED, null),
+                new BulkUserResult(1, "admin", BulkUserStatus.CONFLICT, "Username is already taken")));
+
+        mockMvc.perform(post("/api/admin/users/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].message").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].index").value(1));
+    }
+
+    @DisplayName("Массовая смена ролей - должен вернуть результат по каждой строке")
+    @Test
+    void updateRolesReturnResultPerRow() throws Exception {
+        List<BulkRoleChangeRequest> requests = List.of(new BulkRoleChangeRequest("store1", Role.ROLE_ADMIN));
+        given(userProvisioningServiceMock.updateRoles(requests))
+                .willReturn(List.of(new BulkUserResult(0, "store1", BulkUserStatus.UPDATED, null)));
+
+        mockMvc.perform(put("/api/admin/users/bulk/roles")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].username").value("store1"))
+                .andExpect(jsonPath("$[0].status").value("UPDATED"));
+    }
+
+    private UserResponseDTO createTestUser(Long id, String username, Role role) {
+        return new UserResponseDTO(id, username, role);
     }
 }
\ No newline at end of file
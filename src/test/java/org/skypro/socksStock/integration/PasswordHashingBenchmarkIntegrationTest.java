@@ -0,0 +1,53 @@
+package org.skypro.socksStock.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.skypro.socksStock.security.ConfigurablePasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Замер пропускной способности входа на одно ядро при разных настройках хеширования паролей.
+ * Проверка пароля выполняется в одном потоке, поэтому число проверок в секунду соответствует
+ * числу входов, которое выдерживает одно ядро пула хеширования. Результаты выводятся в лог
+ * и служат основой для выбора app.security.password.* на конкретном окружении.
+ */
+@Slf4j
+public class PasswordHashingBenchmarkIntegrationTest {
+
+    private static final String PASSWORD = "benchmark-password";
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+
+    @DisplayName("Проверка пароля: замер входов в секунду на ядро")
+    @ParameterizedTest(name = "{0}: bcrypt={1}, argon2 m={2} t={3} p={4}")
+    @CsvSource({
+            "bcrypt, 8, 19456, 2, 1",
+            "bcrypt, 10, 19456, 2, 1",
+            "bcrypt, 12, 19456, 2, 1",
+            "argon2, 10, 19456, 2, 1",
+            "argon2, 10, 47104, 1, 1"
+    })
+    void loginsPerSecondPerCore(String algorithm, int bcryptStrength,
+                                int memoryKb, int iterations, int parallelism) {
+        ConfigurablePasswordEncoder encoder = new ConfigurablePasswordEncoder(algorithm, bcryptStrength,
+                memoryKb, iterations, parallelism);
+        String hash = encoder.encode(PASSWORD);
+        assertTrue(encoder.matches(PASSWORD, hash));
+
+        int matches = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            assertTrue(encoder.matches(PASSWORD, hash));
+            matches++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+
+        String setting = "bcrypt".equals(algorithm) ? "bcrypt strength " + bcryptStrength
+                : "argon2 m=" + memoryKb + " t=" + iterations + " p=" + parallelism;
+        log.info("{}: {} logins/s per core, {} ms per login", setting,
+                String.format("%.1f", matches * 1e9 / elapsed), String.format("%.2f", elapsed / 1e6 / matches));
+    }
+}
@@ -0,0 +1,137 @@
+package org.skypro.socksStock.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.model.entity.Socks;
+import org.skypro.socksStock.repository.JdbcSocksStockRepository;
+import org.skypro.socksStock.repository.JpaSocksStockRepository;
+import org.skypro.socksStock.repository.SocksRepository;
+import org.skypro.socksStock.repository.SocksStockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение JPA- и JDBC-реализаций хранилища остатков на горячих запросах сервиса склада.
+ * Проверяет совпадение результатов и выводит в лог время выполнения каждой реализации.
+ * На встроенной H2 разница занижена; для решения о включении app.socks.repository=jdbc
+ * тест следует запускать против PostgreSQL.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+public class SocksStockRepositoryBenchmarkIntegrationTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+    private static final String WAREHOUSE = Socks.DEFAULT_WAREHOUSE;
+
+    @Autowired
+    private SocksRepository socksRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private SocksStockRepository jpaRepository;
+    private SocksStockRepository jdbcRepository;
+
+    @BeforeEach
+    void setUp() {
+        jpaRepository = new JpaSocksStockRepository(socksRepository);
+        jdbcRepository = new JdbcSocksStockRepository(jdbcTemplate);
+
+        socksRepository.deleteAll();
+        List<Socks> items = new ArrayList<>();
+        for (String color : List.of("red", "blue", "green", "black", "white")) {
+            for (int cottonPart = 0; cottonPart <= 100; cottonPart += 5) {
+                Socks socks = new Socks();
+                socks.setColor(color);
+                socks.setCottonPart(cottonPart);
+                socks.setQuantity(cottonPart + 10);
+                items.add(socks);
+            }
+        }
+        socksRepository.saveAll(items);
+    }
+
+    @AfterEach
+    void tearDown() {
+        socksRepository.deleteAll();
+    }
+
+    @DisplayName("Сумма остатков: реализации должны возвращать одинаковый результат")
+    @Test
+    void sumQuantityImplementationsReturnSameResult() {
+        for (int cottonPart = 0; cottonPart <= 100; cottonPart += 10) {
+            assertEquals(jpaRepository.sumQuantityByColorAndCottonPartGreaterThan("red", cottonPart),
+                    jdbcRepository.sumQuantityByColorAndCottonPartGreaterThan("red", cottonPart));
+            assertEquals(jpaRepository.sumQuantityByColorAndCottonPartLessThan("red", cottonPart),
+                    jdbcRepository.sumQuantityByColorAndCottonPartLessThan("red", cottonPart));
+            assertEquals(jpaRepository.sumQuantityByColorAndCottonPartEqual("red", cottonPart),
+                    jdbcRepository.sumQuantityByColorAndCottonPartEqual("red", cottonPart));
+        }
+    }
+
+    @DisplayName("Сохранение через JDBC: должно вставить новую позицию и обновить ее остаток")
+    @Test
+    void jdbcSaveInsertAndUpdate() {
+        Socks socks = new Socks();
+        socks.setColor("yellow");
+        socks.setCottonPart(33);
+        socks.setQuantity(7);
+
+        Socks inserted = jdbcRepository.save(socks);
+        inserted.setQuantity(12);
+        jdbcRepository.save(inserted);
+
+        Socks found = jpaRepository.findByWarehouseAndColorAndCottonPart(WAREHOUSE, "yellow", 33).orElseThrow();
+        assertEquals(inserted.getId(), found.getId());
+        assertEquals(12, found.getQuantity());
+    }
+
+    @DisplayName("Горячие запросы: замер времени JPA- и JDBC-реализаций")
+    @Test
+    void hotQueriesBenchmark() {
+        long jpaSumNanos = measure(() -> jpaRepository.sumQuantityByColorAndCottonPartGreaterThan("blue", 40));
+        long jdbcSumNanos = measure(() -> jdbcRepository.sumQuantityByColorAndCottonPartGreaterThan("blue", 40));
+        long jpaFindNanos = measure(() -> transactionTemplate.execute(status -> jpaRepository
+                .findByWarehouseAndColorAndCottonPart(WAREHOUSE, "green", 55).orElseThrow().getQuantity()));
+        long jdbcFindNanos = measure(() -> transactionTemplate.execute(status -> jdbcRepository
+                .findByWarehouseAndColorAndCottonPart(WAREHOUSE, "green", 55).orElseThrow().getQuantity()));
+
+        log.info("sumQuantity: jpa {} ns/op, jdbc {} ns/op",
+                jpaSumNanos / MEASURED_ITERATIONS, jdbcSumNanos / MEASURED_ITERATIONS);
+        log.info("findByWarehouseAndColorAndCottonPart: jpa {} ns/op, jdbc {} ns/op",
+                jpaFindNanos / MEASURED_ITERATIONS, jdbcFindNanos / MEASURED_ITERATIONS);
+        assertEquals(65, jdbcRepository.findByWarehouseAndColorAndCottonPart(WAREHOUSE, "green", 55)
+                .orElseThrow().getQuantity());
+    }
+
+    private long measure(IntSupplier operation) {
+        int blackhole = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            blackhole += operation.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            blackhole += operation.getAsInt();
+        }
+        long elapsed = System.nanoTime() - start;
+        log.debug("Benchmark checksum {}", blackhole);
+        return elapsed;
+    }
+}
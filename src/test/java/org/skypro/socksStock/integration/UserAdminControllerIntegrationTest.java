@@ -16,6 +16,8 @@ public class UserAdminControllerIntegrationTest extends BaseApiTest {
     private static final String ADMIN_USERS_PATH = "/admin/users";
     private static final String ADMIN_USERS_ID_PATH = ADMIN_USERS_PATH + "/{id}";
     private static final String ADMIN_USERS_USERNAME_PATH = ADMIN_USERS_PATH + "/username/{username}";
+    private static final String ADMIN_USERS_BULK_PATH = ADMIN_USERS_PATH + "/bulk";
+    private static final String ADMIN_USERS_BULK_ROLES_PATH = ADMIN_USERS_BULK_PATH + "/roles";
 
     @Test
     @DisplayName("Получение всех пользователей при их наличии должно возвращать список пользователей")
@@ -389,4 +391,62 @@ public class UserAdminControllerIntegrationTest extends BaseApiTest {
                 .then()
                 .statusCode(HttpStatus.FORBIDDEN.value());
     }
+
+    @Test
+    @DisplayName("Массовое создание и смена ролей должны возвращать результат по каждой строке")
+    void bulkCreateAndUpdateRoles_ShouldReportPerRowResults() {
+        given()
+                .spec(getSpecJson())
+                .body("""
+                        [
+                            {"username": "store1", "password": "Password1"},
+                            {"username": "store2", "password": "Password2", "role": "ROLE_ADMIN"},
+                            {"username": "admin", "password": "Password3"},
+                            {"username": "", "password": "Password4"}
+                        ]
+                        """)
+                .when()
+                .post(ADMIN_USERS_BULK_PATH)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("status", contains("CREATED", "CREATED", "CONFLICT", "INVALID"));
+
+        given()
+                .spec(specJsonBuilder().build())
+                .body("""
+                        {
+                            "username": "store1",
+                            "password": "Password1"
+                        }
+                        """)
+                .when()
+                .post(AUTH_PATH + "/login")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("token", notNullValue());
+
+        given()
+                .spec(getSpecJson())
+                .body("""
+                        [
+                            {"username": "store1", "role": "ROLE_ADMIN"},
+                            {"username": "store2", "role": "ROLE_ADMIN"},
+                            {"username": "missing", "role": "ROLE_USER"}
+                        ]
+                        """)
+                .when()
+                .put(ADMIN_USERS_BULK_ROLES_PATH)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("status", contains("UPDATED", "UNCHANGED", "NOT_FOUND"));
+
+        given()
+                .spec(getSpecJson())
+                .pathParam("username", "store1")
+                .when()
+                .get(ADMIN_USERS_USERNAME_PATH)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("role", equalTo("ROLE_ADMIN"));
+    }
 }
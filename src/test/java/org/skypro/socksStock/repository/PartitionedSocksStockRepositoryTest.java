@@ -0,0 +1,99 @@
+package org.skypro.socksStock.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.model.entity.Socks;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionedSocksStockRepositoryTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplateMock;
+
+    @Mock
+    private JdbcOperations jdbcOperationsMock;
+
+    private PartitionedSocksStockRepository repositoryTest;
+
+    @BeforeEach
+    void setUp() {
+        repositoryTest = new PartitionedSocksStockRepository(jdbcTemplateMock, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryTest.shutdown();
+    }
+
+    @DisplayName("Отчет по всем цветам: должен опросить каждую секцию и слить результаты по порядку")
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAllQueryEachPartitionAndMergeResults() {
+        when(jdbcTemplateMock.getJdbcOperations()).thenReturn(jdbcOperationsMock);
+        when(jdbcOperationsMock.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("socks_p00", "socks_p01"));
+        when(jdbcOperationsMock.query(contains("\"socks_p00\""), any(RowMapper.class)))
+                .thenReturn(List.of(createSocks("black", 10), createSocks("red", 20), createSocks("red", 80)));
+        when(jdbcOperationsMock.query(contains("\"socks_p01\""), any(RowMapper.class)))
+                .thenReturn(List.of(createSocks("blue", 50), createSocks("white", 0)));
+
+        List<Socks> result = repositoryTest.findAllOrderByColorAndCottonPart();
+
+        assertEquals(List.of("black:10", "blue:50", "red:20", "red:80", "white:0"),
+                result.stream().map(socks -> socks.getColor() + ":" + socks.getCottonPart()).toList());
+    }
+
+    @DisplayName("Список секций: должен загружаться один раз")
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAllLoadPartitionsOnce() {
+        when(jdbcTemplateMock.getJdbcOperations()).thenReturn(jdbcOperationsMock);
+        when(jdbcOperationsMock.queryForList(anyString(), eq(String.class))).thenReturn(List.of("socks_p00"));
+        when(jdbcOperationsMock.query(anyString(), any(RowMapper.class))).thenReturn(List.of());
+
+        repositoryTest.findAllOrderByColorAndCottonPart();
+        repositoryTest.findAllOrderByColorAndCottonPart();
+
+        verify(jdbcOperationsMock, times(1)).queryForList(anyString(), eq(String.class));
+    }
+
+    @DisplayName("Слияние: пустые секции должны пропускаться")
+    @Test
+    void mergeSkipEmptyPartitions() {
+        List<Socks> result = PartitionedSocksStockRepository.merge(List.of(
+                List.of(), List.of(createSocks("green", 5)), List.of()));
+
+        assertEquals(1, result.size());
+        assertEquals("green", result.get(0).getColor());
+    }
+
+    @DisplayName("Параллелизм отчетов: должен ограничиваться половиной пула соединений")
+    @Test
+    void reportParallelismCappedByHalfOfConnectionPool() {
+        assertEquals(5, PartitionedSocksStockRepository.reportParallelism(8, 10));
+        assertEquals(4, PartitionedSocksStockRepository.reportParallelism(4, 10));
+        assertEquals(1, PartitionedSocksStockRepository.reportParallelism(8, 1));
+    }
+
+    private Socks createSocks(String color, int cottonPart) {
+        Socks socks = new Socks();
+        socks.setColor(color);
+        socks.setCottonPart(cottonPart);
+        socks.setQuantity(1);
+        return socks;
+    }
+}
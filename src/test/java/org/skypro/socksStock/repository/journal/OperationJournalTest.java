@@ -0,0 +1,114 @@
+package org.skypro.socksStock.repository.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OperationJournalTest {
+
+    private static final Instant FROM = Instant.EPOCH;
+    private static final Instant TO = Instant.parse("2100-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("Запись и чтение: поля записи должны читаться без искажений")
+    @Test
+    void appendAndScanReturnRecordFields() {
+        OperationJournal journal = new OperationJournal(directory, 16, 4, 0);
+        journal.append(7L, "main", "red", 80, 15, 115);
+        journal.append(0L, "north", "blue", 0, -5, 10);
+
+        List<String> records = new ArrayList<>();
+        journal.scan(FROM, TO, record -> records.add(record.sequence() + ":" + record.userId() + ":"
+                + record.warehouse() + ":" + record.color() + ":" + record.cottonPart() + ":" + record.delta()
+                + ":" + record.quantity()));
+
+        assertEquals(List.of("0:7:main:red:80:15:115", "1:0:north:blue:0:-5:10"), records);
+        journal.close();
+    }
+
+    @DisplayName("Сегменты: при заполнении сегмента журнал должен переходить к следующему")
+    @Test
+    void appendWhenSegmentFullRollToNextSegment() throws IOException {
+        OperationJournal journal = new OperationJournal(directory, 2, 1, 0);
+        for (int i = 0; i < 5; i++) {
+            journal.append(1L, "main", "red", i, 1, i + 1);
+        }
+
+        assertEquals(3, countSegments());
+        List<Long> sequences = new ArrayList<>();
+        journal.scan(FROM, TO, record -> sequences.add(record.sequence()));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), sequences);
+        journal.close();
+    }
+
+    @DisplayName("Ограничение хранения: самые старые сегменты должны удаляться")
+    @Test
+    void appendWhenMaxSegmentsExceededDeleteOldestSegments() throws IOException {
+        OperationJournal journal = new OperationJournal(directory, 2, 1, 2);
+        for (int i = 0; i < 6; i++) {
+            journal.append(1L, "main", "red", i, 1, i + 1);
+        }
+
+        assertEquals(2, countSegments());
+        List<Long> sequences = new ArrayList<>();
+        journal.scan(FROM, TO, record -> sequences.add(record.sequence()));
+        assertEquals(List.of(4L, 5L), sequences);
+        journal.close();
+    }
+
+    @DisplayName("Перезапуск: журнал должен продолжить запись после последней зафиксированной записи")
+    @Test
+    void reopenContinueAfterLastCommittedRecord() {
+        OperationJournal journal = new OperationJournal(directory, 16, 1, 0);
+        journal.append(1L, "main", "red", 80, 10, 10);
+        journal.append(2L, "main", "green", 30, 5, 5);
+        journal.close();
+
+        OperationJournal reopened = new OperationJournal(directory, 16, 1, 0);
+        assertEquals(2L, reopened.append(3L, "main", "red", 80, -4, 6));
+
+        List<String> colors = new ArrayList<>();
+        reopened.scan(FROM, TO, record -> colors.add(record.color()));
+        assertEquals(List.of("red", "green", "red"), colors);
+        reopened.close();
+    }
+
+    @DisplayName("Обход: должен учитывать интервал времени и прекращаться по требованию обработчика")
+    @Test
+    void scanRespectTimeRangeAndStopSignal() {
+        OperationJournal journal = new OperationJournal(directory, 16, 16, 0);
+        journal.append(1L, "main", "red", 80, 1, 1);
+        journal.append(1L, "main", "red", 80, 1, 2);
+        journal.append(1L, "main", "red", 80, 1, 3);
+
+        List<Integer> limited = new ArrayList<>();
+        journal.scan(FROM, TO, record -> {
+            limited.add(record.quantity());
+            return limited.size() < 2;
+        });
+        List<Integer> future = new ArrayList<>();
+        journal.scan(TO, TO.plusSeconds(1), record -> future.add(record.quantity()));
+
+        assertEquals(List.of(1, 2), limited);
+        assertTrue(future.isEmpty());
+        journal.close();
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.skypro.socksStock.repository.memory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.skypro.socksStock.model.entity.Socks;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemorySocksStockRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("Сохранение и поиск: должны работать без базы данных")
+    @Test
+    void saveAndFindReturnStoredQuantity() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+
+        Socks saved = repository.save(createSocks("red", 80, 15));
+
+        assertNotNull(saved.getId());
+        Socks found = repository.findByWarehouseAndColorAndCottonPart("main", "red", 80).orElseThrow();
+        assertEquals(saved.getId(), found.getId());
+        assertEquals(15, found.getQuantity());
+        assertTrue(repository.findByWarehouseAndColorAndCottonPart("main", "red", 81).isEmpty());
+        assertTrue(repository.findByWarehouseAndColorAndCottonPart("main", "blue", 80).isEmpty());
+        repository.close();
+    }
+
+    @DisplayName("Сохранение в транзакции: должно быть видно только ей до фиксации")
+    @Test
+    void saveInTransactionApplyAfterCommit() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.save(createSocks("red", 80, 15));
+
+            assertEquals(15, repository.sumQuantityByColorAndCottonPartEqual("red", 80));
+            assertTrue(CompletableFuture.supplyAsync(() ->
+                    repository.findByWarehouseAndColorAndCottonPart("main", "red", 80)).join().isEmpty());
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(15, repository.findByWarehouseAndColorAndCottonPart("main", "red", 80)
+                .orElseThrow().getQuantity());
+        repository.close();
+    }
+
+    @DisplayName("Откат транзакции: не должен менять остатки и журнал")
+    @Test
+    void saveInRolledBackTransactionLeaveNoTrace() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.save(createSocks("red", 80, 15));
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        repository.close();
+
+        InMemorySocksStockRepository restarted = new InMemorySocksStockRepository(directory, false);
+        assertTrue(restarted.findAllOrderByColorAndCottonPart().isEmpty());
+        restarted.close();
+    }
+
+    @DisplayName("Суммы: должны учитывать границы операций сравнения")
+    @Test
+    void sumQuantityRespectComparisonBounds() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        repository.save(createSocks("red", 0, 1));
+        repository.save(createSocks("red", 50, 10));
+        repository.save(createSocks("red", 100, 100));
+
+        assertEquals(100, repository.sumQuantityByColorAndCottonPartGreaterThan("red", 50));
+        assertEquals(1, repository.sumQuantityByColorAndCottonPartLessThan("red", 50));
+        assertEquals(10, repository.sumQuantityByColorAndCottonPartEqual("red", 50));
+        assertEquals(0, repository.sumQuantityByColorAndCottonPartGreaterThan("red", 100));
+        assertEquals(0, repository.sumQuantityByColorAndCottonPartEqual("green", 50));
+        repository.close();
+    }
+
+    @DisplayName("Склады: суммы без склада должны учитывать все склады, со складом — только указанный")
+    @Test
+    void sumQuantityAcrossAndWithinWarehouses() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        repository.save(createSocks("red", 50, 10));
+        Socks north = createSocks("red", 50, 7);
+        north.setWarehouse("north");
+        repository.save(north);
+
+        assertEquals(17, repository.sumQuantityByColorAndCottonPartEqual("red", 50));
+        assertEquals(7, repository.sumQuantityByWarehouseAndColorAndCottonPartEqual("north", "red", 50));
+        assertEquals(0, repository.sumQuantityByWarehouseAndColorAndCottonPartEqual("south", "red", 50));
+        assertEquals(10, repository.findByWarehouseAndColorAndCottonPart("main", "red", 50)
+                .orElseThrow().getQuantity());
+        repository.close();
+
+        InMemorySocksStockRepository restarted = new InMemorySocksStockRepository(directory, false);
+        List<Socks> all = restarted.findAllOrderByColorAndCottonPart();
+        assertEquals(List.of("main", "north"), all.stream().map(Socks::getWarehouse).toList());
+        restarted.close();
+    }
+
+    @DisplayName("Перезапуск: остатки должны восстанавливаться из журнала")
+    @Test
+    void restartRecoverStateFromJournal() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, true);
+        repository.save(createSocks("red", 80, 15));
+        repository.save(createSocks("blue", 10, 3));
+        Socks red = repository.findByWarehouseAndColorAndCottonPart("main", "red", 80).orElseThrow();
+        red.setQuantity(4);
+        repository.save(red);
+        repository.close();
+
+        InMemorySocksStockRepository restarted = new InMemorySocksStockRepository(directory, true);
+
+        List<Socks> all = restarted.findAllOrderByColorAndCottonPart();
+        assertEquals(2, all.size());
+        assertEquals("blue", all.get(0).getColor());
+        assertEquals(4, restarted.findByWarehouseAndColorAndCottonPart("main", "red", 80)
+                .orElseThrow().getQuantity());
+        restarted.close();
+    }
+
+    @DisplayName("Компактизация: снимок должен заменить закрытые сегменты журнала")
+    @Test
+    void compactReplaceSegmentsWithSnapshot() throws IOException {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        repository.save(createSocks("red", 80, 15));
+        repository.compact();
+        repository.save(createSocks("red", 90, 7));
+        repository.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(path -> path.getFileName().toString().startsWith("snapshot-")).count());
+        }
+
+        InMemorySocksStockRepository restarted = new InMemorySocksStockRepository(directory, false);
+        assertEquals(22, restarted.sumQuantityByColorAndCottonPartGreaterThan("red", 0));
+        restarted.close();
+    }
+
+    @DisplayName("Очистка склада в транзакции: не должна применяться, если фиксация не удалась после записи журнала")
+    @Test
+    void deleteAllInFailedCommitKeepStock() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        repository.save(createSocks("red", 80, 15));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.deleteAll();
+
+            assertTrue(repository.findAllOrderByColorAndCottonPart().isEmpty());
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(15, repository.findByWarehouseAndColorAndCottonPart("main", "red", 80)
+                .orElseThrow().getQuantity());
+        repository.close();
+
+        InMemorySocksStockRepository restarted = new InMemorySocksStockRepository(directory, false);
+        assertEquals(15, restarted.findByWarehouseAndColorAndCottonPart("main", "red", 80)
+                .orElseThrow().getQuantity());
+        restarted.close();
+    }
+
+    @DisplayName("Очистка склада: должна переживать перезапуск")
+    @Test
+    void deleteAllSurviveRestart() {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        repository.save(createSocks("red", 80, 15));
+        repository.deleteAll();
+        repository.close();
+
+        InMemorySocksStockRepository restarted = new InMemorySocksStockRepository(directory, false);
+        assertTrue(restarted.findAllOrderByColorAndCottonPart().isEmpty());
+        restarted.close();
+    }
+
+    @DisplayName("Оборванная запись в конце журнала: должна игнорироваться при восстановлении")
+    @Test
+    void recoverIgnoreTornTail() throws IOException {
+        InMemorySocksStockRepository repository = new InMemorySocksStockRepository(directory, false);
+        repository.save(createSocks("red", 80, 15));
+        repository.close();
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("journal-"))
+                    .filter(path -> path.toFile().length() > 0)
+                    .findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 12, 1, 2}, StandardOpenOption.APPEND);
+
+        InMemorySocksStockRepository restarted = new InMemorySocksStockRepository(directory, false);
+        assertEquals(15, restarted.findByWarehouseAndColorAndCottonPart("main", "red", 80).orElseThrow().getQuantity());
+        restarted.close();
+    }
+
+    private Socks createSocks(String color, int cottonPart, int quantity) {
+        Socks socks = new Socks();
+        socks.setColor(color);
+        socks.setCottonPart(cottonPart);
+        socks.setQuantity(quantity);
+        return socks;
+    }
+}
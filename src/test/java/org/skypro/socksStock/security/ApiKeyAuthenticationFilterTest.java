@@ -0,0 +1,90 @@
+package org.skypro.socksStock.security;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ApiKeyAuthenticationFilterTest {
+
+    @Mock
+    private ApiKeyService apiKeyServiceMock;
+
+    @Mock
+    private FilterChain filterChainMock;
+
+    @InjectMocks
+    private ApiKeyAuthenticationFilter apiKeyAuthenticationFilterTest;
+
+    private final AuthenticatedUser serviceAccount = new AuthenticatedUser(7L, "erp-service", "",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @DisplayName("Запрос с действующим ключом: должен аутентифицировать владельца ключа")
+    @Test
+    void doFilterWithValidKeyAuthenticateOwner() throws Exception {
+        MockHttpServletRequest request = requestWithKey("sk_valid");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(apiKeyServiceMock.authenticate("sk_valid")).thenReturn(Optional.of(serviceAccount));
+
+        apiKeyAuthenticationFilterTest.doFilter(request, response, filterChainMock);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertSame(serviceAccount, authentication.getPrincipal());
+        verify(filterChainMock).doFilter(request, response);
+    }
+
+    @DisplayName("Запрос с неизвестным ключом: должен пройти дальше без аутентификации")
+    @Test
+    void doFilterWithUnknownKeyLeaveUnauthenticated() throws Exception {
+        MockHttpServletRequest request = requestWithKey("sk_unknown");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(apiKeyServiceMock.authenticate("sk_unknown")).thenReturn(Optional.empty());
+
+        apiKeyAuthenticationFilterTest.doFilter(request, response, filterChainMock);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChainMock).doFilter(request, response);
+    }
+
+    @DisplayName("Запрос, уже аутентифицированный по JWT: ключ не должен проверяться")
+    @Test
+    void doFilterWhenAlreadyAuthenticatedSkipKey() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        apiKeyAuthenticationFilterTest.doFilter(requestWithKey("sk_valid"), new MockHttpServletResponse(),
+                filterChainMock);
+
+        verifyNoInteractions(apiKeyServiceMock);
+        assertEquals("alice", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    private MockHttpServletRequest requestWithKey(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/socks");
+        request.addHeader(ApiKeyAuthenticationFilter.API_KEY_HEADER, key);
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package org.skypro.socksStock.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.UserNotFoundException;
+import org.skypro.socksStock.model.dto.response.ApiKeyResponse;
+import org.skypro.socksStock.model.entity.ApiKey;
+import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.ApiKeysChangedEvent;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.model.projection.ApiKeyCredentials;
+import org.skypro.socksStock.repository.ApiKeyRepository;
+import org.skypro.socksStock.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyServiceTest {
+
+    @Mock
+    private ApiKeyRepository apiKeyRepositoryMock;
+
+    @Mock
+    private UserRepository userRepositoryMock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    @InjectMocks
+    private ApiKeyService apiKeyServiceTest;
+
+    @Test
+    @DisplayName("Выдача ключа: должен сохранить только хеш и опубликовать событие изменения ключей")
+    void issueStoreHashAndPublishEvent() {
+        when(userRepositoryMock.existsById(7L)).thenReturn(true);
+        when(apiKeyRepositoryMock.save(any(ApiKey.class))).thenAnswer(invocation -> {
+            ApiKey apiKey = invocation.getArgument(0);
+            apiKey.setId(1L);
+            return apiKey;
+        });
+
+        ApiKeyResponse response = apiKeyServiceTest.issue(7L, "erp");
+
+        assertTrue(response.key().startsWith("sk_"));
+        verify(apiKeyRepositoryMock).save(argThat(apiKey -> apiKey.getKeyHash().length() == 64
+                && !apiKey.getKeyHash().equals(response.key()) && apiKey.getUserId() == 7L));
+        verify(eventPublisherMock).publishEvent(new ApiKeysChangedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Выдача ключа несуществующему пользователю: должен выбросить UserNotFoundException")
+    void issueWhenUserNotFoundThrowException() {
+        when(userRepositoryMock.existsById(7L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> apiKeyServiceTest.issue(7L, "erp"));
+        verify(apiKeyRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Аутентификация: выданный ключ должен распознаваться после перезагрузки таблицы ключей")
+    void authenticateIssuedKeyAfterReload() {
+        when(userRepositoryMock.existsById(7L)).thenReturn(true);
+        when(apiKeyRepositoryMock.save(any(ApiKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        String key = apiKeyServiceTest.issue(7L, "erp").key();
+        assertTrue(apiKeyServiceTest.authenticate(key).isEmpty());
+
+        ArgumentCaptor<ApiKey> saved = ArgumentCaptor.forClass(ApiKey.class);
+        verify(apiKeyRepositoryMock).save(saved.capture());
+        when(apiKeyRepositoryMock.findAllCredentials()).thenReturn(List.of(
+                new ApiKeyCredentials(saved.getValue().getKeyHash(), 7L, "erp-service", Role.ROLE_USER, 2)));
+        apiKeyServiceTest.onApiKeysChanged(new ApiKeysChangedEvent(1L));
+
+        AuthenticatedUser user = apiKeyServiceTest.authenticate(key).orElseThrow();
+        assertEquals(7L, user.getId());
+        assertEquals("erp-service", user.getUsername());
+        assertEquals(2, user.getTokenVersion());
+        assertTrue(apiKeyServiceTest.authenticate(key + "x").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Отзыв ключа: должен опубликовать событие только если ключ удален")
+    void revokePublishEventOnlyWhenDeleted() {
+        when(apiKeyRepositoryMock.deleteByIdAndCount(1L)).thenReturn(1);
+        when(apiKeyRepositoryMock.deleteByIdAndCount(2L)).thenReturn(0);
+
+        assertTrue(apiKeyServiceTest.revoke(1L));
+        assertFalse(apiKeyServiceTest.revoke(2L));
+
+        verify(eventPublisherMock).publishEvent(new ApiKeysChangedEvent(1L));
+        verifyNoMoreInteractions(eventPublisherMock);
+    }
+
+    @Test
+    @DisplayName("Уведомление другого экземпляра: ключи должны перечитываться только для своих кешей")
+    void onCacheInvalidatedReloadForApiKeysAndUsers() {
+        apiKeyServiceTest.onCacheInvalidated(new CacheInvalidatedEvent(CacheInvalidatedEvent.API_KEYS, null));
+        apiKeyServiceTest.onCacheInvalidated(new CacheInvalidatedEvent(CacheInvalidatedEvent.USERS, "7"));
+        apiKeyServiceTest.onCacheInvalidated(new CacheInvalidatedEvent(CacheInvalidatedEvent.STOCK, null));
+
+        verify(apiKeyRepositoryMock, times(2)).findAllCredentials();
+    }
+
+
+    @Test
+    @DisplayName("Изменение пользователя: ключи должны перечитываться, только если у пользователя есть ключ")
+    void onUserCredentialsChangedReloadOnlyForKeyOwners() {
+        when(apiKeyRepositoryMock.findAllCredentials()).thenReturn(List.of(
+                new ApiKeyCredentials("hash", 7L, "erp-service", Role.ROLE_USER, 0)));
+        apiKeyServiceTest.reload();
+
+        apiKeyServiceTest.onUserCredentialsChanged(new UserCredentialsChangedEvent(8L, "store"));
+        apiKeyServiceTest.onUserCredentialsChanged(new UserCredentialsChangedEvent(7L, "erp-service"));
+
+        verify(apiKeyRepositoryMock, times(2)).findAllCredentials();
+    }
+}
@@ -0,0 +1,44 @@
+package org.skypro.socksStock.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @DisplayName("Добавленные ключи: фильтр не должен давать ложноотрицательных ответов")
+    @Test
+    void mightContainAddedKeys() {
+        BloomFilter filterTest = new BloomFilter(1_000, 0.01);
+        String[] keys = new String[1_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filterTest.put(keys[i]);
+        }
+
+        for (String key : keys) {
+            assertTrue(filterTest.mightContain(key));
+        }
+    }
+
+    @DisplayName("Не добавленные ключи: доля ложных срабатываний должна быть близка к заданной")
+    @Test
+    void falsePositiveRateCloseToConfigured() {
+        BloomFilter filterTest = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filterTest.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filterTest.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,71 @@
+package org.skypro.socksStock.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigurablePasswordEncoderTest {
+
+    private static final String PASSWORD = "password123";
+
+    @DisplayName("Хеш без префикса: должен проверяться как BCrypt и требовать пересчета")
+    @Test
+    void legacyHashMatchAndRequireUpgrade() {
+        ConfigurablePasswordEncoder encoderTest = bcrypt(4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(encoderTest.matches(PASSWORD, legacyHash));
+        assertTrue(encoderTest.upgradeEncoding(legacyHash));
+    }
+
+    @DisplayName("Хеш с текущими настройками: не должен требовать пересчета")
+    @Test
+    void currentHashNotRequireUpgrade() {
+        ConfigurablePasswordEncoder encoderTest = bcrypt(4);
+
+        String hash = encoderTest.encode(PASSWORD);
+
+        assertTrue(hash.startsWith("{bcrypt}"));
+        assertTrue(encoderTest.matches(PASSWORD, hash));
+        assertFalse(encoderTest.upgradeEncoding(hash));
+    }
+
+    @DisplayName("Изменение стоимости BCrypt: хеш должен пересчитываться как при повышении, так и при понижении")
+    @Test
+    void changedBcryptStrengthRequireUpgrade() {
+        String weakHash = bcrypt(4).encode(PASSWORD);
+        String strongHash = bcrypt(6).encode(PASSWORD);
+
+        assertTrue(bcrypt(5).upgradeEncoding(weakHash));
+        assertTrue(bcrypt(5).upgradeEncoding(strongHash));
+        assertTrue(bcrypt(5).matches(PASSWORD, strongHash));
+    }
+
+    @DisplayName("Переход на Argon2: хеши BCrypt должны проверяться и пересчитываться")
+    @Test
+    void argon2EncodeAndUpgradeBcrypt() {
+        ConfigurablePasswordEncoder encoderTest = new ConfigurablePasswordEncoder("argon2", 4, 1024, 1, 1);
+        String bcryptHash = bcrypt(4).encode(PASSWORD);
+
+        String argon2Hash = encoderTest.encode(PASSWORD);
+
+        assertTrue(argon2Hash.startsWith("{argon2}$argon2id$"));
+        assertTrue(encoderTest.matches(PASSWORD, argon2Hash));
+        assertFalse(encoderTest.upgradeEncoding(argon2Hash));
+        assertTrue(encoderTest.matches(PASSWORD, bcryptHash));
+        assertTrue(encoderTest.upgradeEncoding(bcryptHash));
+        assertTrue(new ConfigurablePasswordEncoder("argon2", 4, 2048, 1, 1).upgradeEncoding(argon2Hash));
+    }
+
+    @DisplayName("Неизвестный алгоритм: должен выбросить исключение")
+    @Test
+    void unsupportedAlgorithmThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConfigurablePasswordEncoder("md5", 10, 1024, 1, 1));
+    }
+
+    private ConfigurablePasswordEncoder bcrypt(int strength) {
+        return new ConfigurablePasswordEncoder("bcrypt", strength, 1024, 1, 1);
+    }
+}
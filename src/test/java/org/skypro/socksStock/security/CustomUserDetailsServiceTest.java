@@ -5,14 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.skypro.socksStock.model.entity.AppUser;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.model.projection.UserCredentials;
 import org.skypro.socksStock.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +29,12 @@ public class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepositoryMock;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    @Spy
+    private UserCredentialsCache credentialsCache = new UserCredentialsCache(0, 0);
+
     @InjectMocks
     private CustomUserDetailsService userDetailsServiceTest;
 
@@ -32,12 +43,9 @@ public class CustomUserDetailsServiceTest {
     void loadUserByUsernameSuccessfully() {
         String username = "testUser";
         String password = "testPassword";
-        AppUser appUser = new AppUser();
-        appUser.setUsername(username);
-        appUser.setPassword(password);
-        appUser.setRole(Role.ROLE_USER);
+        UserCredentials credentials = new UserCredentials(username, password, Role.ROLE_USER);
 
-        when(userRepositoryMock.findByUsername(username)).thenReturn(Optional.of(appUser));
+        when(userRepositoryMock.findCredentialsByUsername(username)).thenReturn(Optional.of(credentials));
 
         UserDetails userDetails = userDetailsServiceTest.loadUserByUsername(username);
 
@@ -47,7 +55,7 @@ public class CustomUserDetailsServiceTest {
         assertTrue(userDetails.getAuthorities().stream()
                 .anyMatch(authority -> authority.getAuthority().equals("ROLE_USER")));
 
-        verify(userRepositoryMock, times(1)).findByUsername(username);
+        verify(userRepositoryMock, times(1)).findCredentialsByUsername(username);
     }
 
     @DisplayName("Должен загрузить пользователя с ролью ADMIN")
@@ -55,12 +63,9 @@ public class CustomUserDetailsServiceTest {
     void loadUserWithAdminRole() {
         String username = "adminUser";
         String password = "adminPassword";
-        AppUser appUser = new AppUser();
-        appUser.setUsername(username);
-        appUser.setPassword(password);
-        appUser.setRole(Role.ROLE_ADMIN);
+        UserCredentials credentials = new UserCredentials(username, password, Role.ROLE_ADMIN);
 
-        when(userRepositoryMock.findByUsername(username)).thenReturn(Optional.of(appUser));
+        when(userRepositoryMock.findCredentialsByUsername(username)).thenReturn(Optional.of(credentials));
 
         UserDetails userDetails = userDetailsServiceTest.loadUserByUsername(username);
 
@@ -70,7 +75,7 @@ public class CustomUserDetailsServiceTest {
         assertTrue(userDetails.getAuthorities().stream()
                 .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")));
 
-        verify(userRepositoryMock, times(1)).findByUsername(username);
+        verify(userRepositoryMock, times(1)).findCredentialsByUsername(username);
     }
 
     @DisplayName("Должен выбросить исключение когда пользователь не найден")
@@ -78,7 +83,7 @@ public class CustomUserDetailsServiceTest {
     void throwExceptionWhenUserNotFound() {
         String username = "nonExistentUser";
 
-        when(userRepositoryMock.findByUsername(username)).thenReturn(Optional.empty());
+        when(userRepositoryMock.findCredentialsByUsername(username)).thenReturn(Optional.empty());
 
         UsernameNotFoundException exception = assertThrows(
                 UsernameNotFoundException.class,
@@ -86,7 +91,7 @@ public class CustomUserDetailsServiceTest {
         );
 
         assertEquals("User not found: " + username, exception.getMessage());
-        verify(userRepositoryMock, times(1)).findByUsername(username);
+        verify(userRepositoryMock, times(1)).findCredentialsByUsername(username);
     }
 
     @DisplayName("Должен корректно создать UserDetails с правильными authorities")
@@ -94,12 +99,9 @@ public class CustomUserDetailsServiceTest {
     void createUserDetailsWithCorrectAuthorities() {
         String username = "testUser";
         String password = "testPassword";
-        AppUser appUser = new AppUser();
-        appUser.setUsername(username);
-        appUser.setPassword(password);
-        appUser.setRole(Role.ROLE_USER);
+        UserCredentials credentials = new UserCredentials(username, password, Role.ROLE_USER);
 
-        when(userRepositoryMock.findByUsername(username)).thenReturn(Optional.of(appUser));
+        when(userRepositoryMock.findCredentialsByUsername(username)).thenReturn(Optional.of(credentials));
 
         UserDetails userDetails = userDetailsServiceTest.loadUserByUsername(username);
 
@@ -110,7 +112,7 @@ public class CustomUserDetailsServiceTest {
         assertEquals("ROLE_USER", authority.getAuthority());
         assertInstanceOf(SimpleGrantedAuthority.class, authority);
 
-        verify(userRepositoryMock, times(1)).findByUsername(username);
+        verify(userRepositoryMock, times(1)).findCredentialsByUsername(username);
     }
 
     @DisplayName("Должен корректно обработать пользователя с пустым именем")
@@ -118,7 +120,7 @@ public class CustomUserDetailsServiceTest {
     void handleUserWithEmptyUsername() {
         String username = "";
 
-        when(userRepositoryMock.findByUsername(username)).thenReturn(Optional.empty());
+        when(userRepositoryMock.findCredentialsByUsername(username)).thenReturn(Optional.empty());
 
         UsernameNotFoundException exception = assertThrows(
                 UsernameNotFoundException.class,
@@ -126,7 +128,7 @@ public class CustomUserDetailsServiceTest {
         );
 
         assertEquals("User not found: " + username, exception.getMessage());
-        verify(userRepositoryMock, times(1)).findByUsername(username);
+        verify(userRepositoryMock, times(1)).findCredentialsByUsername(username);
     }
 
     @DisplayName("Должен корректно обработать пользователя с null именем")
@@ -134,7 +136,7 @@ public class CustomUserDetailsServiceTest {
     void handleUserWithNullUsername() {
         String username = null;
 
-        when(userRepositoryMock.findByUsername(username)).thenReturn(Optional.empty());
+        when(userRepositoryMock.findCredentialsByUsername(username)).thenReturn(Optional.empty());
 
         UsernameNotFoundException exception = assertThrows(
                 UsernameNotFoundException.class,
@@ -142,6 +144,74 @@ public class CustomUserDetailsServiceTest {
         );
 
         assertEquals("User not found: null", exception.getMessage());
-        verify(userRepositoryMock, times(1)).findByUsername(username);
+        verify(userRepositoryMock, times(1)).findCredentialsByUsername(username);
+    }
+
+    @DisplayName("Версия токенов: должна загружаться из базы данных один раз и сбрасываться после смены роли")
+    @Test
+    void isTokenVersionCurrentCacheUntilUserChanged() {
+        when(userRepositoryMock.findTokenVersionById(7L)).thenReturn(Optional.of(0), Optional.of(1));
+
+        assertTrue(userDetailsServiceTest.isTokenVersionCurrent(7L, 0));
+        assertTrue(userDetailsServiceTest.isTokenVersionCurrent(7L, 0));
+        verify(userRepositoryMock, times(1)).findTokenVersionById(7L);
+
+        userDetailsServiceTest.onUserCredentialsChanged(new UserCredentialsChangedEvent(7L, "testUser"));
+
+        assertFalse(userDetailsServiceTest.isTokenVersionCurrent(7L, 0));
+        assertTrue(userDetailsServiceTest.isTokenVersionCurrent(7L, 1));
+    }
+
+    @DisplayName("Версия токенов удаленного пользователя: токены должны отклоняться")
+    @Test
+    void isTokenVersionCurrentReturnFalseForDeletedUser() {
+        when(userRepositoryMock.findTokenVersionById(7L)).thenReturn(Optional.empty());
+
+        assertFalse(userDetailsServiceTest.isTokenVersionCurrent(7L, 0));
+    }
+
+    @DisplayName("Уведомление другого экземпляра: версия токенов должна перечитываться из базы данных")
+    @Test
+    void onCacheInvalidatedReloadTokenVersion() {
+        when(userRepositoryMock.findTokenVersionById(7L)).thenReturn(Optional.of(0), Optional.of(3));
+        userDetailsServiceTest.isTokenVersionCurrent(7L, 0);
+
+        userDetailsServiceTest.onCacheInvalidated(new CacheInvalidatedEvent(CacheInvalidatedEvent.USERS, "7"));
+
+        assertTrue(userDetailsServiceTest.isTokenVersionCurrent(7L, 3));
+    }
+
+    @DisplayName("Кеш учетных данных: повторная загрузка должна обходиться без запроса, смена роли сбрасывает запись")
+    @Test
+    void loadUserByUsernameUseCacheUntilUserChanged() {
+        credentialsCache = new UserCredentialsCache(60_000, 100);
+        userDetailsServiceTest = new CustomUserDetailsService(userRepositoryMock, credentialsCache, eventPublisherMock);
+        when(userRepositoryMock.findCredentialsByUsername("testUser"))
+                .thenReturn(Optional.of(new UserCredentials("testUser", "hash", Role.ROLE_USER, 7L, 0)));
+
+        userDetailsServiceTest.loadUserByUsername("testUser");
+        UserDetails cached = userDetailsServiceTest.loadUserByUsername("testUser");
+        verify(userRepositoryMock, times(1)).findCredentialsByUsername("testUser");
+        assertEquals("hash", cached.getPassword());
+
+        userDetailsServiceTest.onUserCredentialsChanged(new UserCredentialsChangedEvent(7L, null));
+        userDetailsServiceTest.loadUserByUsername("testUser");
+        verify(userRepositoryMock, times(2)).findCredentialsByUsername("testUser");
+    }
+
+    @DisplayName("Пересчет хеша пароля: должен сохранить новый хеш и сбросить кеш учетных данных")
+    @Test
+    void updatePasswordSaveHashAndPublishEvent() {
+        AuthenticatedUser user = new AuthenticatedUser(7L, "alice", "{bcrypt}old",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 3);
+
+        UserDetails updated = userDetailsServiceTest.updatePassword(user, "{argon2}new");
+
+        assertInstanceOf(AuthenticatedUser.class, updated);
+        assertEquals("{argon2}new", updated.getPassword());
+        assertEquals(7L, ((AuthenticatedUser) updated).getId());
+        assertEquals(3, ((AuthenticatedUser) updated).getTokenVersion());
+        verify(userRepositoryMock).updatePasswordByUsername("alice", "{argon2}new");
+        verify(eventPublisherMock).publishEvent(new UserCredentialsChangedEvent(7L, "alice"));
     }
-}
\ No newline at end of file
+}
@@ -17,9 +17,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +35,9 @@ public class JwtAuthenticationFilterTest {
     @Mock
     private CustomUserDetailsService userDetailsServiceMock;
 
+    @Mock
+    private TokenRevocationService revocationServiceMock;
+
     @Mock
     private HttpServletRequest requestMock;
 
@@ -62,8 +68,7 @@ public class JwtAuthenticationFilterTest {
         String username = "testUser";
 
         when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(tokenProviderMock.validateToken(validToken)).thenReturn(true);
-        when(tokenProviderMock.getUsernameFromToken(validToken)).thenReturn(username);
+        when(tokenProviderMock.resolveToken(validToken)).thenReturn(legacyClaims(username));
         when(userDetailsServiceMock.loadUserByUsername(username)).thenReturn(userDetailsMock);
         when(userDetailsMock.getAuthorities()).thenReturn(anyCollection());
 
@@ -80,7 +85,7 @@ public class JwtAuthenticationFilterTest {
 
         jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
 
-        verify(tokenProviderMock, never()).validateToken(anyString());
+        verify(tokenProviderMock, never()).resolveToken(anyString());
         verify(securityContextMock, never()).setAuthentication(any(Authentication.class));
         verify(filterChainMock).doFilter(requestMock, responseMock);
     }
@@ -90,12 +95,11 @@ public class JwtAuthenticationFilterTest {
     void shouldSkipRequestsWithInvalidJwtToken() throws ServletException, IOException {
         String invalidToken = "invalid.jwt.token";
         when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + invalidToken);
-        when(tokenProviderMock.validateToken(invalidToken)).thenReturn(false);
+        when(tokenProviderMock.resolveToken(invalidToken)).thenReturn(Optional.empty());
 
         jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
 
-        verify(tokenProviderMock).validateToken(invalidToken);
-        verify(tokenProviderMock, never()).getUsernameFromToken(anyString());
+        verify(tokenProviderMock).resolveToken(invalidToken);
         verify(userDetailsServiceMock, never()).loadUserByUsername(anyString());
         verify(securityContextMock, never()).setAuthentication(any(Authentication.class));
         verify(filterChainMock).doFilter(requestMock, responseMock);
@@ -108,7 +112,7 @@ public class JwtAuthenticationFilterTest {
 
         jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
 
-        verify(tokenProviderMock, never()).validateToken(anyString());
+        verify(tokenProviderMock, never()).resolveToken(anyString());
         verify(securityContextMock, never()).setAuthentication(any(Authentication.class));
         verify(filterChainMock).doFilter(requestMock, responseMock);
     }
@@ -120,7 +124,7 @@ public class JwtAuthenticationFilterTest {
 
         jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
 
-        verify(tokenProviderMock, never()).validateToken(anyString());
+        verify(tokenProviderMock, never()).resolveToken(anyString());
         verify(securityContextMock, never()).setAuthentication(any(Authentication.class));
         verify(filterChainMock).doFilter(requestMock, responseMock);
     }
@@ -136,15 +140,13 @@ public class JwtAuthenticationFilterTest {
             SecurityContextHolder.setContext(securityContextMock);
 
             when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + token);
-            when(tokenProviderMock.validateToken(token)).thenReturn(true);
-            when(tokenProviderMock.getUsernameFromToken(token)).thenReturn(username);
+            when(tokenProviderMock.resolveToken(token)).thenReturn(legacyClaims(username));
             when(userDetailsServiceMock.loadUserByUsername(username)).thenReturn(userDetailsMock);
             when(userDetailsMock.getAuthorities()).thenReturn(List.of());
 
             jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
 
-            verify(tokenProviderMock).validateToken(token);
-            verify(tokenProviderMock).getUsernameFromToken(token);
+            verify(tokenProviderMock).resolveToken(token);
             verify(securityContextMock).setAuthentication(any(Authentication.class));
         }
         verify(filterChainMock, times(validTokens.length)).doFilter(requestMock, responseMock);
@@ -157,8 +159,7 @@ public class JwtAuthenticationFilterTest {
         String username = "testUser";
 
         when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(tokenProviderMock.validateToken(validToken)).thenReturn(true);
-        when(tokenProviderMock.getUsernameFromToken(validToken)).thenReturn(username);
+        when(tokenProviderMock.resolveToken(validToken)).thenReturn(legacyClaims(username));
         when(userDetailsServiceMock.loadUserByUsername(username)).thenReturn(userDetailsMock);
         when(userDetailsMock.getAuthorities()).thenReturn(List.of());
 
@@ -169,6 +170,57 @@ public class JwtAuthenticationFilterTest {
         ));
     }
 
+    @DisplayName("Должен строить аутентификацию из полномочий токена без загрузки пользователя из базы данных")
+    @Test
+    void shouldAuthenticateFromTokenClaimsWithoutUserLookup() throws ServletException, IOException {
+        String validToken = "valid.jwt.token";
+        when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + validToken);
+        when(tokenProviderMock.resolveToken(validToken))
+                .thenReturn(Optional.of(new JwtClaims("testUser", 7L, "ROLE_ADMIN", 2)));
+        when(userDetailsServiceMock.isTokenVersionCurrent(7L, 2)).thenReturn(true);
+
+        jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
+
+        verify(securityContextMock).setAuthentication(argThat(authentication ->
+                "testUser".equals(authentication.getName())
+                        && authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()))));
+        verify(userDetailsServiceMock, never()).loadUserByUsername(anyString());
+        verify(filterChainMock).doFilter(requestMock, responseMock);
+    }
+
+    @DisplayName("Должен отклонять токен с устаревшей версией после смены роли или удаления пользователя")
+    @Test
+    void shouldSkipRequestsWithRevokedTokenVersion() throws ServletException, IOException {
+        String staleToken = "stale.jwt.token";
+        when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + staleToken);
+        when(tokenProviderMock.resolveToken(staleToken))
+                .thenReturn(Optional.of(new JwtClaims("testUser", 7L, "ROLE_ADMIN", 1)));
+        when(userDetailsServiceMock.isTokenVersionCurrent(7L, 1)).thenReturn(false);
+
+        jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
+
+        verify(securityContextMock, never()).setAuthentication(any(Authentication.class));
+        verify(filterChainMock).doFilter(requestMock, responseMock);
+    }
+
+    @DisplayName("Должен отклонять токен, отозванный при выходе пользователя или администратором")
+    @Test
+    void shouldRejectRevokedToken() throws ServletException, IOException {
+        String token = "revoked.jwt.token";
+        JwtClaims claims = new JwtClaims("testUser", 7L, "ROLE_USER", 0, "jti-1", Instant.now().plusSeconds(60));
+
+        when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(tokenProviderMock.resolveToken(token)).thenReturn(Optional.of(claims));
+        when(revocationServiceMock.isRevoked("jti-1")).thenReturn(true);
+
+        jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
+
+        verify(securityContextMock, never()).setAuthentication(any(Authentication.class));
+        verify(userDetailsServiceMock, never()).isTokenVersionCurrent(any(), anyInt());
+        verify(filterChainMock).doFilter(requestMock, responseMock);
+    }
+
     @DisplayName("Должен обрабатывать случай когда UserDetailsService не находит пользователя")
     @Test
     void shouldHandleCaseWhenUserDetailsServiceDoesNotFindUser() throws ServletException, IOException {
@@ -176,12 +228,15 @@ public class JwtAuthenticationFilterTest {
         String username = "nonExistentUser";
 
         when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(tokenProviderMock.validateToken(validToken)).thenReturn(true);
-        when(tokenProviderMock.getUsernameFromToken(validToken)).thenReturn(username);
+        when(tokenProviderMock.resolveToken(validToken)).thenReturn(legacyClaims(username));
         when(userDetailsServiceMock.loadUserByUsername(username)).thenThrow(new RuntimeException("Пользователь не найден"));
 
         jwtAuthenticationFilterTest.doFilterInternal(requestMock, responseMock, filterChainMock);
 
         verify(filterChainMock).doFilter(requestMock, responseMock);
     }
-}
\ No newline at end of file
+
+    private Optional<JwtClaims> legacyClaims(String username) {
+        return Optional.of(new JwtClaims(username, null, null, 0));
+    }
+}
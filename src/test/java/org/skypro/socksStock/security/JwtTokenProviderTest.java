@@ -3,27 +3,23 @@ package org.skypro.socksStock.security;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.MockedStatic;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
 import javax.crypto.SecretKey;
-import java.lang.reflect.Method;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 public class JwtTokenProviderTest {
 
-    @InjectMocks
     private JwtTokenProvider jwtTokenProviderTest;
 
     private final String testSecret = "testSecretKeyWithMinimumLength32Chars";
@@ -32,20 +28,17 @@ public class JwtTokenProviderTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(jwtTokenProviderTest, "jwtSecret", testSecret);
-        ReflectionTestUtils.setField(jwtTokenProviderTest, "jwtExpirationMs", testExpirationMs);
+        jwtTokenProviderTest = new JwtTokenProvider(testSecret, testExpirationMs, 0);
     }
 
     @DisplayName("Должен создать секретный ключ на основе конфигурируемого секрета")
     @Test
-    void getSigningKeyReturnSecretKeyBasedOnConfiguredSecret() throws Exception {
-        Method getSigningKeyMethod = JwtTokenProvider.class.getDeclaredMethod("getSigningKey");
-        getSigningKeyMethod.setAccessible(true);
-
-        SecretKey signingKey = (SecretKey) getSigningKeyMethod.invoke(jwtTokenProviderTest);
+    void constructorCreateSecretKeyBasedOnConfiguredSecret() {
+        SecretKey signingKey = (SecretKey) ReflectionTestUtils.getField(jwtTokenProviderTest, "signingKey");
 
         assertNotNull(signingKey);
         assertEquals("HmacSHA256", signingKey.getAlgorithm());
+        assertEquals(getSigningKey(), signingKey);
     }
 
     @DisplayName("Должен сгенерировать валидный JWT токен для имени пользователя")
@@ -56,110 +49,76 @@ public class JwtTokenProviderTest {
         assertNotNull(token);
         assertFalse(token.isEmpty());
 
-        String usernameFromToken = jwtTokenProviderTest.getUsernameFromToken(token);
-        assertEquals(testUsername, usernameFromToken);
+        assertEquals(testUsername, jwtTokenProviderTest.resolveToken(token).orElseThrow().username());
     }
 
-    @DisplayName("Должен извлечь имя пользователя из валидного токена")
+    @DisplayName("Должен генерировать токены с разными именами пользователей")
     @Test
-    void getUsernameFromTokenExtractUsernameFromValidToken() {
-        String token = jwtTokenProviderTest.generateToken(testUsername);
+    void generateTokenGenerateDifferentTokensForDifferentUsernames() {
+        String username1 = "user1";
+        String username2 = "user2";
 
-        String extractedUsername = jwtTokenProviderTest.getUsernameFromToken(token);
+        String token1 = jwtTokenProviderTest.generateToken(username1);
+        String token2 = jwtTokenProviderTest.generateToken(username2);
 
-        assertEquals(testUsername, extractedUsername);
+        assertNotEquals(token1, token2);
+        assertEquals(username1, jwtTokenProviderTest.resolveToken(token1).orElseThrow().username());
+        assertEquals(username2, jwtTokenProviderTest.resolveToken(token2).orElseThrow().username());
     }
 
-    @DisplayName("Должен вернуть true для валидного токена")
+    @DisplayName("Должен вернуть пустой результат для истекшего, поддельного, некорректного и пустого токена")
     @Test
-    void validateTokenReturnTrueForValidToken() {
+    void resolveTokenReturnEmptyForInvalidToken() {
         String token = jwtTokenProviderTest.generateToken(testUsername);
 
-        boolean isValid = jwtTokenProviderTest.validateToken(token);
-
-        assertTrue(isValid);
-    }
-
-    @DisplayName("Должен вернуть false для невалидного токена")
-    @Test
-    void validateTokenReturnFalseForInvalidToken() {
-        String invalidToken = "invalid.token.here";
-
-        boolean isValid = jwtTokenProviderTest.validateToken(invalidToken);
-
-        assertFalse(isValid);
-    }
-
-    @DisplayName("Должен вернуть false для истекшего токена")
-    @Test
-    void validateTokenReturnFalseForExpiredToken() {
-        String expiredToken = generateExpiredToken();
-
-        boolean isValid = jwtTokenProviderTest.validateToken(expiredToken);
-
-        assertFalse(isValid);
-    }
-
-    @DisplayName("Должен залогировать ошибку для истекшего токена")
-    @Test
-    void validateTokenLogErrorForExpiredToken() {
-        String expiredToken = generateExpiredToken();
-
-        try (MockedStatic<Jwts> mockedJwts = mockStatic(Jwts.class)) {
-            JwtParserBuilder parserBuilder = mock(JwtParserBuilder.class);
-            JwtParser parser = mock(JwtParser.class);
-
-            mockedJwts.when(Jwts::parser).thenReturn(parserBuilder);
-            when(parserBuilder.verifyWith(any(SecretKey.class))).thenReturn(parserBuilder);
-            when(parserBuilder.build()).thenReturn(parser);
-            when(parser.parseSignedClaims(expiredToken)).thenThrow(ExpiredJwtException.class);
-
-            boolean isValid = jwtTokenProviderTest.validateToken(expiredToken);
-
-            assertFalse(isValid);
-        }
+        assertEquals(Optional.empty(), jwtTokenProviderTest.resolveToken(generateExpiredToken()));
+        assertEquals(Optional.empty(), jwtTokenProviderTest.resolveToken(token + "x"));
+        assertEquals(Optional.empty(), jwtTokenProviderTest.resolveToken("malformed.token"));
+        assertEquals(Optional.empty(), jwtTokenProviderTest.resolveToken(null));
     }
 
-    @DisplayName("Должен залогировать ошибку для некорректного формата токена")
+    @DisplayName("Должен записать в токен идентификатор, роль и версию токенов пользователя")
     @Test
-    void validateTokenLogErrorForMalformedToken() {
-        String malformedToken = "malformed.token";
-
-        boolean isValid = jwtTokenProviderTest.validateToken(malformedToken);
-
-        assertFalse(isValid);
-    }
-
-    @DisplayName("Должен залогировать ошибку для null токена")
-    @Test
-    void validateTokenLogErrorForNullToken() {
-        String nullToken = null;
-
-        boolean isValid = jwtTokenProviderTest.validateToken(nullToken);
-
-        assertFalse(isValid);
+    void generateTokenForAuthenticatedUserIncludeAuthorities() {
+        AuthenticatedUser user = new AuthenticatedUser(7L, testUsername, "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), 3);
+
+        Optional<JwtClaims> claims = jwtTokenProviderTest.resolveToken(jwtTokenProviderTest.generateToken(user));
+
+        assertEquals(testUsername, claims.orElseThrow().username());
+        assertEquals(7L, claims.get().userId());
+        assertEquals("ROLE_ADMIN", claims.get().role());
+        assertEquals(3, claims.get().tokenVersion());
+        assertTrue(claims.get().carriesAuthorities());
+        assertFalse(jwtTokenProviderTest.resolveToken(jwtTokenProviderTest.generateToken(testUsername)).orElseThrow()
+                .carriesAuthorities());
     }
 
-    @DisplayName("Должен генерировать токены с разными именами пользователей")
+    @DisplayName("Должен выдавать каждому токену уникальный идентификатор и срок действия для отзыва")
     @Test
-    void generateTokenGenerateDifferentTokensForDifferentUsernames() {
-        String username1 = "user1";
-        String username2 = "user2";
-
-        String token1 = jwtTokenProviderTest.generateToken(username1);
-        String token2 = jwtTokenProviderTest.generateToken(username2);
-
-        assertNotEquals(token1, token2);
-        assertEquals(username1, jwtTokenProviderTest.getUsernameFromToken(token1));
-        assertEquals(username2, jwtTokenProviderTest.getUsernameFromToken(token2));
+    void generateTokenIncludeUniqueTokenId() {
+        JwtClaims first = jwtTokenProviderTest.resolveToken(jwtTokenProviderTest.generateToken(testUsername))
+                .orElseThrow();
+        JwtClaims second = jwtTokenProviderTest.resolveToken(jwtTokenProviderTest.generateToken(testUsername))
+                .orElseThrow();
+
+        assertNotNull(first.tokenId());
+        assertNotEquals(first.tokenId(), second.tokenId());
+        assertTrue(first.expiresAt().isAfter(Instant.now()));
     }
 
-    @DisplayName("Должен генерировать токен с временем экспирации")
+    @DisplayName("Должен вернуть повторно предъявленный токен из кеша без повторной проверки подписи")
     @Test
-    void generateTokenIncludeExpirationDate() {
+    void resolveTokenUseCacheForRepeatedToken() {
+        jwtTokenProviderTest = new JwtTokenProvider(testSecret, testExpirationMs, 16);
         String token = jwtTokenProviderTest.generateToken(testUsername);
+        assertEquals(testUsername, jwtTokenProviderTest.resolveToken(token).orElseThrow().username());
+
+        JwtParser parser = mock(JwtParser.class);
+        ReflectionTestUtils.setField(jwtTokenProviderTest, "jwtParser", parser);
 
-        assertTrue(jwtTokenProviderTest.validateToken(token));
+        assertEquals(testUsername, jwtTokenProviderTest.resolveToken(token).orElseThrow().username());
+        verifyNoInteractions(parser);
     }
 
     private String generateExpiredToken() {
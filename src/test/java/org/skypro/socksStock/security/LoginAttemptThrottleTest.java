@@ -0,0 +1,97 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.exception.LoginThrottledException;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginAttemptThrottleTest {
+
+    private static final String ADDRESS = "10.0.0.1";
+
+    private final LoginAttemptThrottle throttleTest = new LoginAttemptThrottle(true, 2, 60_000, 3, 60_000);
+
+    @DisplayName("Неудачные попытки: после исчерпания лимита имени пользователя вход должен отклоняться")
+    @Test
+    void acquireRejectWhenUsernameFailuresExhausted() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        throttleTest.bindTo(registry);
+        throttleTest.acquire("alice", null);
+        throttleTest.recordFailure("alice");
+        throttleTest.acquire("alice", null);
+        throttleTest.recordFailure("alice");
+
+        LoginThrottledException exception =
+                assertThrows(LoginThrottledException.class, () -> throttleTest.acquire("alice", null));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        assertTrue(exception.getRetryAfterSeconds() > 0 && exception.getRetryAfterSeconds() <= 60);
+        assertDoesNotThrow(() -> throttleTest.acquire("bob", null));
+        assertEquals(2.0, registry.get("security.login.attempts").tag("result", "failure")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("security.login.attempts").tag("result", "throttled")
+                .functionCounter().count());
+    }
+
+    @DisplayName("Параллельные попытки: должны расходовать лимит имени пользователя до проверки пароля")
+    @Test
+    void acquireCountInFlightAttemptsAgainstUsernameLimit() {
+        throttleTest.acquire("alice", null);
+        throttleTest.acquire("alice", null);
+
+        assertThrows(LoginThrottledException.class, () -> throttleTest.acquire("alice", null));
+    }
+
+    @DisplayName("Попытки с одного адреса: должны ограничиваться независимо от имени пользователя")
+    @Test
+    void acquireRejectWhenAddressAttemptsExhausted() {
+        throttleTest.acquire("alice", ADDRESS);
+        throttleTest.acquire("bob", ADDRESS);
+        throttleTest.acquire("carol", ADDRESS);
+
+        assertThrows(LoginThrottledException.class, () -> throttleTest.acquire("dave", ADDRESS));
+        assertDoesNotThrow(() -> throttleTest.acquire("dave", "10.0.0.2"));
+    }
+
+    @DisplayName("Успешный вход: должен сбрасывать неудачные попытки имени пользователя")
+    @Test
+    void recordSuccessResetUsernameFailures() {
+        throttleTest.acquire("alice", null);
+        throttleTest.acquire("alice", null);
+
+        throttleTest.recordSuccess("alice");
+
+        assertDoesNotThrow(() -> throttleTest.acquire("alice", null));
+    }
+
+    @DisplayName("Отключенное ограничение: попытки не должны отклоняться")
+    @Test
+    void acquireWhenDisabledNeverReject() {
+        LoginAttemptThrottle disabled = new LoginAttemptThrottle(false, 1, 60_000, 1, 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            disabled.recordFailure("alice");
+            assertDoesNotThrow(() -> disabled.acquire("alice", ADDRESS));
+        }
+    }
+
+    @DisplayName("Удаление неактивных окон: окна без попыток в пределах окна должны удаляться")
+    @Test
+    void evictIdleRemoveExpiredWindows() throws Exception {
+        LoginAttemptThrottle shortWindow = new LoginAttemptThrottle(true, 1, 50, 1, 50);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        shortWindow.bindTo(registry);
+        shortWindow.acquire("alice", ADDRESS);
+        shortWindow.recordFailure("alice");
+        assertEquals(2.0, registry.get("security.login.throttle.keys").gauge().value());
+
+        Thread.sleep(100);
+        shortWindow.evictIdle();
+
+        assertEquals(0.0, registry.get("security.login.throttle.keys").gauge().value());
+        assertDoesNotThrow(() -> shortWindow.acquire("alice", ADDRESS));
+    }
+}
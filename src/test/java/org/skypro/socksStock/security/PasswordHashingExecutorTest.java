@@ -0,0 +1,83 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.exception.AuthenticationOverloadedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executorTest = new PasswordHashingExecutor(1, 1, 3);
+
+    @AfterEach
+    void tearDown() {
+        executorTest.shutdown();
+    }
+
+    @DisplayName("Выполнение задачи: должно вернуть результат и учесть время хеширования")
+    @Test
+    void executeReturnResultAndRecordDuration() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executorTest.bindTo(registry);
+
+        String hash = executorTest.execute(() -> "hash");
+
+        assertEquals("hash", hash);
+        assertEquals(1, registry.get("security.password.hashing.duration").functionTimer().count());
+    }
+
+    @DisplayName("Ошибка задачи: исключение должно пробрасываться без обертки")
+    @Test
+    void executePropagateTaskException() {
+        assertThrows(BadCredentialsException.class, () -> executorTest.execute(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+    }
+
+    @DisplayName("Переполненная очередь: должна отклонить задачу с 503 и Retry-After")
+    @Test
+    void executeWhenQueueFullRejectWithRetryAfter() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executorTest.bindTo(registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executorTest.execute(() -> {
+            started.countDown();
+            return awaitQuietly(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executorTest.execute(() -> true));
+        while (registry.get("security.password.hashing.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        AuthenticationOverloadedException exception = assertThrows(AuthenticationOverloadedException.class,
+                () -> executorTest.execute(() -> true));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("security.password.hashing.rejected").functionCounter().count());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RateLimitFilterTest {
+
+    private final FilterChain filterChainMock = mock(FilterChain.class);
+    private final RateLimitFilter rateLimitFilterTest = new RateLimitFilter(true, 5, 1, 2, 1, 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        authenticateAs("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @DisplayName("Превышение лимита записи: должен вернуть 429 с Retry-After и не вызывать контроллер")
+    @Test
+    void doFilterWhenWriteLimitExceededReturnTooManyRequests() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        rateLimitFilterTest.bindTo(registry);
+
+        assertEquals(200, perform("POST", "/api/socks/income").getStatus());
+        assertEquals(200, perform("POST", "/api/socks/income").getStatus());
+        MockHttpServletResponse rejected = perform("POST", "/api/socks/outcome");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        verify(filterChainMock, times(2)).doFilter(any(), any());
+        assertEquals(1.0, registry.get("security.rate.limit.rejected").tag("class", "write")
+                .functionCounter().count());
+    }
+
+    @DisplayName("Лимиты ведутся раздельно по пользователю и классу эндпоинта")
+    @Test
+    void doFilterKeepSeparateBucketsPerUserAndClass() throws Exception {
+        perform("POST", "/api/socks/income");
+        perform("POST", "/api/socks/income");
+
+        MockHttpServletResponse read = perform("GET", "/api/socks/list");
+        assertEquals(200, read.getStatus());
+        assertEquals("4", read.getHeader(RateLimitFilter.REMAINING_HEADER));
+
+        authenticateAs("bob");
+        assertEquals(200, perform("POST", "/api/socks/income").getStatus());
+    }
+
+    @DisplayName("Анонимный запрос: должен пропускаться без лимита")
+    @Test
+    void doFilterSkipUnauthenticatedRequests() throws Exception {
+        SecurityContextHolder.clearContext();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("POST", "/api/auth/login").getStatus());
+        }
+        assertNull(perform("POST", "/api/auth/login").getHeader(RateLimitFilter.LIMIT_HEADER));
+    }
+
+    @DisplayName("Классификация: административные пути относятся к классу ADMIN независимо от метода")
+    @Test
+    void classifyAdminPaths() {
+        assertEquals(RateLimitFilter.EndpointClass.ADMIN,
+                rateLimitFilterTest.classify(new MockHttpServletRequest("GET", "/api/admin/users")));
+        assertEquals(RateLimitFilter.EndpointClass.ADMIN,
+                rateLimitFilterTest.classify(new MockHttpServletRequest("POST", "/api/auth/revoke")));
+        assertEquals(RateLimitFilter.EndpointClass.READ,
+                rateLimitFilterTest.classify(new MockHttpServletRequest("GET", "/api/socks")));
+        assertEquals(RateLimitFilter.EndpointClass.WRITE,
+                rateLimitFilterTest.classify(new MockHttpServletRequest("DELETE", "/api/socks/delete")));
+    }
+
+    @DisplayName("Удаление неактивных ведер: полностью пополнившиеся ведра должны удаляться")
+    @Test
+    void evictIdleBucketsRemoveFullBuckets() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        rateLimitFilterTest.bindTo(registry);
+        perform("GET", "/api/socks");
+        assertEquals(1.0, registry.get("security.rate.limit.buckets").gauge().value());
+
+        Thread.sleep(1_100);
+        rateLimitFilterTest.evictIdleBuckets();
+
+        assertEquals(0.0, registry.get("security.rate.limit.buckets").gauge().value());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilterTest.doFilter(new MockHttpServletRequest(method, uri), response, filterChainMock);
+        return response;
+    }
+
+    private void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
@@ -0,0 +1,80 @@
+package org.skypro.socksStock.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.model.entity.RefreshToken;
+import org.skypro.socksStock.repository.RefreshTokenRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepositoryMock;
+
+    private RefreshTokenService refreshTokenServiceTest;
+
+    private String lastIssuedToken;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenServiceTest = new RefreshTokenService(refreshTokenRepositoryMock, 60_000);
+    }
+
+    @DisplayName("Выдача токена: должен сохраниться только SHA-256 хеш токена")
+    @Test
+    void issueStoreOnlyHash() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        String token = refreshTokenServiceTest.issue(5L);
+
+        verify(refreshTokenRepositoryMock).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+        assertEquals(5L, stored.getUserId());
+        assertEquals(64, stored.getTokenHash().length());
+        assertNotEquals(token, stored.getTokenHash());
+        assertTrue(stored.getExpiresAt().isAfter(Instant.now()));
+        assertNotEquals(token, refreshTokenServiceTest.issue(5L));
+    }
+
+    @DisplayName("Погашение действующего токена: должен удалить токен и вернуть владельца")
+    @Test
+    void consumeValidTokenReturnUserId() {
+        String hash = issueAndCapture().getTokenHash();
+        RefreshToken stored = new RefreshToken(1L, hash, 5L, Instant.now().plusSeconds(60), Instant.now());
+        when(refreshTokenRepositoryMock.findByTokenHash(hash)).thenReturn(Optional.of(stored));
+        when(refreshTokenRepositoryMock.deleteByIdAndCount(1L)).thenReturn(1);
+
+        assertEquals(Optional.of(5L), refreshTokenServiceTest.consume(lastIssuedToken));
+    }
+
+    @DisplayName("Повторное использование или истекший срок: токен не должен приниматься")
+    @Test
+    void consumeUsedOrExpiredTokenReturnEmpty() {
+        String hash = issueAndCapture().getTokenHash();
+        RefreshToken expired = new RefreshToken(1L, hash, 5L, Instant.now().minusSeconds(1), Instant.now());
+        when(refreshTokenRepositoryMock.findByTokenHash(hash)).thenReturn(Optional.of(expired));
+        when(refreshTokenRepositoryMock.deleteByIdAndCount(1L)).thenReturn(1, 0);
+
+        assertEquals(Optional.empty(), refreshTokenServiceTest.consume(lastIssuedToken));
+        assertEquals(Optional.empty(), refreshTokenServiceTest.consume(lastIssuedToken));
+        assertEquals(Optional.empty(), refreshTokenServiceTest.consume("unknown"));
+    }
+
+    private RefreshToken issueAndCapture() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        lastIssuedToken = refreshTokenServiceTest.issue(5L);
+        verify(refreshTokenRepositoryMock).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,46 @@
+package org.skypro.socksStock.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowLogTest {
+
+    private static final long WINDOW = 1_000;
+
+    @DisplayName("Лимит в окне: должен записать не больше limit попыток и сообщить время ожидания")
+    @Test
+    void tryRecordRejectWhenLimitReached() {
+        SlidingWindowLog windowTest = new SlidingWindowLog(2);
+
+        assertTrue(windowTest.tryRecord(100, WINDOW));
+        assertTrue(windowTest.tryRecord(300, WINDOW));
+        assertFalse(windowTest.tryRecord(500, WINDOW));
+        assertTrue(windowTest.isExhausted(500, WINDOW));
+        assertEquals(600, windowTest.retryAfterMs(500, WINDOW));
+    }
+
+    @DisplayName("Скользящее окно: место должно освобождаться по мере выхода старых попыток из окна")
+    @Test
+    void tryRecordFreeSlotWhenOldestAttemptLeavesWindow() {
+        SlidingWindowLog windowTest = new SlidingWindowLog(2);
+        windowTest.tryRecord(100, WINDOW);
+        windowTest.tryRecord(300, WINDOW);
+
+        assertTrue(windowTest.tryRecord(1_100, WINDOW));
+        assertFalse(windowTest.tryRecord(1_200, WINDOW));
+        assertTrue(windowTest.tryRecord(1_300, WINDOW));
+    }
+
+    @DisplayName("Неактивное окно: должно определяться по самой поздней попытке")
+    @Test
+    void isIdleWhenNewestAttemptLeftWindow() {
+        SlidingWindowLog windowTest = new SlidingWindowLog(3);
+        windowTest.record(100);
+        windowTest.record(900);
+
+        assertFalse(windowTest.isIdle(1_500, WINDOW));
+        assertTrue(windowTest.isIdle(1_900, WINDOW));
+    }
+}
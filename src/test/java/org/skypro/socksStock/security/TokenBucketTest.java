@@ -0,0 +1,37 @@
+package org.skypro.socksStock.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @DisplayName("Полное ведро: должно пропустить всплеск размером с емкость и отклонить следующий запрос")
+    @Test
+    void tryConsumeAllowBurstUpToCapacity() {
+        TokenBucket bucketTest = new TokenBucket(3, 1, 0);
+
+        assertEquals(2, bucketTest.tryConsume(0));
+        assertEquals(1, bucketTest.tryConsume(0));
+        assertEquals(0, bucketTest.tryConsume(0));
+        assertEquals(-SECOND, bucketTest.tryConsume(0));
+    }
+
+    @DisplayName("Пополнение: токены должны восстанавливаться со временем, но не сверх емкости")
+    @Test
+    void tryConsumeRefillOverTime() {
+        TokenBucket bucketTest = new TokenBucket(2, 2, 0);
+        bucketTest.tryConsume(0);
+        bucketTest.tryConsume(0);
+
+        assertTrue(bucketTest.tryConsume(SECOND / 4) < 0);
+        assertEquals(0, bucketTest.tryConsume(SECOND / 2));
+        assertFalse(bucketTest.isFull(SECOND / 2));
+
+        assertTrue(bucketTest.isFull(10 * SECOND));
+        assertEquals(1, bucketTest.tryConsume(10 * SECOND));
+    }
+}
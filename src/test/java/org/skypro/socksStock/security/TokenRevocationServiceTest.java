@@ -0,0 +1,87 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.model.entity.RevokedToken;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.TokenRevokedEvent;
+import org.skypro.socksStock.repository.RevokedTokenRepository;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepositoryMock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    private TokenRevocationService revocationServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        revocationServiceTest = new TokenRevocationService(revokedTokenRepositoryMock, eventPublisherMock, 1_000, 0.01);
+    }
+
+    @DisplayName("Токен вне фильтра: должен считаться действующим без обращения к базе данных")
+    @Test
+    void isRevokedWhenNotInFilterSkipDatabase() {
+        assertFalse(revocationServiceTest.isRevoked("jti-1"));
+        assertFalse(revocationServiceTest.isRevoked(null));
+
+        verifyNoInteractions(revokedTokenRepositoryMock);
+    }
+
+    @DisplayName("Отзыв токена: должен сохранить запись и после фиксации добавить токен в фильтр")
+    @Test
+    void revokeSaveAndRememberAfterCommit() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+
+        revocationServiceTest.revoke("jti-1", expiresAt);
+        revocationServiceTest.onTokenRevoked(new TokenRevokedEvent("jti-1"));
+        when(revokedTokenRepositoryMock.existsById("jti-1")).thenReturn(true);
+
+        assertTrue(revocationServiceTest.isRevoked("jti-1"));
+        verify(revokedTokenRepositoryMock).save(argThat((RevokedToken token) ->
+                token.getTokenId().equals("jti-1") && token.getExpiresAt().equals(expiresAt)));
+        verify(eventPublisherMock).publishEvent(new TokenRevokedEvent("jti-1"));
+    }
+
+    @DisplayName("Положительный ответ фильтра: отсутствие записи в базе данных учитывается как ложное срабатывание")
+    @Test
+    void isRevokedWhenFilterPositiveCheckDatabase() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        revocationServiceTest.bindTo(registry);
+        revocationServiceTest.onCacheInvalidated(
+                new CacheInvalidatedEvent(CacheInvalidatedEvent.REVOKED_TOKENS, "jti-2"));
+        when(revokedTokenRepositoryMock.existsById("jti-2")).thenReturn(false);
+
+        assertFalse(revocationServiceTest.isRevoked("jti-2"));
+        assertEquals(1.0, registry.get("security.token.revocation.false.positives").functionCounter().count());
+    }
+
+    @DisplayName("Пересборка фильтра: должна удалить истекшие записи и загрузить действующие отзывы")
+    @Test
+    void rebuildLoadActiveTokens() {
+        when(revokedTokenRepositoryMock.findActiveTokenIds(any(Instant.class))).thenReturn(List.of("jti-3"));
+        when(revokedTokenRepositoryMock.existsById("jti-3")).thenReturn(true);
+
+        revocationServiceTest.rebuild();
+
+        assertTrue(revocationServiceTest.isRevoked("jti-3"));
+        verify(revokedTokenRepositoryMock).deleteExpired(any(Instant.class));
+    }
+}
@@ -0,0 +1,76 @@
+package org.skypro.socksStock.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.projection.UserCredentials;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCredentialsCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserCredentials> loader = username -> {
+        loads.incrementAndGet();
+        return new UserCredentials(username, "hash", Role.ROLE_USER, (long) username.length(), 0);
+    };
+
+    @DisplayName("Повторное чтение: должно вернуть запись из кеша и учесть попадание в метриках")
+    @Test
+    void getCachedEntryCountHit() {
+        UserCredentialsCache cacheTest = new UserCredentialsCache(60_000, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheTest.bindTo(registry);
+
+        cacheTest.get("alice", loader);
+        cacheTest.get("alice", loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("security.user.cache.hits").functionCounter().count());
+        assertEquals(1.0, registry.get("security.user.cache.misses").functionCounter().count());
+        assertEquals(1, registry.get("security.user.cache.load").functionTimer().count());
+    }
+
+    @DisplayName("Истекшая запись: должна быть загружена заново")
+    @Test
+    void getExpiredEntryReload() throws InterruptedException {
+        UserCredentialsCache cacheTest = new UserCredentialsCache(1, 10);
+
+        cacheTest.get("alice", loader);
+        Thread.sleep(5);
+        cacheTest.get("alice", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @DisplayName("Сброс по идентификатору и переполнение: записи должны удаляться")
+    @Test
+    void evictUserAndOverflowRemoveEntries() {
+        UserCredentialsCache cacheTest = new UserCredentialsCache(60_000, 2);
+
+        cacheTest.get("alice", loader);
+        cacheTest.evictUser(5L);
+        cacheTest.get("alice", loader);
+        assertEquals(2, loads.get());
+
+        cacheTest.get("bob", loader);
+        cacheTest.get("carol", loader);
+        cacheTest.get("alice", loader);
+        assertEquals(5, loads.get());
+    }
+
+    @DisplayName("Отсутствующий пользователь: исключение загрузчика не должно кешироваться")
+    @Test
+    void getWhenLoaderThrowDoNotCache() {
+        UserCredentialsCache cacheTest = new UserCredentialsCache(60_000, 10);
+
+        assertThrows(IllegalStateException.class, () -> cacheTest.get("ghost", username -> {
+            throw new IllegalStateException("missing");
+        }));
+        assertEquals("ghost", cacheTest.get("ghost", loader).username());
+    }
+}
@@ -0,0 +1,89 @@
+package org.skypro.socksStock.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.StockBusyException;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdvisorySkuLockManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdvisorySkuLockManager lockManagerTest;
+
+    @BeforeEach
+    void setUp() {
+        lockManagerTest = new AdvisorySkuLockManager(jdbcTemplateMock, meterRegistry, 1500);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @DisplayName("Захват блокировки: lock_timeout выставляется на время захвата, затем восстанавливается")
+    @Test
+    @SuppressWarnings("unchecked")
+    void withLockSetTimeoutThenAcquireThenRestoreTimeoutThenRunAction() {
+        Supplier<String> action = mock(Supplier.class);
+        when(action.get()).thenReturn("done");
+        when(jdbcTemplateMock.queryForObject(contains("current_setting"), eq(String.class))).thenReturn("5s");
+
+        assertEquals("done", lockManagerTest.withLock("red", 80, action));
+
+        InOrder inOrder = inOrder(jdbcTemplateMock, action);
+        inOrder.verify(jdbcTemplateMock).queryForObject(contains("current_setting"), eq(String.class));
+        inOrder.verify(jdbcTemplateMock).queryForObject(contains("set_config"), eq(String.class), eq("1500ms"));
+        inOrder.verify(jdbcTemplateMock).queryForObject(contains("pg_advisory_xact_lock"), eq(String.class),
+                eq("red"), eq(80));
+        inOrder.verify(jdbcTemplateMock).queryForObject(contains("set_config"), eq(String.class), eq("5s"));
+        inOrder.verify(action).get();
+        assertEquals(1, meterRegistry.timer("socks.sku.lock.wait").count());
+    }
+
+    @DisplayName("Таймаут ожидания: должен выбросить StockBusyException с 409 и увеличить счетчик таймаутов")
+    @Test
+    void withLockWhenLockTimeoutThrowConflict() {
+        lenient().when(jdbcTemplateMock.queryForObject(contains("pg_advisory_xact_lock"), eq(String.class),
+                        any(), any()))
+                .thenThrow(new CannotAcquireLockException("canceling statement due to lock timeout"));
+
+        StockBusyException exception = assertThrows(StockBusyException.class,
+                () -> lockManagerTest.withLock("red", 80, () -> "done"));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        assertEquals(2, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("socks.sku.lock.timeouts").count());
+    }
+
+    @DisplayName("Вне транзакции: должен выбросить IllegalStateException без обращения к базе данных")
+    @Test
+    void withLockOutsideTransactionThrowIllegalStateException() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        assertThrows(IllegalStateException.class, () -> lockManagerTest.withLock("red", 80, () -> "done"));
+
+        verifyNoInteractions(jdbcTemplateMock);
+    }
+}
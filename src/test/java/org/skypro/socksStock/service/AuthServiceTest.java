@@ -5,19 +5,36 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.exception.InvalidRefreshTokenException;
+import org.skypro.socksStock.exception.LoginThrottledException;
 import org.skypro.socksStock.model.dto.request.LoginRequest;
 import org.skypro.socksStock.model.dto.response.AuthResponse;
 import org.skypro.socksStock.model.entity.AppUser;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.model.projection.UserCredentials;
 import org.skypro.socksStock.repository.UserRepository;
+import org.skypro.socksStock.security.AuthenticatedUser;
+import org.skypro.socksStock.security.JwtClaims;
 import org.skypro.socksStock.security.JwtTokenProvider;
+import org.skypro.socksStock.security.LoginAttemptThrottle;
+import org.skypro.socksStock.security.PasswordHashingExecutor;
+import org.skypro.socksStock.security.RefreshTokenService;
+import org.skypro.socksStock.security.TokenRevocationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,9 +57,24 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoderMock;
 
+    @Mock
+    private TokenRevocationService revocationServiceMock;
+
+    @Mock
+    private RefreshTokenService refreshTokenServiceMock;
+
+    @Mock
+    private LoginAttemptThrottle loginAttemptThrottleMock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
     @Mock
     private Authentication authenticationMock;
 
+    @Spy
+    private PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(1, 4, 1);
+
     @InjectMocks
     private AuthService authServiceTest;
 
@@ -105,6 +137,26 @@ class AuthServiceTest {
         verify(tokenProviderMock).generateToken(TEST_USERNAME);
     }
 
+    @Test
+    @DisplayName("Аутентификация пользователя должна выдавать токен с полномочиями, если известен идентификатор")
+    void authenticateUserGenerateTokenWithAuthoritiesForAuthenticatedUser() {
+        LoginRequest loginRequest = new LoginRequest(TEST_USERNAME, TEST_PASSWORD);
+        AuthenticatedUser principal = new AuthenticatedUser(1L, TEST_USERNAME, ENCODED_PASSWORD,
+                List.of(new SimpleGrantedAuthority(TEST_ROLE.name())), 0);
+
+        when(authenticationManagerMock.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authenticationMock);
+        when(authenticationMock.getPrincipal()).thenReturn(principal);
+        when(tokenProviderMock.generateToken(principal)).thenReturn(TEST_JWT_TOKEN);
+        when(refreshTokenServiceMock.issue(1L)).thenReturn("refresh-token");
+
+        AuthResponse response = authServiceTest.authenticateUser(loginRequest);
+
+        assertEquals(TEST_JWT_TOKEN, response.token());
+        assertEquals("refresh-token", response.refreshToken());
+        verify(tokenProviderMock, never()).generateToken(anyString());
+    }
+
     @Test
     @DisplayName("Аутентификация пользователя с невалидными учетными данными должна выбрасывать исключение")
     void authenticateUserWithInvalidCredentialsThrowException() {
@@ -118,6 +170,50 @@ class AuthServiceTest {
         verify(tokenProviderMock, never()).generateToken(anyString());
     }
 
+    @Test
+    @DisplayName("Вход с адреса клиента: неудачная попытка должна учитываться в лимите имени пользователя")
+    void authenticateUserFromAddressRecordFailure() {
+        LoginRequest loginRequest = new LoginRequest(TEST_USERNAME, TEST_PASSWORD);
+        when(authenticationManagerMock.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new BadCredentialsException("Invalid credentials"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> authServiceTest.authenticateUser(loginRequest, "10.0.0.1"));
+
+        verify(loginAttemptThrottleMock).acquire(TEST_USERNAME, "10.0.0.1");
+        verify(loginAttemptThrottleMock).recordFailure(TEST_USERNAME);
+        verify(loginAttemptThrottleMock, never()).recordSuccess(anyString());
+    }
+
+    @Test
+    @DisplayName("Вход с адреса клиента: успешная попытка должна сбрасывать счетчик неудач")
+    void authenticateUserFromAddressRecordSuccess() {
+        LoginRequest loginRequest = new LoginRequest(TEST_USERNAME, TEST_PASSWORD);
+        when(authenticationManagerMock.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authenticationMock);
+        when(authenticationMock.getName()).thenReturn(TEST_USERNAME);
+        when(tokenProviderMock.generateToken(TEST_USERNAME)).thenReturn(TEST_JWT_TOKEN);
+
+        AuthResponse response = authServiceTest.authenticateUser(loginRequest, "10.0.0.1");
+
+        assertEquals(TEST_JWT_TOKEN, response.token());
+        verify(loginAttemptThrottleMock).recordSuccess(TEST_USERNAME);
+    }
+
+    @Test
+    @DisplayName("Вход с адреса клиента: при исчерпанном лимите пароль не должен проверяться")
+    void authenticateUserFromAddressWhenThrottledSkipAuthentication() {
+        LoginRequest loginRequest = new LoginRequest(TEST_USERNAME, TEST_PASSWORD);
+        doThrow(new LoginThrottledException("Too many login attempts", HttpStatus.TOO_MANY_REQUESTS, 10))
+                .when(loginAttemptThrottleMock).acquire(TEST_USERNAME, "10.0.0.1");
+
+        assertThrows(LoginThrottledException.class,
+                () -> authServiceTest.authenticateUser(loginRequest, "10.0.0.1"));
+
+        verifyNoInteractions(authenticationManagerMock);
+        verify(loginAttemptThrottleMock, never()).recordFailure(anyString());
+    }
+
     @Test
     @DisplayName("Аутентификация пользователя с пустыми учетными данными должна выбрасывать исключение")
     void authenticateUserWithEmptyCredentialsThrowException() {
@@ -268,6 +364,16 @@ class AuthServiceTest {
                 () -> authServiceTest.registerUser("", "password"));
     }
 
+    @Test
+    @DisplayName("Регистрация пользователя со слишком длинным именем должна выбрасывать EmptyDataException")
+    void registerUserWithTooLongUsernameThrowException() {
+        EmptyDataException exception = assertThrows(EmptyDataException.class,
+                () -> authServiceTest.registerUser("u".repeat(51), "password"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verify(userRepositoryMock, never()).save(any(AppUser.class));
+    }
+
     @Test
     @DisplayName("Регистрация пользователя с null паролем должна выбрасывать исключение")
     void registerUserWithNullPasswordThrowException() {
@@ -298,6 +404,7 @@ class AuthServiceTest {
         verify(userRepositoryMock).save(any(AppUser.class));
         verify(authenticationManagerMock).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(tokenProviderMock).generateToken(TEST_USERNAME);
+        verify(eventPublisherMock).publishEvent(new UserCredentialsChangedEvent(null, TEST_USERNAME));
     }
 
     @Test
@@ -359,5 +466,59 @@ class AuthServiceTest {
         assertThrows(Exception.class,
                 () -> authServiceTest.registerUser(TEST_USERNAME, TEST_PASSWORD, null));
     }
-}
 
+    @Test
+    @DisplayName("Отзыв токена должен записать идентификатор и срок действия токена в список отозванных")
+    void revokeTokenWhenTokenValidRevokeByTokenId() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        when(tokenProviderMock.resolveToken(TEST_JWT_TOKEN)).thenReturn(
+                Optional.of(new JwtClaims(TEST_USERNAME, 1L, "ROLE_USER", 0, "jti-1", expiresAt)));
+
+        assertTrue(authServiceTest.revokeToken(TEST_JWT_TOKEN));
+
+        verify(revocationServiceMock).revoke("jti-1", expiresAt);
+    }
+
+    @Test
+    @DisplayName("Отзыв невалидного токена или токена без идентификатора должен вернуть false")
+    void revokeTokenWhenTokenNotRevocableReturnFalse() {
+        when(tokenProviderMock.resolveToken("invalid")).thenReturn(Optional.empty());
+        when(tokenProviderMock.resolveToken(TEST_JWT_TOKEN)).thenReturn(
+                Optional.of(new JwtClaims(TEST_USERNAME, null, null, 0)));
+
+        assertFalse(authServiceTest.revokeToken("invalid"));
+        assertFalse(authServiceTest.revokeToken(TEST_JWT_TOKEN));
+
+        verifyNoInteractions(revocationServiceMock);
+    }
+
+    @Test
+    @DisplayName("Продление сеанса должно выдать новые токены по текущим данным пользователя без проверки пароля")
+    void refreshTokenWhenValidIssueNewTokens() {
+        when(refreshTokenServiceMock.consume("old-refresh")).thenReturn(Optional.of(1L));
+        when(userRepositoryMock.findCredentialsById(1L)).thenReturn(Optional.of(
+                new UserCredentials(TEST_USERNAME, ENCODED_PASSWORD, Role.ROLE_ADMIN, 1L, 2)));
+        when(tokenProviderMock.generateToken(any(AuthenticatedUser.class))).thenReturn(TEST_JWT_TOKEN);
+        when(refreshTokenServiceMock.issue(1L)).thenReturn("new-refresh");
+
+        AuthResponse response = authServiceTest.refreshToken("old-refresh");
+
+        assertEquals(new AuthResponse(TEST_JWT_TOKEN, "Bearer", "new-refresh"), response);
+        verify(tokenProviderMock).generateToken(argThat((AuthenticatedUser user) -> user.getId() == 1L
+                && user.getTokenVersion() == 2
+                && user.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        verifyNoInteractions(authenticationManagerMock, passwordEncoderMock);
+    }
+
+    @Test
+    @DisplayName("Продление сеанса погашенным или неизвестным refresh-токеном должно выбрасывать исключение")
+    void refreshTokenWhenInvalidThrowException() {
+        when(refreshTokenServiceMock.consume("used-refresh")).thenReturn(Optional.empty());
+
+        InvalidRefreshTokenException exception = assertThrows(InvalidRefreshTokenException.class,
+                () -> authServiceTest.refreshToken("used-refresh"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+        verify(refreshTokenServiceMock, never()).issue(any());
+    }
+}
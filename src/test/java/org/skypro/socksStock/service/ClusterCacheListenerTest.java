@@ -0,0 +1,93 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterCacheListenerTest {
+
+    private static final String STOCK_KEY = CacheInvalidatedEvent.stockKey("red", 80);
+
+    @Mock
+    private ClusterCacheNotifier notifierMock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    private ClusterCacheListener clusterCacheListenerTest;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notifierMock.nodeId()).thenReturn("self");
+        clusterCacheListenerTest = new ClusterCacheListener(new DataSourceProperties(), notifierMock,
+                eventPublisherMock, 500, 30_000);
+    }
+
+    @DisplayName("Уведомления подряд: должны быть опубликованы как инвалидация записей")
+    @Test
+    void handleConsecutiveMessagesPublishKeyInvalidation() {
+        clusterCacheListenerTest.handle(message(1, STOCK_KEY));
+        clusterCacheListenerTest.handle(message(2, STOCK_KEY));
+
+        verify(eventPublisherMock, times(2))
+                .publishEvent(new CacheInvalidatedEvent(CacheInvalidatedEvent.STOCK, STOCK_KEY));
+    }
+
+    @DisplayName("Пропуск номера уведомления: должен быть опубликован полный сброс кешей")
+    @Test
+    void handleSequenceGapPublishFlushAll() {
+        clusterCacheListenerTest.handle(message(1, STOCK_KEY));
+        clusterCacheListenerTest.handle(message(3, STOCK_KEY));
+
+        InOrder inOrder = inOrder(eventPublisherMock);
+        inOrder.verify(eventPublisherMock)
+                .publishEvent(new CacheInvalidatedEvent(CacheInvalidatedEvent.STOCK, STOCK_KEY));
+        inOrder.verify(eventPublisherMock).publishEvent(CacheInvalidatedEvent.flushAll());
+    }
+
+    @DisplayName("Собственные и некорректные уведомления: должны быть проигнорированы")
+    @Test
+    void handleOwnOrMalformedMessageIgnore() {
+        clusterCacheListenerTest.handle(new CacheInvalidationMessage("self", 1, CacheInvalidatedEvent.STOCK, null)
+                .encode());
+        clusterCacheListenerTest.handle("garbage");
+
+        verifyNoInteractions(eventPublisherMock);
+    }
+
+    @DisplayName("Переподключение: должен быть опубликован полный сброс, нумерация начинается заново")
+    @Test
+    void onReconnectedPublishFlushAllAndResetSequences() {
+        clusterCacheListenerTest.handle(message(1, STOCK_KEY));
+        clusterCacheListenerTest.onReconnected();
+        clusterCacheListenerTest.handle(message(7, STOCK_KEY));
+
+        verify(eventPublisherMock, times(1)).publishEvent(CacheInvalidatedEvent.flushAll());
+        verify(eventPublisherMock, times(2))
+                .publishEvent(new CacheInvalidatedEvent(CacheInvalidatedEvent.STOCK, STOCK_KEY));
+    }
+
+    @DisplayName("Кодирование уведомления: ключ с двоеточием должен восстанавливаться без искажений")
+    @Test
+    void encodeDecodeRoundTrip() {
+        CacheInvalidationMessage message = new CacheInvalidationMessage("node", 42, "stock", "80:dark:red");
+
+        assertEquals(message, CacheInvalidationMessage.decode(message.encode()));
+        assertNull(CacheInvalidationMessage.decode("node:1:stock:").key());
+    }
+
+    private String message(long sequence, String key) {
+        return new CacheInvalidationMessage("peer", sequence, CacheInvalidatedEvent.STOCK, key).encode();
+    }
+}
@@ -0,0 +1,86 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.response.OperationJournalEntryDTO;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.security.AuthenticatedUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OperationJournalServiceTest {
+
+    private static final Instant FROM = Instant.EPOCH;
+    private static final Instant TO = Instant.parse("2100-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private OperationJournalService operationJournalServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        operationJournalServiceTest = new OperationJournalService(directory, 64, 8, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        operationJournalServiceTest.close();
+        SecurityContextHolder.clearContext();
+    }
+
+    @DisplayName("Изменение остатка: должно записать операцию с идентификатором текущего пользователя")
+    @Test
+    void onStockChangedAppendRecordWithCurrentUser() {
+        AuthenticatedUser user = new AuthenticatedUser(42L, "user", "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, user.getAuthorities()));
+
+        operationJournalServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 30, 10, Instant.now()));
+        operationJournalServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 10, 25, Instant.now()));
+
+        List<OperationJournalEntryDTO> result = operationJournalServiceTest.getOperations(FROM, TO, 10);
+        assertEquals(2, result.size());
+        assertEquals(42L, result.get(0).userId());
+        assertEquals(-20, result.get(0).delta());
+        assertEquals(25, result.get(1).quantity());
+    }
+
+    @DisplayName("Изменение остатка без пользователя: запись должна содержать пустой идентификатор")
+    @Test
+    void onStockChangedWithoutAuthenticationStoreUnknownUser() {
+        operationJournalServiceTest.onStockChanged(new StockChangedEvent("north", "blue", 10, 0, 5, Instant.now()));
+
+        List<OperationJournalEntryDTO> result = operationJournalServiceTest.getOperations(FROM, TO, 10);
+        assertNull(result.get(0).userId());
+        assertEquals("north", result.get(0).warehouse());
+        assertEquals("blue", result.get(0).color());
+    }
+
+    @DisplayName("Изменение без разницы остатка: запись не должна добавляться")
+    @Test
+    void onStockChangedWithZeroDeltaSkipRecord() {
+        operationJournalServiceTest.onStockChanged(new StockChangedEvent("main", "blue", 10, 5, 5, Instant.now()));
+
+        assertTrue(operationJournalServiceTest.getOperations(FROM, TO, 10).isEmpty());
+    }
+
+    @DisplayName("Чтение журнала с невалидными параметрами: должно выбросить EmptyDataException")
+    @Test
+    void getOperationsWithInvalidParametersThrowEmptyDataException() {
+        assertThrows(EmptyDataException.class, () -> operationJournalServiceTest.getOperations(TO, FROM, 10));
+        assertThrows(EmptyDataException.class, () -> operationJournalServiceTest.getOperations(FROM, TO, 0));
+    }
+}
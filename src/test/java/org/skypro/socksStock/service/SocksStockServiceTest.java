@@ -3,8 +3,10 @@ package org.skypro.socksStock.service;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.skypro.socksStock.exception.EmptyDataException;
 import org.skypro.socksStock.exception.InvalidQuantityException;
@@ -15,9 +17,13 @@ import org.skypro.socksStock.model.dto.request.Operation;
 import org.skypro.socksStock.model.dto.request.SocksRequestDTO;
 import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
 import org.skypro.socksStock.model.entity.Socks;
-import org.skypro.socksStock.repository.SocksRepository;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.repository.SocksStockRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,7 +33,7 @@ import static org.mockito.Mockito.*;
 public class SocksStockServiceTest {
 
     @Mock
-    private SocksRepository socksRepositoryMock;
+    private SocksStockRepository socksRepositoryMock;
 
     @Mock
     private SocksEntityToDtoConverter converterToDtoMock;
@@ -35,6 +41,12 @@ public class SocksStockServiceTest {
     @Mock
     private SocksDtoToEntityConverter converterToEntityMock;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    @Spy
+    private StripedSkuLockManager skuLockManager = new StripedSkuLockManager(16);
+
     @InjectMocks
     private SocksStockService socksStockServiceTest;
 
@@ -46,7 +58,7 @@ public class SocksStockServiceTest {
         Socks updatedSocks = createSocks(1L, "red", 80, 150);
         SocksResponseDTO expectedResponse = createSocksResponseDTO("red", 80, 150);
 
-        when(socksRepositoryMock.findByColorAndCottonPart("red", 80))
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", "red", 80))
                 .thenReturn(Optional.of(existingSocks));
         when(socksRepositoryMock.save(existingSocks)).thenReturn(updatedSocks);
         when(converterToDtoMock.toDto(updatedSocks)).thenReturn(expectedResponse);
@@ -58,7 +70,7 @@ public class SocksStockServiceTest {
         assertEquals("red", response.getColor());
         assertEquals(80, response.getCottonPart());
 
-        verify(socksRepositoryMock).findByColorAndCottonPart("red", 80);
+        verify(socksRepositoryMock).findByWarehouseAndColorAndCottonPart("main", "red", 80);
         verify(socksRepositoryMock).save(existingSocks);
         verify(converterToDtoMock).toDto(updatedSocks);
         verify(converterToEntityMock, never()).toEntity(any());
@@ -72,7 +84,7 @@ public class SocksStockServiceTest {
         Socks savedSocks = createSocks(2L, "blue", 60, 30);
         SocksResponseDTO expectedResponse = createSocksResponseDTO("blue", 60, 30);
 
-        when(socksRepositoryMock.findByColorAndCottonPart("blue", 60))
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", "blue", 60))
                 .thenReturn(Optional.empty());
         when(converterToEntityMock.toEntity(request)).thenReturn(newSocks);
         when(socksRepositoryMock.save(newSocks)).thenReturn(savedSocks);
@@ -85,7 +97,7 @@ public class SocksStockServiceTest {
         assertEquals("blue", actualResponse.getColor());
         assertEquals(60, actualResponse.getCottonPart());
 
-        verify(socksRepositoryMock).findByColorAndCottonPart("blue", 60);
+        verify(socksRepositoryMock).findByWarehouseAndColorAndCottonPart("main", "blue", 60);
         verify(converterToEntityMock).toEntity(request);
         verify(socksRepositoryMock).save(newSocks);
         verify(converterToDtoMock).toDto(savedSocks);
@@ -102,7 +114,7 @@ public class SocksStockServiceTest {
         assertEquals("Color is required and cannot be empty.", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock, never()).findByColorAndCottonPart(any(), any());
+        verify(socksRepositoryMock, never()).findByWarehouseAndColorAndCottonPart(any(), any(), any());
         verify(socksRepositoryMock, never()).save(any());
     }
 
@@ -117,7 +129,7 @@ public class SocksStockServiceTest {
         assertEquals("Color is required and cannot be empty.", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock, never()).findByColorAndCottonPart(any(), any());
+        verify(socksRepositoryMock, never()).findByWarehouseAndColorAndCottonPart(any(), any(), any());
     }
 
     @DisplayName("Приход носков: когда содержание хлопка больше 100, должно выбросить EmptyDataException")
@@ -131,7 +143,7 @@ public class SocksStockServiceTest {
         assertEquals("CottonPart is required and must be between 0 and 100.", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock, never()).findByColorAndCottonPart(any(), any());
+        verify(socksRepositoryMock, never()).findByWarehouseAndColorAndCottonPart(any(), any(), any());
     }
 
     @DisplayName("Приход носков: когда содержание хлопка равно null, должно выбросить EmptyDataException")
@@ -145,7 +157,7 @@ public class SocksStockServiceTest {
         assertEquals("CottonPart is required and must be between 0 and 100.", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock, never()).findByColorAndCottonPart(any(), any());
+        verify(socksRepositoryMock, never()).findByWarehouseAndColorAndCottonPart(any(), any(), any());
     }
 
     @DisplayName("Приход носков: когда количество отрицательное, должно выбросить EmptyDataException")
@@ -159,7 +171,7 @@ public class SocksStockServiceTest {
         assertEquals("Quantity must be greater than 0.", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock, never()).findByColorAndCottonPart(any(), any());
+        verify(socksRepositoryMock, never()).findByWarehouseAndColorAndCottonPart(any(), any(), any());
     }
 
     @DisplayName("Приход носков: когда количество равно null, должно выбросить EmptyDataException")
@@ -173,7 +185,7 @@ public class SocksStockServiceTest {
         assertEquals("Quantity must be greater than 0.", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock, never()).findByColorAndCottonPart(any(), any());
+        verify(socksRepositoryMock, never()).findByWarehouseAndColorAndCottonPart(any(), any(), any());
     }
 
     @DisplayName("Расход носков: когда носки существуют и количество достаточное, должно уменьшить количество")
@@ -190,7 +202,7 @@ public class SocksStockServiceTest {
         Socks updatedSocks = createSocks(1L, color, cottonPart, expectedQuantity);
         SocksResponseDTO expectedResponse = createSocksResponseDTO(color, cottonPart, expectedQuantity);
 
-        when(socksRepositoryMock.findByColorAndCottonPart(color, cottonPart))
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", color, cottonPart))
                 .thenReturn(Optional.of(existingSocks));
         when(socksRepositoryMock.save(any(Socks.class))).thenReturn(updatedSocks);
         when(converterToDtoMock.toDto(updatedSocks)).thenReturn(expectedResponse);
@@ -202,7 +214,7 @@ public class SocksStockServiceTest {
         assertEquals(color, actualResponse.getColor());
         assertEquals(cottonPart, actualResponse.getCottonPart());
 
-        verify(socksRepositoryMock).findByColorAndCottonPart(color, cottonPart);
+        verify(socksRepositoryMock).findByWarehouseAndColorAndCottonPart("main", color, cottonPart);
         verify(socksRepositoryMock).save(existingSocks);
         verify(converterToDtoMock).toDto(updatedSocks);
     }
@@ -218,7 +230,7 @@ public class SocksStockServiceTest {
         SocksRequestDTO request = createSocksRequestDTO(color, cottonPart, outcomeQuantity);
         Socks existingSocks = createSocks(1L, color, cottonPart, initialQuantity);
 
-        when(socksRepositoryMock.findByColorAndCottonPart(color, cottonPart))
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", color, cottonPart))
                 .thenReturn(Optional.of(existingSocks));
 
         InvalidQuantityException exception = assertThrows(InvalidQuantityException.class,
@@ -228,7 +240,7 @@ public class SocksStockServiceTest {
                 exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock).findByColorAndCottonPart(color, cottonPart);
+        verify(socksRepositoryMock).findByWarehouseAndColorAndCottonPart("main", color, cottonPart);
         verify(socksRepositoryMock, never()).save(any(Socks.class));
     }
 
@@ -246,7 +258,7 @@ public class SocksStockServiceTest {
         Socks updatedSocks = createSocks(1L, color, cottonPart, expectedQuantity);
         SocksResponseDTO expectedResponse = createSocksResponseDTO(color, cottonPart, expectedQuantity);
 
-        when(socksRepositoryMock.findByColorAndCottonPart(color, cottonPart))
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", color, cottonPart))
                 .thenReturn(Optional.of(existingSocks));
         when(socksRepositoryMock.save(any(Socks.class))).thenReturn(updatedSocks);
         when(converterToDtoMock.toDto(updatedSocks)).thenReturn(expectedResponse);
@@ -267,7 +279,7 @@ public class SocksStockServiceTest {
 
         SocksRequestDTO request = createSocksRequestDTO(color, cottonPart, quantity);
 
-        when(socksRepositoryMock.findByColorAndCottonPart(color, cottonPart))
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", color, cottonPart))
                 .thenReturn(Optional.empty());
 
         SocksNotFoundException exception = assertThrows(SocksNotFoundException.class,
@@ -276,10 +288,88 @@ public class SocksStockServiceTest {
         assertEquals("These socks are out of stock.", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
 
-        verify(socksRepositoryMock).findByColorAndCottonPart(color, cottonPart);
+        verify(socksRepositoryMock).findByWarehouseAndColorAndCottonPart("main", color, cottonPart);
         verify(socksRepositoryMock, never()).save(any(Socks.class));
     }
 
+    @DisplayName("Приход носков: должно опубликовать событие с предыдущим и новым остатком")
+    @Test
+    void incomeSocksPublishStockChangedEvent() {
+        SocksRequestDTO request = createSocksRequestDTO("red", 80, 50);
+        Socks existingSocks = createSocks(1L, "red", 80, 100);
+        Socks updatedSocks = createSocks(1L, "red", 80, 150);
+
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", "red", 80))
+                .thenReturn(Optional.of(existingSocks));
+        when(socksRepositoryMock.save(existingSocks)).thenReturn(updatedSocks);
+        when(converterToDtoMock.toDto(updatedSocks)).thenReturn(createSocksResponseDTO("red", 80, 150));
+
+        socksStockServiceTest.incomeSocks(request);
+
+        ArgumentCaptor<StockChangedEvent> eventCaptor = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(eventPublisherMock).publishEvent(eventCaptor.capture());
+        StockChangedEvent event = eventCaptor.getValue();
+        assertEquals("red", event.color());
+        assertEquals(80, event.cottonPart());
+        assertEquals(100, event.previousQuantity());
+        assertEquals(150, event.quantity());
+        assertEquals(50, event.delta());
+    }
+
+    @DisplayName("Приход новых носков: должно опубликовать событие с нулевым предыдущим остатком")
+    @Test
+    void incomeNewSocksPublishStockChangedEventFromZero() {
+        SocksRequestDTO request = createSocksRequestDTO("blue", 60, 30);
+        Socks newSocks = createSocks(null, "blue", 60, 30);
+        Socks savedSocks = createSocks(2L, "blue", 60, 30);
+
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", "blue", 60)).thenReturn(Optional.empty());
+        when(converterToEntityMock.toEntity(request)).thenReturn(newSocks);
+        when(socksRepositoryMock.save(newSocks)).thenReturn(savedSocks);
+
+        socksStockServiceTest.incomeSocks(request);
+
+        ArgumentCaptor<StockChangedEvent> eventCaptor = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(eventPublisherMock).publishEvent(eventCaptor.capture());
+        assertEquals(0, eventCaptor.getValue().previousQuantity());
+        assertEquals(30, eventCaptor.getValue().quantity());
+    }
+
+    @DisplayName("Расход носков: должно опубликовать событие с отрицательным изменением остатка")
+    @Test
+    void outcomeSocksPublishStockChangedEvent() {
+        SocksRequestDTO request = createSocksRequestDTO("green", 70, 20);
+        Socks existingSocks = createSocks(1L, "green", 70, 50);
+        Socks updatedSocks = createSocks(1L, "green", 70, 30);
+
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", "green", 70))
+                .thenReturn(Optional.of(existingSocks));
+        when(socksRepositoryMock.save(existingSocks)).thenReturn(updatedSocks);
+        when(converterToDtoMock.toDto(updatedSocks)).thenReturn(createSocksResponseDTO("green", 70, 30));
+
+        socksStockServiceTest.outcomeSocks(request);
+
+        ArgumentCaptor<StockChangedEvent> eventCaptor = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(eventPublisherMock).publishEvent(eventCaptor.capture());
+        assertEquals(50, eventCaptor.getValue().previousQuantity());
+        assertEquals(30, eventCaptor.getValue().quantity());
+        assertEquals(-20, eventCaptor.getValue().delta());
+    }
+
+    @DisplayName("Расход носков: при недостаточном количестве событие не публикуется")
+    @Test
+    void outcomeSocksWhenQuantityInsufficientDoNotPublishEvent() {
+        SocksRequestDTO request = createSocksRequestDTO("blue", 50, 20);
+        Socks existingSocks = createSocks(1L, "blue", 50, 10);
+
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", "blue", 50))
+                .thenReturn(Optional.of(existingSocks));
+
+        assertThrows(InvalidQuantityException.class, () -> socksStockServiceTest.outcomeSocks(request));
+
+        verify(eventPublisherMock, never()).publishEvent(any(Object.class));
+    }
+
     @DisplayName("Получение количества: операция 'moreThan' должна вернуть корректную сумму")
     @Test
     void getQuantityWithMoreThanOperationReturnCorrectSum() {
@@ -369,11 +459,26 @@ public class SocksStockServiceTest {
                 .sumQuantityByColorAndCottonPartLessThan(color, cottonPart);
     }
 
+    @DisplayName("Расход носков: чтение и изменение остатка должны выполняться под блокировкой позиции")
+    @Test
+    void outcomeSocksRunUnderSkuLock() {
+        Socks existingSocks = createSocks(1L, "red", 80, 100);
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("main", "red", 80))
+                .thenReturn(Optional.of(existingSocks));
+        when(socksRepositoryMock.save(existingSocks)).thenReturn(existingSocks);
+        when(converterToDtoMock.toDto(existingSocks)).thenReturn(createSocksResponseDTO("red", 80, 90));
+
+        socksStockServiceTest.outcomeSocks(createSocksRequestDTO("red", 80, 10));
+
+        verify(skuLockManager).withLock(eq("red"), eq(80), any());
+    }
+
     @DisplayName("Удаление всех носков из пустой базы данных")
     @Test
     void deleteAllWhenDatabaseEmptyCallRepository() {
         socksStockServiceTest.deleteAll();
 
+        verify(socksRepositoryMock, times(1)).findAllOrderByColorAndCottonPart();
         verify(socksRepositoryMock, times(1)).deleteAll();
         verifyNoMoreInteractions(socksRepositoryMock);
     }
@@ -386,6 +491,73 @@ public class SocksStockServiceTest {
         verify(socksRepositoryMock, times(1)).deleteAll();
     }
 
+    @DisplayName("Удаление всех носков: должно опубликовать событие очистки со списанными остатками")
+    @Test
+    void deleteAllPublishStockClearedEvent() {
+        Socks redSocks = createSocks(1L, "red", 80, 10);
+        Socks emptySocks = createSocks(2L, "red", 90, 0);
+        when(socksRepositoryMock.findAllOrderByColorAndCottonPart()).thenReturn(List.of(redSocks, emptySocks));
+
+        socksStockServiceTest.deleteAll();
+
+        ArgumentCaptor<StockClearedEvent> captor = ArgumentCaptor.forClass(StockClearedEvent.class);
+        verify(eventPublisherMock).publishEvent(captor.capture());
+        assertEquals(List.of(new StockClearedEvent.ClearedItem(redSocks.getWarehouse(), "red", 80, 10)),
+                captor.getValue().cleared());
+    }
+
+    @DisplayName("Получение всех остатков: должно вернуть только позиции с ненулевым остатком")
+    @Test
+    void getAllSocksReturnOnlyNonEmptyItems() {
+        Socks redSocks = createSocks(1L, "red", 80, 10);
+        Socks emptySocks = createSocks(2L, "red", 90, 0);
+        SocksResponseDTO redResponse = createSocksResponseDTO("red", 80, 10);
+
+        when(socksRepositoryMock.findAllOrderByColorAndCottonPart()).thenReturn(List.of(redSocks, emptySocks));
+        when(converterToDtoMock.toDto(redSocks)).thenReturn(redResponse);
+
+        List<SocksResponseDTO> result = socksStockServiceTest.getAllSocks();
+
+        assertEquals(List.of(redResponse), result);
+        verify(converterToDtoMock, never()).toDto(emptySocks);
+    }
+
+    @DisplayName("Приход носков на указанный склад: новая позиция должна создаваться на этом складе")
+    @Test
+    void incomeSocksToWarehouseCreateSocksInWarehouse() {
+        SocksRequestDTO request = createSocksRequestDTO("blue", 60, 30);
+        request.setWarehouse(" north ");
+        Socks newSocks = createSocks(null, "blue", 60, 30);
+        when(socksRepositoryMock.findByWarehouseAndColorAndCottonPart("north", "blue", 60))
+                .thenReturn(Optional.empty());
+        when(converterToEntityMock.toEntity(request)).thenReturn(newSocks);
+        when(socksRepositoryMock.save(newSocks)).thenReturn(newSocks);
+
+        socksStockServiceTest.incomeSocks(request);
+
+        assertEquals("north", newSocks.getWarehouse());
+        verify(socksRepositoryMock).save(newSocks);
+    }
+
+    @DisplayName("Количество на складе: должно суммировать только позиции указанного склада")
+    @Test
+    void getQuantityForWarehouseUseWarehouseSum() {
+        when(socksRepositoryMock.sumQuantityByWarehouseAndColorAndCottonPartLessThan("north", "red", 50))
+                .thenReturn(12);
+
+        assertEquals(12, socksStockServiceTest.getQuantity("north", "red", Operation.lessThan, 50));
+        verify(socksRepositoryMock, never()).sumQuantityByColorAndCottonPartLessThan(any(), any());
+    }
+
+    @DisplayName("Количество на складе с пустым складом: должно выбросить EmptyDataException")
+    @Test
+    void getQuantityWithBlankWarehouseThrowEmptyDataException() {
+        assertThrows(EmptyDataException.class,
+                () -> socksStockServiceTest.getQuantity(" ", "red", Operation.equal, 50));
+
+        verifyNoInteractions(socksRepositoryMock);
+    }
+
     private SocksRequestDTO createSocksRequestDTO(String color, Integer cottonPart, Integer quantity) {
         SocksRequestDTO request = new SocksRequestDTO();
         request.setColor(color);
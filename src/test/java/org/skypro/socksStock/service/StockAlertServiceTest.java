@@ -0,0 +1,225 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.exception.StockThresholdNotFoundException;
+import org.skypro.socksStock.model.dto.request.StockThresholdRequestDTO;
+import org.skypro.socksStock.model.dto.response.StockThresholdResponseDTO;
+import org.skypro.socksStock.model.entity.StockAlert;
+import org.skypro.socksStock.model.entity.StockThreshold;
+import org.skypro.socksStock.model.event.LowStockAlertEvent;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.repository.SocksStockRepository;
+import org.skypro.socksStock.repository.StockAlertRepository;
+import org.skypro.socksStock.repository.StockThresholdRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockAlertServiceTest {
+
+    @Mock
+    private StockThresholdRepository thresholdRepositoryMock;
+
+    @Mock
+    private StockAlertRepository alertRepositoryMock;
+
+    @Mock
+    private SocksStockRepository socksRepositoryMock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    @Mock
+    private LowStockAlertSink firstSinkMock;
+
+    @Mock
+    private LowStockAlertSink secondSinkMock;
+
+    private StockAlertService stockAlertServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        stockAlertServiceTest = new StockAlertService(thresholdRepositoryMock, alertRepositoryMock,
+                socksRepositoryMock, eventPublisherMock, List.of(firstSinkMock, secondSinkMock));
+    }
+
+    @DisplayName("Расход через порог позиции: должен сохранить уведомление и опубликовать событие")
+    @Test
+    void onStockChangedWhenSkuThresholdCrossedSaveAlertAndPublishEvent() {
+        when(thresholdRepositoryMock.findAll()).thenReturn(List.of(createThreshold(1L, "red", 80, 10)));
+        when(alertRepositoryMock.save(any(StockAlert.class))).thenAnswer(invocation -> {
+            StockAlert alert = invocation.getArgument(0);
+            alert.setId(7L);
+            return alert;
+        });
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("red", 80)).thenReturn(8);
+
+        stockAlertServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 15, 8, Instant.now()));
+
+        ArgumentCaptor<LowStockAlertEvent> captor = ArgumentCaptor.forClass(LowStockAlertEvent.class);
+        verify(eventPublisherMock).publishEvent(captor.capture());
+        LowStockAlertEvent alert = captor.getValue();
+        assertEquals(7L, alert.alertId());
+        assertEquals(10, alert.threshold());
+        assertEquals(15, alert.previousQuantity());
+        assertEquals(8, alert.quantity());
+    }
+
+    @DisplayName("Расход через порог цвета: порог цвета должен применяться к позиции без собственного порога")
+    @Test
+    void onStockChangedWhenColorThresholdCrossedSaveAlert() {
+        when(thresholdRepositoryMock.findAll()).thenReturn(List.of(createThreshold(1L, "red", null, 20)));
+        when(alertRepositoryMock.save(any(StockAlert.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("red", 50)).thenReturn(20);
+
+        stockAlertServiceTest.onStockChanged(new StockChangedEvent("main", "red", 50, 25, 20, Instant.now()));
+
+        ArgumentCaptor<StockAlert> captor = ArgumentCaptor.forClass(StockAlert.class);
+        verify(alertRepositoryMock).save(captor.capture());
+        assertEquals(20, captor.getValue().getThreshold());
+        assertEquals(50, captor.getValue().getCottonPart());
+    }
+
+    @DisplayName("Расход ниже порога без пересечения: уведомление не должно создаваться повторно")
+    @Test
+    void onStockChangedWhenAlreadyBelowThresholdDoNothing() {
+        when(thresholdRepositoryMock.findAll()).thenReturn(List.of(createThreshold(1L, "red", 80, 10)));
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("red", 80)).thenReturn(5);
+
+        stockAlertServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 9, 5, Instant.now()));
+
+        verifyNoInteractions(alertRepositoryMock, eventPublisherMock);
+    }
+
+    @DisplayName("Расход на одном складе: порог должен сравниваться с остатком позиции по всем складам")
+    @Test
+    void onStockChangedCompareThresholdWithTotalAcrossWarehouses() {
+        when(thresholdRepositoryMock.findAll()).thenReturn(List.of(createThreshold(1L, "red", 80, 10)));
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("red", 80)).thenReturn(26);
+
+        stockAlertServiceTest.onStockChanged(new StockChangedEvent("north", "red", 80, 12, 8, Instant.now()));
+
+        verifyNoInteractions(alertRepositoryMock, eventPublisherMock);
+    }
+
+    @DisplayName("Приход носков: пороги не должны проверяться")
+    @Test
+    void onStockChangedWhenIncomeDoNothing() {
+        stockAlertServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 5, 50, Instant.now()));
+
+        verifyNoInteractions(thresholdRepositoryMock, alertRepositoryMock, socksRepositoryMock, eventPublisherMock);
+    }
+
+    @DisplayName("Доставка уведомления: ошибка одного приемника не должна мешать остальным")
+    @Test
+    void onLowStockAlertWhenSinkFailsDeliverToOtherSinks() {
+        LowStockAlertEvent alert = new LowStockAlertEvent(1L, "red", 80, 10, 15, 8, Instant.now());
+        doThrow(new IllegalStateException("unavailable")).when(firstSinkMock).publish(alert);
+
+        assertDoesNotThrow(() -> stockAlertServiceTest.onLowStockAlert(alert));
+
+        verify(secondSinkMock).publish(alert);
+    }
+
+    @DisplayName("Сохранение порога: существующий порог должен обновляться")
+    @Test
+    void saveThresholdWhenThresholdExistsUpdateIt() {
+        StockThreshold existing = createThreshold(3L, "red", 80, 10);
+        when(thresholdRepositoryMock.findByColorAndCottonPart("red", 80)).thenReturn(Optional.of(existing));
+        when(thresholdRepositoryMock.save(existing)).thenReturn(existing);
+
+        StockThresholdResponseDTO response = stockAlertServiceTest.saveThreshold(createRequest(" red ", 80, 25));
+
+        assertEquals(3L, response.id());
+        assertEquals(25, response.threshold());
+        verify(thresholdRepositoryMock).save(existing);
+    }
+
+    @DisplayName("Сохранение порога в транзакции: кеш должен обновляться только после фиксации")
+    @Test
+    void saveThresholdInTransactionUpdateCacheAfterCommit() {
+        when(thresholdRepositoryMock.findAll()).thenReturn(List.of());
+        when(thresholdRepositoryMock.findByColorAndCottonPart("red", 80)).thenReturn(Optional.empty());
+        when(thresholdRepositoryMock.save(any(StockThreshold.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(alertRepositoryMock.save(any(StockAlert.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("red", 80)).thenReturn(5);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockAlertServiceTest.saveThreshold(createRequest("red", 80, 10));
+            stockAlertServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 20, 5, Instant.now()));
+            verify(alertRepositoryMock, never()).save(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        stockAlertServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 20, 5, Instant.now()));
+
+        verify(alertRepositoryMock).save(any(StockAlert.class));
+    }
+
+    @DisplayName("Сохранение порога с отрицательным значением: должно выбросить EmptyDataException")
+    @Test
+    void saveThresholdWhenNegativeThrowEmptyDataException() {
+        EmptyDataException exception = assertThrows(EmptyDataException.class,
+                () -> stockAlertServiceTest.saveThreshold(createRequest("red", null, -1)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(thresholdRepositoryMock);
+    }
+
+    @DisplayName("Удаление несуществующего порога: должно выбросить StockThresholdNotFoundException")
+    @Test
+    void deleteThresholdWhenNotFoundThrowStockThresholdNotFoundException() {
+        when(thresholdRepositoryMock.findById(5L)).thenReturn(Optional.empty());
+
+        StockThresholdNotFoundException exception = assertThrows(StockThresholdNotFoundException.class,
+                () -> stockAlertServiceTest.deleteThreshold(5L));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(thresholdRepositoryMock, never()).delete(any());
+    }
+
+    @DisplayName("Получение уведомлений с недопустимым лимитом: должно выбросить EmptyDataException")
+    @Test
+    void getRecentAlertsWhenLimitInvalidThrowEmptyDataException() {
+        assertThrows(EmptyDataException.class, () -> stockAlertServiceTest.getRecentAlerts(0));
+
+        verifyNoInteractions(alertRepositoryMock);
+    }
+
+    private StockThreshold createThreshold(Long id, String color, Integer cottonPart, int threshold) {
+        StockThreshold stockThreshold = new StockThreshold();
+        stockThreshold.setId(id);
+        stockThreshold.setColor(color);
+        stockThreshold.setCottonPart(cottonPart);
+        stockThreshold.setThreshold(threshold);
+        return stockThreshold;
+    }
+
+    private StockThresholdRequestDTO createRequest(String color, Integer cottonPart, Integer threshold) {
+        StockThresholdRequestDTO request = new StockThresholdRequestDTO();
+        request.setColor(color);
+        request.setCottonPart(cottonPart);
+        request.setThreshold(threshold);
+        return request;
+    }
+}
@@ -0,0 +1,233 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.request.Operation;
+import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
+import org.skypro.socksStock.model.entity.StockMovement;
+import org.skypro.socksStock.model.entity.StockSnapshot;
+import org.skypro.socksStock.model.entity.StockSnapshotItem;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.model.projection.StockDelta;
+import org.skypro.socksStock.repository.StockMovementRepository;
+import org.skypro.socksStock.repository.StockSnapshotItemRepository;
+import org.skypro.socksStock.repository.StockSnapshotRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockHistoryServiceTest {
+
+    private static final Instant SNAPSHOT_TIME = Instant.parse("2024-01-31T12:00:00Z");
+    private static final Instant AS_OF = Instant.parse("2024-01-31T23:59:59Z");
+
+    @Mock
+    private StockMovementRepository movementRepositoryMock;
+
+    @Mock
+    private StockSnapshotRepository snapshotRepositoryMock;
+
+    @Mock
+    private StockSnapshotItemRepository snapshotItemRepositoryMock;
+
+    private StockHistoryService stockHistoryServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        stockHistoryServiceTest = new StockHistoryService(movementRepositoryMock, snapshotRepositoryMock,
+                snapshotItemRepositoryMock, TransactionOperations.withoutTransaction(), 2, 0);
+    }
+
+    @DisplayName("Изменение остатка: должно сохранить движение со знаком изменения")
+    @Test
+    void onStockChangedSaveMovementWithDelta() {
+        stockHistoryServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 30, 10, AS_OF));
+
+        ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+        verify(movementRepositoryMock).save(captor.capture());
+        assertEquals(-20, captor.getValue().getDelta());
+        assertEquals(AS_OF, captor.getValue().getOccurredAt());
+    }
+
+    @DisplayName("Изменение остатка в транзакции: время движения должно переноситься на момент фиксации")
+    @Test
+    void onStockChangedInTransactionStampMovementAtCommit() {
+        when(movementRepositoryMock.save(any(StockMovement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockHistoryServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 30, 10, AS_OF));
+            Instant beforeCommit = Instant.now();
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+            verify(movementRepositoryMock).save(captor.capture());
+            assertFalse(captor.getValue().getOccurredAt().isBefore(beforeCommit));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("Количество на момент времени: должно сложить снимок и движения после него")
+    @Test
+    void getQuantityAsOfCombineSnapshotAndMovements() {
+        StockSnapshot snapshot = createSnapshot(1L, SNAPSHOT_TIME);
+        when(snapshotRepositoryMock.findTopByTakenAtLessThanEqualOrderByTakenAtDesc(AS_OF))
+                .thenReturn(Optional.of(snapshot));
+        when(snapshotItemRepositoryMock.findBySnapshotIdAndColor(1L, "red"))
+                .thenReturn(List.of(createItem(1L, "red", 80, 100), createItem(1L, "red", 40, 7)));
+        when(movementRepositoryMock.sumDeltasByColorBetween("red", SNAPSHOT_TIME, AS_OF))
+                .thenReturn(List.of(new StockDelta("red", 80, -30L), new StockDelta("red", 90, 5L)));
+
+        Integer result = stockHistoryServiceTest.getQuantityAsOf("red", Operation.moreThan, 50, AS_OF);
+
+        assertEquals(75, result);
+    }
+
+    @DisplayName("Количество на момент времени без снимков: должно суммировать движения с начала истории")
+    @Test
+    void getQuantityAsOfWithoutSnapshotReplayFromStart() {
+        when(snapshotRepositoryMock.findTopByTakenAtLessThanEqualOrderByTakenAtDesc(AS_OF))
+                .thenReturn(Optional.empty());
+        when(movementRepositoryMock.sumDeltasByColorBetween("red", Instant.EPOCH, AS_OF))
+                .thenReturn(List.of(new StockDelta("red", 80, 12L)));
+
+        assertEquals(12, stockHistoryServiceTest.getQuantityAsOf("red", Operation.equal, 80, AS_OF));
+        verifyNoInteractions(snapshotItemRepositoryMock);
+    }
+
+    @DisplayName("Количество без момента времени: должно выбросить EmptyDataException")
+    @Test
+    void getQuantityAsOfWithoutTimestampThrowEmptyDataException() {
+        assertThrows(EmptyDataException.class,
+                () -> stockHistoryServiceTest.getQuantityAsOf("red", Operation.equal, 80, null));
+
+        verifyNoInteractions(snapshotRepositoryMock, movementRepositoryMock);
+    }
+
+    @DisplayName("Остатки на момент времени: должны вернуть ненулевые позиции, упорядоченные по цвету и хлопку")
+    @Test
+    void getStockAsOfReturnSortedNonEmptyItems() {
+        when(snapshotRepositoryMock.findTopByTakenAtLessThanEqualOrderByTakenAtDesc(AS_OF))
+                .thenReturn(Optional.empty());
+        when(movementRepositoryMock.sumDeltasBetween(Instant.EPOCH, AS_OF)).thenReturn(List.of(
+                new StockDelta("red", 80, 5L),
+                new StockDelta("blue", 90, 3L),
+                new StockDelta("blue", 10, 0L)));
+
+        List<SocksResponseDTO> result = stockHistoryServiceTest.getStockAsOf(AS_OF);
+
+        assertEquals(2, result.size());
+        assertEquals("blue", result.get(0).getColor());
+        assertEquals("red", result.get(1).getColor());
+        assertEquals(5, result.get(1).getQuantity());
+    }
+
+    @DisplayName("Очистка склада: должна записать списание всех остатков")
+    @Test
+    void onStockClearedWriteOffAllQuantities() {
+        when(snapshotRepositoryMock.findTopByTakenAtLessThanEqualOrderByTakenAtDesc(AS_OF))
+                .thenReturn(Optional.empty());
+        when(movementRepositoryMock.sumDeltasBetween(Instant.EPOCH, AS_OF))
+                .thenReturn(List.of(new StockDelta("red", 80, 15L)));
+
+        stockHistoryServiceTest.onStockCleared(new StockClearedEvent(List.of(), AS_OF));
+
+        ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+        verify(movementRepositoryMock).save(captor.capture());
+        assertEquals(-15, captor.getValue().getDelta());
+    }
+
+    @DisplayName("Построение снимка: должно создать снимок на момент N-го движения после предыдущего снимка")
+    @Test
+    void takeSnapshotsWhenIntervalReachedCreateSnapshot() {
+        StockMovement boundary = new StockMovement();
+        boundary.setOccurredAt(SNAPSHOT_TIME);
+        when(snapshotRepositoryMock.findTopByOrderByTakenAtDesc())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(createSnapshot(1L, SNAPSHOT_TIME)));
+        when(movementRepositoryMock.findByOccurredAtAfterOrderByOccurredAtAscIdAsc(eq(Instant.EPOCH), any(Pageable.class)))
+                .thenReturn(List.of(boundary));
+        when(movementRepositoryMock.findByOccurredAtAfterOrderByOccurredAtAscIdAsc(eq(SNAPSHOT_TIME), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(movementRepositoryMock.sumDeltasBetween(Instant.EPOCH, SNAPSHOT_TIME))
+                .thenReturn(List.of(new StockDelta("red", 80, 20L)));
+        when(snapshotRepositoryMock.insertIfAbsent(SNAPSHOT_TIME)).thenReturn(1);
+        when(snapshotRepositoryMock.findByTakenAt(SNAPSHOT_TIME))
+                .thenReturn(Optional.of(createSnapshot(1L, SNAPSHOT_TIME)));
+
+        stockHistoryServiceTest.takeSnapshots();
+
+        verify(movementRepositoryMock).findByOccurredAtAfterOrderByOccurredAtAscIdAsc(Instant.EPOCH, PageRequest.of(1, 1));
+        verify(snapshotItemRepositoryMock).saveAll(anyList());
+    }
+
+    @DisplayName("Построение снимка: снимок, уже построенный другим узлом, не должен дублироваться")
+    @Test
+    void takeSnapshotsWhenSnapshotAlreadyTakenSkipIt() {
+        StockMovement boundary = new StockMovement();
+        boundary.setOccurredAt(SNAPSHOT_TIME);
+        when(snapshotRepositoryMock.findTopByOrderByTakenAtDesc())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(createSnapshot(1L, SNAPSHOT_TIME)));
+        when(movementRepositoryMock.findByOccurredAtAfterOrderByOccurredAtAscIdAsc(eq(Instant.EPOCH), any(Pageable.class)))
+                .thenReturn(List.of(boundary));
+        when(movementRepositoryMock.findByOccurredAtAfterOrderByOccurredAtAscIdAsc(eq(SNAPSHOT_TIME), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(snapshotRepositoryMock.insertIfAbsent(SNAPSHOT_TIME)).thenReturn(0);
+
+        stockHistoryServiceTest.takeSnapshots();
+
+        verify(snapshotRepositoryMock, never()).findByTakenAt(any());
+        verifyNoInteractions(snapshotItemRepositoryMock);
+    }
+
+    @DisplayName("Построение снимка: при недостаточном количестве движений снимок не создается")
+    @Test
+    void takeSnapshotsWhenIntervalNotReachedDoNothing() {
+        when(snapshotRepositoryMock.findTopByOrderByTakenAtDesc()).thenReturn(Optional.empty());
+        when(movementRepositoryMock.findByOccurredAtAfterOrderByOccurredAtAscIdAsc(eq(Instant.EPOCH), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        stockHistoryServiceTest.takeSnapshots();
+
+        verify(snapshotRepositoryMock, never()).insertIfAbsent(any());
+        verifyNoInteractions(snapshotItemRepositoryMock);
+    }
+
+    private StockSnapshot createSnapshot(Long id, Instant takenAt) {
+        StockSnapshot snapshot = new StockSnapshot();
+        snapshot.setId(id);
+        snapshot.setTakenAt(takenAt);
+        return snapshot;
+    }
+
+    private StockSnapshotItem createItem(Long snapshotId, String color, int cottonPart, int quantity) {
+        StockSnapshotItem item = new StockSnapshotItem();
+        item.setSnapshotId(snapshotId);
+        item.setColor(color);
+        item.setCottonPart(cottonPart);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,141 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.request.RankingOrder;
+import org.skypro.socksStock.model.dto.response.ColorStockDTO;
+import org.skypro.socksStock.model.dto.response.SocksResponseDTO;
+import org.skypro.socksStock.model.entity.Socks;
+import org.skypro.socksStock.model.event.CacheInvalidatedEvent;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.repository.SocksStockRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockRankingServiceTest {
+
+    @Mock
+    private SocksStockRepository socksRepositoryMock;
+
+    private StockRankingService stockRankingServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        when(socksRepositoryMock.findAllOrderByColorAndCottonPart()).thenReturn(List.of(
+                createSocks("red", 80, 100),
+                createSocks("red", 50, 10),
+                createSocks("blue", 90, 60),
+                createSocks("green", 20, 5)));
+        stockRankingServiceTest = new StockRankingService(socksRepositoryMock);
+        stockRankingServiceTest.init();
+    }
+
+    @DisplayName("Рейтинг цветов: должен вернуть цвета с наибольшим суммарным остатком")
+    @Test
+    void getTopColorsMostReturnColorsByTotalDescending() {
+        List<ColorStockDTO> result = stockRankingServiceTest.getTopColors(2, RankingOrder.most);
+
+        assertEquals(List.of(new ColorStockDTO("red", 110), new ColorStockDTO("blue", 60)), result);
+    }
+
+    @DisplayName("Рейтинг позиций: должен вернуть позиции с наименьшим остатком")
+    @Test
+    void getTopSkusLeastReturnSkusAscending() {
+        List<SocksResponseDTO> result = stockRankingServiceTest.getTopSkus(2, RankingOrder.least);
+
+        assertEquals(2, result.size());
+        assertEquals("green", result.get(0).getColor());
+        assertEquals(5, result.get(0).getQuantity());
+        assertEquals("red", result.get(1).getColor());
+        assertEquals(50, result.get(1).getCottonPart());
+    }
+
+    @DisplayName("Изменение остатка: рейтинг должен обновиться по перечитанному остатку позиции")
+    @Test
+    void onStockChangedReorderRankings() {
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("red", 80)).thenReturn(0);
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("yellow", 10)).thenReturn(500);
+
+        stockRankingServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 100, 0, Instant.now()));
+        stockRankingServiceTest.onStockChanged(new StockChangedEvent("main", "yellow", 10, 0, 500, Instant.now()));
+
+        List<ColorStockDTO> colors = stockRankingServiceTest.getTopColors(3, RankingOrder.most);
+        assertEquals(List.of(new ColorStockDTO("yellow", 500), new ColorStockDTO("blue", 60),
+                new ColorStockDTO("red", 10)), colors);
+
+        List<SocksResponseDTO> skus = stockRankingServiceTest.getTopSkus(1, RankingOrder.least);
+        assertEquals(0, skus.get(0).getQuantity());
+        verify(socksRepositoryMock, times(1)).findAllOrderByColorAndCottonPart();
+    }
+
+    @DisplayName("Изменение, уже учтенное пересборкой: не должно применяться повторно")
+    @Test
+    void onStockChangedAfterResyncNotDoubleApply() {
+        when(socksRepositoryMock.findAllOrderByColorAndCottonPart()).thenReturn(List.of(
+                createSocks("red", 80, 150),
+                createSocks("red", 50, 10)));
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("red", 80)).thenReturn(150);
+
+        stockRankingServiceTest.resync();
+        stockRankingServiceTest.onStockChanged(new StockChangedEvent("main", "red", 80, 100, 150, Instant.now()));
+
+        assertEquals(List.of(new ColorStockDTO("red", 160)),
+                stockRankingServiceTest.getTopColors(1, RankingOrder.most));
+    }
+
+    @DisplayName("Очистка склада: рейтинги должны стать пустыми")
+    @Test
+    void onStockClearedEmptyRankings() {
+        stockRankingServiceTest.onStockCleared(new StockClearedEvent(List.of(), Instant.now()));
+
+        assertTrue(stockRankingServiceTest.getTopColors(10, RankingOrder.most).isEmpty());
+        assertTrue(stockRankingServiceTest.getTopSkus(10, RankingOrder.least).isEmpty());
+    }
+
+    @DisplayName("Изменение на другом экземпляре: остаток позиции должен быть перечитан из базы данных")
+    @Test
+    void onCacheInvalidatedReloadSkuQuantity() {
+        when(socksRepositoryMock.sumQuantityByColorAndCottonPartEqual("green", 20)).thenReturn(200);
+
+        stockRankingServiceTest.onCacheInvalidated(new CacheInvalidatedEvent(CacheInvalidatedEvent.STOCK,
+                CacheInvalidatedEvent.stockKey("green", 20)));
+
+        assertEquals(List.of(new ColorStockDTO("green", 200)),
+                stockRankingServiceTest.getTopColors(1, RankingOrder.most));
+        verify(socksRepositoryMock, times(1)).findAllOrderByColorAndCottonPart();
+    }
+
+    @DisplayName("Полный сброс кешей: рейтинги должны быть пересобраны")
+    @Test
+    void onCacheInvalidatedFlushAllResync() {
+        stockRankingServiceTest.onCacheInvalidated(CacheInvalidatedEvent.flushAll());
+
+        verify(socksRepositoryMock, times(2)).findAllOrderByColorAndCottonPart();
+    }
+
+    @DisplayName("Недопустимый лимит: должен выбросить EmptyDataException")
+    @Test
+    void getTopColorsWhenLimitInvalidThrowEmptyDataException() {
+        assertThrows(EmptyDataException.class, () -> stockRankingServiceTest.getTopColors(0, RankingOrder.most));
+        assertThrows(EmptyDataException.class, () -> stockRankingServiceTest.getTopSkus(101, RankingOrder.most));
+    }
+
+    private Socks createSocks(String color, int cottonPart, int quantity) {
+        Socks socks = new Socks();
+        socks.setColor(color);
+        socks.setCottonPart(cottonPart);
+        socks.setQuantity(quantity);
+        return socks;
+    }
+}
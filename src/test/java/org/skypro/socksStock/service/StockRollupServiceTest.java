@@ -0,0 +1,80 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.response.StockRollupDTO;
+import org.skypro.socksStock.model.entity.RollupGranularity;
+import org.skypro.socksStock.repository.StockRollupRepository;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockRollupServiceTest {
+
+    @Mock
+    private StockRollupRepository rollupRepositoryMock;
+
+    private StockRollupService stockRollupServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        stockRollupServiceTest = new StockRollupService(rollupRepositoryMock, ZoneOffset.UTC);
+    }
+
+    @DisplayName("Статистика по цвету: должна выровнять начало периода и прочитать итоговые интервалы цвета")
+    @Test
+    void getRollupsWithoutCottonPartReadColorRollups() {
+        Instant from = Instant.parse("2024-01-01T10:15:00Z");
+        Instant to = Instant.parse("2024-03-31T00:00:00Z");
+        List<StockRollupDTO> expected = List.of(new StockRollupDTO(Instant.parse("2024-01-01T00:00:00Z"), 5, 7));
+        when(rollupRepositoryMock.findColorRollups(RollupGranularity.DAY, "red",
+                Instant.parse("2024-01-01T00:00:00Z"), to)).thenReturn(expected);
+
+        List<StockRollupDTO> result = stockRollupServiceTest.getRollups("red", null, RollupGranularity.DAY, from, to);
+
+        assertEquals(expected, result);
+        verify(rollupRepositoryMock, never()).findSkuRollups(any(), any(), any(), any(), any());
+    }
+
+    @DisplayName("Статистика по позиции: должна прочитать интервалы позиции")
+    @Test
+    void getRollupsWithCottonPartReadSkuRollups() {
+        Instant from = Instant.parse("2024-01-01T10:00:00Z");
+        Instant to = Instant.parse("2024-01-02T10:00:00Z");
+
+        stockRollupServiceTest.getRollups("red", 80, RollupGranularity.HOUR, from, to);
+
+        verify(rollupRepositoryMock).findSkuRollups(RollupGranularity.HOUR, "red", 80, from, to);
+    }
+
+    @DisplayName("Слишком длинный период: должен выбросить EmptyDataException")
+    @Test
+    void getRollupsWhenRangeTooLongThrowEmptyDataException() {
+        EmptyDataException exception = assertThrows(EmptyDataException.class,
+                () -> stockRollupServiceTest.getRollups("red", null, RollupGranularity.HOUR,
+                        Instant.parse("2020-01-01T00:00:00Z"), Instant.parse("2024-01-01T00:00:00Z")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(rollupRepositoryMock);
+    }
+
+    @DisplayName("Пустой период: должен выбросить EmptyDataException")
+    @Test
+    void getRollupsWhenRangeEmptyThrowEmptyDataException() {
+        Instant moment = Instant.parse("2024-01-01T00:00:00Z");
+
+        assertThrows(EmptyDataException.class,
+                () -> stockRollupServiceTest.getRollups("red", null, RollupGranularity.DAY, moment, moment));
+    }
+}
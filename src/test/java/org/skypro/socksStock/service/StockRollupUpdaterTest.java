@@ -0,0 +1,91 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.skypro.socksStock.repository.StockRollupRepository;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockRollupUpdaterTest {
+
+    private static final Instant OCCURRED_AT = Instant.parse("2024-03-10T21:45:30Z");
+
+    @Mock
+    private StockRollupRepository rollupRepositoryMock;
+
+    private StockRollupUpdater stockRollupUpdaterTest;
+
+    @BeforeEach
+    void setUp() {
+        stockRollupUpdaterTest = new StockRollupUpdater(rollupRepositoryMock, ZoneId.of("Europe/Moscow"));
+    }
+
+    @DisplayName("Расход: должен добавить расход к часовым и суточным интервалам позиции, затем цвета")
+    @Test
+    void onStockChangedWhenOutcomeUpsertOutflowSkuThenColor() {
+        stockRollupUpdaterTest.onStockChanged(new StockChangedEvent("main", "red", 80, 50, 20, OCCURRED_AT));
+
+        Instant hour = Instant.parse("2024-03-10T21:00:00Z");
+        Instant moscowDay = Instant.parse("2024-03-10T21:00:00Z");
+        InOrder inOrder = inOrder(rollupRepositoryMock);
+        inOrder.verify(rollupRepositoryMock).upsertSku("HOUR", hour, "red", 80, 0, 30);
+        inOrder.verify(rollupRepositoryMock).upsertSku("DAY", moscowDay, "red", 80, 0, 30);
+        inOrder.verify(rollupRepositoryMock).upsertColor("HOUR", hour, "red", 0, 30);
+        inOrder.verify(rollupRepositoryMock).upsertColor("DAY", moscowDay, "red", 0, 30);
+    }
+
+    @DisplayName("Приход: должен добавить приход к интервалам")
+    @Test
+    void onStockChangedWhenIncomeUpsertInflow() {
+        stockRollupUpdaterTest.onStockChanged(new StockChangedEvent("main", "red", 80, 0, 15, OCCURRED_AT));
+
+        verify(rollupRepositoryMock).upsertSku("HOUR", Instant.parse("2024-03-10T21:00:00Z"), "red", 80, 15, 0);
+        verify(rollupRepositoryMock).upsertColor("HOUR", Instant.parse("2024-03-10T21:00:00Z"), "red", 15, 0);
+    }
+
+    @DisplayName("Нулевое изменение: статистика не должна обновляться")
+    @Test
+    void onStockChangedWhenNoDeltaDoNothing() {
+        stockRollupUpdaterTest.onStockChanged(new StockChangedEvent("main", "red", 80, 10, 10, OCCURRED_AT));
+
+        verifyNoInteractions(rollupRepositoryMock);
+    }
+
+    @DisplayName("Часовой пояс со смещением не на целый час: часовые интервалы должны выравниваться по нему")
+    @Test
+    void onStockChangedAlignHourBucketsToConfiguredZone() {
+        StockRollupUpdater updater = new StockRollupUpdater(rollupRepositoryMock, ZoneId.of("Asia/Kolkata"));
+
+        updater.onStockChanged(new StockChangedEvent("main", "red", 80, 0, 15, OCCURRED_AT));
+
+        verify(rollupRepositoryMock).upsertSku("HOUR", Instant.parse("2024-03-10T21:30:00Z"), "red", 80, 15, 0);
+        verify(rollupRepositoryMock).upsertSku("DAY", Instant.parse("2024-03-10T18:30:00Z"), "red", 80, 15, 0);
+    }
+
+    @DisplayName("Очистка склада: списанные остатки должны учитываться как расход, сначала позиций, затем цветов")
+    @Test
+    void onStockClearedUpsertOutflowSkuThenColor() {
+        stockRollupUpdaterTest.onStockCleared(new StockClearedEvent(List.of(
+                new StockClearedEvent.ClearedItem("main", "red", 80, 10),
+                new StockClearedEvent.ClearedItem("north", "blue", 40, 7)), OCCURRED_AT));
+
+        Instant hour = Instant.parse("2024-03-10T21:00:00Z");
+        InOrder inOrder = inOrder(rollupRepositoryMock);
+        inOrder.verify(rollupRepositoryMock).upsertSku("HOUR", hour, "red", 80, 0, 10);
+        inOrder.verify(rollupRepositoryMock).upsertSku("HOUR", hour, "blue", 40, 0, 7);
+        inOrder.verify(rollupRepositoryMock).upsertColor("HOUR", hour, "red", 0, 10);
+        inOrder.verify(rollupRepositoryMock).upsertColor("HOUR", hour, "blue", 0, 7);
+    }
+}
@@ -0,0 +1,152 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.response.StockUpdateDTO;
+import org.skypro.socksStock.model.event.StockChangedEvent;
+import org.skypro.socksStock.model.event.StockClearedEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StockStreamServiceTest {
+
+    private StockStreamService stockStreamServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        stockStreamServiceTest = new StockStreamService(2, 60000, 1, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockStreamServiceTest.shutdown();
+    }
+
+    @DisplayName("Подписка: должна вернуть SSE-канал и зарегистрировать подписчика")
+    @Test
+    void subscribeReturnEmitterAndRegisterSubscriber() {
+        SseEmitter emitter = stockStreamServiceTest.subscribe(List.of("red", " blue "));
+
+        assertNotNull(emitter);
+        assertEquals(1, stockStreamServiceTest.getSubscriberCount());
+    }
+
+    @DisplayName("Подписка без цветов: должна выбросить EmptyDataException")
+    @Test
+    void subscribeWithoutColorsThrowEmptyDataException() {
+        EmptyDataException exception = assertThrows(EmptyDataException.class,
+                () -> stockStreamServiceTest.subscribe(List.of(" ", "")));
+
+        assertEquals("At least one color is required.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        assertEquals(0, stockStreamServiceTest.getSubscriberCount());
+    }
+
+    @DisplayName("Событие по цвету без подписчиков: должно обрабатываться без ошибок")
+    @Test
+    void onStockChangedWithoutSubscribersDoNothing() {
+        stockStreamServiceTest.subscribe(List.of("red"));
+
+        assertDoesNotThrow(() -> stockStreamServiceTest.onStockChanged(
+                new StockChangedEvent("main", "green", 50, 10, 20, Instant.now())));
+    }
+
+    @DisplayName("Буфер подписчика: повторное изменение позиции должно заменять предыдущее")
+    @Test
+    void subscriptionCoalesceUpdatesOfSameItem() {
+        StockSubscription subscription = new StockSubscription(new SseEmitter(), Set.of("red"), 4);
+
+        assertTrue(subscription.offer(new StockUpdateDTO("main", "red", 80, 10)));
+        assertFalse(subscription.offer(new StockUpdateDTO("main", "red", 80, 20)));
+
+        List<StockUpdateDTO> batch = subscription.drainPending().updates();
+        assertEquals(1, batch.size());
+        assertEquals(20, batch.get(0).quantity());
+        assertEquals(0, subscription.getDropped());
+    }
+
+    @DisplayName("Буфер подписчика: при переполнении должно отбрасываться самое старое изменение")
+    @Test
+    void subscriptionDropOldestUpdateWhenFull() {
+        StockSubscription subscription = new StockSubscription(new SseEmitter(), Set.of("red"), 2);
+
+        subscription.offer(new StockUpdateDTO("main", "red", 10, 1));
+        subscription.offer(new StockUpdateDTO("main", "red", 20, 2));
+        subscription.offer(new StockUpdateDTO("main", "red", 30, 3));
+
+        List<StockUpdateDTO> batch = subscription.drainPending().updates();
+        assertEquals(2, batch.size());
+        assertEquals(20, batch.get(0).cottonPart());
+        assertEquals(30, batch.get(1).cottonPart());
+        assertEquals(1, subscription.getDropped());
+    }
+
+    @DisplayName("Буфер подписчика: после освобождения пустого буфера повторная отправка не нужна")
+    @Test
+    void subscriptionReleaseWithoutPendingUpdates() {
+        StockSubscription subscription = new StockSubscription(new SseEmitter(), Set.of("red"), 2);
+        subscription.offer(new StockUpdateDTO("main", "red", 10, 1));
+        subscription.drainPending();
+
+        assertFalse(subscription.releaseAndCheckPending());
+        assertTrue(subscription.offer(new StockUpdateDTO("main", "red", 10, 2)));
+    }
+
+    @DisplayName("Зависшая отправка: должна обнаруживаться по истечении таймаута и сбрасываться по окончании")
+    @Test
+    void subscriptionDetectStalledSend() {
+        StockSubscription subscription = new StockSubscription(new SseEmitter(), Set.of("red"), 2);
+
+        subscription.beginSend(1_000);
+        assertFalse(subscription.isSendStalled(3_000, 5_000));
+        assertTrue(subscription.isSendStalled(7_000, 5_000));
+
+        subscription.endSend();
+        assertFalse(subscription.isSendStalled(7_000, 5_000));
+    }
+
+    @DisplayName("Очистка склада: должна отбросить накопленные изменения и предшествовать последующим")
+    @Test
+    void subscriptionClearDropPendingUpdates() {
+        StockSubscription subscription = new StockSubscription(new SseEmitter(), Set.of("red"), 4);
+        subscription.offer(new StockUpdateDTO("main", "red", 10, 1));
+
+        assertFalse(subscription.offerClear());
+        subscription.offer(new StockUpdateDTO("main", "red", 20, 2));
+
+        StockSubscription.PendingBatch batch = subscription.drainPending();
+        assertTrue(batch.cleared());
+        assertEquals(List.of(new StockUpdateDTO("main", "red", 20, 2)), batch.updates());
+        assertFalse(subscription.drainPending().cleared());
+    }
+
+    @DisplayName("Очистка склада без накопленных изменений: должна запланировать отправку сброса")
+    @Test
+    void subscriptionReleaseWithPendingClear() {
+        StockSubscription subscription = new StockSubscription(new SseEmitter(), Set.of("red"), 2);
+        subscription.offer(new StockUpdateDTO("main", "red", 10, 1));
+        subscription.drainPending();
+        subscription.offerClear();
+
+        assertTrue(subscription.releaseAndCheckPending());
+    }
+
+    @DisplayName("Событие очистки склада: должно обрабатываться без ошибок при наличии подписчиков")
+    @Test
+    void onStockClearedWithSubscribersDoNotThrow() {
+        stockStreamServiceTest.subscribe(List.of("red"));
+
+        assertDoesNotThrow(() -> stockStreamServiceTest.onStockCleared(
+                new StockClearedEvent(List.of(), Instant.now())));
+        assertEquals(1, stockStreamServiceTest.getSubscriberCount());
+    }
+}
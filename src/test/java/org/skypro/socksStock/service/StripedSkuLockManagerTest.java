@@ -0,0 +1,81 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedSkuLockManagerTest {
+
+    private final StripedSkuLockManager lockManagerTest = new StripedSkuLockManager(4);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("Без транзакции: блокировка должна освобождаться сразу после действия")
+    @Test
+    void withLockOutsideTransactionReleaseAfterAction() throws Exception {
+        assertEquals("done", lockManagerTest.withLock("red", 80, () -> "done"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(1, executor.submit(() -> lockManagerTest.withLock("red", 80, () -> 1))
+                    .get(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("В транзакции: блокировка должна удерживаться до завершения транзакции")
+    @Test
+    void withLockInsideTransactionHoldUntilCompletion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        lockManagerTest.withLock("red", 80, () -> null);
+
+        AtomicBoolean acquired = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread competitor = new Thread(() -> {
+            lockManagerTest.withLock("red", 80, () -> {
+                acquired.set(true);
+                return null;
+            });
+            finished.countDown();
+        });
+        competitor.start();
+
+        assertFalse(finished.await(200, TimeUnit.MILLISECONDS));
+        assertFalse(acquired.get());
+
+        List<TransactionSynchronization> synchronizations = new ArrayList<>(
+                TransactionSynchronizationManager.getSynchronizations());
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertTrue(acquired.get());
+    }
+
+    @DisplayName("Исключение в действии: блокировка должна быть освобождена")
+    @Test
+    void withLockWhenActionThrowsReleaseLock() {
+        assertThrows(IllegalStateException.class, () -> lockManagerTest.withLock("red", 80, () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        assertEquals(2, lockManagerTest.withLock("red", 80, () -> 2));
+    }
+}
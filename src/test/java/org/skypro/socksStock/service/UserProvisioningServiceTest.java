@@ -0,0 +1,157 @@
+package org.skypro.socksStock.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.EmptyDataException;
+import org.skypro.socksStock.model.dto.request.BulkRoleChangeRequest;
+import org.skypro.socksStock.model.dto.request.BulkUserRequest;
+import org.skypro.socksStock.model.dto.response.BulkUserResult;
+import org.skypro.socksStock.model.dto.response.BulkUserStatus;
+import org.skypro.socksStock.model.dto.response.UserResponseDTO;
+import org.skypro.socksStock.model.entity.AppUser;
+import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
+import org.skypro.socksStock.repository.JdbcUserBatchRepository;
+import org.skypro.socksStock.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProvisioningServiceTest {
+
+    @Mock
+    private UserRepository userRepositoryMock;
+
+    @Mock
+    private JdbcUserBatchRepository batchRepositoryMock;
+
+    @Mock
+    private PasswordEncoder passwordEncoderMock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    private UserProvisioningService userProvisioningServiceTest;
+
+    @BeforeEach
+    void setUp() {
+        userProvisioningServiceTest = new UserProvisioningService(userRepositoryMock, batchRepositoryMock,
+                passwordEncoderMock, TransactionOperations.withoutTransaction(), eventPublisherMock, 2, 2, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userProvisioningServiceTest.shutdown();
+    }
+
+    @Test
+    @DisplayName("Массовое создание: должен вставить новые строки пакетами и вернуть результат по каждой строке")
+    void createUsersInsertInBatchesAndReportPerRow() {
+        when(passwordEncoderMock.encode(anyString())).thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+        when(userRepositoryMock.findUsersByUsernameIn(anyList()))
+                .thenReturn(List.of(new UserResponseDTO(1L, "taken", Role.ROLE_USER)))
+                .thenReturn(List.of());
+
+        List<BulkUserResult> results = userProvisioningServiceTest.createUsers(List.of(
+                new BulkUserRequest("store1", "p1", null),
+                new BulkUserRequest("taken", "p2", null),
+                new BulkUserRequest("store1", "p3", null),
+                new BulkUserRequest("", "p4", null),
+                new BulkUserRequest("store2", "p5", Role.ROLE_ADMIN)));
+
+        assertEquals(List.of(BulkUserStatus.CREATED, BulkUserStatus.CONFLICT, BulkUserStatus.CONFLICT,
+                BulkUserStatus.INVALID, BulkUserStatus.CREATED), results.stream().map(BulkUserResult::status).toList());
+        verify(batchRepositoryMock).insertAll(argThat(users -> users.size() == 1
+                && users.get(0).getUsername().equals("store1") && users.get(0).getPassword().equals("hash-p1")
+                && users.get(0).getRole() == Role.ROLE_USER));
+        verify(batchRepositoryMock).insertAll(argThat(users -> users.size() == 1
+                && users.get(0).getUsername().equals("store2") && users.get(0).getRole() == Role.ROLE_ADMIN));
+        verify(passwordEncoderMock, never()).encode("p2");
+    }
+
+    @Test
+    @DisplayName("Параллельная регистрация: при конфликте пакета строки должны вставляться по одной")
+    void createUsersRetryRowByRowOnDuplicateKey() {
+        when(passwordEncoderMock.encode(anyString())).thenReturn("hash");
+        when(userRepositoryMock.findUsersByUsernameIn(anyList())).thenReturn(List.of());
+        when(batchRepositoryMock.insertAll(anyList())).thenAnswer(invocation -> {
+            List<AppUser> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getUsername().equals("raced"))) {
+                throw new DuplicateKeyException("duplicate username");
+            }
+            return new int[users.size()];
+        });
+
+        List<BulkUserResult> results = userProvisioningServiceTest.createUsers(List.of(
+                new BulkUserRequest("store1", "p1", null),
+                new BulkUserRequest("raced", "p2", null)));
+
+        assertEquals(BulkUserStatus.CREATED, results.get(0).status());
+        assertEquals(BulkUserStatus.CONFLICT, results.get(1).status());
+        verify(batchRepositoryMock, times(3)).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Массовое создание сверх лимита строк: должен выбросить EmptyDataException")
+    void createUsersWithTooManyRowsThrowException() {
+        List<BulkUserRequest> requests = List.of(new BulkUserRequest("a", "p", null),
+                new BulkUserRequest("b", "p", null), new BulkUserRequest("c", "p", null),
+                new BulkUserRequest("d", "p", null), new BulkUserRequest("e", "p", null),
+                new BulkUserRequest("f", "p", null));
+
+        assertThrows(EmptyDataException.class, () -> userProvisioningServiceTest.createUsers(requests));
+        verifyNoInteractions(batchRepositoryMock, passwordEncoderMock);
+    }
+
+    @Test
+    @DisplayName("Массовая смена ролей: должен обновить только измененные роли и опубликовать события")
+    void updateRolesUpdateChangedUsersAndPublishEvents() {
+        when(userRepositoryMock.findUsersByUsernameIn(anyList())).thenReturn(List.of(
+                new UserResponseDTO(1L, "store1", Role.ROLE_USER),
+                new UserResponseDTO(2L, "store2", Role.ROLE_ADMIN)));
+        when(batchRepositoryMock.updateRoles(anyList())).thenReturn(new int[]{1});
+
+        List<BulkUserResult> results = userProvisioningServiceTest.updateRoles(List.of(
+                new BulkRoleChangeRequest("store1", Role.ROLE_ADMIN),
+                new BulkRoleChangeRequest("store2", Role.ROLE_ADMIN),
+                new BulkRoleChangeRequest("missing", Role.ROLE_USER),
+                new BulkRoleChangeRequest("store3", null)));
+
+        assertEquals(List.of(BulkUserStatus.UPDATED, BulkUserStatus.UNCHANGED, BulkUserStatus.NOT_FOUND,
+                BulkUserStatus.INVALID), results.stream().map(BulkUserResult::status).toList());
+        verify(batchRepositoryMock).updateRoles(argThat(users -> users.size() == 1
+                && users.get(0).getId() == 1L && users.get(0).getRole() == Role.ROLE_ADMIN));
+        verify(eventPublisherMock).publishEvent(new UserCredentialsChangedEvent(1L, "store1"));
+        verifyNoMoreInteractions(eventPublisherMock);
+    }
+
+    @Test
+    @DisplayName("Размер пакета: должен ограничиваться 1000 строками")
+    void batchSizeCapAtMaximum() {
+        assertEquals(1000, UserProvisioningService.batchSize(5000));
+        assertEquals(1, UserProvisioningService.batchSize(0));
+        assertEquals(500, UserProvisioningService.batchSize(500));
+    }
+
+    @Test
+    @DisplayName("Пул хеширования: должен занимать не больше половины процессоров")
+    void hashingThreadsCapAtHalfOfProcessors() {
+        assertEquals(4, UserProvisioningService.hashingThreads(0, 8));
+        assertEquals(4, UserProvisioningService.hashingThreads(16, 8));
+        assertEquals(2, UserProvisioningService.hashingThreads(2, 8));
+        assertEquals(1, UserProvisioningService.hashingThreads(0, 1));
+    }
+}
@@ -7,14 +7,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.skypro.socksStock.exception.EmptyDataException;
 import org.skypro.socksStock.exception.UserNotFoundException;
+import org.skypro.socksStock.model.dto.response.UserPage;
+import org.skypro.socksStock.model.dto.response.UserResponseDTO;
 import org.skypro.socksStock.model.entity.AppUser;
 import org.skypro.socksStock.model.entity.Role;
+import org.skypro.socksStock.model.event.UserCredentialsChangedEvent;
 import org.skypro.socksStock.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,11 +32,16 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepositoryMock;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
     @InjectMocks
     private UserService userServiceTest;
 
     private AppUser testUser;
     private AppUser testAdmin;
+    private UserResponseDTO testUserDto;
+    private UserResponseDTO testAdminDto;
 
     @BeforeEach
     void setUp() {
@@ -45,54 +54,44 @@ class UserServiceTest {
         testAdmin.setId(2L);
         testAdmin.setUsername("testAdmin");
         testAdmin.setRole(Role.ROLE_ADMIN);
-    }
 
-    @DisplayName("Должен вернуть всех пользователей при вызове getAllUsers")
-    @Test
-    void getAllUsersReturnAllUsers() {
-        List<AppUser> expectedUsers = Arrays.asList(testUser, testAdmin);
-        when(userRepositoryMock.findAll()).thenReturn(expectedUsers);
-
-        List<AppUser> actualUsers = userServiceTest.getAllUsers();
-        assertNotNull(actualUsers);
-        assertEquals(2, actualUsers.size());
-        assertEquals(expectedUsers, actualUsers);
-        verify(userRepositoryMock, times(1)).findAll();
+        testUserDto = new UserResponseDTO(1L, "testUser", Role.ROLE_USER);
+        testAdminDto = new UserResponseDTO(2L, "testAdmin", Role.ROLE_ADMIN);
     }
 
     @DisplayName("Должен вернуть пользователя при поиске по существующему ID")
     @Test
     void getUserByIdWithExistingIdReturnUser() {
-        when(userRepositoryMock.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepositoryMock.findUserById(1L)).thenReturn(Optional.of(testUserDto));
 
-        Optional<AppUser> result = userServiceTest.getUserById(1L);
+        Optional<UserResponseDTO> result = userServiceTest.getUserById(1L);
 
         assertTrue(result.isPresent());
-        assertEquals(testUser, result.get());
-        verify(userRepositoryMock, times(1)).findById(1L);
+        assertEquals(testUserDto, result.get());
+        verify(userRepositoryMock, times(1)).findUserById(1L);
     }
 
     @DisplayName("Должен вернуть пустой Optional при поиске по несуществующему ID")
     @Test
     void getUserByIdWithNonExistingIdReturnEmpty() {
-        when(userRepositoryMock.findById(999L)).thenReturn(Optional.empty());
+        when(userRepositoryMock.findUserById(999L)).thenReturn(Optional.empty());
 
-        Optional<AppUser> result = userServiceTest.getUserById(999L);
+        Optional<UserResponseDTO> result = userServiceTest.getUserById(999L);
 
         assertFalse(result.isPresent());
-        verify(userRepositoryMock, times(1)).findById(999L);
+        verify(userRepositoryMock, times(1)).findUserById(999L);
     }
 
     @DisplayName("Должен вернуть пользователя при поиске по имени пользователя")
     @Test
     void getUserByUsernameWithExistingUsernameReturnUser() {
-        when(userRepositoryMock.findByUsername("testUser")).thenReturn(Optional.of(testUser));
+        when(userRepositoryMock.findUserByUsername("testUser")).thenReturn(Optional.of(testUserDto));
 
-        Optional<AppUser> result = userServiceTest.getUserByUsername("testUser");
+        Optional<UserResponseDTO> result = userServiceTest.getUserByUsername("testUser");
 
         assertTrue(result.isPresent());
-        assertEquals(testUser, result.get());
-        verify(userRepositoryMock, times(1)).findByUsername("testUser");
+        assertEquals(testUserDto, result.get());
+        verify(userRepositoryMock, times(1)).findUserByUsername("testUser");
     }
 
     @DisplayName("Должен обновить роль пользователя при валидных данных")
@@ -111,6 +110,18 @@ class UserServiceTest {
         verify(userRepositoryMock, times(1)).save(testUser);
     }
 
+    @DisplayName("Смена роли: должна увеличить версию токенов и сообщить об изменении пользователя")
+    @Test
+    void updateUserRoleIncrementTokenVersionAndPublishEvent() {
+        when(userRepositoryMock.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepositoryMock.save(any(AppUser.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppUser updatedUser = userServiceTest.updateUserRole(1L, Role.ROLE_ADMIN);
+
+        assertEquals(1, updatedUser.getTokenVersion());
+        verify(eventPublisherMock).publishEvent(new UserCredentialsChangedEvent(1L, "testUser"));
+    }
+
     @DisplayName("Должен выбросить UserNotFoundException при обновлении роли несуществующего пользователя")
     @Test
     void updateUserRoleWithNonExistingUserThrowException() {
@@ -136,6 +147,7 @@ class UserServiceTest {
 
         verify(userRepositoryMock, times(1)).existsById(1L);
         verify(userRepositoryMock, times(1)).deleteById(1L);
+        verify(eventPublisherMock).publishEvent(new UserCredentialsChangedEvent(1L, null));
     }
 
     @DisplayName("Должен выбросить UserNotFoundException при удалении несуществующего пользователя")
@@ -175,39 +187,48 @@ class UserServiceTest {
         verify(userRepositoryMock, times(1)).existsByUsername("nonexisting");
     }
 
-    @DisplayName("Должен вернуть пользователей с указанной ролью")
+    @DisplayName("Должен корректно обрабатывать null значения в параметрах")
     @Test
-    void getUsersByRoleReturnUsersWithSpecifiedRole() {
-        List<AppUser> expectedUsers = Collections.singletonList(testAdmin);
-        when(userRepositoryMock.findByRole(Role.ROLE_ADMIN)).thenReturn(expectedUsers);
+    void methodCallsWithNullParametersHandleGracefully() {
+        assertDoesNotThrow(() -> userServiceTest.getUserByUsername(null));
+        assertDoesNotThrow(() -> userServiceTest.userExists(null));
 
-        List<AppUser> actualUsers = userServiceTest.getUsersByRole(Role.ROLE_ADMIN);
+        verify(userRepositoryMock, times(1)).findUserByUsername(null);
+        verify(userRepositoryMock, times(1)).existsByUsername(null);
+    }
+
+    @Test
+    @DisplayName("Страница пользователей: должна запросить на одну запись больше и вернуть курсор следующей страницы")
+    void getUsersPageReturnNextCursorWhenMoreUsersExist() {
+        when(userRepositoryMock.findUsersAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(testUserDto, testAdminDto));
 
-        assertNotNull(actualUsers);
-        assertEquals(1, actualUsers.size());
-        assertEquals(Role.ROLE_ADMIN, actualUsers.get(0).getRole());
-        verify(userRepositoryMock, times(1)).findByRole(Role.ROLE_ADMIN);
+        UserPage page = userServiceTest.getUsersPage(null, null, 1);
+
+        assertEquals(List.of(testUserDto), page.users());
+        assertEquals(1L, page.nextCursor());
     }
 
-    @DisplayName("Должен вернуть пустой список при отсутствии пользователей с указанной ролью")
     @Test
-    void getUsersByRoleWithNoUsersReturnEmptyList() {
-        when(userRepositoryMock.findByRole(Role.ROLE_USER)).thenReturn(List.of());
+    @DisplayName("Последняя страница пользователей по роли: курсор следующей страницы должен отсутствовать")
+    void getUsersPageByRoleReturnNoCursorOnLastPage() {
+        when(userRepositoryMock.findUsersByRoleAfter(Role.ROLE_ADMIN, 1L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(testAdminDto));
 
-        List<AppUser> actualUsers = userServiceTest.getUsersByRole(Role.ROLE_USER);
+        UserPage page = userServiceTest.getUsersPage(1L, Role.ROLE_ADMIN, 10);
 
-        assertNotNull(actualUsers);
-        assertTrue(actualUsers.isEmpty());
-        verify(userRepositoryMock, times(1)).findByRole(Role.ROLE_USER);
+        assertEquals(List.of(testAdminDto), page.users());
+        assertNull(page.nextCursor());
+        verify(userRepositoryMock, never()).findUsersAfter(any(), any());
     }
 
-    @DisplayName("Должен корректно обрабатывать null значения в параметрах")
     @Test
-    void methodCallsWithNullParametersHandleGracefully() {
-        assertDoesNotThrow(() -> userServiceTest.getUserByUsername(null));
-        assertDoesNotThrow(() -> userServiceTest.userExists(null));
+    @DisplayName("Страница пользователей с недопустимым размером: должен выбросить EmptyDataException")
+    void getUsersPageWithInvalidLimitThrowException() {
+        EmptyDataException exception =
+                assertThrows(EmptyDataException.class, () -> userServiceTest.getUsersPage(null, null, 1001));
 
-        verify(userRepositoryMock, times(1)).findByUsername(null);
-        verify(userRepositoryMock, times(1)).existsByUsername(null);
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(userRepositoryMock);
     }
-}
\ No newline at end of file
+}